@@ -0,0 +1,93 @@
+package org.feuyeux.resilience.batch;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.decorators.Decorators;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.feuyeux.resilience.batch.MicroBatcherProperties.InstanceProperties;
+
+/**
+ * Time per call of a burst of single-key calls against a backend with a 1ms round trip, behind a circuit breaker and
+ * a bulkhead of 10 concurrent calls. A batch size of 1 sends every call on its own; larger batches pay the round trip
+ * and the decorators once per batch, so the time per call falls with the batch size until the burst no longer fills
+ * a batch and the rest is spent waiting for {@code maxDelay}.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5)
+@Measurement(iterations = 10)
+@Fork(1)
+@OperationsPerInvocation(MicroBatcherBenchmark.BURST)
+@State(Scope.Benchmark)
+public class MicroBatcherBenchmark {
+
+    static final int BURST = 1000;
+    private static final String NAME = "benchmark";
+    private static final long ROUND_TRIP_NANOS = TimeUnit.MILLISECONDS.toNanos(1);
+    private static final String RESULT = "Hello World from backend";
+
+    @Param({"1", "8", "32", "128"})
+    private int maxBatchSize;
+
+    @Param({"100", "1000"})
+    private int maxDelayMicros;
+
+    private ExecutorService virtualThreadExecutor;
+    private ScheduledExecutorService scheduler;
+    private MicroBatcher<Integer, String> microBatcher;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        virtualThreadExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        InstanceProperties instance = new InstanceProperties();
+        instance.setMaxBatchSize(maxBatchSize);
+        instance.setMaxDelay(Duration.ofNanos(TimeUnit.MICROSECONDS.toNanos(maxDelayMicros)));
+        MicroBatcherProperties properties = new MicroBatcherProperties();
+        properties.setInstances(Map.of(NAME, instance));
+        CircuitBreaker circuitBreaker = CircuitBreaker.ofDefaults(NAME);
+        Bulkhead bulkhead = Bulkhead.of(NAME, BulkheadConfig.custom()
+                .maxConcurrentCalls(10)
+                .maxWaitDuration(Duration.ofSeconds(10))
+                .build());
+        microBatcher = new MicroBatcherRegistry(properties, virtualThreadExecutor, scheduler, new SimpleMeterRegistry())
+                .microBatcher(NAME, (List<Integer> keys) -> Decorators.ofSupplier(() -> backend(keys))
+                        .withCircuitBreaker(circuitBreaker)
+                        .withBulkhead(bulkhead)
+                        .get());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        virtualThreadExecutor.shutdownNow();
+        scheduler.shutdownNow();
+    }
+
+    @Benchmark
+    public void burst() {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[BURST];
+        for (int i = 0; i < BURST; i++) {
+            futures[i] = microBatcher.submit(i);
+        }
+        CompletableFuture.allOf(futures).join();
+    }
+
+    private static List<String> backend(List<Integer> keys) {
+        LockSupport.parkNanos(ROUND_TRIP_NANOS);
+        return Collections.nCopies(keys.size(), RESULT);
+    }
+}
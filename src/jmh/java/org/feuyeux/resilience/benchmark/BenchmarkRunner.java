@@ -0,0 +1,45 @@
+package org.feuyeux.resilience.benchmark;
+
+import org.openjdk.jmh.profile.GCProfiler;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.CommandLineOptionException;
+import org.openjdk.jmh.runner.options.CommandLineOptions;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Arrays;
+
+/**
+ * Runs the selected benchmarks once per thread count (1, 4 and all cores unless -t is given, which also takes a list
+ * such as -t 1,2,4,8) with the gc profiler attached, so every report carries ns/op next to gc.alloc.rate.norm.
+ */
+public class BenchmarkRunner {
+
+    public static void main(String[] args) throws RunnerException, CommandLineOptionException {
+        int[] listed = null;
+        for (int i = 0; i < args.length - 1; i++) {
+            if ("-t".equals(args[i]) && args[i + 1].contains(",")) {
+                listed = Arrays.stream(args[i + 1].split(",")).mapToInt(Integer::parseInt).toArray();
+                args[i + 1] = String.valueOf(listed[0]);
+            }
+        }
+        CommandLineOptions cmd = new CommandLineOptions(args);
+        int[] threads = listed != null ? listed
+                : cmd.getThreads().hasValue() ? new int[]{cmd.getThreads().get()}
+                : threadCounts();
+        for (int t : threads) {
+            Options options = new OptionsBuilder()
+                    .parent(cmd)
+                    .threads(t)
+                    .addProfiler(GCProfiler.class)
+                    .build();
+            new Runner(options).run();
+        }
+    }
+
+    private static int[] threadCounts() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        return Arrays.stream(new int[]{1, 4, cores}).distinct().toArray();
+    }
+}
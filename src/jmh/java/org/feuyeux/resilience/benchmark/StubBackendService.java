@@ -0,0 +1,62 @@
+package org.feuyeux.resilience.benchmark;
+
+import org.feuyeux.resilience.exception.BusinessException;
+import org.feuyeux.resilience.service.BackendService;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * Zero-latency backend, whatever a benchmark measures on top of it is decorator overhead.
+ */
+public class StubBackendService implements BackendService {
+
+    private static final String RESULT = "Hello World from stub";
+    private static final CompletableFuture<String> COMPLETED = CompletableFuture.completedFuture(RESULT);
+
+    @Override
+    public String failure() {
+        throw new BusinessException("stub failure");
+    }
+
+    @Override
+    public String failureWithFallback() {
+        return RESULT;
+    }
+
+    @Override
+    public String success() {
+        return RESULT;
+    }
+
+    @Override
+    public List<String> successBatch(List<String> keys) {
+        return Collections.nCopies(keys.size(), RESULT);
+    }
+
+    @Override
+    public String successException() {
+        throw new BusinessException("stub client failure");
+    }
+
+    @Override
+    public String ignoreException() {
+        throw new BusinessException("stub ignored failure");
+    }
+
+    @Override
+    public CompletableFuture<String> futureSuccess() {
+        return COMPLETED;
+    }
+
+    @Override
+    public CompletableFuture<String> futureFailure() {
+        return CompletableFuture.failedFuture(new BusinessException("stub future failure"));
+    }
+
+    @Override
+    public CompletableFuture<String> futureTimeout() {
+        return COMPLETED;
+    }
+}
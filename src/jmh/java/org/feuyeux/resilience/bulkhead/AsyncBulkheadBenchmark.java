@@ -0,0 +1,80 @@
+package org.feuyeux.resilience.bulkhead;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadConfig;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.feuyeux.resilience.saturation.SaturationProperties;
+import org.feuyeux.resilience.saturation.SaturationTelemetry;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.feuyeux.resilience.bulkhead.AsyncBulkheadProperties.InstanceProperties;
+
+/**
+ * Time to complete a burst of blocking 10ms calls submitted at once. The thread-pool bulkhead is capped at 200
+ * platform threads with a queue large enough to accept the burst, the virtual bulkhead admits the whole burst.
+ */
+@BenchmarkMode(Mode.SingleShotTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@Fork(1)
+@State(Scope.Benchmark)
+public class AsyncBulkheadBenchmark {
+
+    private static final String NAME = "benchmark";
+    private static final long BACKEND_LATENCY_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    @Param({"1000", "10000"})
+    private int concurrentRequests;
+
+    @Param({"THREADPOOL", "VIRTUAL"})
+    private AsyncBulkheadProperties.Mode mode;
+
+    private ExecutorService virtualThreadExecutor;
+    private AsyncBulkhead asyncBulkhead;
+
+    @Setup(Level.Trial)
+    public void setup() {
+        virtualThreadExecutor = Executors.newVirtualThreadPerTaskExecutor();
+        InstanceProperties instance = new InstanceProperties();
+        instance.setMode(mode);
+        instance.setMaxConcurrentCalls(concurrentRequests);
+        AsyncBulkheadProperties properties = new AsyncBulkheadProperties();
+        properties.setInstances(Map.of(NAME, instance));
+        ThreadPoolBulkheadRegistry threadPoolBulkheadRegistry = ThreadPoolBulkheadRegistry.of(ThreadPoolBulkheadConfig.custom()
+                .coreThreadPoolSize(200)
+                .maxThreadPoolSize(200)
+                .queueCapacity(concurrentRequests)
+                .build());
+        asyncBulkhead = new AsyncBulkheadRegistry(threadPoolBulkheadRegistry, BulkheadRegistry.ofDefaults(),
+                virtualThreadExecutor, properties, new SaturationTelemetry(new SaturationProperties(),
+                new SimpleMeterRegistry())).asyncBulkhead(NAME);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        virtualThreadExecutor.shutdownNow();
+    }
+
+    @Benchmark
+    public void burst() {
+        CompletableFuture<?>[] futures = new CompletableFuture<?>[concurrentRequests];
+        for (int i = 0; i < concurrentRequests; i++) {
+            futures[i] = asyncBulkhead.executeSupplier(AsyncBulkheadBenchmark::blockingBackend).toCompletableFuture();
+        }
+        CompletableFuture.allOf(futures).join();
+    }
+
+    private static String blockingBackend() {
+        LockSupport.parkNanos(BACKEND_LATENCY_NANOS);
+        return "Hello World from backend";
+    }
+}
@@ -0,0 +1,59 @@
+package org.feuyeux.resilience.circuitbreaker;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import org.openjdk.jmh.annotations.*;
+
+import java.io.IOException;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of recording a call in a CLOSED circuit breaker under contention: the synchronized window of resilience4j
+ * against the {@link StripedCircuitBreaker}. One call in ten fails, which keeps the circuit closed.
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="StripedCircuitBreakerBenchmark -t 1,2,4,8,16,32,64"
+ * </pre>
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class StripedCircuitBreakerBenchmark {
+
+    private static final IOException FAILURE = new IOException("BAM!");
+
+    @Param({"stateMachine", "striped"})
+    private String implementation;
+
+    private CircuitBreaker circuitBreaker;
+
+    @State(Scope.Thread)
+    public static class Calls {
+        int count;
+    }
+
+    @Setup
+    public void setup() {
+        CircuitBreaker stateMachine = CircuitBreaker.of("benchmark", CircuitBreakerConfig.custom()
+                .slidingWindowType(CircuitBreakerConfig.SlidingWindowType.COUNT_BASED)
+                .slidingWindowSize(100)
+                .failureRateThreshold(50)
+                .build());
+        circuitBreaker = "striped".equals(implementation)
+                ? new StripedCircuitBreaker(stateMachine, Runtime.getRuntime().availableProcessors())
+                : stateMachine;
+    }
+
+    @Benchmark
+    public boolean record(Calls calls) {
+        boolean permitted = circuitBreaker.tryAcquirePermission();
+        if (++calls.count % 10 == 0) {
+            circuitBreaker.onError(1_000_000, TimeUnit.NANOSECONDS, FAILURE);
+        } else {
+            circuitBreaker.onSuccess(1_000_000, TimeUnit.NANOSECONDS);
+        }
+        return permitted;
+    }
+}
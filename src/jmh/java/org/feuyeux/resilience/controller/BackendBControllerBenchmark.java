@@ -0,0 +1,130 @@
+package org.feuyeux.resilience.controller;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadConfig;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.feuyeux.resilience.admission.AdmissionQueueProperties;
+import org.feuyeux.resilience.admission.AdmissionQueueRegistry;
+import org.feuyeux.resilience.admission.Priority;
+import org.feuyeux.resilience.batch.MicroBatcherProperties;
+import org.feuyeux.resilience.batch.MicroBatcherRegistry;
+import org.feuyeux.resilience.benchmark.StubBackendService;
+import org.feuyeux.resilience.bulkhead.AsyncBulkheadProperties;
+import org.feuyeux.resilience.bulkhead.AsyncBulkheadRegistry;
+import org.feuyeux.resilience.cache.ResultCacheProperties;
+import org.feuyeux.resilience.cache.ResultCacheRegistry;
+import org.feuyeux.resilience.deadline.Deadline;
+import org.feuyeux.resilience.deadline.DeadlineRegistry;
+import org.feuyeux.resilience.hedge.HedgeProperties;
+import org.feuyeux.resilience.hedge.HedgeRegistry;
+import org.feuyeux.resilience.saturation.SaturationProperties;
+import org.feuyeux.resilience.saturation.SaturationTelemetry;
+import org.feuyeux.resilience.service.BackendService;
+import org.feuyeux.resilience.singleflight.SingleFlightRegistry;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Per-call overhead of each decorator chain of {@link BackendBController} over a zero-latency backend. Limits are
+ * raised far above what the benchmark threads can reach, so no call is ever rejected and only the happy path is
+ * measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BackendBControllerBenchmark {
+
+    private BackendService backend;
+    private BackendBController controller;
+    private ScheduledExecutorService scheduler;
+
+    @Setup
+    public void setup() {
+        int cores = Runtime.getRuntime().availableProcessors();
+        backend = new StubBackendService();
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(10_000)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        SaturationTelemetry saturationTelemetry = new SaturationTelemetry(new SaturationProperties(),
+                new SimpleMeterRegistry());
+        controller = new BackendBController(
+                backend,
+                CircuitBreakerRegistry.ofDefaults(),
+                new AsyncBulkheadRegistry(
+                        ThreadPoolBulkheadRegistry.of(ThreadPoolBulkheadConfig.custom()
+                                .coreThreadPoolSize(cores)
+                                .maxThreadPoolSize(cores)
+                                .queueCapacity(10_000)
+                                .build()),
+                        BulkheadRegistry.ofDefaults(),
+                        Runnable::run,
+                        new AsyncBulkheadProperties(),
+                        saturationTelemetry),
+                RetryRegistry.ofDefaults(),
+                RateLimiterRegistry.of(RateLimiterConfig.custom()
+                        .limitForPeriod(Integer.MAX_VALUE)
+                        .limitRefreshPeriod(Duration.ofSeconds(1))
+                        .build()),
+                TimeLimiterRegistry.ofDefaults(),
+                new SingleFlightRegistry(new SimpleMeterRegistry()),
+                new ResultCacheRegistry(new ResultCacheProperties(), new SimpleMeterRegistry()),
+                new HedgeRegistry(new HedgeProperties(), new SimpleMeterRegistry()),
+                new AdmissionQueueRegistry(new AdmissionQueueProperties(), bulkheadRegistry, new SimpleMeterRegistry(),
+                        saturationTelemetry),
+                new MicroBatcherRegistry(new MicroBatcherProperties(), Runnable::run, scheduler, new SimpleMeterRegistry()),
+                new DeadlineRegistry(new SimpleMeterRegistry()),
+                saturationTelemetry);
+    }
+
+    @TearDown
+    public void tearDown() {
+        controller.destroy();
+        scheduler.shutdownNow();
+    }
+
+    @Benchmark
+    public String raw() {
+        return backend.success();
+    }
+
+    @Benchmark
+    public String execute() {
+        return controller.execute(Priority.INTERACTIVE, Deadline.NONE, backend::success);
+    }
+
+    @Benchmark
+    public String executeWithBulkHead() {
+        return controller.executeWithBulkHead(Priority.INTERACTIVE, Deadline.NONE, backend::success);
+    }
+
+    @Benchmark
+    public String executeRateLimiter() {
+        return controller.executeRateLimiter(Deadline.NONE, backend::success);
+    }
+
+    @Benchmark
+    public String executeAsync() {
+        return controller.executeAsync(Deadline.NONE, backend::success).join();
+    }
+
+    @Benchmark
+    public String executeAsyncWithFallback() {
+        return controller.executeAsyncWithFallback(Deadline.NONE, backend::success).join();
+    }
+}
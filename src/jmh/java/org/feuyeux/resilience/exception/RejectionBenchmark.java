@@ -0,0 +1,180 @@
+package org.feuyeux.resilience.exception;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.decorators.Decorators;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.github.resilience4j.ratelimiter.RequestNotPermitted;
+import org.feuyeux.resilience.benchmark.StubBackendService;
+import org.feuyeux.resilience.bulkhead.AsyncBulkhead;
+import org.feuyeux.resilience.deadline.Deadline;
+import org.feuyeux.resilience.pipeline.AsyncPipeline;
+import org.feuyeux.resilience.pipeline.Pipeline;
+import org.feuyeux.resilience.service.BackendService;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * Throughput and allocation per call of calls rejected by an open circuit breaker, a full bulkhead and an exhausted
+ * rate limiter, each handled by a fallback. {@code Decorators} chains create a rejection per call, with a stack trace
+ * unless {@code stackTrace=stackless} turns it off in the config; the pipelines share one per component once it is
+ * off. A failed remote call is thrown as a {@link HttpServerErrorException}, or stackless as a
+ * {@link RemoteServerErrorException}.
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="RejectionBenchmark -t 1"
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class RejectionBenchmark {
+
+    private static final List<Class<? extends Throwable>> FALLBACK_EXCEPTIONS =
+            List.of(CallNotPermittedException.class, BulkheadFullException.class);
+
+    @Param({"writable", "stackless"})
+    private String stackTrace;
+
+    private BackendService backend;
+    private CircuitBreaker circuitBreaker;
+    private Bulkhead bulkhead;
+    private RateLimiter rateLimiter;
+    private Pipeline circuitBreakerPipeline;
+    private Pipeline rateLimiterPipeline;
+    private AsyncPipeline asyncFallbackPipeline;
+
+    @Setup
+    public void setup() {
+        boolean writable = "writable".equals(stackTrace);
+        backend = new StubBackendService();
+        circuitBreaker = CircuitBreaker.of("benchmark", CircuitBreakerConfig.custom()
+                .writableStackTraceEnabled(writable)
+                .build());
+        circuitBreaker.transitionToForcedOpenState();
+        bulkhead = Bulkhead.of("benchmark", BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ZERO)
+                .writableStackTraceEnabled(writable)
+                .build());
+        bulkhead.acquirePermission();
+        rateLimiter = RateLimiter.of("benchmark", RateLimiterConfig.custom()
+                .limitForPeriod(1)
+                .limitRefreshPeriod(Duration.ofHours(1))
+                .timeoutDuration(Duration.ZERO)
+                .writableStackTraceEnabled(writable)
+                .build());
+        rateLimiter.acquirePermission();
+        circuitBreakerPipeline = Pipeline.builder()
+                .withCircuitBreaker(circuitBreaker)
+                .build();
+        rateLimiterPipeline = Pipeline.builder()
+                .withRateLimiter(rateLimiter)
+                .build();
+        AsyncBulkhead asyncBulkhead = new AsyncBulkhead() {
+            @Override
+            public String getName() {
+                return "benchmark";
+            }
+
+            @Override
+            public <T> CompletionStage<T> executeSupplier(Supplier<T> supplier) {
+                return CompletableFuture.completedFuture(supplier.get());
+            }
+        };
+        asyncFallbackPipeline = AsyncPipeline.builder(asyncBulkhead)
+                .withCircuitBreaker(circuitBreaker)
+                .withFallback(FALLBACK_EXCEPTIONS, Throwable::getMessage)
+                .build();
+    }
+
+    @Benchmark
+    public String circuitBreakerPerCall() {
+        try {
+            return Decorators.ofSupplier(backend::success)
+                    .withCircuitBreaker(circuitBreaker)
+                    .get();
+        } catch (CallNotPermittedException e) {
+            return e.getMessage();
+        }
+    }
+
+    @Benchmark
+    public String circuitBreakerCompiled() {
+        try {
+            return circuitBreakerPipeline.execute(Deadline.NONE, backend::success);
+        } catch (CallNotPermittedException e) {
+            return e.getMessage();
+        }
+    }
+
+    @Benchmark
+    public String bulkheadPerCall() {
+        try {
+            return Decorators.ofSupplier(backend::success)
+                    .withBulkhead(bulkhead)
+                    .get();
+        } catch (BulkheadFullException e) {
+            return e.getMessage();
+        }
+    }
+
+    @Benchmark
+    public String rateLimiterPerCall() {
+        try {
+            return Decorators.ofSupplier(backend::success)
+                    .withRateLimiter(rateLimiter)
+                    .get();
+        } catch (RequestNotPermitted e) {
+            return e.getMessage();
+        }
+    }
+
+    @Benchmark
+    public String rateLimiterCompiled() {
+        try {
+            return rateLimiterPipeline.execute(Deadline.NONE, backend::success);
+        } catch (RequestNotPermitted e) {
+            return e.getMessage();
+        }
+    }
+
+    @Benchmark
+    public String asyncWithFallbackPerCall() {
+        return Decorators.ofCompletionStage(() -> CompletableFuture.completedFuture(backend.success()))
+                .withCircuitBreaker(circuitBreaker)
+                .withFallback(FALLBACK_EXCEPTIONS, Throwable::getMessage)
+                .get().toCompletableFuture().join();
+    }
+
+    @Benchmark
+    public String asyncWithFallbackCompiled() {
+        return asyncFallbackPipeline.<String>execute(Deadline.NONE, backend::success).join();
+    }
+
+    @Benchmark
+    public String remoteFailure() {
+        try {
+            throw "writable".equals(stackTrace)
+                    ? new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR, "This is a remote exception")
+                    : new RemoteServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR, "This is a remote exception");
+        } catch (HttpServerErrorException e) {
+            return e.getStatusText();
+        }
+    }
+}
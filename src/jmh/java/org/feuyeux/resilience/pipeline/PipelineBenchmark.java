@@ -0,0 +1,191 @@
+package org.feuyeux.resilience.pipeline;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.decorators.Decorators;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.feuyeux.resilience.admission.AdmissionQueue;
+import org.feuyeux.resilience.admission.AdmissionQueueProperties;
+import org.feuyeux.resilience.admission.AdmissionQueueRegistry;
+import org.feuyeux.resilience.admission.Priority;
+import org.feuyeux.resilience.benchmark.StubBackendService;
+import org.feuyeux.resilience.bulkhead.AsyncBulkhead;
+import org.feuyeux.resilience.deadline.Deadline;
+import org.feuyeux.resilience.deadline.DeadlineGuard;
+import org.feuyeux.resilience.saturation.SaturationProperties;
+import org.feuyeux.resilience.saturation.SaturationTelemetry;
+import org.feuyeux.resilience.service.BackendService;
+import org.openjdk.jmh.annotations.*;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.function.Supplier;
+
+/**
+ * Throughput and allocation per call of the decorator chains of {@code BackendBController}, built for every call with
+ * {@code Decorators} as the controller used to, against the same chains compiled once into a {@link Pipeline} or
+ * {@link AsyncPipeline}. The async bulkhead runs the supplier on the calling thread and limits are out of reach, so
+ * only the decorators are measured; {@code deadline=bounded} adds the per-attempt deadline checks.
+ * <pre>
+ * mvn -Pjmh test-compile exec:exec -Djmh.args="PipelineBenchmark -t 1"
+ * </pre>
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class PipelineBenchmark {
+
+    private static final List<Class<? extends Throwable>> FALLBACK_EXCEPTIONS =
+            List.of(TimeoutException.class, CallNotPermittedException.class, BulkheadFullException.class);
+
+    @Param({"none", "bounded"})
+    private String deadline;
+
+    private Deadline callDeadline;
+    private BackendService backend;
+    private ScheduledExecutorService scheduler;
+    private CircuitBreaker circuitBreaker;
+    private AdmissionQueue admissionQueue;
+    private Retry retry;
+    private RateLimiter rateLimiter;
+    private TimeLimiter timeLimiter;
+    private AsyncBulkhead asyncBulkhead;
+    private DeadlineGuard deadlineGuard;
+    private Pipeline executePipeline;
+    private Pipeline rateLimiterPipeline;
+    private AsyncPipeline asyncPipeline;
+    private AsyncPipeline asyncFallbackPipeline;
+
+    @Setup
+    public void setup() {
+        callDeadline = "bounded".equals(deadline) ? Deadline.after(Duration.ofHours(1)) : Deadline.NONE;
+        backend = new StubBackendService();
+        scheduler = Executors.newSingleThreadScheduledExecutor();
+        circuitBreaker = CircuitBreaker.ofDefaults("benchmark");
+        BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(10_000)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        SaturationTelemetry saturationTelemetry = new SaturationTelemetry(new SaturationProperties(),
+                new SimpleMeterRegistry());
+        admissionQueue = new AdmissionQueueRegistry(new AdmissionQueueProperties(), bulkheadRegistry,
+                new SimpleMeterRegistry(), saturationTelemetry).admissionQueue("benchmark");
+        retry = Retry.ofDefaults("benchmark");
+        rateLimiter = RateLimiter.of("benchmark", RateLimiterConfig.custom()
+                .limitForPeriod(Integer.MAX_VALUE)
+                .limitRefreshPeriod(Duration.ofSeconds(1))
+                .build());
+        timeLimiter = TimeLimiter.ofDefaults("benchmark");
+        asyncBulkhead = new AsyncBulkhead() {
+            @Override
+            public String getName() {
+                return "benchmark";
+            }
+
+            @Override
+            public <T> CompletionStage<T> executeSupplier(Supplier<T> supplier) {
+                return CompletableFuture.completedFuture(supplier.get());
+            }
+        };
+        deadlineGuard = new DeadlineGuard("benchmark");
+        executePipeline = Pipeline.builder()
+                .withCircuitBreaker(circuitBreaker)
+                .withAdmissionQueue(admissionQueue)
+                .withRetry(retry, deadlineGuard)
+                .build();
+        rateLimiterPipeline = Pipeline.builder()
+                .withRateLimiter(rateLimiter)
+                .withDeadline(deadlineGuard)
+                .build();
+        asyncPipeline = AsyncPipeline.builder(asyncBulkhead)
+                .withTimeLimiter(timeLimiter, deadlineGuard, scheduler)
+                .withCircuitBreaker(circuitBreaker)
+                .withRetry(retry, deadlineGuard, scheduler)
+                .build();
+        asyncFallbackPipeline = AsyncPipeline.builder(asyncBulkhead)
+                .withTimeLimiter(timeLimiter, deadlineGuard, scheduler)
+                .withCircuitBreaker(circuitBreaker)
+                .withFallback(FALLBACK_EXCEPTIONS, Throwable::toString)
+                .build();
+    }
+
+    @TearDown
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Benchmark
+    public String executePerCall() {
+        Supplier<String> attempt = Decorators.ofSupplier(backend::success)
+                .withCircuitBreaker(circuitBreaker)
+                .withBulkhead(admissionQueue.bulkhead(Priority.INTERACTIVE, callDeadline))
+                .decorate();
+        return Decorators.ofSupplier(deadlineGuard.decorateRetryAttempt(callDeadline, retry, attempt))
+                .withRetry(retry)
+                .get();
+    }
+
+    @Benchmark
+    public String executeCompiled() {
+        return executePipeline.execute(Priority.INTERACTIVE, callDeadline, backend::success);
+    }
+
+    @Benchmark
+    public String executeRateLimiterPerCall() {
+        deadlineGuard.check(callDeadline);
+        return Decorators.ofSupplier(backend::success)
+                .withRateLimiter(rateLimiter)
+                .get();
+    }
+
+    @Benchmark
+    public String executeRateLimiterCompiled() {
+        return rateLimiterPipeline.execute(callDeadline, backend::success);
+    }
+
+    @Benchmark
+    public String executeAsyncPerCall() {
+        Supplier<CompletionStage<String>> attempt = Decorators.ofCompletionStage(deadlineGuard.decorateTimeLimiter(
+                        callDeadline, timeLimiter, scheduler, () -> asyncBulkhead.executeSupplier(backend::success)))
+                .withCircuitBreaker(circuitBreaker)
+                .decorate();
+        return Decorators.ofCompletionStage(deadlineGuard.decorateRetryAttemptStage(callDeadline, retry, attempt))
+                .withRetry(retry, scheduler)
+                .get().toCompletableFuture().join();
+    }
+
+    @Benchmark
+    public String executeAsyncCompiled() {
+        return asyncPipeline.execute(callDeadline, backend::success).join();
+    }
+
+    @Benchmark
+    public String executeAsyncWithFallbackPerCall() {
+        return Decorators.ofCompletionStage(deadlineGuard.decorateTimeLimiter(
+                        callDeadline, timeLimiter, scheduler, () -> asyncBulkhead.executeSupplier(backend::success)))
+                .withCircuitBreaker(circuitBreaker)
+                .withFallback(FALLBACK_EXCEPTIONS, Throwable::toString)
+                .get().toCompletableFuture().join();
+    }
+
+    @Benchmark
+    public String executeAsyncWithFallbackCompiled() {
+        return asyncFallbackPipeline.<String>execute(callDeadline, backend::success).join();
+    }
+}
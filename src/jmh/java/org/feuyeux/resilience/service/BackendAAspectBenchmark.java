@@ -0,0 +1,53 @@
+package org.feuyeux.resilience.service;
+
+import org.feuyeux.resilience.HelloResilienceApplication;
+import org.openjdk.jmh.annotations.*;
+import org.springframework.aop.framework.Advised;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Cost of the annotation path: the Spring AOP proxy of {@link BackendABackendService} runs the Retry, CircuitBreaker
+ * and Bulkhead aspects around {@code success()}, compared with calling the unproxied target directly.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(1)
+@State(Scope.Benchmark)
+public class BackendAAspectBenchmark {
+
+    private ConfigurableApplicationContext context;
+    private BackendService proxied;
+    private BackendService target;
+
+    @Setup
+    public void setup() throws Exception {
+        context = new SpringApplicationBuilder(HelloResilienceApplication.class)
+                .web(WebApplicationType.NONE)
+                .properties("resilience4j.bulkhead.instances.backendA.maxConcurrentCalls=10000",
+                        "logging.level.org.feuyeux.resilience=warn")
+                .run();
+        proxied = context.getBean("backendAService", BackendService.class);
+        target = (BackendService) ((Advised) proxied).getTargetSource().getTarget();
+    }
+
+    @TearDown
+    public void tearDown() {
+        context.close();
+    }
+
+    @Benchmark
+    public String raw() {
+        return target.success();
+    }
+
+    @Benchmark
+    public String annotated() {
+        return proxied.success();
+    }
+}
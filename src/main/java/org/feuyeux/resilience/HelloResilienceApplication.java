@@ -8,6 +8,7 @@ import io.github.resilience4j.core.registry.EntryReplacedEvent;
 import io.github.resilience4j.core.registry.RegistryEventConsumer;
 import io.github.resilience4j.retry.Retry;
 import lombok.extern.slf4j.Slf4j;
+import org.feuyeux.resilience.events.EventStream;
 import org.springframework.boot.SpringApplication;
 import org.springframework.boot.autoconfigure.SpringBootApplication;
 import org.springframework.context.annotation.Bean;
@@ -34,6 +35,11 @@ public class HelloResilienceApplication {
                 req -> permanentRedirect(URI.create("/actuator")).build());
     }
 
+    @Bean
+    RouterFunction<ServerResponse> resilienceEvents(EventStream eventStream) {
+        return route(GET("/events"), eventStream::handle);
+    }
+
     @Bean
     public CircuitBreakerConfigCustomizer testCustomizer() {
         return CircuitBreakerConfigCustomizer.of(BACKEND_A, builder -> builder.slidingWindowSize(100));
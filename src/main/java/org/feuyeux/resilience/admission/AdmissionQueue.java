@@ -0,0 +1,391 @@
+package org.feuyeux.resilience.admission;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import org.feuyeux.resilience.bulkhead.AdaptiveBulkhead;
+import org.feuyeux.resilience.deadline.Deadline;
+import org.feuyeux.resilience.deadline.DeadlineExceededException;
+import org.feuyeux.resilience.exception.Rejections;
+
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * Bounded priority queue in front of a semaphore {@link Bulkhead}. A call finding no free permit waits in the queue of
+ * its {@link Priority}, and only the oldest call of the highest priority waiting may take the next free permit. It
+ * takes the permit on its own thread, so bulkheads sampling latency per thread keep working.
+ * <p>
+ * Queue delay is bounded CoDel-style instead of by a fixed wait: while the queue has been empty within the last
+ * {@code interval} a call may wait up to {@code interval}; once the queue has stood for longer, the allowed wait drops
+ * to {@code targetDelay} for {@link Priority#BATCH}, twice that for {@link Priority#INTERACTIVE} and four times for
+ * {@link Priority#CRITICAL}, so the lowest priority is shed first. A call arriving at a full queue evicts the newest
+ * call of a lower priority, or is rejected itself when there is none. A call with a {@link Deadline} waits no longer
+ * than the deadline, and is rejected with a {@link DeadlineExceededException} once it has passed.
+ * <p>
+ * {@link #bulkhead(Priority)} wraps the queue as a {@link Bulkhead} for the resilience4j decorators. The wrapped
+ * bulkhead must not wait for permits itself ({@code maxWaitDuration: 0}), the waiting happens here.
+ */
+public class AdmissionQueue {
+
+    // the head waiter also polls this often, for permits released by callers that bypass the queue
+    private static final long POLL_NANOS = TimeUnit.MILLISECONDS.toNanos(10);
+
+    private final Bulkhead delegate;
+    private final int capacity;
+    private final long targetDelayNanos;
+    private final long intervalNanos;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Map<Priority, ArrayDeque<Waiter>> queues = new EnumMap<>(Priority.class);
+    private final Map<Priority, Bulkhead> bulkheads = new EnumMap<>(Priority.class);
+    private final Map<Priority, Counts> counts = new EnumMap<>(Priority.class);
+    private final SojournListener sojournListener;
+    private final Supplier<BulkheadFullException> bulkheadFull;
+    private volatile int size;
+    private long lastEmptyNanos = System.nanoTime();
+
+    public AdmissionQueue(Bulkhead delegate, int capacity, Duration targetDelay, Duration interval,
+                          SojournListener sojournListener) {
+        if (!delegate.getBulkheadConfig().getMaxWaitDuration().isZero()) {
+            throw new IllegalArgumentException("Bulkhead '" + delegate.getName()
+                    + "' must not wait for permits (maxWaitDuration: 0) behind an admission queue");
+        }
+        this.delegate = delegate;
+        this.capacity = capacity;
+        this.targetDelayNanos = targetDelay.toNanos();
+        this.intervalNanos = interval.toNanos();
+        this.sojournListener = sojournListener;
+        this.bulkheadFull = Rejections.bulkheadFull(delegate);
+        for (Priority priority : Priority.values()) {
+            queues.put(priority, new ArrayDeque<>());
+            bulkheads.put(priority, new PriorityBulkhead(priority, Deadline.NONE));
+            counts.put(priority, new Counts());
+        }
+    }
+
+    public String getName() {
+        return delegate.getName();
+    }
+
+    /**
+     * @return the bulkhead through which calls of {@code priority} pass the queue
+     */
+    public Bulkhead bulkhead(Priority priority) {
+        return bulkheads.get(priority);
+    }
+
+    /**
+     * @return the bulkhead through which calls of {@code priority} pass the queue, waiting until {@code deadline} at
+     * the latest
+     */
+    public Bulkhead bulkhead(Priority priority, Deadline deadline) {
+        return deadline.isBounded() ? new PriorityBulkhead(priority, deadline) : bulkheads.get(priority);
+    }
+
+    /**
+     * Passes the queue without going through {@link #bulkhead(Priority, Deadline)}, keeping the time of the permit so
+     * that an {@link AdaptiveBulkhead} behind the queue samples the latency of the call.
+     *
+     * @return the time of the permit, the token to hand to {@link #onComplete(long)}
+     */
+    public long acquire(Priority priority, Deadline deadline) {
+        if (!tryAcquire(priority, deadline)) {
+            if (deadline.isExpired()) {
+                throw new DeadlineExceededException(getName());
+            }
+            throw bulkheadFull.get();
+        }
+        return System.nanoTime();
+    }
+
+    /**
+     * @param permittedNanos the time {@link #acquire(Priority, Deadline)} returned with the permit
+     */
+    public void onComplete(long permittedNanos) {
+        if (delegate instanceof AdaptiveBulkhead adaptive) {
+            adaptive.onComplete(permittedNanos);
+        } else {
+            delegate.onComplete();
+        }
+        released();
+    }
+
+    public int getQueueDepth(Priority priority) {
+        lock.lock();
+        try {
+            return queues.get(priority).size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    public long getRejectedCalls(Priority priority, Rejection reason) {
+        return counts.get(priority).rejected.get(reason).sum();
+    }
+
+    private boolean tryAcquire(Priority priority, Deadline deadline) {
+        Waiter waiter;
+        lock.lock();
+        try {
+            long now = System.nanoTime();
+            if (size == 0) {
+                lastEmptyNanos = now;
+                if (tryAcquireDelegate()) {
+                    sojournListener.onAdmitted(priority, 0);
+                    return true;
+                }
+            }
+            if (size >= capacity && !evictBelow(priority)) {
+                reject(priority, Rejection.FULL);
+                return false;
+            }
+            waiter = new Waiter(priority, now, lock.newCondition());
+            queues.get(priority).addLast(waiter);
+            size++;
+            return await(waiter, deadline);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean await(Waiter waiter, Deadline deadline) {
+        try {
+            while (waiter.state == State.WAITING) {
+                if (head() == waiter && tryAcquireDelegate()) {
+                    remove(waiter);
+                    waiter.state = State.ADMITTED;
+                    // there may be more than one free permit
+                    signalHead();
+                    break;
+                }
+                long now = System.nanoTime();
+                long remaining = allowedDelayNanos(waiter.priority, now) - (now - waiter.enqueuedNanos);
+                long untilDeadline = deadline.remainingNanos();
+                if (remaining <= 0 || untilDeadline <= 0) {
+                    remove(waiter);
+                    waiter.state = State.SHED;
+                    reject(waiter.priority, untilDeadline <= 0 ? Rejection.DEADLINE : Rejection.SHED);
+                    signalHead();
+                    break;
+                }
+                remaining = Math.min(remaining, untilDeadline);
+                waiter.condition.awaitNanos(Math.min(remaining, POLL_NANOS));
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            if (waiter.state == State.WAITING) {
+                remove(waiter);
+                signalHead();
+            }
+            return false;
+        }
+        if (waiter.state == State.ADMITTED) {
+            sojournListener.onAdmitted(waiter.priority, System.nanoTime() - waiter.enqueuedNanos);
+            return true;
+        }
+        return false;
+    }
+
+    private long allowedDelayNanos(Priority priority, long now) {
+        if (now - lastEmptyNanos <= intervalNanos) {
+            return intervalNanos;
+        }
+        return Math.min(intervalNanos, targetDelayNanos << (Priority.BATCH.ordinal() - priority.ordinal()));
+    }
+
+    /**
+     * @return the oldest waiter of the highest priority, the only one that may take a permit. Called with the lock
+     * held.
+     */
+    private Waiter head() {
+        for (Priority priority : Priority.values()) {
+            Waiter waiter = queues.get(priority).peekFirst();
+            if (waiter != null) {
+                return waiter;
+            }
+        }
+        return null;
+    }
+
+    private void signalHead() {
+        Waiter head = head();
+        if (head != null) {
+            head.condition.signal();
+        }
+    }
+
+    /**
+     * Checks for a free permit first, so the waiters polling do not count as calls rejected by the bulkhead.
+     */
+    private boolean tryAcquireDelegate() {
+        return delegate.getMetrics().getAvailableConcurrentCalls() > 0 && delegate.tryAcquirePermission();
+    }
+
+    private boolean evictBelow(Priority priority) {
+        for (int i = Priority.values().length - 1; i > priority.ordinal(); i--) {
+            Priority lower = Priority.values()[i];
+            Waiter victim = queues.get(lower).pollLast();
+            if (victim != null) {
+                size--;
+                victim.state = State.EVICTED;
+                victim.condition.signal();
+                reject(lower, Rejection.EVICTED);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private void remove(Waiter waiter) {
+        if (queues.get(waiter.priority).remove(waiter)) {
+            size--;
+            if (size == 0) {
+                lastEmptyNanos = System.nanoTime();
+            }
+        }
+    }
+
+    private void reject(Priority priority, Rejection reason) {
+        counts.get(priority).rejected.get(reason).increment();
+    }
+
+    private void released() {
+        if (size > 0) {
+            lock.lock();
+            try {
+                signalHead();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    public enum Rejection {
+        /**
+         * the queue was full of calls of the same or a higher priority
+         */
+        FULL,
+        /**
+         * made room for a call of a higher priority
+         */
+        EVICTED,
+        /**
+         * waited longer than the queue delay allowed
+         */
+        SHED,
+        /**
+         * the deadline of the call passed while it waited
+         */
+        DEADLINE
+    }
+
+    /**
+     * Told the time every admitted call spent in the queue.
+     */
+    @FunctionalInterface
+    public interface SojournListener {
+        void onAdmitted(Priority priority, long sojournNanos);
+    }
+
+    private enum State {
+        WAITING, ADMITTED, EVICTED, SHED
+    }
+
+    private static final class Waiter {
+
+        private final Priority priority;
+        private final long enqueuedNanos;
+        private final Condition condition;
+        private State state = State.WAITING;
+
+        private Waiter(Priority priority, long enqueuedNanos, Condition condition) {
+            this.priority = priority;
+            this.enqueuedNanos = enqueuedNanos;
+            this.condition = condition;
+        }
+    }
+
+    private static final class Counts {
+
+        private final Map<Rejection, LongAdder> rejected = new EnumMap<>(Rejection.class);
+
+        private Counts() {
+            for (Rejection reason : Rejection.values()) {
+                rejected.put(reason, new LongAdder());
+            }
+        }
+    }
+
+    /**
+     * The wrapped bulkhead as seen by the calls of one priority.
+     */
+    private final class PriorityBulkhead implements Bulkhead {
+
+        private final Priority priority;
+        private final Deadline deadline;
+
+        private PriorityBulkhead(Priority priority, Deadline deadline) {
+            this.priority = priority;
+            this.deadline = deadline;
+        }
+
+        @Override
+        public void changeConfig(BulkheadConfig newConfig) {
+            delegate.changeConfig(newConfig);
+        }
+
+        @Override
+        public boolean tryAcquirePermission() {
+            return tryAcquire(priority, deadline);
+        }
+
+        @Override
+        public void acquirePermission() {
+            acquire(priority, deadline);
+        }
+
+        @Override
+        public void releasePermission() {
+            delegate.releasePermission();
+            released();
+        }
+
+        @Override
+        public void onComplete() {
+            delegate.onComplete();
+            released();
+        }
+
+        @Override
+        public String getName() {
+            return delegate.getName();
+        }
+
+        @Override
+        public BulkheadConfig getBulkheadConfig() {
+            return delegate.getBulkheadConfig();
+        }
+
+        @Override
+        public Metrics getMetrics() {
+            return delegate.getMetrics();
+        }
+
+        @Override
+        public Map<String, String> getTags() {
+            return delegate.getTags();
+        }
+
+        @Override
+        public EventPublisher getEventPublisher() {
+            return delegate.getEventPublisher();
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package org.feuyeux.resilience.admission;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.feuyeux.resilience.saturation.SaturationTelemetry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(AdmissionQueueProperties.class)
+public class AdmissionQueueConfiguration {
+
+    @Bean
+    public AdmissionQueueRegistry admissionQueueRegistry(AdmissionQueueProperties properties,
+                                                         BulkheadRegistry bulkheadRegistry,
+                                                         MeterRegistry meterRegistry,
+                                                         SaturationTelemetry saturationTelemetry) {
+        return new AdmissionQueueRegistry(properties, bulkheadRegistry, meterRegistry, saturationTelemetry);
+    }
+}
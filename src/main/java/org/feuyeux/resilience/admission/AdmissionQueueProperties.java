@@ -0,0 +1,31 @@
+package org.feuyeux.resilience.admission;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "resilience.admission")
+public class AdmissionQueueProperties {
+
+    private Map<String, InstanceProperties> instances = new HashMap<>();
+
+    @Data
+    public static class InstanceProperties {
+        /**
+         * calls that may wait for a permit
+         */
+        private int capacity = 100;
+        /**
+         * allowed wait of the lowest priority once the queue stands
+         */
+        private Duration targetDelay = Duration.ofMillis(100);
+        /**
+         * allowed wait while the queue drains, and how long it must stay non-empty to count as standing
+         */
+        private Duration interval = Duration.ofMillis(500);
+    }
+}
@@ -0,0 +1,84 @@
+package org.feuyeux.resilience.admission;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.feuyeux.resilience.saturation.SaturationTelemetry;
+import org.feuyeux.resilience.saturation.SaturationTimers;
+import org.feuyeux.resilience.saturation.SaturationTimers.Kind;
+
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.feuyeux.resilience.admission.AdmissionQueueProperties.InstanceProperties;
+
+/**
+ * Creates one {@link AdmissionQueue} per bulkhead name and publishes its queue depth, sojourn times and rejections
+ * per priority. The sojourn is also the admission time of the saturation timers of the bulkhead, which never waits
+ * itself.
+ */
+public class AdmissionQueueRegistry {
+
+    private final AdmissionQueueProperties properties;
+    private final BulkheadRegistry bulkheadRegistry;
+    private final MeterRegistry meterRegistry;
+    private final SaturationTelemetry saturationTelemetry;
+    private final ConcurrentMap<String, AdmissionQueue> admissionQueues = new ConcurrentHashMap<>();
+
+    public AdmissionQueueRegistry(AdmissionQueueProperties properties, BulkheadRegistry bulkheadRegistry,
+                                  MeterRegistry meterRegistry, SaturationTelemetry saturationTelemetry) {
+        this.properties = properties;
+        this.bulkheadRegistry = bulkheadRegistry;
+        this.meterRegistry = meterRegistry;
+        this.saturationTelemetry = saturationTelemetry;
+    }
+
+    public AdmissionQueue admissionQueue(String name) {
+        return admissionQueues.computeIfAbsent(name, this::create);
+    }
+
+    private AdmissionQueue create(String name) {
+        InstanceProperties instance = properties.getInstances().getOrDefault(name, new InstanceProperties());
+        Map<Priority, Timer> sojournTimers = new EnumMap<>(Priority.class);
+        for (Priority priority : Priority.values()) {
+            sojournTimers.put(priority, Timer.builder("resilience.admission.sojourn")
+                    .description("The time admitted calls waited in the queue")
+                    .tag("name", name)
+                    .tag("priority", priority.name().toLowerCase())
+                    .publishPercentileHistogram()
+                    .register(meterRegistry));
+        }
+        SaturationTimers saturationTimers = saturationTelemetry.timers(name, Kind.SEMAPHORE);
+        AdmissionQueue admissionQueue = new AdmissionQueue(bulkheadRegistry.bulkhead(name), instance.getCapacity(),
+                instance.getTargetDelay(), instance.getInterval(), (priority, sojournNanos) -> {
+                    sojournTimers.get(priority).record(sojournNanos, TimeUnit.NANOSECONDS);
+                    if (saturationTimers != null) {
+                        saturationTimers.recordAdmission(sojournNanos);
+                    }
+                });
+        for (Priority priority : Priority.values()) {
+            String tag = priority.name().toLowerCase();
+            Gauge.builder("resilience.admission.queue.depth", admissionQueue, queue -> queue.getQueueDepth(priority))
+                    .description("The number of calls waiting in the queue")
+                    .tag("name", name)
+                    .tag("priority", tag)
+                    .register(meterRegistry);
+            for (AdmissionQueue.Rejection reason : AdmissionQueue.Rejection.values()) {
+                FunctionCounter.builder("resilience.admission.rejected", admissionQueue,
+                                queue -> queue.getRejectedCalls(priority, reason))
+                        .description("The number of calls rejected because the queue was full, to make room for a "
+                                + "higher priority, because they waited too long or past their deadline")
+                        .tag("name", name)
+                        .tag("priority", tag)
+                        .tag("reason", reason.name().toLowerCase())
+                        .register(meterRegistry);
+            }
+        }
+        return admissionQueue;
+    }
+}
@@ -0,0 +1,27 @@
+package org.feuyeux.resilience.admission;
+
+import java.util.Locale;
+
+/**
+ * Admission priority of a call, highest first.
+ */
+public enum Priority {
+    CRITICAL,
+    INTERACTIVE,
+    BATCH;
+
+    public static final String HEADER = "X-Priority";
+
+    /**
+     * @return the priority named by a header value, {@link #INTERACTIVE} for none or an unknown one
+     */
+    public static Priority of(String value) {
+        if (value != null) {
+            try {
+                return valueOf(value.trim().toUpperCase(Locale.ROOT));
+            } catch (IllegalArgumentException ignored) {
+            }
+        }
+        return INTERACTIVE;
+    }
+}
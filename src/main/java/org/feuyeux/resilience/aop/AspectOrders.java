@@ -0,0 +1,16 @@
+package org.feuyeux.resilience.aop;
+
+import org.springframework.core.Ordered;
+
+/**
+ * Orders of the keyed aspects, outside the Retry aspect (the outermost resilience4j aspect, at
+ * {@code LOWEST_PRECEDENCE - 5}): a cached result is served before single-flight coalesces the calls that miss it.
+ */
+public final class AspectOrders {
+
+    public static final int SINGLE_FLIGHT_ASPECT_ORDER = Ordered.LOWEST_PRECEDENCE - 6;
+    public static final int RESULT_CACHE_ASPECT_ORDER = SINGLE_FLIGHT_ASPECT_ORDER - 1;
+
+    private AspectOrders() {
+    }
+}
@@ -0,0 +1,49 @@
+package org.feuyeux.resilience.aop;
+
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.reflect.MethodSignature;
+
+import java.lang.reflect.Method;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+
+/**
+ * Join point plumbing shared by the keyed aspects, single-flight and the result cache: the call key, the
+ * {@link CompletionStage} proceed and rethrowing a checked exception unchanged.
+ */
+public final class Invocations {
+
+    private Invocations() {
+    }
+
+    public static Object key(ProceedingJoinPoint proceedingJoinPoint) {
+        return new CallKey(method(proceedingJoinPoint), Arrays.asList(proceedingJoinPoint.getArgs()));
+    }
+
+    public static Method method(ProceedingJoinPoint proceedingJoinPoint) {
+        return ((MethodSignature) proceedingJoinPoint.getSignature()).getMethod();
+    }
+
+    public static boolean returnsCompletionStage(Method method) {
+        return CompletionStage.class.isAssignableFrom(method.getReturnType());
+    }
+
+    @SuppressWarnings("unchecked")
+    public static CompletionStage<Object> proceedCompletionStage(ProceedingJoinPoint proceedingJoinPoint) {
+        try {
+            return (CompletionStage<Object>) proceedingJoinPoint.proceed();
+        } catch (Throwable throwable) {
+            throw new CompletionException(throwable);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public static <E extends Throwable> RuntimeException sneakyThrow(Throwable t) throws E {
+        throw (E) t;
+    }
+
+    private record CallKey(Method method, List<Object> args) {
+    }
+}
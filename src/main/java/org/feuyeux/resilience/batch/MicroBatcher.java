@@ -0,0 +1,155 @@
+package org.feuyeux.resilience.batch;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.IntConsumer;
+
+/**
+ * Collects single-key calls into one call of the batch function. A batch is sent once it holds {@code maxBatchSize}
+ * keys or {@code maxDelay} after its first key arrived, whichever comes first, and its results are handed back to the
+ * futures of the single calls by position. A failing batch fails every call in it.
+ * <p>
+ * Decorate the batch function, not the single calls, so a batch passes the circuit breaker and the bulkhead once.
+ * Batches run on the given executor, the scheduler only fires the delay timers.
+ */
+public class MicroBatcher<K, V> {
+
+    private final String name;
+    private final int maxBatchSize;
+    private final long maxDelayNanos;
+    private final Function<List<K>, List<V>> batchFunction;
+    private final Executor executor;
+    private final ScheduledExecutorService scheduler;
+    private final IntConsumer batchSizeListener;
+    private final ReentrantLock lock = new ReentrantLock();
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder batches = new LongAdder();
+    private Batch<K, V> pending;
+
+    public MicroBatcher(String name, int maxBatchSize, Duration maxDelay, Function<List<K>, List<V>> batchFunction,
+                        Executor executor, ScheduledExecutorService scheduler, IntConsumer batchSizeListener) {
+        if (maxBatchSize < 1) {
+            throw new IllegalArgumentException("maxBatchSize must be at least 1, was " + maxBatchSize);
+        }
+        this.name = name;
+        this.maxBatchSize = maxBatchSize;
+        this.maxDelayNanos = maxDelay.toNanos();
+        this.batchFunction = batchFunction;
+        this.executor = executor;
+        this.scheduler = scheduler;
+        this.batchSizeListener = batchSizeListener;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public CompletableFuture<V> submit(K key) {
+        calls.increment();
+        CompletableFuture<V> result = new CompletableFuture<>();
+        Batch<K, V> full = null;
+        lock.lock();
+        try {
+            Batch<K, V> batch = pending;
+            if (batch == null) {
+                batch = new Batch<>(Math.min(maxBatchSize, 64));
+                pending = batch;
+                if (maxBatchSize > 1) {
+                    Batch<K, V> timed = batch;
+                    batch.timer = scheduler.schedule(() -> flush(timed), maxDelayNanos, TimeUnit.NANOSECONDS);
+                }
+            }
+            batch.keys.add(key);
+            batch.results.add(result);
+            if (batch.keys.size() >= maxBatchSize) {
+                pending = null;
+                full = batch;
+            }
+        } finally {
+            lock.unlock();
+        }
+        if (full != null) {
+            if (full.timer != null) {
+                full.timer.cancel(false);
+            }
+            dispatch(full);
+        }
+        return result;
+    }
+
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    public long getBatches() {
+        return batches.sum();
+    }
+
+    private void flush(Batch<K, V> batch) {
+        lock.lock();
+        try {
+            if (pending != batch) {
+                // sent already for being full
+                return;
+            }
+            pending = null;
+        } finally {
+            lock.unlock();
+        }
+        dispatch(batch);
+    }
+
+    private void dispatch(Batch<K, V> batch) {
+        batches.increment();
+        batchSizeListener.accept(batch.keys.size());
+        try {
+            executor.execute(() -> run(batch));
+        } catch (RejectedExecutionException e) {
+            batch.fail(e);
+        }
+    }
+
+    private void run(Batch<K, V> batch) {
+        List<V> values;
+        try {
+            values = batchFunction.apply(batch.keys);
+        } catch (Throwable t) {
+            batch.fail(t);
+            return;
+        }
+        if (values == null || values.size() != batch.keys.size()) {
+            batch.fail(new IllegalStateException("Batch '" + name + "' returned "
+                    + (values == null ? "no" : values.size()) + " results for " + batch.keys.size() + " keys"));
+            return;
+        }
+        for (int i = 0; i < values.size(); i++) {
+            batch.results.get(i).complete(values.get(i));
+        }
+    }
+
+    private static final class Batch<K, V> {
+
+        private final List<K> keys;
+        private final List<CompletableFuture<V>> results;
+        private ScheduledFuture<?> timer;
+
+        private Batch(int capacity) {
+            this.keys = new ArrayList<>(capacity);
+            this.results = new ArrayList<>(capacity);
+        }
+
+        private void fail(Throwable t) {
+            results.forEach(result -> result.completeExceptionally(t));
+        }
+    }
+}
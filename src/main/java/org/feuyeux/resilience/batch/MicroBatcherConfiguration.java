@@ -0,0 +1,35 @@
+package org.feuyeux.resilience.batch;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+@Configuration
+@EnableConfigurationProperties(MicroBatcherProperties.class)
+public class MicroBatcherConfiguration {
+
+    /**
+     * Batches block on the bulkhead and the backend, so they run on virtual threads.
+     */
+    @Bean
+    public MicroBatcherRegistry microBatcherRegistry(MicroBatcherProperties properties,
+                                                     @Qualifier("virtualThreadExecutor") ExecutorService virtualThreadExecutor,
+                                                     @Qualifier("batchScheduler") ScheduledExecutorService batchScheduler,
+                                                     MeterRegistry meterRegistry) {
+        return new MicroBatcherRegistry(properties, virtualThreadExecutor, batchScheduler, meterRegistry);
+    }
+
+    /**
+     * Only fires the batch delay timers, the batches run elsewhere.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ScheduledExecutorService batchScheduler() {
+        return Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("batch-scheduler").daemon().factory());
+    }
+}
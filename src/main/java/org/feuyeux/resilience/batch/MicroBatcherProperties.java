@@ -0,0 +1,27 @@
+package org.feuyeux.resilience.batch;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "resilience.batch")
+public class MicroBatcherProperties {
+
+    private Map<String, InstanceProperties> instances = new HashMap<>();
+
+    @Data
+    public static class InstanceProperties {
+        /**
+         * keys after which a batch is sent without waiting for maxDelay
+         */
+        private int maxBatchSize = 32;
+        /**
+         * longest a key waits for others to join its batch
+         */
+        private Duration maxDelay = Duration.ofMillis(5);
+    }
+}
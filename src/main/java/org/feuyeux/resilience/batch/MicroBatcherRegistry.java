@@ -0,0 +1,62 @@
+package org.feuyeux.resilience.batch;
+
+import io.micrometer.core.instrument.DistributionSummary;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Function;
+
+import static org.feuyeux.resilience.batch.MicroBatcherProperties.InstanceProperties;
+
+/**
+ * Creates one {@link MicroBatcher} per name and publishes the calls, the batches and the batch sizes.
+ */
+public class MicroBatcherRegistry {
+
+    private final MicroBatcherProperties properties;
+    private final Executor executor;
+    private final ScheduledExecutorService scheduler;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, MicroBatcher<?, ?>> microBatchers = new ConcurrentHashMap<>();
+
+    public MicroBatcherRegistry(MicroBatcherProperties properties, Executor executor,
+                                ScheduledExecutorService scheduler, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.executor = executor;
+        this.scheduler = scheduler;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * @param batchFunction used by the batcher created on the first call for a name, ignored later on
+     */
+    @SuppressWarnings("unchecked")
+    public <K, V> MicroBatcher<K, V> microBatcher(String name, Function<List<K>, List<V>> batchFunction) {
+        return (MicroBatcher<K, V>) microBatchers.computeIfAbsent(name, key -> create(key, batchFunction));
+    }
+
+    private <K, V> MicroBatcher<K, V> create(String name, Function<List<K>, List<V>> batchFunction) {
+        InstanceProperties instance = properties.getInstances().getOrDefault(name, new InstanceProperties());
+        DistributionSummary batchSize = DistributionSummary.builder("resilience.batch.size")
+                .description("The number of calls sent in one batch")
+                .tag("name", name)
+                .publishPercentileHistogram()
+                .register(meterRegistry);
+        MicroBatcher<K, V> microBatcher = new MicroBatcher<>(name, instance.getMaxBatchSize(), instance.getMaxDelay(),
+                batchFunction, executor, scheduler, batchSize::record);
+        FunctionCounter.builder("resilience.batch.calls", microBatcher, MicroBatcher::getCalls)
+                .description("The number of single calls submitted")
+                .tag("name", name)
+                .register(meterRegistry);
+        FunctionCounter.builder("resilience.batch.batches", microBatcher, MicroBatcher::getBatches)
+                .description("The number of batches sent")
+                .tag("name", name)
+                .register(meterRegistry);
+        return microBatcher;
+    }
+}
@@ -0,0 +1,380 @@
+package org.feuyeux.resilience.bulkhead;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.event.*;
+import io.github.resilience4j.core.EventConsumer;
+import io.github.resilience4j.core.EventProcessor;
+import io.github.resilience4j.core.functions.CheckedSupplier;
+import org.feuyeux.resilience.exception.Rejections;
+import org.feuyeux.resilience.saturation.SaturationTimers;
+import org.springframework.lang.Nullable;
+
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * A {@link Bulkhead} whose concurrency limit is driven by a {@link LimitAlgorithm} instead of
+ * {@code maxConcurrentCalls}. It is registered in the {@link io.github.resilience4j.bulkhead.BulkheadRegistry} under
+ * the name of the bulkhead it replaces, so decorators and the {@code @Bulkhead} aspect use it unchanged.
+ * <p>
+ * Latency is measured from the permit to {@link #onComplete(long)}, which is handed the time {@link #acquire()} returned
+ * with the permit, so that calls completed on another thread are sampled as well. The {@code execute*} methods the
+ * {@code @Bulkhead} aspect calls, for completion stages too, pass it along; calls completed through
+ * {@link #onComplete()}, e.g. by a reactive operator, release their permit but are not sampled.
+ * <p>
+ * With {@link SaturationTimers}, the sampled latency is recorded as the execution time, and the wait for a permit as
+ * the admission time of every admitted call when {@code maxWaitDuration} lets calls wait here at all.
+ */
+public class AdaptiveBulkhead implements Bulkhead {
+
+    private final String name;
+    private final LimitAlgorithm algorithm;
+    private final int minLimit;
+    private final int maxLimit;
+    private final Map<String, String> tags;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger waiting = new AtomicInteger();
+    private final LongAdder rejected = new LongAdder();
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition permitReleased = lock.newCondition();
+    private final Object limitLock = new Object();
+    private final LimitMetrics metrics = new LimitMetrics();
+    private final AdaptiveBulkheadEventProcessor eventProcessor = new AdaptiveBulkheadEventProcessor();
+    private final Supplier<BulkheadFullException> bulkheadFull = Rejections.bulkheadFull(this);
+    private volatile BulkheadConfig config;
+    private volatile SaturationTimers saturationTimers;
+    private volatile int limit;
+    private double estimatedLimit;
+
+    /**
+     * @param minLimit the lowest limit a changed {@code maxConcurrentCalls} restarts from, as the algorithm's own
+     * @param maxLimit the highest limit a changed {@code maxConcurrentCalls} restarts from, as the algorithm's own
+     */
+    public AdaptiveBulkhead(String name, BulkheadConfig config, LimitAlgorithm algorithm, int initialLimit,
+                            int minLimit, int maxLimit, Map<String, String> tags) {
+        this.name = name;
+        this.config = config;
+        this.algorithm = algorithm;
+        this.minLimit = Math.max(1, minLimit);
+        this.maxLimit = Math.max(this.minLimit, maxLimit);
+        this.tags = tags;
+        this.estimatedLimit = initialLimit;
+        this.limit = initialLimit;
+    }
+
+    /**
+     * The wait duration and the exception settings are taken over. A changed maxConcurrentCalls restarts the limit
+     * from there, clamped to the bounds of the algorithm, and the algorithm moves it on from the next sample; calls in
+     * flight keep their permits.
+     */
+    @Override
+    public void changeConfig(BulkheadConfig newConfig) {
+        int previous = config.getMaxConcurrentCalls();
+        this.config = newConfig;
+        if (newConfig.getMaxConcurrentCalls() != previous) {
+            int updated = Math.max(minLimit, Math.min(maxLimit, newConfig.getMaxConcurrentCalls()));
+            synchronized (limitLock) {
+                estimatedLimit = updated;
+                limit = updated;
+            }
+            signalWaiting();
+        }
+    }
+
+    @Override
+    public boolean tryAcquirePermission() {
+        long waitNanos = config.getMaxWaitDuration().toNanos();
+        SaturationTimers timers = waitNanos > 0 ? saturationTimers : null;
+        long requestedNanos = timers != null ? System.nanoTime() : 0;
+        boolean permitted = tryEnter() || awaitEnter(waitNanos);
+        if (permitted) {
+            if (timers != null) {
+                timers.recordAdmission(System.nanoTime() - requestedNanos);
+            }
+        } else {
+            rejected.increment();
+        }
+        publishBulkheadEvent(() -> permitted ? new BulkheadOnCallPermittedEvent(name)
+                : new BulkheadOnCallRejectedEvent(name));
+        return permitted;
+    }
+
+    @Override
+    public void acquirePermission() {
+        acquire();
+    }
+
+    /**
+     * @return the time of the permit, the token to hand to {@link #onComplete(long)}
+     * @throws BulkheadFullException if no permit was free within {@code maxWaitDuration}
+     */
+    public long acquire() {
+        if (!tryAcquirePermission()) {
+            throw bulkheadFull.get();
+        }
+        return System.nanoTime();
+    }
+
+    @Override
+    public void releasePermission() {
+        release();
+    }
+
+    /**
+     * Releases the permit without a latency sample, as the caller did not keep the time of its permit.
+     */
+    @Override
+    public void onComplete() {
+        release();
+        publishBulkheadEvent(() -> new BulkheadOnCallFinishedEvent(name));
+    }
+
+    /**
+     * Releases the permit of a call and samples its latency, on whichever thread the call completed.
+     *
+     * @param permittedNanos the time {@link #acquire()} returned with the permit
+     */
+    public void onComplete(long permittedNanos) {
+        long rttNanos = System.nanoTime() - permittedNanos;
+        sample(rttNanos);
+        SaturationTimers timers = saturationTimers;
+        if (timers != null) {
+            timers.recordExecution(rttNanos);
+        }
+        onComplete();
+    }
+
+    @Override
+    public <T> T executeSupplier(Supplier<T> supplier) {
+        long permittedNanos = acquire();
+        try {
+            return supplier.get();
+        } finally {
+            onComplete(permittedNanos);
+        }
+    }
+
+    @Override
+    public <T> T executeCallable(Callable<T> callable) throws Exception {
+        long permittedNanos = acquire();
+        try {
+            return callable.call();
+        } finally {
+            onComplete(permittedNanos);
+        }
+    }
+
+    @Override
+    public void executeRunnable(Runnable runnable) {
+        long permittedNanos = acquire();
+        try {
+            runnable.run();
+        } finally {
+            onComplete(permittedNanos);
+        }
+    }
+
+    @Override
+    public <T> T executeCheckedSupplier(CheckedSupplier<T> supplier) throws Throwable {
+        long permittedNanos = acquire();
+        try {
+            return supplier.get();
+        } finally {
+            onComplete(permittedNanos);
+        }
+    }
+
+    @Override
+    public <T> CompletionStage<T> executeCompletionStage(Supplier<CompletionStage<T>> supplier) {
+        long permittedNanos;
+        try {
+            permittedNanos = acquire();
+        } catch (BulkheadFullException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+        CompletionStage<T> stage;
+        try {
+            stage = supplier.get();
+        } catch (Throwable e) {
+            onComplete(permittedNanos);
+            return CompletableFuture.failedFuture(e);
+        }
+        CompletableFuture<T> promise = new CompletableFuture<>();
+        stage.whenComplete((result, throwable) -> {
+            onComplete(permittedNanos);
+            if (throwable != null) {
+                promise.completeExceptionally(throwable);
+            } else {
+                promise.complete(result);
+            }
+        });
+        return promise;
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public BulkheadConfig getBulkheadConfig() {
+        return config;
+    }
+
+    @Override
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public Map<String, String> getTags() {
+        return tags;
+    }
+
+    @Override
+    public EventPublisher getEventPublisher() {
+        return eventProcessor;
+    }
+
+    public int getLimit() {
+        return limit;
+    }
+
+    public int getInFlightCalls() {
+        return inFlight.get();
+    }
+
+    public long getRejectedCalls() {
+        return rejected.sum();
+    }
+
+    public void setSaturationTimers(@Nullable SaturationTimers saturationTimers) {
+        this.saturationTimers = saturationTimers;
+    }
+
+    private boolean tryEnter() {
+        int current;
+        do {
+            current = inFlight.get();
+            if (current >= limit) {
+                return false;
+            }
+        } while (!inFlight.compareAndSet(current, current + 1));
+        return true;
+    }
+
+    private boolean awaitEnter(long waitNanos) {
+        if (waitNanos <= 0) {
+            return false;
+        }
+        long deadline = System.nanoTime() + waitNanos;
+        waiting.incrementAndGet();
+        lock.lock();
+        try {
+            while (!tryEnter()) {
+                long remaining = deadline - System.nanoTime();
+                if (remaining <= 0) {
+                    return false;
+                }
+                permitReleased.awaitNanos(remaining);
+            }
+            return true;
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return false;
+        } finally {
+            lock.unlock();
+            waiting.decrementAndGet();
+        }
+    }
+
+    private void release() {
+        inFlight.decrementAndGet();
+        signalWaiting();
+    }
+
+    private void sample(long rttNanos) {
+        int previous;
+        int updated;
+        synchronized (limitLock) {
+            previous = limit;
+            estimatedLimit = algorithm.update(estimatedLimit, rttNanos, inFlight.get());
+            updated = Math.max(1, (int) estimatedLimit);
+            limit = updated;
+        }
+        if (updated > previous) {
+            signalWaiting();
+        }
+    }
+
+    private void signalWaiting() {
+        if (waiting.get() > 0) {
+            lock.lock();
+            try {
+                permitReleased.signalAll();
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    private void publishBulkheadEvent(Supplier<BulkheadEvent> eventSupplier) {
+        if (eventProcessor.hasConsumers()) {
+            eventProcessor.consumeEvent(eventSupplier.get());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("AdaptiveBulkhead '%s'", name);
+    }
+
+    private final class LimitMetrics implements Metrics {
+
+        @Override
+        public int getAvailableConcurrentCalls() {
+            return Math.max(0, limit - inFlight.get());
+        }
+
+        @Override
+        public int getMaxAllowedConcurrentCalls() {
+            return limit;
+        }
+    }
+
+    private static final class AdaptiveBulkheadEventProcessor extends EventProcessor<BulkheadEvent>
+            implements EventPublisher, EventConsumer<BulkheadEvent> {
+
+        @Override
+        public EventPublisher onCallPermitted(EventConsumer<BulkheadOnCallPermittedEvent> eventConsumer) {
+            registerConsumer(BulkheadOnCallPermittedEvent.class.getName(), eventConsumer);
+            return this;
+        }
+
+        @Override
+        public EventPublisher onCallRejected(EventConsumer<BulkheadOnCallRejectedEvent> eventConsumer) {
+            registerConsumer(BulkheadOnCallRejectedEvent.class.getName(), eventConsumer);
+            return this;
+        }
+
+        @Override
+        public EventPublisher onCallFinished(EventConsumer<BulkheadOnCallFinishedEvent> eventConsumer) {
+            registerConsumer(BulkheadOnCallFinishedEvent.class.getName(), eventConsumer);
+            return this;
+        }
+
+        @Override
+        public void consumeEvent(BulkheadEvent event) {
+            super.processEvent(event);
+        }
+    }
+}
@@ -0,0 +1,23 @@
+package org.feuyeux.resilience.bulkhead;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import org.feuyeux.resilience.saturation.SaturationTelemetry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(AdaptiveBulkheadProperties.class)
+public class AdaptiveBulkheadConfiguration {
+
+    @Bean
+    public static AdaptiveBulkheadInstaller adaptiveBulkheadInstaller(AdaptiveBulkheadProperties properties) {
+        return new AdaptiveBulkheadInstaller(properties);
+    }
+
+    @Bean
+    public AdaptiveBulkheadMetrics adaptiveBulkheadMetrics(BulkheadRegistry bulkheadRegistry,
+                                                           SaturationTelemetry saturationTelemetry) {
+        return new AdaptiveBulkheadMetrics(bulkheadRegistry, saturationTelemetry);
+    }
+}
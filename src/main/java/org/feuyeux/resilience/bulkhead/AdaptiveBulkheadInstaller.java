@@ -0,0 +1,49 @@
+package org.feuyeux.resilience.bulkhead;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import static org.feuyeux.resilience.bulkhead.AdaptiveBulkheadProperties.InstanceProperties;
+
+/**
+ * Replaces the configured bulkheads of the {@link BulkheadRegistry} with {@link AdaptiveBulkhead}s right after the
+ * registry is created, before any controller or aspect looks them up.
+ */
+@Slf4j
+public class AdaptiveBulkheadInstaller implements BeanPostProcessor {
+
+    private final AdaptiveBulkheadProperties properties;
+
+    public AdaptiveBulkheadInstaller(AdaptiveBulkheadProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof BulkheadRegistry bulkheadRegistry) {
+            properties.getInstances().forEach((name, instance) -> install(bulkheadRegistry, name, instance));
+        }
+        return bean;
+    }
+
+    private void install(BulkheadRegistry bulkheadRegistry, String name, InstanceProperties instance) {
+        Bulkhead fixed = bulkheadRegistry.bulkhead(name);
+        int initialLimit = instance.getInitialLimit() != null
+                ? instance.getInitialLimit() : fixed.getBulkheadConfig().getMaxConcurrentCalls();
+        AdaptiveBulkhead adaptive = new AdaptiveBulkhead(name, fixed.getBulkheadConfig(), algorithm(instance),
+                initialLimit, instance.getMinLimit(), instance.getMaxLimit(), fixed.getTags());
+        bulkheadRegistry.replace(name, adaptive);
+        log.info("AdaptiveBulkhead[{}] algorithm:{} initialLimit:{}", name, instance.getAlgorithm(), initialLimit);
+    }
+
+    private static LimitAlgorithm algorithm(InstanceProperties instance) {
+        return switch (instance.getAlgorithm()) {
+            case AIMD -> new AimdLimit(instance.getMinLimit(), instance.getMaxLimit(),
+                    instance.getBackoffRatio(), instance.getLatencyThreshold());
+            case GRADIENT -> new GradientLimit(instance.getMinLimit(), instance.getMaxLimit(),
+                    instance.getSmoothing(), instance.getTolerance(), instance.getLongWindow());
+        };
+    }
+}
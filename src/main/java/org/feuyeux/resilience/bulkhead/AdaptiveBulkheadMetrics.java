@@ -0,0 +1,50 @@
+package org.feuyeux.resilience.bulkhead;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+import org.feuyeux.resilience.saturation.SaturationTelemetry;
+import org.feuyeux.resilience.saturation.SaturationTimers.Kind;
+
+/**
+ * Publishes the current limit, the calls in flight and the rejected calls of every {@link AdaptiveBulkhead} in the
+ * registry, and hands each its saturation timers.
+ */
+public class AdaptiveBulkheadMetrics implements MeterBinder {
+
+    private final BulkheadRegistry bulkheadRegistry;
+    private final SaturationTelemetry saturationTelemetry;
+
+    public AdaptiveBulkheadMetrics(BulkheadRegistry bulkheadRegistry, SaturationTelemetry saturationTelemetry) {
+        this.bulkheadRegistry = bulkheadRegistry;
+        this.saturationTelemetry = saturationTelemetry;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        bulkheadRegistry.getAllBulkheads().stream()
+                .filter(AdaptiveBulkhead.class::isInstance)
+                .map(AdaptiveBulkhead.class::cast)
+                .forEach(bulkhead -> {
+                    bindTo(bulkhead, meterRegistry);
+                    bulkhead.setSaturationTimers(saturationTelemetry.timers(bulkhead.getName(), Kind.SEMAPHORE));
+                });
+    }
+
+    private static void bindTo(AdaptiveBulkhead bulkhead, MeterRegistry meterRegistry) {
+        Gauge.builder("resilience.bulkhead.adaptive.limit", bulkhead, AdaptiveBulkhead::getLimit)
+                .description("The current concurrency limit")
+                .tag("name", bulkhead.getName())
+                .register(meterRegistry);
+        Gauge.builder("resilience.bulkhead.adaptive.in.flight", bulkhead, AdaptiveBulkhead::getInFlightCalls)
+                .description("The number of calls currently in flight")
+                .tag("name", bulkhead.getName())
+                .register(meterRegistry);
+        FunctionCounter.builder("resilience.bulkhead.adaptive.rejected", bulkhead, AdaptiveBulkhead::getRejectedCalls)
+                .description("The number of calls rejected because the limit was reached")
+                .tag("name", bulkhead.getName())
+                .register(meterRegistry);
+    }
+}
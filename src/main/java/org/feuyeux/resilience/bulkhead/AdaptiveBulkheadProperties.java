@@ -0,0 +1,57 @@
+package org.feuyeux.resilience.bulkhead;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "resilience.adaptive-bulkhead")
+public class AdaptiveBulkheadProperties {
+
+    private Map<String, InstanceProperties> instances = new HashMap<>();
+
+    public enum Algorithm {
+        /**
+         * additive increase while latency stays below the threshold, multiplicative decrease above it
+         */
+        AIMD,
+        /**
+         * limit follows the ratio of long-term to current latency
+         */
+        GRADIENT
+    }
+
+    @Data
+    public static class InstanceProperties {
+        private Algorithm algorithm = Algorithm.GRADIENT;
+        /**
+         * defaults to maxConcurrentCalls of the resilience4j.bulkhead instance of the same name
+         */
+        private Integer initialLimit;
+        private int minLimit = 1;
+        private int maxLimit = 200;
+        /**
+         * aimd: slower calls shrink the limit
+         */
+        private Duration latencyThreshold = Duration.ofSeconds(1);
+        /**
+         * aimd: factor applied to the limit on a slow call
+         */
+        private double backoffRatio = 0.9;
+        /**
+         * gradient: weight of a new sample in the limit
+         */
+        private double smoothing = 0.2;
+        /**
+         * gradient: how much slower than the long-term average a call may be before the limit shrinks
+         */
+        private double tolerance = 1.5;
+        /**
+         * gradient: number of samples averaged into the long-term latency
+         */
+        private int longWindow = 600;
+    }
+}
@@ -0,0 +1,33 @@
+package org.feuyeux.resilience.bulkhead;
+
+import java.time.Duration;
+
+/**
+ * Additive increase, multiplicative decrease: the limit grows by one for every call faster than the latency threshold
+ * while at least half of it is in use, and is multiplied by the backoff ratio for every slower call.
+ */
+public class AimdLimit implements LimitAlgorithm {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double backoffRatio;
+    private final long latencyThresholdNanos;
+
+    public AimdLimit(int minLimit, int maxLimit, double backoffRatio, Duration latencyThreshold) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.backoffRatio = backoffRatio;
+        this.latencyThresholdNanos = latencyThreshold.toNanos();
+    }
+
+    @Override
+    public double update(double limit, long rttNanos, int inFlight) {
+        if (rttNanos > latencyThresholdNanos) {
+            return Math.max(minLimit, limit * backoffRatio);
+        }
+        if (inFlight * 2 >= limit) {
+            return Math.min(maxLimit, limit + 1);
+        }
+        return limit;
+    }
+}
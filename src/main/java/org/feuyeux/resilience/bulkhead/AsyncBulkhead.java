@@ -0,0 +1,15 @@
+package org.feuyeux.resilience.bulkhead;
+
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+
+/**
+ * Runs a blocking supplier off the calling thread with bounded concurrency, either on a {@code ThreadPoolBulkhead}
+ * or on virtual threads.
+ */
+public interface AsyncBulkhead {
+
+    String getName();
+
+    <T> CompletionStage<T> executeSupplier(Supplier<T> supplier);
+}
@@ -0,0 +1,73 @@
+package org.feuyeux.resilience.bulkhead;
+
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.feuyeux.resilience.bulkhead.annotation.AsyncBulkhead;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotationUtils;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.*;
+
+/**
+ * Takes the place of the resilience4j Bulkhead aspect for {@code @AsyncBulkhead} methods: the method is invoked on
+ * the async bulkhead and the stage it returns is awaited there, so the permit, or the pool thread, is held until the
+ * call completes. A full bulkhead fails the returned future instead of throwing, as the thread-pool Bulkhead aspect
+ * does, so fallbacks on the future still apply.
+ */
+@Aspect
+public class AsyncBulkheadAspect implements Ordered {
+
+    private final AsyncBulkheadRegistry asyncBulkheadRegistry;
+    private final int order;
+
+    /**
+     * @param bulkheadAspectOrder order of the Bulkhead aspect, which the async bulkhead stands in for
+     */
+    public AsyncBulkheadAspect(AsyncBulkheadRegistry asyncBulkheadRegistry, int bulkheadAspectOrder) {
+        this.asyncBulkheadRegistry = asyncBulkheadRegistry;
+        this.order = bulkheadAspectOrder;
+    }
+
+    @Pointcut(value = "@annotation(org.feuyeux.resilience.bulkhead.annotation.AsyncBulkhead)")
+    public void matchAnnotatedMethod() {
+    }
+
+    @Around(value = "matchAnnotatedMethod()")
+    public Object asyncBulkheadAroundAdvice(ProceedingJoinPoint proceedingJoinPoint) {
+        Method method = ((MethodSignature) proceedingJoinPoint.getSignature()).getMethod();
+        if (!CompletionStage.class.isAssignableFrom(method.getReturnType())) {
+            throw new IllegalStateException("@AsyncBulkhead is only applicable for completion stages: " + method);
+        }
+        AsyncBulkhead asyncBulkheadAnnotation = AnnotationUtils.findAnnotation(method, AsyncBulkhead.class);
+        try {
+            return asyncBulkheadRegistry.asyncBulkhead(asyncBulkheadAnnotation.name())
+                    .executeSupplier(() -> await(proceedingJoinPoint))
+                    .toCompletableFuture();
+        } catch (BulkheadFullException e) {
+            return CompletableFuture.failedFuture(e);
+        }
+    }
+
+    private static Object await(ProceedingJoinPoint proceedingJoinPoint) {
+        try {
+            return ((CompletionStage<?>) proceedingJoinPoint.proceed()).toCompletableFuture().get();
+        } catch (ExecutionException e) {
+            throw new CompletionException(e.getCause());
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        } catch (Throwable throwable) {
+            throw new CompletionException(throwable);
+        }
+    }
+
+    @Override
+    public int getOrder() {
+        return order;
+    }
+}
@@ -0,0 +1,42 @@
+package org.feuyeux.resilience.bulkhead;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadRegistry;
+import io.github.resilience4j.spring6.bulkhead.configure.BulkheadConfigurationProperties;
+import org.feuyeux.resilience.saturation.SaturationTelemetry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+@Configuration
+@EnableConfigurationProperties(AsyncBulkheadProperties.class)
+public class AsyncBulkheadConfiguration {
+
+    /**
+     * One executor for the whole application, shut down with the context instead of being created per call.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ExecutorService virtualThreadExecutor() {
+        return Executors.newThreadPerTaskExecutor(Thread.ofVirtual().name("virtual-bulkhead-", 0).factory());
+    }
+
+    @Bean
+    public AsyncBulkheadRegistry asyncBulkheadRegistry(ThreadPoolBulkheadRegistry threadPoolBulkheadRegistry,
+                                                       BulkheadRegistry bulkheadRegistry,
+                                                       @Qualifier("virtualThreadExecutor") ExecutorService virtualThreadExecutor,
+                                                       AsyncBulkheadProperties properties,
+                                                       SaturationTelemetry saturationTelemetry) {
+        return new AsyncBulkheadRegistry(threadPoolBulkheadRegistry, bulkheadRegistry, virtualThreadExecutor,
+                properties, saturationTelemetry);
+    }
+
+    @Bean
+    public AsyncBulkheadAspect asyncBulkheadAspect(AsyncBulkheadRegistry asyncBulkheadRegistry,
+                                                   BulkheadConfigurationProperties bulkheadProperties) {
+        return new AsyncBulkheadAspect(asyncBulkheadRegistry, bulkheadProperties.getBulkheadAspectOrder());
+    }
+}
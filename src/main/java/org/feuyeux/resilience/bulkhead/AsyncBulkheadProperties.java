@@ -0,0 +1,33 @@
+package org.feuyeux.resilience.bulkhead;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "resilience.async-bulkhead")
+public class AsyncBulkheadProperties {
+
+    private Map<String, InstanceProperties> instances = new HashMap<>();
+
+    public enum Mode {
+        /**
+         * resilience4j.thread-pool-bulkhead of the same name
+         */
+        THREADPOOL,
+        /**
+         * shared virtual-thread executor bounded by a semaphore
+         */
+        VIRTUAL
+    }
+
+    @Data
+    public static class InstanceProperties {
+        private Mode mode = Mode.THREADPOOL;
+        private int maxConcurrentCalls = 1000;
+        private Duration maxWaitDuration = Duration.ZERO;
+    }
+}
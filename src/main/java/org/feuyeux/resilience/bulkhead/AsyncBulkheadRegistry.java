@@ -0,0 +1,62 @@
+package org.feuyeux.resilience.bulkhead;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.feuyeux.resilience.saturation.SaturationTelemetry;
+import org.feuyeux.resilience.saturation.SaturationTimers.Kind;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.Executor;
+
+import static org.feuyeux.resilience.bulkhead.AsyncBulkheadProperties.InstanceProperties;
+import static org.feuyeux.resilience.bulkhead.AsyncBulkheadProperties.Mode;
+
+/**
+ * Resolves the async bulkhead of a backend according to its configured mode. The semaphore of a virtual bulkhead is
+ * registered in the {@link BulkheadRegistry} as {@code <name>Virtual}, so it is exported like any other bulkhead.
+ */
+@Slf4j
+public class AsyncBulkheadRegistry {
+
+    public static final String VIRTUAL_SUFFIX = "Virtual";
+    private final ThreadPoolBulkheadRegistry threadPoolBulkheadRegistry;
+    private final BulkheadRegistry bulkheadRegistry;
+    private final Executor virtualThreadExecutor;
+    private final AsyncBulkheadProperties properties;
+    private final SaturationTelemetry saturationTelemetry;
+    private final ConcurrentMap<String, AsyncBulkhead> bulkheads = new ConcurrentHashMap<>();
+
+    public AsyncBulkheadRegistry(ThreadPoolBulkheadRegistry threadPoolBulkheadRegistry,
+                                 BulkheadRegistry bulkheadRegistry,
+                                 Executor virtualThreadExecutor,
+                                 AsyncBulkheadProperties properties,
+                                 SaturationTelemetry saturationTelemetry) {
+        this.threadPoolBulkheadRegistry = threadPoolBulkheadRegistry;
+        this.bulkheadRegistry = bulkheadRegistry;
+        this.virtualThreadExecutor = virtualThreadExecutor;
+        this.properties = properties;
+        this.saturationTelemetry = saturationTelemetry;
+    }
+
+    public AsyncBulkhead asyncBulkhead(String name) {
+        return bulkheads.computeIfAbsent(name, this::create);
+    }
+
+    private AsyncBulkhead create(String name) {
+        InstanceProperties instance = properties.getInstances().getOrDefault(name, new InstanceProperties());
+        log.info("AsyncBulkhead[{}] mode:{}", name, instance.getMode());
+        if (instance.getMode() == Mode.VIRTUAL) {
+            BulkheadConfig config = BulkheadConfig.custom()
+                    .maxConcurrentCalls(instance.getMaxConcurrentCalls())
+                    .maxWaitDuration(instance.getMaxWaitDuration())
+                    .build();
+            return new VirtualThreadBulkhead(bulkheadRegistry.bulkhead(name + VIRTUAL_SUFFIX, config),
+                    virtualThreadExecutor, saturationTelemetry.timers(name, Kind.VIRTUAL));
+        }
+        return new ThreadPoolAsyncBulkhead(threadPoolBulkheadRegistry.bulkhead(name),
+                saturationTelemetry.timers(name, Kind.THREADPOOL));
+    }
+}
@@ -0,0 +1,45 @@
+package org.feuyeux.resilience.bulkhead;
+
+/**
+ * Gradient of the long-term average latency over the latest one. While the latency stays within {@code tolerance} of
+ * the average the limit grows by a queue allowance of {@code sqrt(limit)}; when it rises the limit shrinks
+ * proportionally, by at most half. Changes are smoothed so that single outliers do not move the limit much.
+ */
+public class GradientLimit implements LimitAlgorithm {
+
+    private final int minLimit;
+    private final int maxLimit;
+    private final double smoothing;
+    private final double tolerance;
+    private final double longWindowFactor;
+    private double longRttNanos;
+
+    public GradientLimit(int minLimit, int maxLimit, double smoothing, double tolerance, int longWindow) {
+        this.minLimit = minLimit;
+        this.maxLimit = maxLimit;
+        this.smoothing = smoothing;
+        this.tolerance = tolerance;
+        this.longWindowFactor = 2.0 / (longWindow + 1);
+    }
+
+    @Override
+    public double update(double limit, long rttNanos, int inFlight) {
+        if (longRttNanos == 0) {
+            longRttNanos = rttNanos;
+        } else {
+            longRttNanos += (rttNanos - longRttNanos) * longWindowFactor;
+        }
+        // recover quickly once the backend is fast again instead of dragging the old average along
+        if (longRttNanos > rttNanos * 2) {
+            longRttNanos *= 0.95;
+        }
+        // an application-limited sample says nothing about how much more the backend could take
+        if (inFlight * 2 < limit) {
+            return limit;
+        }
+        double gradient = Math.max(0.5, Math.min(1.0, tolerance * longRttNanos / Math.max(rttNanos, 1)));
+        double newLimit = limit * gradient + Math.sqrt(limit);
+        newLimit = limit * (1 - smoothing) + newLimit * smoothing;
+        return Math.max(minLimit, Math.min(maxLimit, newLimit));
+    }
+}
@@ -0,0 +1,16 @@
+package org.feuyeux.resilience.bulkhead;
+
+/**
+ * Computes the concurrency limit of an {@link AdaptiveBulkhead} from the latency of completed calls. Implementations
+ * are called under the lock of their bulkhead and may keep state between samples.
+ */
+public interface LimitAlgorithm {
+
+    /**
+     * @param limit    the current limit estimate
+     * @param rttNanos latency of the completed call
+     * @param inFlight calls in flight when the call completed, including it
+     * @return the new limit estimate
+     */
+    double update(double limit, long rttNanos, int inFlight);
+}
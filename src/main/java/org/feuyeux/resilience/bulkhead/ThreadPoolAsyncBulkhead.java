@@ -0,0 +1,99 @@
+package org.feuyeux.resilience.bulkhead;
+
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
+import org.feuyeux.resilience.saturation.SaturationTimers;
+import org.springframework.lang.Nullable;
+
+import java.util.concurrent.CancellationException;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.function.Supplier;
+
+/**
+ * Calls run on the threads of a {@link ThreadPoolBulkhead}. Cancelling the returned future interrupts the pool thread
+ * running the call, or skips the call if it has not started yet; the pool thread is not left interrupted for the next
+ * call.
+ * <p>
+ * With timers, every call records the time it sat in the pool queue and the time it ran; submitting never waits, a
+ * full queue rejects at once.
+ */
+public class ThreadPoolAsyncBulkhead implements AsyncBulkhead {
+
+    private final ThreadPoolBulkhead threadPoolBulkhead;
+    private final SaturationTimers timers;
+
+    public ThreadPoolAsyncBulkhead(ThreadPoolBulkhead threadPoolBulkhead, @Nullable SaturationTimers timers) {
+        this.threadPoolBulkhead = threadPoolBulkhead;
+        this.timers = timers;
+    }
+
+    @Override
+    public String getName() {
+        return threadPoolBulkhead.getName();
+    }
+
+    @Override
+    public <T> CompletionStage<T> executeSupplier(Supplier<T> supplier) {
+        Call<T> call = new Call<>(supplier, timers);
+        CompletableFuture<T> future = threadPoolBulkhead.executeSupplier(call).toCompletableFuture();
+        future.whenComplete((result, throwable) -> {
+            if (future.isCancelled()) {
+                call.cancel();
+            }
+        });
+        return future;
+    }
+
+    private static final class Call<T> implements Supplier<T> {
+
+        private final Supplier<T> supplier;
+        private final SaturationTimers timers;
+        private final long submittedNanos;
+        private Thread worker;
+        private boolean cancelled;
+
+        private Call(Supplier<T> supplier, SaturationTimers timers) {
+            this.supplier = supplier;
+            this.timers = timers;
+            this.submittedNanos = timers != null ? System.nanoTime() : 0;
+        }
+
+        @Override
+        public T get() {
+            synchronized (this) {
+                if (cancelled) {
+                    throw new CancellationException();
+                }
+                worker = Thread.currentThread();
+            }
+            long startNanos = 0;
+            if (timers != null) {
+                startNanos = System.nanoTime();
+                timers.recordQueue(startNanos - submittedNanos);
+            }
+            try {
+                return supplier.get();
+            } finally {
+                if (timers != null) {
+                    timers.recordExecution(System.nanoTime() - startNanos);
+                }
+                boolean wasCancelled;
+                synchronized (this) {
+                    worker = null;
+                    wasCancelled = cancelled;
+                }
+                if (wasCancelled) {
+                    // no cancel can interrupt this thread any more, clear the one that may have
+                    Thread.interrupted();
+                }
+            }
+        }
+
+        private synchronized void cancel() {
+            cancelled = true;
+            if (worker != null) {
+                worker.interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+package org.feuyeux.resilience.bulkhead;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import org.feuyeux.resilience.exception.Rejections;
+import org.feuyeux.resilience.saturation.SaturationTimers;
+import org.springframework.lang.Nullable;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.function.Supplier;
+
+/**
+ * Every call gets its own virtual thread from the shared executor, concurrency is bounded by a semaphore
+ * {@link Bulkhead}. Without a {@code maxWaitDuration} the permit is taken on the calling thread before any virtual
+ * thread is started, so a full bulkhead rejects synchronously with a {@link BulkheadFullException} and a burst of
+ * rejected calls starts no threads. With one, waiting for a permit parks the call's virtual thread, never the caller.
+ * The permit is released when the call completes, fails, or is cancelled before it started. Cancelling the returned
+ * future interrupts the virtual thread, or skips the call if it has not started yet.
+ * <p>
+ * With timers, every call records the time it waited for a permit, for a carrier thread to start it, and the time it
+ * ran.
+ */
+public class VirtualThreadBulkhead implements AsyncBulkhead {
+
+    private final Bulkhead bulkhead;
+    private final Executor executor;
+    private final SaturationTimers timers;
+    private final boolean waitsForPermit;
+    private final Supplier<BulkheadFullException> bulkheadFull;
+
+    public VirtualThreadBulkhead(Bulkhead bulkhead, Executor executor, @Nullable SaturationTimers timers) {
+        this.bulkhead = bulkhead;
+        this.executor = executor;
+        this.timers = timers;
+        this.waitsForPermit = !bulkhead.getBulkheadConfig().getMaxWaitDuration().isZero();
+        this.bulkheadFull = Rejections.bulkheadFull(bulkhead);
+    }
+
+    @Override
+    public String getName() {
+        return bulkhead.getName();
+    }
+
+    @Override
+    public <T> CompletionStage<T> executeSupplier(Supplier<T> supplier) {
+        long submittedNanos = timers != null ? System.nanoTime() : 0;
+        if (!waitsForPermit) {
+            if (!bulkhead.tryAcquirePermission()) {
+                throw bulkheadFull.get();
+            }
+            if (timers != null) {
+                long admittedNanos = System.nanoTime();
+                timers.recordAdmission(admittedNanos - submittedNanos);
+                submittedNanos = admittedNanos;
+            }
+        }
+        CompletableFuture<T> future = new CompletableFuture<>();
+        long queuedNanos = submittedNanos;
+        try {
+            executor.execute(() -> run(future, supplier, queuedNanos));
+        } catch (RuntimeException e) {
+            if (!waitsForPermit) {
+                bulkhead.releasePermission();
+            }
+            throw e;
+        }
+        return future;
+    }
+
+    private <T> void run(CompletableFuture<T> future, Supplier<T> supplier, long queuedNanos) {
+        if (future.isDone()) {
+            if (!waitsForPermit) {
+                bulkhead.releasePermission();
+            }
+            return;
+        }
+        Thread worker = Thread.currentThread();
+        future.whenComplete((result, throwable) -> {
+            if (future.isCancelled()) {
+                worker.interrupt();
+            }
+        });
+        try {
+            future.complete(execute(supplier, queuedNanos));
+        } catch (Throwable t) {
+            future.completeExceptionally(t);
+        }
+    }
+
+    private <T> T execute(Supplier<T> supplier, long queuedNanos) {
+        long startNanos = timers != null ? System.nanoTime() : 0;
+        if (timers != null) {
+            timers.recordQueue(startNanos - queuedNanos);
+        }
+        if (waitsForPermit) {
+            bulkhead.acquirePermission();
+            if (timers != null) {
+                long admittedNanos = System.nanoTime();
+                timers.recordAdmission(admittedNanos - startNanos);
+                startNanos = admittedNanos;
+            }
+        }
+        try {
+            return supplier.get();
+        } finally {
+            bulkhead.onComplete();
+            if (timers != null) {
+                timers.recordExecution(System.nanoTime() - startNanos);
+            }
+        }
+    }
+}
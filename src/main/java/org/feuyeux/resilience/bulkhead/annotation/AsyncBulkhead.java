@@ -0,0 +1,21 @@
+package org.feuyeux.resilience.bulkhead.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Runs the annotated method, which must return a {@link java.util.concurrent.CompletionStage}, on the async bulkhead
+ * of the same name, so it follows the configured mode like the programmatic callers do. The aspect takes the order of
+ * the resilience4j Bulkhead aspect and replaces {@code @Bulkhead(type = Type.THREADPOOL)}.
+ */
+@Retention(value = RetentionPolicy.RUNTIME)
+@Target(value = {ElementType.METHOD})
+@Documented
+public @interface AsyncBulkhead {
+
+    /**
+     * Name of the async bulkhead configured under resilience.async-bulkhead.instances.
+     *
+     * @return the name
+     */
+    String name();
+}
@@ -0,0 +1,188 @@
+package org.feuyeux.resilience.cache;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.resilience4j.core.functions.CheckedSupplier;
+import org.feuyeux.resilience.aop.Invocations;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Bounded result cache in front of a decorated call. An entry younger than {@code ttl} is served without calling
+ * through, so a fresh hit never reaches the circuit breaker. Older entries are kept until {@code staleTtl} as the
+ * last-known-good value and served only when the call fails with one of the {@code staleIfError} exceptions.
+ * Eviction is Caffeine's size-bounded W-TinyLFU.
+ */
+public class ResultCache {
+
+    private final String name;
+    private final long ttlNanos;
+    private final List<Class<? extends Throwable>> staleIfError;
+    private final Cache<Object, Entry> cache;
+    private final LongAdder hits = new LongAdder();
+    private final LongAdder misses = new LongAdder();
+    private final LongAdder puts = new LongAdder();
+    private final LongAdder evictions = new LongAdder();
+    private final LongAdder staleServed = new LongAdder();
+
+    public ResultCache(String name, Duration ttl, Duration staleTtl, long maximumSize,
+                       List<Class<? extends Throwable>> staleIfError) {
+        this.name = name;
+        this.ttlNanos = ttl.toNanos();
+        this.staleIfError = List.copyOf(staleIfError);
+        this.cache = Caffeine.newBuilder()
+                .maximumSize(maximumSize)
+                .expireAfterWrite(staleTtl.compareTo(ttl) > 0 ? staleTtl : ttl)
+                .evictionListener((key, value, cause) -> evictions.increment())
+                .build();
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public <T> T executeSupplier(Object key, Supplier<T> supplier) {
+        try {
+            return executeCheckedSupplier(key, supplier::get);
+        } catch (Throwable t) {
+            throw Invocations.sneakyThrow(t);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T executeCheckedSupplier(Object key, CheckedSupplier<T> supplier) throws Throwable {
+        Entry entry = cache.getIfPresent(key);
+        if (isFresh(entry)) {
+            hits.increment();
+            return (T) entry.value();
+        }
+        misses.increment();
+        try {
+            T result = supplier.get();
+            put(key, result);
+            return result;
+        } catch (Throwable t) {
+            Entry stale = staleEntry(key, t);
+            if (stale == null) {
+                throw t;
+            }
+            return (T) stale.value();
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> CompletionStage<T> executeCompletionStage(Object key, Supplier<CompletionStage<T>> supplier) {
+        Entry entry = cache.getIfPresent(key);
+        if (isFresh(entry)) {
+            hits.increment();
+            return CompletableFuture.completedFuture((T) entry.value());
+        }
+        misses.increment();
+        CompletableFuture<T> future = new CompletableFuture<>();
+        CompletionStage<T> stage;
+        try {
+            stage = supplier.get();
+        } catch (Throwable t) {
+            completeOrServeStale(future, key, t);
+            return future;
+        }
+        stage.whenComplete((result, throwable) -> {
+            if (throwable == null) {
+                put(key, result);
+                future.complete(result);
+            } else {
+                completeOrServeStale(future, key, throwable);
+            }
+        });
+        return future;
+    }
+
+    /**
+     * Runs Caffeine's pending maintenance, size eviction included, on the calling thread.
+     */
+    void cleanUp() {
+        cache.cleanUp();
+    }
+
+    public long size() {
+        return cache.estimatedSize();
+    }
+
+    public long getHits() {
+        return hits.sum();
+    }
+
+    public long getMisses() {
+        return misses.sum();
+    }
+
+    public long getPuts() {
+        return puts.sum();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public long getStaleServed() {
+        return staleServed.sum();
+    }
+
+    private boolean isFresh(Entry entry) {
+        return entry != null && System.nanoTime() - entry.writtenAt() < ttlNanos;
+    }
+
+    private void put(Object key, Object value) {
+        if (value != null) {
+            cache.put(key, new Entry(value, System.nanoTime()));
+            puts.increment();
+        }
+    }
+
+    /**
+     * A supplier that throws before returning a stage fails the same way as a failed stage, so both take this path.
+     */
+    @SuppressWarnings("unchecked")
+    private <T> void completeOrServeStale(CompletableFuture<T> future, Object key, Throwable throwable) {
+        Entry stale = staleEntry(key, throwable);
+        if (stale == null) {
+            future.completeExceptionally(throwable);
+        } else {
+            future.complete((T) stale.value());
+        }
+    }
+
+    private Entry staleEntry(Object key, Throwable throwable) {
+        if (!isStaleServable(throwable)) {
+            return null;
+        }
+        Entry stale = cache.getIfPresent(key);
+        if (stale != null) {
+            staleServed.increment();
+        }
+        return stale;
+    }
+
+    private boolean isStaleServable(Throwable throwable) {
+        Throwable cause = throwable;
+        while ((cause instanceof CompletionException || cause instanceof ExecutionException) && cause.getCause() != null) {
+            cause = cause.getCause();
+        }
+        for (Class<? extends Throwable> type : staleIfError) {
+            if (type.isInstance(cause)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private record Entry(Object value, long writtenAt) {
+    }
+}
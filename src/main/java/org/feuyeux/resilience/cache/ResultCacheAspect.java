@@ -0,0 +1,43 @@
+package org.feuyeux.resilience.cache;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.feuyeux.resilience.aop.Invocations;
+import org.feuyeux.resilience.cache.annotation.ResultCache;
+import org.springframework.core.Ordered;
+
+import static org.feuyeux.resilience.aop.AspectOrders.RESULT_CACHE_ASPECT_ORDER;
+
+@Aspect
+@Slf4j
+public class ResultCacheAspect implements Ordered {
+
+    private final ResultCacheRegistry resultCacheRegistry;
+
+    public ResultCacheAspect(ResultCacheRegistry resultCacheRegistry) {
+        this.resultCacheRegistry = resultCacheRegistry;
+    }
+
+    @Pointcut(value = "@annotation(resultCache)", argNames = "resultCache")
+    public void matchAnnotatedMethod(ResultCache resultCache) {
+    }
+
+    @Around(value = "matchAnnotatedMethod(resultCacheAnnotation)", argNames = "proceedingJoinPoint, resultCacheAnnotation")
+    public Object resultCacheAroundAdvice(ProceedingJoinPoint proceedingJoinPoint,
+                                          ResultCache resultCacheAnnotation) throws Throwable {
+        org.feuyeux.resilience.cache.ResultCache cache = resultCacheRegistry.resultCache(resultCacheAnnotation.name());
+        Object key = Invocations.key(proceedingJoinPoint);
+        if (Invocations.returnsCompletionStage(Invocations.method(proceedingJoinPoint))) {
+            return cache.executeCompletionStage(key, () -> Invocations.proceedCompletionStage(proceedingJoinPoint));
+        }
+        return cache.executeCheckedSupplier(key, proceedingJoinPoint::proceed);
+    }
+
+    @Override
+    public int getOrder() {
+        return RESULT_CACHE_ASPECT_ORDER;
+    }
+}
@@ -0,0 +1,21 @@
+package org.feuyeux.resilience.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ResultCacheProperties.class)
+public class ResultCacheConfiguration {
+
+    @Bean
+    public ResultCacheRegistry resultCacheRegistry(ResultCacheProperties properties, MeterRegistry meterRegistry) {
+        return new ResultCacheRegistry(properties, meterRegistry);
+    }
+
+    @Bean
+    public ResultCacheAspect resultCacheAspect(ResultCacheRegistry resultCacheRegistry) {
+        return new ResultCacheAspect(resultCacheRegistry);
+    }
+}
@@ -0,0 +1,51 @@
+package org.feuyeux.resilience.cache;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tag;
+import io.micrometer.core.instrument.binder.cache.CacheMeterBinder;
+
+/**
+ * Publishes the standard {@code cache.*} meters for a {@link ResultCache}, plus {@code cache.gets{result=stale}} for
+ * last-known-good values served on failure.
+ */
+public class ResultCacheMetrics extends CacheMeterBinder<ResultCache> {
+
+    public ResultCacheMetrics(ResultCache cache, Iterable<Tag> tags) {
+        super(cache, cache.getName(), tags);
+    }
+
+    @Override
+    protected Long size() {
+        return getCache().size();
+    }
+
+    @Override
+    protected long hitCount() {
+        return getCache().getHits();
+    }
+
+    @Override
+    protected Long missCount() {
+        return getCache().getMisses();
+    }
+
+    @Override
+    protected Long evictionCount() {
+        return getCache().getEvictions();
+    }
+
+    @Override
+    protected long putCount() {
+        return getCache().getPuts();
+    }
+
+    @Override
+    protected void bindImplementationSpecificMetrics(MeterRegistry registry) {
+        FunctionCounter.builder("cache.gets", getCache(), ResultCache::getStaleServed)
+                .tags(getTagsWithCacheName())
+                .tag("result", "stale")
+                .description("The number of times a stale cache value was served after a failed call")
+                .register(registry);
+    }
+}
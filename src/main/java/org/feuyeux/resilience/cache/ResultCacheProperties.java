@@ -0,0 +1,34 @@
+package org.feuyeux.resilience.cache;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+@Data
+@ConfigurationProperties(prefix = "resilience.cache")
+public class ResultCacheProperties {
+
+    private Map<String, InstanceProperties> instances = new HashMap<>();
+
+    @Data
+    public static class InstanceProperties {
+        /**
+         * how long a result is served without calling the backend
+         */
+        private Duration ttl = Duration.ofSeconds(10);
+        /**
+         * how long a result is kept as last-known-good value
+         */
+        private Duration staleTtl = Duration.ofMinutes(5);
+        private long maximumSize = 1000;
+        private List<Class<? extends Throwable>> staleIfError = new ArrayList<>(
+                List.of(CallNotPermittedException.class, TimeoutException.class));
+    }
+}
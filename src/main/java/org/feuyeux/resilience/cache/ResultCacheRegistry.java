@@ -0,0 +1,33 @@
+package org.feuyeux.resilience.cache;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Tags;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static org.feuyeux.resilience.cache.ResultCacheProperties.InstanceProperties;
+
+public class ResultCacheRegistry {
+
+    private final ResultCacheProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, ResultCache> caches = new ConcurrentHashMap<>();
+
+    public ResultCacheRegistry(ResultCacheProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public ResultCache resultCache(String name) {
+        return caches.computeIfAbsent(name, this::create);
+    }
+
+    private ResultCache create(String name) {
+        InstanceProperties instance = properties.getInstances().getOrDefault(name, new InstanceProperties());
+        ResultCache cache = new ResultCache(name, instance.getTtl(), instance.getStaleTtl(),
+                instance.getMaximumSize(), instance.getStaleIfError());
+        new ResultCacheMetrics(cache, Tags.empty()).bindTo(meterRegistry);
+        return cache;
+    }
+}
@@ -0,0 +1,21 @@
+package org.feuyeux.resilience.cache.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Results of the annotated method are cached per arguments. The aspect runs outside the single-flight and
+ * resilience4j aspects: a fresh hit skips them all, and a call rejected by an open circuit or timed out is answered
+ * with the last-known-good value when there is one.
+ */
+@Retention(value = RetentionPolicy.RUNTIME)
+@Target(value = {ElementType.METHOD})
+@Documented
+public @interface ResultCache {
+
+    /**
+     * Name of the cache instance configured under resilience.cache.instances.
+     *
+     * @return the name
+     */
+    String name();
+}
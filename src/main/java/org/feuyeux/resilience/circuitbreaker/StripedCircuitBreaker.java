@@ -0,0 +1,485 @@
+package org.feuyeux.resilience.circuitbreaker;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.ResultRecordedAsFailureException;
+import io.github.resilience4j.circuitbreaker.event.*;
+import io.github.resilience4j.core.EventConsumer;
+import io.github.resilience4j.core.EventProcessor;
+import io.github.resilience4j.core.functions.Either;
+import org.feuyeux.resilience.exception.Rejections;
+
+import java.time.Duration;
+import java.time.Instant;
+import java.util.Map;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.feuyeux.resilience.circuitbreaker.StripedSlidingWindow.*;
+
+/**
+ * A {@link CircuitBreaker} that keeps the state machine of the wrapped one but records the calls of the CLOSED state
+ * into a {@link StripedSlidingWindow}, instead of the synchronized window every caller contends on. The window holds
+ * the last N calls of a single thread exactly and about the last N under concurrency; only count-based windows can
+ * be striped. The failure-rate and slow-call thresholds are evaluated exactly as resilience4j does, and when one is
+ * exceeded the wrapped circuit breaker is opened. While OPEN after such a trip the metrics still come from the
+ * window; HALF_OPEN and the special states are left to the wrapped circuit breaker entirely.
+ * <p>
+ * Event consumers are registered on both this and the wrapped circuit breaker, so consumers see the call events of
+ * either and the state transitions of the wrapped one.
+ */
+public class StripedCircuitBreaker implements CircuitBreaker {
+
+    // a shared constant of resilience4j that never asks for a transition
+    private static final Function<Either<Object, Throwable>, CircuitBreakerConfig.TransitionCheckResult>
+            DEFAULT_TRANSITION_ON_RESULT = CircuitBreakerConfig.ofDefaults().getTransitionOnResult();
+
+    private final CircuitBreaker delegate;
+    private final int stripes;
+    private volatile int windowSize;
+    private volatile int minimumNumberOfCalls;
+    private final float failureRateThreshold;
+    private final float slowCallRateThreshold;
+    private final long slowCallDurationThresholdNanos;
+    private final StripedEventProcessor eventProcessor = new StripedEventProcessor();
+    private final StripedEventPublisher eventPublisher = new StripedEventPublisher();
+    private final WindowMetrics metrics = new WindowMetrics();
+    private final Supplier<CallNotPermittedException> callNotPermitted;
+    private volatile StripedSlidingWindow window;
+
+    public StripedCircuitBreaker(CircuitBreaker delegate, int stripes) {
+        CircuitBreakerConfig config = delegate.getCircuitBreakerConfig();
+        if (config.getSlidingWindowType() != CircuitBreakerConfig.SlidingWindowType.COUNT_BASED) {
+            throw new IllegalArgumentException("CircuitBreaker '" + delegate.getName()
+                    + "' must use a COUNT_BASED sliding window to be striped");
+        }
+        this.delegate = delegate;
+        this.stripes = stripes;
+        this.windowSize = config.getSlidingWindowSize();
+        this.minimumNumberOfCalls = Math.min(config.getMinimumNumberOfCalls(), windowSize);
+        this.failureRateThreshold = config.getFailureRateThreshold();
+        this.slowCallRateThreshold = config.getSlowCallRateThreshold();
+        this.slowCallDurationThresholdNanos = config.getSlowCallDurationThreshold().toNanos();
+        this.window = new StripedSlidingWindow(windowSize, stripes);
+        this.callNotPermitted = Rejections.callNotPermitted(delegate);
+        // every way back to CLOSED except the explicit ones below passes HALF_OPEN
+        delegate.getEventPublisher().onStateTransition(event -> {
+            State toState = event.getStateTransition().getToState();
+            if (toState != State.OPEN && toState != State.CLOSED) {
+                resetWindow();
+            }
+        });
+    }
+
+    public CircuitBreaker getDelegate() {
+        return delegate;
+    }
+
+    public int getStripes() {
+        return window.stripes();
+    }
+
+    public int getSlidingWindowSize() {
+        return windowSize;
+    }
+
+    /**
+     * Swaps in a window of {@code slidingWindowSize} calls that starts with the latest calls of the current one, so
+     * neither the state nor the recent failure and slow-call rates are lost. A call recorded while the window is
+     * swapped may be missed. HALF_OPEN and the other states of the wrapped circuit breaker keep its configuration.
+     */
+    public synchronized void changeSlidingWindowSize(int slidingWindowSize) {
+        if (slidingWindowSize < 1) {
+            throw new IllegalArgumentException("slidingWindowSize must be at least 1");
+        }
+        StripedSlidingWindow current = window;
+        windowSize = slidingWindowSize;
+        minimumNumberOfCalls = Math.min(delegate.getCircuitBreakerConfig().getMinimumNumberOfCalls(),
+                slidingWindowSize);
+        window = current.resize(slidingWindowSize);
+    }
+
+    @Override
+    public boolean tryAcquirePermission() {
+        return delegate.tryAcquirePermission();
+    }
+
+    @Override
+    public void releasePermission() {
+        delegate.releasePermission();
+    }
+
+    @Override
+    public void acquirePermission() {
+        if (!delegate.tryAcquirePermission()) {
+            throw callNotPermitted.get();
+        }
+    }
+
+    @Override
+    public void onError(long duration, TimeUnit durationUnit, Throwable throwable) {
+        if (!recordsInWindow()) {
+            delegate.onError(duration, durationUnit, throwable);
+            return;
+        }
+        Throwable cause = throwable instanceof CompletionException || throwable instanceof ExecutionException
+                ? throwable.getCause() : throwable;
+        CircuitBreakerConfig config = delegate.getCircuitBreakerConfig();
+        if (config.getIgnoreExceptionPredicate().test(cause)) {
+            // releases the permission and publishes the ignored error, no metrics involved
+            delegate.onError(duration, durationUnit, cause);
+            return;
+        }
+        if (config.getRecordExceptionPredicate().test(cause)) {
+            publishCallEvent(duration, durationUnit, cause);
+            record(durationUnit.toNanos(duration), true);
+        } else {
+            publishCallEvent(duration, durationUnit, null);
+            record(durationUnit.toNanos(duration), false);
+        }
+        if (config.getTransitionOnResult() != DEFAULT_TRANSITION_ON_RESULT) {
+            handlePossibleTransition(config.getTransitionOnResult().apply(Either.right(cause)));
+        }
+    }
+
+    @Override
+    public void onSuccess(long duration, TimeUnit durationUnit) {
+        if (!recordsInWindow()) {
+            delegate.onSuccess(duration, durationUnit);
+            return;
+        }
+        publishCallEvent(duration, durationUnit, null);
+        record(durationUnit.toNanos(duration), false);
+    }
+
+    @Override
+    public void onResult(long duration, TimeUnit durationUnit, Object result) {
+        if (!recordsInWindow()) {
+            delegate.onResult(duration, durationUnit, result);
+            return;
+        }
+        CircuitBreakerConfig config = delegate.getCircuitBreakerConfig();
+        if (result != null && config.getRecordResultPredicate().test(result)) {
+            ResultRecordedAsFailureException failure = new ResultRecordedAsFailureException(getName(), result);
+            publishCallEvent(duration, durationUnit, failure);
+            record(durationUnit.toNanos(duration), true);
+        } else {
+            onSuccess(duration, durationUnit);
+            if (result != null && config.getTransitionOnResult() != DEFAULT_TRANSITION_ON_RESULT) {
+                handlePossibleTransition(config.getTransitionOnResult().apply(Either.left(result)));
+            }
+        }
+    }
+
+    @Override
+    public void reset() {
+        resetWindow();
+        delegate.reset();
+    }
+
+    @Override
+    public void transitionToClosedState() {
+        resetWindow();
+        delegate.transitionToClosedState();
+    }
+
+    @Override
+    public void transitionToOpenState() {
+        delegate.transitionToOpenState();
+    }
+
+    @Override
+    public void transitionToOpenStateFor(Duration waitDuration) {
+        delegate.transitionToOpenStateFor(waitDuration);
+    }
+
+    @Override
+    public void transitionToOpenStateUntil(Instant waitUntil) {
+        delegate.transitionToOpenStateUntil(waitUntil);
+    }
+
+    @Override
+    public void transitionToHalfOpenState() {
+        delegate.transitionToHalfOpenState();
+    }
+
+    @Override
+    public void transitionToDisabledState() {
+        delegate.transitionToDisabledState();
+    }
+
+    @Override
+    public void transitionToMetricsOnlyState() {
+        delegate.transitionToMetricsOnlyState();
+    }
+
+    @Override
+    public void transitionToForcedOpenState() {
+        delegate.transitionToForcedOpenState();
+    }
+
+    @Override
+    public String getName() {
+        return delegate.getName();
+    }
+
+    @Override
+    public State getState() {
+        return delegate.getState();
+    }
+
+    @Override
+    public CircuitBreakerConfig getCircuitBreakerConfig() {
+        return delegate.getCircuitBreakerConfig();
+    }
+
+    @Override
+    public Metrics getMetrics() {
+        return recordsInWindow() ? metrics : delegate.getMetrics();
+    }
+
+    @Override
+    public Map<String, String> getTags() {
+        return delegate.getTags();
+    }
+
+    @Override
+    public EventPublisher getEventPublisher() {
+        return eventPublisher;
+    }
+
+    @Override
+    public long getCurrentTimestamp() {
+        return delegate.getCurrentTimestamp();
+    }
+
+    @Override
+    public TimeUnit getTimestampUnit() {
+        return delegate.getTimestampUnit();
+    }
+
+    @Override
+    public String toString() {
+        return String.format("StripedCircuitBreaker '%s'", getName());
+    }
+
+    /**
+     * CLOSED, or OPEN because this window tripped: late calls are still recorded, as resilience4j does.
+     */
+    private boolean recordsInWindow() {
+        State state = delegate.getState();
+        return state == State.CLOSED || state == State.OPEN && window.isTripped();
+    }
+
+    private void record(long durationNanos, boolean failed) {
+        boolean slow = durationNanos > slowCallDurationThresholdNanos;
+        int outcome = CALL | (failed ? FAILED : 0) | (slow ? SLOW : 0);
+        StripedSlidingWindow current = window;
+        // a fast success cannot raise a rate once the minimum number of calls was buffered before it
+        boolean check = failed || slow || !current.isMinimumReached(minimumNumberOfCalls);
+        current.record(outcome);
+        if (check && delegate.getState() == State.CLOSED) {
+            checkIfThresholdsExceeded(current);
+        }
+    }
+
+    private void checkIfThresholdsExceeded(StripedSlidingWindow current) {
+        float failureRate = metrics.failureRate(current);
+        float slowCallRate = metrics.slowCallRate(current);
+        if (failureRate == -1 || slowCallRate == -1) {
+            return;
+        }
+        boolean failureRateExceeded = failureRate >= failureRateThreshold;
+        boolean slowCallRateExceeded = slowCallRate >= slowCallRateThreshold;
+        if ((failureRateExceeded || slowCallRateExceeded) && current.trip()) {
+            if (failureRateExceeded) {
+                publishEvent(() -> new CircuitBreakerOnFailureRateExceededEvent(getName(), failureRate));
+            }
+            if (slowCallRateExceeded) {
+                publishEvent(() -> new CircuitBreakerOnSlowCallRateExceededEvent(getName(), slowCallRate));
+            }
+            delegate.transitionToOpenState();
+        }
+    }
+
+    private void handlePossibleTransition(CircuitBreakerConfig.TransitionCheckResult result) {
+        if (result.isTransitionToOpen() && delegate.getState() == State.CLOSED && window.trip()) {
+            if (result.getWaitDuration() != null) {
+                delegate.transitionToOpenStateFor(result.getWaitDuration());
+            } else {
+                delegate.transitionToOpenStateUntil(result.getWaitUntil());
+            }
+        }
+    }
+
+    private static Duration elapsed(long duration, TimeUnit durationUnit) {
+        return Duration.ofNanos(durationUnit.toNanos(duration));
+    }
+
+    private void resetWindow() {
+        window = new StripedSlidingWindow(windowSize, stripes);
+    }
+
+    /**
+     * Called for every recorded call, so nothing is allocated unless someone listens.
+     */
+    private void publishCallEvent(long duration, TimeUnit durationUnit, Throwable failure) {
+        if (eventProcessor.hasConsumers()) {
+            Duration elapsed = elapsed(duration, durationUnit);
+            eventProcessor.consumeEvent(failure != null
+                    ? new CircuitBreakerOnErrorEvent(getName(), elapsed, failure)
+                    : new CircuitBreakerOnSuccessEvent(getName(), elapsed));
+        }
+    }
+
+    private void publishEvent(Supplier<CircuitBreakerEvent> eventSupplier) {
+        if (eventProcessor.hasConsumers()) {
+            eventProcessor.consumeEvent(eventSupplier.get());
+        }
+    }
+
+    private final class WindowMetrics implements Metrics {
+
+        float failureRate(StripedSlidingWindow current) {
+            int bufferedCalls = current.bufferedCalls();
+            if (bufferedCalls == 0 || bufferedCalls < minimumNumberOfCalls) {
+                return -1.0f;
+            }
+            return current.failedCalls() * 100.0f / bufferedCalls;
+        }
+
+        float slowCallRate(StripedSlidingWindow current) {
+            int bufferedCalls = current.bufferedCalls();
+            if (bufferedCalls == 0 || bufferedCalls < minimumNumberOfCalls) {
+                return -1.0f;
+            }
+            return current.slowCalls() * 100.0f / bufferedCalls;
+        }
+
+        @Override
+        public float getFailureRate() {
+            return failureRate(window);
+        }
+
+        @Override
+        public float getSlowCallRate() {
+            return slowCallRate(window);
+        }
+
+        @Override
+        public int getNumberOfSlowCalls() {
+            return window.slowCalls();
+        }
+
+        @Override
+        public int getNumberOfSlowSuccessfulCalls() {
+            StripedSlidingWindow current = window;
+            return current.slowCalls() - current.slowFailedCalls();
+        }
+
+        @Override
+        public int getNumberOfSlowFailedCalls() {
+            return window.slowFailedCalls();
+        }
+
+        @Override
+        public int getNumberOfBufferedCalls() {
+            return window.bufferedCalls();
+        }
+
+        @Override
+        public int getNumberOfFailedCalls() {
+            return window.failedCalls();
+        }
+
+        @Override
+        public long getNumberOfNotPermittedCalls() {
+            return delegate.getMetrics().getNumberOfNotPermittedCalls();
+        }
+
+        @Override
+        public int getNumberOfSuccessfulCalls() {
+            StripedSlidingWindow current = window;
+            return current.bufferedCalls() - current.failedCalls();
+        }
+    }
+
+    private static final class StripedEventProcessor extends EventProcessor<CircuitBreakerEvent>
+            implements EventConsumer<CircuitBreakerEvent> {
+
+        @Override
+        public void consumeEvent(CircuitBreakerEvent event) {
+            super.processEvent(event);
+        }
+    }
+
+    /**
+     * Registers every consumer with this and the wrapped circuit breaker.
+     */
+    private final class StripedEventPublisher implements EventPublisher {
+
+        @Override
+        public EventPublisher onSuccess(EventConsumer<CircuitBreakerOnSuccessEvent> eventConsumer) {
+            eventProcessor.registerConsumer(CircuitBreakerOnSuccessEvent.class.getName(), eventConsumer);
+            delegate.getEventPublisher().onSuccess(eventConsumer);
+            return this;
+        }
+
+        @Override
+        public EventPublisher onError(EventConsumer<CircuitBreakerOnErrorEvent> eventConsumer) {
+            eventProcessor.registerConsumer(CircuitBreakerOnErrorEvent.class.getName(), eventConsumer);
+            delegate.getEventPublisher().onError(eventConsumer);
+            return this;
+        }
+
+        @Override
+        public EventPublisher onStateTransition(EventConsumer<CircuitBreakerOnStateTransitionEvent> eventConsumer) {
+            delegate.getEventPublisher().onStateTransition(eventConsumer);
+            return this;
+        }
+
+        @Override
+        public EventPublisher onReset(EventConsumer<CircuitBreakerOnResetEvent> eventConsumer) {
+            delegate.getEventPublisher().onReset(eventConsumer);
+            return this;
+        }
+
+        @Override
+        public EventPublisher onIgnoredError(EventConsumer<CircuitBreakerOnIgnoredErrorEvent> eventConsumer) {
+            delegate.getEventPublisher().onIgnoredError(eventConsumer);
+            return this;
+        }
+
+        @Override
+        public EventPublisher onCallNotPermitted(EventConsumer<CircuitBreakerOnCallNotPermittedEvent> eventConsumer) {
+            delegate.getEventPublisher().onCallNotPermitted(eventConsumer);
+            return this;
+        }
+
+        @Override
+        public EventPublisher onFailureRateExceeded(
+                EventConsumer<CircuitBreakerOnFailureRateExceededEvent> eventConsumer) {
+            eventProcessor.registerConsumer(CircuitBreakerOnFailureRateExceededEvent.class.getName(), eventConsumer);
+            delegate.getEventPublisher().onFailureRateExceeded(eventConsumer);
+            return this;
+        }
+
+        @Override
+        public EventPublisher onSlowCallRateExceeded(
+                EventConsumer<CircuitBreakerOnSlowCallRateExceededEvent> eventConsumer) {
+            eventProcessor.registerConsumer(CircuitBreakerOnSlowCallRateExceededEvent.class.getName(), eventConsumer);
+            delegate.getEventPublisher().onSlowCallRateExceeded(eventConsumer);
+            return this;
+        }
+
+        @Override
+        public void onEvent(EventConsumer<CircuitBreakerEvent> onEventConsumer) {
+            eventProcessor.onEvent(onEventConsumer);
+            delegate.getEventPublisher().onEvent(onEventConsumer);
+        }
+    }
+}
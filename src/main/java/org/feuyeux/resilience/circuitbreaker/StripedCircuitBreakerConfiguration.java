@@ -0,0 +1,16 @@
+package org.feuyeux.resilience.circuitbreaker;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(StripedCircuitBreakerProperties.class)
+public class StripedCircuitBreakerConfiguration {
+
+    @Bean
+    public static StripedCircuitBreakerInstaller stripedCircuitBreakerInstaller(
+            StripedCircuitBreakerProperties properties) {
+        return new StripedCircuitBreakerInstaller(properties);
+    }
+}
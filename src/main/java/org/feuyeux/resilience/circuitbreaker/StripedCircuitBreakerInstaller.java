@@ -0,0 +1,40 @@
+package org.feuyeux.resilience.circuitbreaker;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import static org.feuyeux.resilience.circuitbreaker.StripedCircuitBreakerProperties.InstanceProperties;
+
+/**
+ * Replaces the configured circuit breakers of the {@link CircuitBreakerRegistry} with {@link StripedCircuitBreaker}s
+ * right after the registry is created, before any controller or aspect looks them up. Does nothing unless
+ * {@code resilience.striped-circuitbreaker.enabled} is set.
+ */
+@Slf4j
+public class StripedCircuitBreakerInstaller implements BeanPostProcessor {
+
+    private final StripedCircuitBreakerProperties properties;
+
+    public StripedCircuitBreakerInstaller(StripedCircuitBreakerProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (properties.isEnabled() && bean instanceof CircuitBreakerRegistry circuitBreakerRegistry) {
+            properties.getInstances().forEach((name, instance) -> install(circuitBreakerRegistry, name, instance));
+        }
+        return bean;
+    }
+
+    private void install(CircuitBreakerRegistry circuitBreakerRegistry, String name, InstanceProperties instance) {
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(name);
+        int stripes = instance.getStripes() > 0 ? instance.getStripes() : Runtime.getRuntime().availableProcessors();
+        StripedCircuitBreaker striped = new StripedCircuitBreaker(circuitBreaker, stripes);
+        circuitBreakerRegistry.replace(name, striped);
+        log.info("StripedCircuitBreaker[{}] stripes:{} slidingWindowSize:{}", name, striped.getStripes(),
+                circuitBreaker.getCircuitBreakerConfig().getSlidingWindowSize());
+    }
+}
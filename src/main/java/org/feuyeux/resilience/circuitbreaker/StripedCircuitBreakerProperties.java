@@ -0,0 +1,28 @@
+package org.feuyeux.resilience.circuitbreaker;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "resilience.striped-circuitbreaker")
+public class StripedCircuitBreakerProperties {
+
+    /**
+     * the striped window only approximates the last calls under concurrency, so the resilience4j circuit breakers
+     * are kept unless this is set
+     */
+    private boolean enabled = false;
+    private Map<String, InstanceProperties> instances = new HashMap<>();
+
+    @Data
+    public static class InstanceProperties {
+        /**
+         * segments of the sliding window, rounded down to a power of two dividing its size; 0 for the number of
+         * processors
+         */
+        private int stripes = 0;
+    }
+}
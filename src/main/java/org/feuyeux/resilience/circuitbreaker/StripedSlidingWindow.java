@@ -0,0 +1,162 @@
+package org.feuyeux.resilience.circuitbreaker;
+
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+/**
+ * Count-based sliding window over the last {@code windowSize} calls without locks or allocation. The ring is split
+ * into one segment per stripe, each with its own head and counter cell, LongAdder-style; the totals are summed over
+ * the cells on read. A call takes the next turn of the home cell of its thread, which rotates it over the stripes,
+ * claims the next slot of that stripe's segment and swaps its outcome in; the difference to the evicted outcome goes
+ * to the stripe's counters. No counter is shared by all callers: threads with different home cells meet at most on
+ * the head of a stripe. A single thread visits the stripes in turn and sees exactly the last {@code windowSize}
+ * calls, concurrent threads about them. Slots and cells are padded to a cache line each, so concurrent callers do not
+ * invalidate each other's lines.
+ * <p>
+ * The stripes are rounded down to a power of two that divides {@code windowSize}, so every segment is the same size;
+ * an odd window is not striped.
+ * <p>
+ * A window is never cleared in place, the circuit breaker replaces it, so a record racing with a reset cannot leave
+ * the counters out of step with the slots.
+ */
+class StripedSlidingWindow {
+
+    static final int CALL = 1;
+    static final int FAILED = 2;
+    static final int SLOW = 4;
+    // 16 ints, one cache line
+    private static final int PADDING = 16;
+    private static final int CALLS = 0;
+    private static final int FAILED_CALLS = 1;
+    private static final int SLOW_CALLS = 2;
+    private static final int SLOW_FAILED_CALLS = 3;
+    // next slot of the stripe's segment
+    private static final int HEAD = 4;
+    // next stripe for the threads whose home cell this is
+    private static final int TURN = 5;
+
+    private final int windowSize;
+    private final int requestedStripes;
+    private final int segmentSize;
+    private final AtomicIntegerArray slots;
+    private final AtomicIntegerArray cells;
+    private final int mask;
+    private final AtomicBoolean tripped = new AtomicBoolean();
+    private volatile boolean minimumReached;
+
+    StripedSlidingWindow(int windowSize, int stripes) {
+        int count = Math.min(Integer.highestOneBit(Math.max(1, stripes)), Integer.lowestOneBit(windowSize));
+        this.windowSize = windowSize;
+        this.requestedStripes = stripes;
+        this.segmentSize = windowSize / count;
+        this.mask = count - 1;
+        this.slots = new AtomicIntegerArray(windowSize * PADDING);
+        // one spare line in front, so the first cell does not share the line of the array header
+        this.cells = new AtomicIntegerArray((count + 1) * PADDING);
+    }
+
+    void record(int outcome) {
+        int home = (int) Thread.currentThread().threadId() & mask;
+        int stripe = (home + cells.getAndIncrement(cell(home) + TURN)) & mask;
+        int cell = cell(stripe);
+        int position = Integer.remainderUnsigned(cells.getAndIncrement(cell + HEAD), segmentSize);
+        int evicted = slots.getAndSet((stripe * segmentSize + position) * PADDING, outcome);
+        if (evicted != outcome) {
+            add(cell, evicted, -1);
+            add(cell, outcome, 1);
+        }
+    }
+
+    /**
+     * @return a window of {@code windowSize} calls holding the latest calls of this one, tripped if this one is
+     */
+    StripedSlidingWindow resize(int windowSize) {
+        StripedSlidingWindow resized = new StripedSlidingWindow(windowSize, requestedStripes);
+        int keep = Math.min(segmentSize, Math.ceilDiv(Math.min(this.windowSize, windowSize), stripes()));
+        // oldest first, a turn over every stripe at a time, as a single thread recorded them
+        for (int age = keep - 1; age >= 0; age--) {
+            for (int stripe = 0; stripe < stripes(); stripe++) {
+                int head = cells.get(cell(stripe) + HEAD);
+                if (Integer.compareUnsigned(head, age) > 0) {
+                    int position = Integer.remainderUnsigned(head - 1 - age, segmentSize);
+                    int outcome = slots.get((stripe * segmentSize + position) * PADDING);
+                    if (outcome != 0) {
+                        resized.record(outcome);
+                    }
+                }
+            }
+        }
+        resized.tripped.set(tripped.get());
+        return resized;
+    }
+
+    int stripes() {
+        return mask + 1;
+    }
+
+    int bufferedCalls() {
+        return sum(CALLS);
+    }
+
+    int failedCalls() {
+        return sum(FAILED_CALLS);
+    }
+
+    int slowCalls() {
+        return sum(SLOW_CALLS);
+    }
+
+    int slowFailedCalls() {
+        return sum(SLOW_FAILED_CALLS);
+    }
+
+    /**
+     * Once the minimum number of calls is buffered it stays so, a fast successful call can then no longer push a
+     * rate over its threshold.
+     */
+    boolean isMinimumReached(int minimumNumberOfCalls) {
+        if (!minimumReached && bufferedCalls() >= minimumNumberOfCalls) {
+            minimumReached = true;
+        }
+        return minimumReached;
+    }
+
+    /**
+     * @return true for the one caller that trips the circuit breaker with this window
+     */
+    boolean trip() {
+        return tripped.compareAndSet(false, true);
+    }
+
+    boolean isTripped() {
+        return tripped.get();
+    }
+
+    private static int cell(int stripe) {
+        return (stripe + 1) * PADDING;
+    }
+
+    private void add(int cell, int outcome, int delta) {
+        if ((outcome & CALL) == 0) {
+            return;
+        }
+        cells.getAndAdd(cell + CALLS, delta);
+        if ((outcome & FAILED) != 0) {
+            cells.getAndAdd(cell + FAILED_CALLS, delta);
+        }
+        if ((outcome & SLOW) != 0) {
+            cells.getAndAdd(cell + SLOW_CALLS, delta);
+            if ((outcome & FAILED) != 0) {
+                cells.getAndAdd(cell + SLOW_FAILED_CALLS, delta);
+            }
+        }
+    }
+
+    private int sum(int counter) {
+        int sum = 0;
+        for (int cell = PADDING; cell < cells.length(); cell += PADDING) {
+            sum += cells.get(cell + counter);
+        }
+        return sum;
+    }
+}
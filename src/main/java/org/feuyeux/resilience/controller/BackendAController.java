@@ -3,6 +3,7 @@ package org.feuyeux.resilience.controller;
 import io.github.resilience4j.ratelimiter.RequestNotPermitted;
 import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
 import lombok.extern.slf4j.Slf4j;
+import org.feuyeux.resilience.deadline.Deadline;
 import org.feuyeux.resilience.service.BackendService;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.http.HttpHeaders;
@@ -16,6 +17,11 @@ import java.util.concurrent.CompletableFuture;
 
 import static org.feuyeux.resilience.service.BackendABackendService.BACKEND_A;
 
+/**
+ * Calls the annotated {@code backendA} service. The {@code CompletableFuture} endpoints bind the {@link Deadline} of
+ * the request, so every attempt of their {@code @TimeLimiter} ends at it; the blocking endpoints are not bounded by a
+ * deadline, {@code /backendB} holds its blocking calls to theirs.
+ */
 @RestController
 @RequestMapping(value = "/backendA")
 @Slf4j
@@ -62,18 +68,18 @@ public class BackendAController {
     }
 
     @GetMapping("futureFailure")
-    public CompletableFuture<String> futureFailure() {
-        return businessABackendService.futureFailure();
+    public CompletableFuture<String> futureFailure(Deadline deadline) {
+        return deadline.bind(businessABackendService::futureFailure);
     }
 
     @GetMapping("futureSuccess")
-    public CompletableFuture<String> futureSuccess() {
-        return businessABackendService.futureSuccess();
+    public CompletableFuture<String> futureSuccess(Deadline deadline) {
+        return deadline.bind(businessABackendService::futureSuccess);
     }
 
     @GetMapping("futureTimeout")
-    public CompletableFuture<String> futureTimeout() {
-        return businessABackendService.futureTimeout();
+    public CompletableFuture<String> futureTimeout(Deadline deadline) {
+        return deadline.bind(businessABackendService::futureTimeout);
     }
 
     @GetMapping("fallback")
@@ -4,7 +4,6 @@ import io.github.resilience4j.bulkhead.*;
 import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import io.github.resilience4j.circuitbreaker.CircuitBreaker;
 import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
-import io.github.resilience4j.decorators.Decorators;
 import io.github.resilience4j.ratelimiter.RateLimiter;
 import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
 import io.github.resilience4j.retry.Retry;
@@ -12,14 +11,38 @@ import io.github.resilience4j.retry.RetryRegistry;
 import io.github.resilience4j.timelimiter.TimeLimiter;
 import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
 import lombok.extern.slf4j.Slf4j;
+import org.feuyeux.resilience.admission.AdmissionQueue;
+import org.feuyeux.resilience.admission.AdmissionQueueRegistry;
+import org.feuyeux.resilience.admission.Priority;
+import org.feuyeux.resilience.batch.MicroBatcher;
+import org.feuyeux.resilience.batch.MicroBatcherRegistry;
+import org.feuyeux.resilience.bulkhead.AsyncBulkhead;
+import org.feuyeux.resilience.bulkhead.AsyncBulkheadRegistry;
+import org.feuyeux.resilience.cache.ResultCache;
+import org.feuyeux.resilience.cache.ResultCacheRegistry;
+import org.feuyeux.resilience.deadline.Deadline;
+import org.feuyeux.resilience.deadline.DeadlineGuard;
+import org.feuyeux.resilience.deadline.DeadlineRegistry;
+import org.feuyeux.resilience.hedge.Hedge;
+import org.feuyeux.resilience.hedge.HedgeRegistry;
+import org.feuyeux.resilience.pipeline.AsyncPipeline;
+import org.feuyeux.resilience.pipeline.Pipeline;
+import org.feuyeux.resilience.saturation.SaturationTelemetry;
+import org.feuyeux.resilience.saturation.SaturationTimers.Kind;
+import org.feuyeux.resilience.saturation.TimedScheduledExecutor;
 import org.feuyeux.resilience.service.BackendService;
+import org.feuyeux.resilience.singleflight.SingleFlight;
+import org.feuyeux.resilience.singleflight.SingleFlightRegistry;
+import org.springframework.beans.factory.DisposableBean;
 import org.springframework.beans.factory.annotation.Qualifier;
 import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestHeader;
 import org.springframework.web.bind.annotation.RequestMapping;
 import org.springframework.web.bind.annotation.RestController;
 
+import java.util.List;
 import java.util.concurrent.*;
-import java.util.function.Function;
 import java.util.function.Supplier;
 
 import static java.util.Arrays.asList;
@@ -27,87 +50,155 @@ import static java.util.Arrays.asList;
 @RestController
 @RequestMapping(value = "/backendB")
 @Slf4j
-public class BackendBController {
+public class BackendBController implements DisposableBean {
 
     private static final String BACKEND_B = "backendB";
+    private static final long DEADLINE_BUCKET_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
     private final BackendService businessBackendService;
-    private final CircuitBreaker circuitBreaker;
-    private final Bulkhead bulkhead;
-    private final ThreadPoolBulkhead threadPoolBulkhead;
-    private final Retry retry;
-    private final RateLimiter rateLimiter;
-    private final TimeLimiter timeLimiter;
+    private final AsyncBulkhead asyncBulkhead;
     private final ScheduledExecutorService scheduledExecutorService;
+    private final SingleFlight singleFlight;
+    private final ResultCache resultCache;
+    private final MicroBatcher<String, String> microBatcher;
+    private final DeadlineGuard deadlineGuard;
+    private final Pipeline executePipeline;
+    private final Pipeline ignorePipeline;
+    private final Pipeline bulkheadPipeline;
+    private final Pipeline batchPipeline;
+    private final Pipeline rateLimiterPipeline;
+    private final AsyncPipeline asyncPipeline;
+    private final AsyncPipeline asyncFallbackPipeline;
 
     public BackendBController(
             @Qualifier("backendBService") BackendService businessBackendService,
             CircuitBreakerRegistry circuitBreakerRegistry,
-            ThreadPoolBulkheadRegistry threadPoolBulkheadRegistry,
-            BulkheadRegistry bulkheadRegistry,
+            AsyncBulkheadRegistry asyncBulkheadRegistry,
             RetryRegistry retryRegistry,
             RateLimiterRegistry rateLimiterRegistry,
-            TimeLimiterRegistry timeLimiterRegistry) {
+            TimeLimiterRegistry timeLimiterRegistry,
+            SingleFlightRegistry singleFlightRegistry,
+            ResultCacheRegistry resultCacheRegistry,
+            HedgeRegistry hedgeRegistry,
+            AdmissionQueueRegistry admissionQueueRegistry,
+            MicroBatcherRegistry microBatcherRegistry,
+            DeadlineRegistry deadlineRegistry,
+            SaturationTelemetry saturationTelemetry) {
         this.businessBackendService = businessBackendService;
-        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(BACKEND_B);
-        this.bulkhead = bulkheadRegistry.bulkhead(BACKEND_B);
-        this.threadPoolBulkhead = threadPoolBulkheadRegistry.bulkhead(BACKEND_B);
-        this.retry = retryRegistry.retry(BACKEND_B);
-        this.rateLimiter = rateLimiterRegistry.rateLimiter(BACKEND_B);
-        this.timeLimiter = timeLimiterRegistry.timeLimiter(BACKEND_B);
-        this.scheduledExecutorService = Executors.newScheduledThreadPool(3);
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker(BACKEND_B);
+        AdmissionQueue admissionQueue = admissionQueueRegistry.admissionQueue(BACKEND_B);
+        this.asyncBulkhead = asyncBulkheadRegistry.asyncBulkhead(BACKEND_B);
+        Retry retry = retryRegistry.retry(BACKEND_B);
+        RateLimiter rateLimiter = rateLimiterRegistry.rateLimiter(BACKEND_B);
+        TimeLimiter timeLimiter = timeLimiterRegistry.timeLimiter(BACKEND_B);
+        this.scheduledExecutorService = new TimedScheduledExecutor(3,
+                saturationTelemetry.timers(BACKEND_B, Kind.SCHEDULER));
+        this.singleFlight = singleFlightRegistry.singleFlight(BACKEND_B);
+        this.resultCache = resultCacheRegistry.resultCache(BACKEND_B);
+        Hedge hedge = hedgeRegistry.hedge(BACKEND_B);
+        this.microBatcher = microBatcherRegistry.microBatcher(BACKEND_B, this::executeBatch);
+        this.deadlineGuard = deadlineRegistry.deadlineGuard(BACKEND_B);
+        this.executePipeline = Pipeline.builder()
+                .withCircuitBreaker(circuitBreaker)
+                .withAdmissionQueue(admissionQueue)
+                .withRetry(retry, deadlineGuard)
+                .build();
+        this.ignorePipeline = Pipeline.builder()
+                .withCircuitBreaker(circuitBreaker)
+                .withAdmissionQueue(admissionQueue)
+                .withDeadline(deadlineGuard)
+                .build();
+        this.bulkheadPipeline = Pipeline.builder()
+                .withAdmissionQueue(admissionQueue)
+                .withDeadline(deadlineGuard)
+                .build();
+        this.batchPipeline = Pipeline.builder()
+                .withCircuitBreaker(circuitBreaker)
+                .withAdmissionQueue(admissionQueue)
+                .build();
+        this.rateLimiterPipeline = Pipeline.builder()
+                .withRateLimiter(rateLimiter)
+                .withDeadline(deadlineGuard)
+                .build();
+        this.asyncPipeline = AsyncPipeline.builder(asyncBulkhead)
+                .withHedge(hedge, scheduledExecutorService)
+                .withTimeLimiter(timeLimiter, deadlineGuard, scheduledExecutorService)
+                .withCircuitBreaker(circuitBreaker)
+                .withRetry(retry, deadlineGuard, scheduledExecutorService)
+                .build();
+        this.asyncFallbackPipeline = AsyncPipeline.builder(asyncBulkhead)
+                .withHedge(hedge, scheduledExecutorService)
+                .withTimeLimiter(timeLimiter, deadlineGuard, scheduledExecutorService)
+                .withCircuitBreaker(circuitBreaker)
+                .withFallback(asList(TimeoutException.class, CallNotPermittedException.class,
+                        BulkheadFullException.class), this::fallback)
+                .build();
     }
 
     @GetMapping("bulkhead")
-    public String bulkhead(){
-        return executeWithBulkHead(businessBackendService::success);
+    public String bulkhead(@RequestHeader(value = Priority.HEADER, required = false) String priority,
+                           Deadline deadline) {
+        return executeWithBulkHead(Priority.of(priority), deadline, businessBackendService::success);
     }
 
     @GetMapping("bulkheadAsync")
-    public CompletableFuture<String> bulkheadAsync() {
-        return executeWithAsyncBulkHead(businessBackendService::success);
+    public CompletableFuture<String> bulkheadAsync(Deadline deadline) {
+        return executeWithAsyncBulkHead(deadline, businessBackendService::success);
     }
 
     @GetMapping("failure")
-    public String failure() {
-        return execute(businessBackendService::failure);
+    public String failure(@RequestHeader(value = Priority.HEADER, required = false) String priority,
+                          Deadline deadline) {
+        return execute(Priority.of(priority), deadline, businessBackendService::failure);
     }
 
     @GetMapping("success")
-    public String success() {
-        return execute(businessBackendService::success);
+    public String success(@RequestHeader(value = Priority.HEADER, required = false) String priority,
+                          Deadline deadline) {
+        Priority callPriority = Priority.of(priority);
+        return singleFlight.executeSupplier(FlightKey.of("success", callPriority, deadline),
+                () -> execute(callPriority, deadline, businessBackendService::success));
+    }
+
+    @GetMapping("batch/{key}")
+    public CompletableFuture<String> batch(@PathVariable String key) {
+        return microBatcher.submit(key);
     }
 
     @GetMapping("successWithRateLimiter")
-    public String successWithRateLimiter() {
-        return executeRateLimiter(businessBackendService::success);
+    public String successWithRateLimiter(Deadline deadline) {
+        return executeRateLimiter(deadline, businessBackendService::success);
     }
 
 
     @GetMapping("successException")
-    public String successException() {
-        return execute(businessBackendService::successException);
+    public String successException(@RequestHeader(value = Priority.HEADER, required = false) String priority,
+                                   Deadline deadline) {
+        return execute(Priority.of(priority), deadline, businessBackendService::successException);
     }
 
     @GetMapping("ignore")
-    public String ignore() {
-        return Decorators.ofSupplier(businessBackendService::ignoreException)
-                .withCircuitBreaker(circuitBreaker)
-                .withBulkhead(bulkhead).get();
+    public String ignore(@RequestHeader(value = Priority.HEADER, required = false) String priority,
+                         Deadline deadline) {
+        return ignorePipeline.execute(Priority.of(priority), deadline, businessBackendService::ignoreException);
     }
 
     @GetMapping("futureFailure")
-    public CompletableFuture<String> futureFailure() {
-        return executeAsync(businessBackendService::failure);
+    public CompletableFuture<String> futureFailure(Deadline deadline) {
+        return executeAsync(deadline, businessBackendService::failure);
     }
 
     @GetMapping("futureSuccess")
-    public CompletableFuture<String> futureSuccess() {
-        return executeAsync(businessBackendService::success);
+    public CompletableFuture<String> futureSuccess(Deadline deadline) {
+        return resultCache.<String>executeCompletionStage("futureSuccess",
+                        () -> singleFlight.executeCompletionStage(
+                                FlightKey.of("futureSuccess", Priority.INTERACTIVE, deadline),
+                                () -> executeAsync(deadline, businessBackendService::success)))
+                .toCompletableFuture();
     }
 
     @GetMapping("futureTimeout")
-    public CompletableFuture<String> futureTimeout() {
-        return executeAsyncWithFallback(this::timeout, this::fallback);
+    public CompletableFuture<String> futureTimeout(Deadline deadline) {
+        return executeAsyncWithFallback(deadline, this::timeout);
     }
 
     @GetMapping("fallback")
@@ -115,62 +206,83 @@ public class BackendBController {
         return businessBackendService.failureWithFallback();
     }
 
+    /**
+     * Stops the scheduler of the time limiter, retry and hedge, which the controller owns.
+     */
+    @Override
+    public void destroy() {
+        scheduledExecutorService.shutdownNow();
+    }
+
     private String timeout() {
         try {
             Thread.sleep(10000);
         } catch (InterruptedException e) {
-            log.error("",e);
+            log.info("Cancelled timeout call");
+            Thread.currentThread().interrupt();
         }
         return "";
     }
 
-    private <T> T execute(Supplier<T> supplier) {
-        return Decorators.ofSupplier(supplier)
-                .withCircuitBreaker(circuitBreaker)
-                .withBulkhead(bulkhead)
-                .withRetry(retry)
-                .get();
+    /**
+     * The deadline is checked before every attempt, and bounds the wait in the admission queue.
+     */
+    <T> T execute(Priority priority, Deadline deadline, Supplier<T> supplier) {
+        return executePipeline.execute(priority, deadline, supplier);
     }
 
-    private <T> T executeWithBulkHead(Supplier<T> supplier) {
-        return Decorators.ofSupplier(supplier)
-                .withBulkhead(bulkhead)
-                .get();
+    <T> T executeWithBulkHead(Priority priority, Deadline deadline, Supplier<T> supplier) {
+        return bulkheadPipeline.execute(priority, deadline, supplier);
     }
 
-    private <T> CompletableFuture<T> executeWithAsyncBulkHead(Supplier<T> supplier) {
-        return Decorators.ofSupplier(supplier)
-                .withThreadPoolBulkhead(threadPoolBulkhead)
-                .get()
+    <T> CompletableFuture<T> executeWithAsyncBulkHead(Deadline deadline, Supplier<T> supplier) {
+        deadlineGuard.check(deadline);
+        return asyncBulkhead.executeSupplier(supplier)
                 .toCompletableFuture();
     }
 
-    private <T> T executeRateLimiter(Supplier<T> supplier) {
-        return Decorators.ofSupplier(supplier)
-                .withRateLimiter(rateLimiter)
-                .get();
+    /**
+     * The whole batch passes the circuit breaker and the bulkhead once, it is not retried.
+     */
+    List<String> executeBatch(List<String> keys) {
+        return batchPipeline.execute(Deadline.NONE, () -> businessBackendService.successBatch(keys));
     }
 
-    private <T> CompletableFuture<T> executeAsync(Supplier<T> supplier) {
-        return Decorators.ofSupplier(supplier)
-                .withThreadPoolBulkhead(threadPoolBulkhead)
-                .withTimeLimiter(timeLimiter, scheduledExecutorService)
-                .withCircuitBreaker(circuitBreaker)
-                .withRetry(retry, scheduledExecutorService)
-                .get().toCompletableFuture();
+    <T> T executeRateLimiter(Deadline deadline, Supplier<T> supplier) {
+        return rateLimiterPipeline.execute(deadline, supplier);
     }
 
-    private <T> CompletableFuture<T> executeAsyncWithFallback(Supplier<T> supplier, Function<Throwable, T> fallback) {
-        return Decorators.ofSupplier(supplier)
-                .withThreadPoolBulkhead(threadPoolBulkhead)
-                .withTimeLimiter(timeLimiter, scheduledExecutorService)
-                .withCircuitBreaker(circuitBreaker)
-                .withFallback(asList(TimeoutException.class, CallNotPermittedException.class, BulkheadFullException.class),
-                        fallback)
-                .get().toCompletableFuture();
+    /**
+     * Every attempt gets the timeout of the time limiter or what is left until the deadline, whichever is shorter, and
+     * is cancelled at the deadline. Both hedged attempts run on the async bulkhead, the hedge timer on the scheduler of
+     * the time limiter.
+     */
+    <T> CompletableFuture<T> executeAsync(Deadline deadline, Supplier<T> supplier) {
+        return asyncPipeline.execute(deadline, supplier);
     }
 
-    private String fallback(Throwable ex) {
+    /**
+     * Recovers with {@link #fallback} from timeouts and rejections.
+     */
+    <T> CompletableFuture<T> executeAsyncWithFallback(Deadline deadline, Supplier<T> supplier) {
+        return asyncFallbackPipeline.execute(deadline, supplier);
+    }
+
+    String fallback(Throwable ex) {
         return "Recovered: " + ex.toString();
     }
+
+    /**
+     * Calls are coalesced only with calls of the same priority whose deadlines end within the same 100ms, so that a
+     * follower never shares a shed or a {@link org.feuyeux.resilience.deadline.DeadlineExceededException} meant for
+     * a leader of a lower priority or a shorter deadline.
+     */
+    private record FlightKey(String endpoint, Priority priority, long deadlineBucket) {
+
+        private static FlightKey of(String endpoint, Priority priority, Deadline deadline) {
+            return new FlightKey(endpoint, priority,
+                    deadline.isBounded()
+                            ? Math.floorDiv(System.nanoTime() + deadline.remainingNanos(), DEADLINE_BUCKET_NANOS) : -1);
+        }
+    }
 }
@@ -0,0 +1,83 @@
+package org.feuyeux.resilience.controller;
+
+import io.github.resilience4j.ratelimiter.RequestNotPermitted;
+import io.github.resilience4j.ratelimiter.annotation.RateLimiter;
+import lombok.extern.slf4j.Slf4j;
+import org.feuyeux.resilience.service.ReactiveBackendService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.ResponseEntity;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import static org.feuyeux.resilience.service.BackendABackendService.BACKEND_A;
+
+@RestController
+@RequestMapping(value = "/reactive/backendA")
+@Slf4j
+public class ReactiveBackendAController {
+
+    private final ReactiveBackendService businessABackendService;
+
+    public ReactiveBackendAController(@Qualifier("reactiveBackendAService") ReactiveBackendService businessABackendService) {
+        this.businessABackendService = businessABackendService;
+    }
+
+    @GetMapping("failure")
+    public Mono<String> failure() {
+        return businessABackendService.failure();
+    }
+
+    @GetMapping("limit")
+    @RateLimiter(name = BACKEND_A, fallbackMethod = "rateLimitingFallback")
+    public Mono<ResponseEntity<String>> limit() {
+        return Mono.just(ResponseEntity.ok("OK"));
+    }
+
+    public Mono<ResponseEntity<String>> rateLimitingFallback(RequestNotPermitted ex) {
+        HttpHeaders responseHeaders = new HttpHeaders();
+        responseHeaders.set("Retry-After", "1s");
+        return Mono.just(ResponseEntity.status(HttpStatus.TOO_MANY_REQUESTS)
+                .headers(responseHeaders) // send retry header
+                .body("Too Many Requests"));
+    }
+
+    @GetMapping("success")
+    public Mono<String> success() {
+        return businessABackendService.success();
+    }
+
+    @GetMapping("successException")
+    public Mono<String> successException() {
+        return businessABackendService.successException();
+    }
+
+    @GetMapping("ignore")
+    public Mono<String> ignore() {
+        return businessABackendService.ignoreException();
+    }
+
+    @GetMapping("fluxSuccess")
+    public Flux<String> fluxSuccess() {
+        return businessABackendService.fluxSuccess();
+    }
+
+    @GetMapping("fluxFailure")
+    public Flux<String> fluxFailure() {
+        return businessABackendService.fluxFailure();
+    }
+
+    @GetMapping("monoTimeout")
+    public Mono<String> monoTimeout() {
+        return businessABackendService.monoTimeout();
+    }
+
+    @GetMapping("fallback")
+    public Mono<String> failureWithFallback() {
+        return businessABackendService.failureWithFallback();
+    }
+}
@@ -0,0 +1,162 @@
+package org.feuyeux.resilience.controller;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.github.resilience4j.reactor.bulkhead.operator.BulkheadOperator;
+import io.github.resilience4j.reactor.circuitbreaker.operator.CircuitBreakerOperator;
+import io.github.resilience4j.reactor.ratelimiter.operator.RateLimiterOperator;
+import io.github.resilience4j.reactor.retry.RetryOperator;
+import io.github.resilience4j.reactor.timelimiter.TimeLimiterOperator;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.feuyeux.resilience.deadline.DeadlineGuard;
+import org.feuyeux.resilience.deadline.DeadlineRegistry;
+import org.feuyeux.resilience.service.ReactiveBackendService;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.util.concurrent.TimeoutException;
+
+import static org.feuyeux.resilience.service.BackendBBackendService.BACKEND_B;
+
+/**
+ * Reactive twin of {@link BackendBController}: the same resilience instances are applied as reactor operators, so
+ * waiting on the backend costs a timer rather than an event-loop thread.
+ */
+@RestController
+@RequestMapping(value = "/reactive/backendB")
+@Slf4j
+public class ReactiveBackendBController {
+
+    /**
+     * A semaphore bulkhead with maxWaitDuration would park the subscribing thread, the reactive chain uses its own
+     * instance which rejects immediately.
+     */
+    private static final String BACKEND_B_REACTIVE = "backendBReactive";
+    private final ReactiveBackendService businessBackendService;
+    private final CircuitBreaker circuitBreaker;
+    private final Bulkhead bulkhead;
+    private final Retry retry;
+    private final RateLimiter rateLimiter;
+    private final TimeLimiter timeLimiter;
+    private final DeadlineGuard deadlineGuard;
+
+    public ReactiveBackendBController(
+            @Qualifier("reactiveBackendBService") ReactiveBackendService businessBackendService,
+            CircuitBreakerRegistry circuitBreakerRegistry,
+            BulkheadRegistry bulkheadRegistry,
+            RetryRegistry retryRegistry,
+            RateLimiterRegistry rateLimiterRegistry,
+            TimeLimiterRegistry timeLimiterRegistry,
+            DeadlineRegistry deadlineRegistry) {
+        this.businessBackendService = businessBackendService;
+        this.circuitBreaker = circuitBreakerRegistry.circuitBreaker(BACKEND_B);
+        this.bulkhead = bulkheadRegistry.bulkhead(BACKEND_B_REACTIVE);
+        this.retry = retryRegistry.retry(BACKEND_B);
+        this.rateLimiter = rateLimiterRegistry.rateLimiter(BACKEND_B);
+        this.timeLimiter = timeLimiterRegistry.timeLimiter(BACKEND_B);
+        this.deadlineGuard = deadlineRegistry.deadlineGuard(BACKEND_B);
+    }
+
+    @GetMapping("bulkhead")
+    public Mono<String> bulkhead() {
+        return businessBackendService.success()
+                .transformDeferred(BulkheadOperator.of(bulkhead));
+    }
+
+    @GetMapping("failure")
+    public Mono<String> failure() {
+        return execute(businessBackendService.failure());
+    }
+
+    @GetMapping("success")
+    public Mono<String> success() {
+        return execute(businessBackendService.success());
+    }
+
+    @GetMapping("successWithRateLimiter")
+    public Mono<String> successWithRateLimiter() {
+        return businessBackendService.success()
+                .transformDeferred(RateLimiterOperator.of(rateLimiter));
+    }
+
+    @GetMapping("successException")
+    public Mono<String> successException() {
+        return execute(businessBackendService.successException());
+    }
+
+    @GetMapping("ignore")
+    public Mono<String> ignore() {
+        return businessBackendService.ignoreException()
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .transformDeferred(BulkheadOperator.of(bulkhead));
+    }
+
+    @GetMapping("fluxSuccess")
+    public Flux<String> fluxSuccess() {
+        return businessBackendService.fluxSuccess()
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .transformDeferred(BulkheadOperator.of(bulkhead))
+                .transformDeferred(RetryOperator.of(retry));
+    }
+
+    @GetMapping("fluxFailure")
+    public Flux<String> fluxFailure() {
+        return businessBackendService.fluxFailure()
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .transformDeferred(BulkheadOperator.of(bulkhead))
+                .transformDeferred(RetryOperator.of(retry));
+    }
+
+    @GetMapping("monoSuccess")
+    public Mono<String> monoSuccess() {
+        return executeWithTimeLimiter(businessBackendService.success());
+    }
+
+    @GetMapping("monoTimeout")
+    public Mono<String> monoTimeout() {
+        return executeWithTimeLimiter(businessBackendService.monoTimeout())
+                .onErrorResume(ex -> ex instanceof TimeoutException
+                                || ex instanceof CallNotPermittedException
+                                || ex instanceof BulkheadFullException,
+                        ex -> Mono.just(fallback(ex)));
+    }
+
+    @GetMapping("fallback")
+    public Mono<String> failureWithFallback() {
+        return businessBackendService.failureWithFallback();
+    }
+
+    private <T> Mono<T> execute(Mono<T> mono) {
+        return mono.transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .transformDeferred(BulkheadOperator.of(bulkhead))
+                .transformDeferred(RetryOperator.of(retry));
+    }
+
+    /**
+     * The deadline of the request, from the Reactor context, shortens the time limiter when less of it is left.
+     */
+    private <T> Mono<T> executeWithTimeLimiter(Mono<T> mono) {
+        return mono.transformDeferred(deadlineGuard.timeLimiterOperator(timeLimiter))
+                .transformDeferred(TimeLimiterOperator.of(timeLimiter))
+                .transformDeferred(CircuitBreakerOperator.of(circuitBreaker))
+                .transformDeferred(RetryOperator.of(retry));
+    }
+
+    private String fallback(Throwable ex) {
+        return "Recovered: " + ex.toString();
+    }
+}
@@ -0,0 +1,96 @@
+package org.feuyeux.resilience.deadline;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+/**
+ * The point in time by which the caller of a request wants its answer, on the {@link System#nanoTime()} clock. A
+ * request carries one deadline through every decorator and every attempt, so each of them works with what is left of
+ * the budget instead of a fixed duration of its own. {@link #NONE} never expires.
+ * <p>
+ * The reactive chains read it from the Reactor context under the key {@code Deadline.class}; the blocking and
+ * {@code CompletableFuture} chains are handed it as a parameter, like the {@link
+ * org.feuyeux.resilience.admission.Priority}, since WebFlux does not restore thread locals around controller methods.
+ * The annotated chains, whose aspects cannot be handed a parameter, find it as {@link #current()}: a controller {@link
+ * #bind binds} it around the call, and the resilience4j schedulers and thread-pool bulkheads carry it on with the
+ * {@link DeadlineContextPropagator}.
+ */
+public final class Deadline {
+
+    public static final String HEADER = "X-Request-Timeout";
+
+    /**
+     * The exchange attribute holding the deadline of a request.
+     */
+    public static final String ATTRIBUTE = Deadline.class.getName();
+
+    public static final Deadline NONE = new Deadline(0, false);
+
+    private static final ThreadLocal<Deadline> CURRENT = new ThreadLocal<>();
+
+    private final long expiresAtNanos;
+    private final boolean bounded;
+
+    private Deadline(long expiresAtNanos, boolean bounded) {
+        this.expiresAtNanos = expiresAtNanos;
+        this.bounded = bounded;
+    }
+
+    public static Deadline after(Duration timeout) {
+        return new Deadline(System.nanoTime() + timeout.toNanos(), true);
+    }
+
+    /**
+     * @return the deadline bound to the calling thread, {@link #NONE} when there is none
+     */
+    public static Deadline current() {
+        Deadline deadline = CURRENT.get();
+        return deadline != null ? deadline : NONE;
+    }
+
+    /**
+     * Runs {@code call} with this deadline as the {@link #current()} one of the calling thread, which is where the
+     * aspects of an annotated call run until it returns its future.
+     */
+    public <T> T bind(Supplier<T> call) {
+        Deadline previous = CURRENT.get();
+        CURRENT.set(this);
+        try {
+            return call.get();
+        } finally {
+            restore(previous);
+        }
+    }
+
+    static void restore(Deadline deadline) {
+        if (deadline == null) {
+            CURRENT.remove();
+        } else {
+            CURRENT.set(deadline);
+        }
+    }
+
+    public boolean isBounded() {
+        return bounded;
+    }
+
+    /**
+     * @return the nanoseconds left, {@link Long#MAX_VALUE} for {@link #NONE}, zero or less once expired
+     */
+    public long remainingNanos() {
+        return bounded ? expiresAtNanos - System.nanoTime() : Long.MAX_VALUE;
+    }
+
+    public Duration remaining() {
+        return Duration.ofNanos(remainingNanos());
+    }
+
+    public boolean isExpired() {
+        return remainingNanos() <= 0;
+    }
+
+    @Override
+    public String toString() {
+        return bounded ? "Deadline[remaining=" + remaining() + "]" : "Deadline[none]";
+    }
+}
@@ -0,0 +1,23 @@
+package org.feuyeux.resilience.deadline;
+
+import org.springframework.core.MethodParameter;
+import org.springframework.web.reactive.BindingContext;
+import org.springframework.web.reactive.result.method.SyncHandlerMethodArgumentResolver;
+import org.springframework.web.server.ServerWebExchange;
+
+/**
+ * Hands controller methods the {@link Deadline} of their request, {@link Deadline#NONE} when it has none.
+ */
+public class DeadlineArgumentResolver implements SyncHandlerMethodArgumentResolver {
+
+    @Override
+    public boolean supportsParameter(MethodParameter parameter) {
+        return parameter.getParameterType() == Deadline.class;
+    }
+
+    @Override
+    public Object resolveArgumentValue(MethodParameter parameter, BindingContext bindingContext,
+                                       ServerWebExchange exchange) {
+        return exchange.getAttributeOrDefault(Deadline.ATTRIBUTE, Deadline.NONE);
+    }
+}
@@ -0,0 +1,52 @@
+package org.feuyeux.resilience.deadline;
+
+import io.github.resilience4j.core.ContextAwareScheduledThreadPoolExecutor;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.reactive.config.WebFluxConfigurer;
+import org.springframework.web.reactive.result.method.annotation.ArgumentResolverConfigurer;
+
+@Configuration
+@EnableConfigurationProperties(DeadlineProperties.class)
+public class DeadlineConfiguration implements WebFluxConfigurer {
+
+    @Bean
+    public DeadlineRegistry deadlineRegistry(MeterRegistry meterRegistry) {
+        return new DeadlineRegistry(meterRegistry);
+    }
+
+    /**
+     * The scheduler of the retry and time limiter aspects, which pick it up by type, instead of one pool of
+     * availableProcessors threads each. Declared here rather than with {@code resilience4j.scheduled.executor}: AOT
+     * processing creates the aspects without binding configuration properties, and the resilience4j one rejects an
+     * unbound pool size.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ContextAwareScheduledThreadPoolExecutor contextAwareScheduledThreadPool(DeadlineProperties properties) {
+        return ContextAwareScheduledThreadPoolExecutor.newScheduledThreadPool()
+                .corePoolSize(properties.getSchedulerPoolSize())
+                .contextPropagators(new DeadlineContextPropagator())
+                .build();
+    }
+
+    /**
+     * Times the annotated calls out on the shared scheduler, which carries the deadline to their retries.
+     */
+    @Bean
+    public DeadlineTimeLimiterAspectExt deadlineTimeLimiterAspectExt(DeadlineRegistry deadlineRegistry,
+                                                                     ContextAwareScheduledThreadPoolExecutor scheduler) {
+        return new DeadlineTimeLimiterAspectExt(deadlineRegistry, scheduler);
+    }
+
+    @Bean
+    public DeadlineWebFilter deadlineWebFilter(DeadlineProperties properties) {
+        return new DeadlineWebFilter(properties);
+    }
+
+    @Override
+    public void configureArgumentResolvers(ArgumentResolverConfigurer configurer) {
+        configurer.addCustomResolver(new DeadlineArgumentResolver());
+    }
+}
@@ -0,0 +1,30 @@
+package org.feuyeux.resilience.deadline;
+
+import io.github.resilience4j.core.ContextPropagator;
+
+import java.util.Optional;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * Carries the {@link Deadline#current() current deadline} from the thread that submits a task to the thread that runs
+ * it. Listed as a context propagator of the resilience4j scheduler, it follows the retries and timeouts of the
+ * annotated chains; of a thread-pool bulkhead, the calls it runs.
+ */
+public class DeadlineContextPropagator implements ContextPropagator<Deadline> {
+
+    @Override
+    public Supplier<Optional<Deadline>> retrieve() {
+        return () -> Optional.of(Deadline.current()).filter(Deadline::isBounded);
+    }
+
+    @Override
+    public Consumer<Optional<Deadline>> copy() {
+        return deadline -> Deadline.restore(deadline.orElse(null));
+    }
+
+    @Override
+    public Consumer<Optional<Deadline>> clear() {
+        return deadline -> Deadline.restore(null);
+    }
+}
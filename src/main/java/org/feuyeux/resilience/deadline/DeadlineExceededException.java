@@ -0,0 +1,24 @@
+package org.feuyeux.resilience.deadline;
+
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.ResponseStatus;
+
+/**
+ * Thrown instead of starting, or continuing to wait for, work whose {@link Deadline} has passed or cannot be met. It
+ * says nothing about the health of the backend: retries, circuit breakers and the replica load balancer ignore it.
+ * <p>
+ * Like the rejections of resilience4j with {@code writableStackTraceEnabled: false}, it has no stack trace and no
+ * suppressed exceptions: it is thrown on the fail-fast path of every call that runs out of time, and the message names
+ * the backend.
+ */
+@ResponseStatus(HttpStatus.GATEWAY_TIMEOUT)
+public class DeadlineExceededException extends RuntimeException {
+
+    public DeadlineExceededException(String name) {
+        super("Deadline of a call to '" + name + "' exceeded", null, false, false);
+    }
+
+    public DeadlineExceededException(String name, Throwable cause) {
+        super("Deadline of a call to '" + name + "' exceeded before it could be retried", cause, false, false);
+    }
+}
@@ -0,0 +1,230 @@
+package org.feuyeux.resilience.deadline;
+
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * Holds the calls to one backend to their {@link Deadline}:
+ * <ul>
+ *     <li>an attempt, the first or a retry, is not started once the deadline has passed;</li>
+ *     <li>a failed attempt is not retried when less of the budget is left than the failed attempt took, since the
+ *     retry is unlikely to be faster;</li>
+ *     <li>an attempt runs for the timeout of the time limiter or until the deadline, whichever comes first, and at the
+ *     deadline the running work is cancelled even when the time limiter keeps it running
+ *     ({@code cancelRunningFuture: false}).</li>
+ * </ul>
+ * All of them fail with a {@link DeadlineExceededException}. The guard counts the calls it rejected without starting
+ * them, the running ones it cancelled, and the time the time limiter would still have let those run.
+ */
+public class DeadlineGuard {
+
+    private final String name;
+    private final LongAdder rejected = new LongAdder();
+    private final LongAdder cancelled = new LongAdder();
+    private final LongAdder avoidedNanos = new LongAdder();
+
+    public DeadlineGuard(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    /**
+     * @throws DeadlineExceededException when the deadline has passed
+     */
+    public void check(Deadline deadline) {
+        if (deadline.isExpired()) {
+            rejected.increment();
+            throw new DeadlineExceededException(name);
+        }
+    }
+
+    /**
+     * Guards every attempt of {@code retry}; wrap what the retry decorates, not the retry itself.
+     */
+    public <T> Supplier<T> decorateRetryAttempt(Deadline deadline, Retry retry, Supplier<T> attempt) {
+        if (!deadline.isBounded()) {
+            return attempt;
+        }
+        int[] attempts = {0};
+        return () -> {
+            check(deadline);
+            long start = System.nanoTime();
+            try {
+                return attempt.get();
+            } catch (RuntimeException e) {
+                throw (RuntimeException) onAttemptFailure(deadline, retry, ++attempts[0], start, e);
+            }
+        };
+    }
+
+    /**
+     * Guards every attempt of an asynchronous {@code retry}; wrap what the retry decorates, not the retry itself.
+     */
+    public <T> Supplier<CompletionStage<T>> decorateRetryAttemptStage(Deadline deadline, Retry retry,
+                                                                      Supplier<CompletionStage<T>> attempt) {
+        if (!deadline.isBounded()) {
+            return attempt;
+        }
+        int[] attempts = {0};
+        return () -> {
+            if (deadline.isExpired()) {
+                rejected.increment();
+                return CompletableFuture.failedFuture(new DeadlineExceededException(name));
+            }
+            long start = System.nanoTime();
+            CompletableFuture<T> result = new CompletableFuture<>();
+            attempt.get().whenComplete((value, throwable) -> {
+                if (throwable == null) {
+                    result.complete(value);
+                    return;
+                }
+                result.completeExceptionally(
+                        onAttemptFailure(deadline, retry, ++attempts[0], start, unwrap(throwable)));
+            });
+            return result;
+        };
+    }
+
+    /**
+     * Limits each attempt to the timeout of {@code timeLimiter} or the deadline, whichever comes first. The time
+     * limiter keeps publishing its events and applies its own {@code cancelRunningFuture}; the deadline always
+     * cancels.
+     */
+    public <T> Supplier<CompletionStage<T>> decorateTimeLimiter(Deadline deadline, TimeLimiter timeLimiter,
+                                                                ScheduledExecutorService scheduler,
+                                                                Supplier<CompletionStage<T>> supplier) {
+        return () -> executeTimeLimited(deadline, timeLimiter, scheduler, supplier);
+    }
+
+    /**
+     * Runs one attempt as {@link #decorateTimeLimiter} decorates it.
+     */
+    public <T> CompletionStage<T> executeTimeLimited(Deadline deadline, TimeLimiter timeLimiter,
+                                                     ScheduledExecutorService scheduler,
+                                                     Supplier<CompletionStage<T>> supplier) {
+        if (deadline.isExpired()) {
+            rejected.increment();
+            return CompletableFuture.failedFuture(new DeadlineExceededException(name));
+        }
+        long timeoutNanos = timeLimiter.getTimeLimiterConfig().getTimeoutDuration().toNanos();
+        long remainingNanos = deadline.remainingNanos();
+        if (remainingNanos >= timeoutNanos) {
+            return timeLimiter.decorateCompletionStage(scheduler, supplier).get();
+        }
+        long start = System.nanoTime();
+        CompletableFuture<T> work = supplier.get().toCompletableFuture();
+        CompletableFuture<T> result = new CompletableFuture<>();
+        ScheduledFuture<?> timer = scheduler.schedule(() -> {
+            if (result.completeExceptionally(new DeadlineExceededException(name))) {
+                work.cancel(true);
+                avoidedNanos.add(Math.max(0, timeoutNanos - (System.nanoTime() - start)));
+                cancelled.increment();
+            }
+        }, remainingNanos, TimeUnit.NANOSECONDS);
+        work.whenComplete((value, throwable) -> {
+            timer.cancel(false);
+            if (throwable == null) {
+                if (result.complete(value)) {
+                    timeLimiter.onSuccess();
+                }
+            } else {
+                Throwable cause = unwrap(throwable);
+                if (result.completeExceptionally(cause)) {
+                    timeLimiter.onError(cause);
+                }
+            }
+        });
+        return result;
+    }
+
+    /**
+     * The reactive counterpart of {@link #decorateTimeLimiter}, with the deadline taken from the Reactor context at
+     * every subscription, so a retry resubscribing finds what is left of it. Cancelling the subscription at the
+     * deadline cancels the work.
+     */
+    public <T> Function<Mono<T>, Mono<T>> timeLimiterOperator(TimeLimiter timeLimiter) {
+        return mono -> Mono.deferContextual(context -> {
+            Deadline deadline = context.getOrDefault(Deadline.class, Deadline.NONE);
+            if (deadline.isExpired()) {
+                rejected.increment();
+                return Mono.error(new DeadlineExceededException(name));
+            }
+            long timeoutNanos = timeLimiter.getTimeLimiterConfig().getTimeoutDuration().toNanos();
+            long remainingNanos = deadline.remainingNanos();
+            if (remainingNanos >= timeoutNanos) {
+                return mono;
+            }
+            long start = System.nanoTime();
+            return mono.timeout(Duration.ofNanos(remainingNanos), Mono.defer(() -> {
+                avoidedNanos.add(Math.max(0, timeoutNanos - (System.nanoTime() - start)));
+                cancelled.increment();
+                return Mono.error(new DeadlineExceededException(name));
+            }));
+        });
+    }
+
+    public long getRejectedCalls() {
+        return rejected.sum();
+    }
+
+    public long getCancelledCalls() {
+        return cancelled.sum();
+    }
+
+    /**
+     * @return the time the time limiter would still have let the cancelled calls run
+     */
+    public long getAvoidedNanos() {
+        return avoidedNanos.sum();
+    }
+
+    /**
+     * What a failed attempt of {@code retry}, started at {@code startNanos}, fails with: {@code failure}, or a
+     * {@link DeadlineExceededException} caused by it when the retry would go for another attempt the deadline leaves
+     * too little time for.
+     *
+     * @param attempts the attempts of the call so far, this one included
+     */
+    public Throwable onAttemptFailure(Deadline deadline, Retry retry, int attempts, long startNanos,
+                                      Throwable failure) {
+        return deadline.isBounded() && outlasts(deadline, retry, attempts, startNanos, failure)
+                ? new DeadlineExceededException(name, failure) : failure;
+    }
+
+    /**
+     * Whether the retry would go for another attempt the deadline leaves too little time for.
+     */
+    private boolean outlasts(Deadline deadline, Retry retry, int attempts, long start, Throwable throwable) {
+        if (attempts >= retry.getRetryConfig().getMaxAttempts()
+                || throwable instanceof DeadlineExceededException
+                || !retry.getRetryConfig().getExceptionPredicate().test(throwable)) {
+            return false;
+        }
+        if (deadline.remainingNanos() < System.nanoTime() - start) {
+            rejected.increment();
+            return true;
+        }
+        return false;
+    }
+
+    private static Throwable unwrap(Throwable throwable) {
+        return (throwable instanceof CompletionException || throwable instanceof ExecutionException)
+                && throwable.getCause() != null ? throwable.getCause() : throwable;
+    }
+}
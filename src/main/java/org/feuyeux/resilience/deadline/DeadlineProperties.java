@@ -0,0 +1,42 @@
+package org.feuyeux.resilience.deadline;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "resilience.deadline")
+public class DeadlineProperties {
+
+    /**
+     * request header with the timeout of the caller, in milliseconds or as a duration such as "1500ms"
+     */
+    private String header = Deadline.HEADER;
+    /**
+     * timeout of a request without the header on a route without one of its own, none when unset
+     */
+    private Duration defaultTimeout;
+    /**
+     * upper bound of the timeout a caller may ask for, none when unset
+     */
+    private Duration maxTimeout;
+    /**
+     * threads of the scheduler the retry and time limiter aspects share, which carries the deadline to their tasks
+     */
+    private int schedulerPoolSize = 4;
+    /**
+     * by endpoint path pattern, e.g. "[/backendB/**]", the most specific matching pattern wins
+     */
+    private Map<String, InstanceProperties> instances = new HashMap<>();
+
+    @Data
+    public static class InstanceProperties {
+        /**
+         * timeout of a request without the header
+         */
+        private Duration timeout;
+    }
+}
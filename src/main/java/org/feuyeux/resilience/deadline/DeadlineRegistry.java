@@ -0,0 +1,49 @@
+package org.feuyeux.resilience.deadline;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * Creates one {@link DeadlineGuard} per backend name and publishes the calls it rejected or cancelled, and the work
+ * the cancelled ones were spared.
+ */
+public class DeadlineRegistry {
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, DeadlineGuard> guards = new ConcurrentHashMap<>();
+
+    public DeadlineRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public DeadlineGuard deadlineGuard(String name) {
+        return guards.computeIfAbsent(name, this::create);
+    }
+
+    private DeadlineGuard create(String name) {
+        DeadlineGuard guard = new DeadlineGuard(name);
+        registerCounter(guard, "rejected", DeadlineGuard::getRejectedCalls);
+        registerCounter(guard, "cancelled", DeadlineGuard::getCancelledCalls);
+        FunctionCounter.builder("resilience.deadline.avoided", guard,
+                        g -> g.getAvoidedNanos() / (double) TimeUnit.SECONDS.toNanos(1))
+                .description("The time the time limiter would still have let the cancelled calls run")
+                .baseUnit("seconds")
+                .tag("name", name)
+                .register(meterRegistry);
+        return guard;
+    }
+
+    private void registerCounter(DeadlineGuard guard, String kind, ToDoubleFunction<DeadlineGuard> count) {
+        FunctionCounter.builder("resilience.deadline.calls", guard, count)
+                .description("The number of calls not started or not retried because of their deadline, "
+                        + "and of running calls cancelled at it")
+                .tag("name", guard.getName())
+                .tag("kind", kind)
+                .register(meterRegistry);
+    }
+}
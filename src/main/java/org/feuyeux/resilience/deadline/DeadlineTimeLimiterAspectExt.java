@@ -0,0 +1,44 @@
+package org.feuyeux.resilience.deadline;
+
+import io.github.resilience4j.spring6.timelimiter.configure.TimeLimiterAspectExt;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import org.aspectj.lang.ProceedingJoinPoint;
+
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Takes over the {@code CompletionStage} methods of the {@code @TimeLimiter} aspect, so that an annotated call gets
+ * the timeout of its time limiter or what is left of the {@link Deadline#current() current deadline}, whichever is
+ * shorter, as {@link DeadlineGuard#executeTimeLimited} gives it to the programmatic chains. Without a deadline it
+ * times out as the aspect would.
+ */
+public class DeadlineTimeLimiterAspectExt implements TimeLimiterAspectExt {
+
+    private final DeadlineRegistry deadlineRegistry;
+    private final ScheduledExecutorService scheduler;
+
+    public DeadlineTimeLimiterAspectExt(DeadlineRegistry deadlineRegistry, ScheduledExecutorService scheduler) {
+        this.deadlineRegistry = deadlineRegistry;
+        this.scheduler = scheduler;
+    }
+
+    @Override
+    public boolean canHandleReturnType(Class<?> returnType) {
+        return CompletionStage.class.isAssignableFrom(returnType);
+    }
+
+    @Override
+    @SuppressWarnings("unchecked")
+    public Object handle(ProceedingJoinPoint proceedingJoinPoint, TimeLimiter timeLimiter, String methodName) {
+        return deadlineRegistry.deadlineGuard(timeLimiter.getName())
+                .executeTimeLimited(Deadline.current(), timeLimiter, scheduler, () -> {
+                    try {
+                        return (CompletionStage<Object>) proceedingJoinPoint.proceed();
+                    } catch (Throwable throwable) {
+                        throw new CompletionException(throwable);
+                    }
+                });
+    }
+}
@@ -0,0 +1,86 @@
+package org.feuyeux.resilience.deadline;
+
+import org.springframework.boot.convert.DurationStyle;
+import org.springframework.core.Ordered;
+import org.springframework.http.server.PathContainer;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.ServerWebInputException;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.time.temporal.ChronoUnit;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Starts the clock of every request: the deadline is the timeout of the header, capped by {@code maxTimeout}, or the
+ * timeout of the most specific route matching the path, or {@code defaultTimeout}. It is stored as the exchange
+ * attribute {@link Deadline#ATTRIBUTE} and in the Reactor context of the rest of the chain. Requests without any of
+ * them get {@link Deadline#NONE}.
+ */
+public class DeadlineWebFilter implements WebFilter, Ordered {
+
+    private final String header;
+    private final Duration defaultTimeout;
+    private final Duration maxTimeout;
+    private final List<Map.Entry<PathPattern, Duration>> routes;
+
+    public DeadlineWebFilter(DeadlineProperties properties) {
+        this.header = properties.getHeader();
+        this.defaultTimeout = properties.getDefaultTimeout();
+        this.maxTimeout = properties.getMaxTimeout();
+        this.routes = properties.getInstances().entrySet().stream()
+                .filter(route -> route.getValue().getTimeout() != null)
+                .map(route -> Map.entry(PathPatternParser.defaultInstance.parse(route.getKey()),
+                        route.getValue().getTimeout()))
+                .sorted(Map.Entry.comparingByKey(PathPattern.SPECIFICITY_COMPARATOR))
+                .toList();
+    }
+
+    /**
+     * After the load-shedding filter, which needs no deadline, and before the SLO filter.
+     */
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 1;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        Duration timeout;
+        try {
+            timeout = timeout(exchange);
+        } catch (ServerWebInputException e) {
+            return Mono.error(e);
+        }
+        if (timeout == null) {
+            return chain.filter(exchange);
+        }
+        Deadline deadline = Deadline.after(timeout);
+        exchange.getAttributes().put(Deadline.ATTRIBUTE, deadline);
+        return chain.filter(exchange).contextWrite(context -> context.put(Deadline.class, deadline));
+    }
+
+    private Duration timeout(ServerWebExchange exchange) {
+        String value = exchange.getRequest().getHeaders().getFirst(header);
+        if (value != null) {
+            Duration requested;
+            try {
+                requested = DurationStyle.detectAndParse(value.trim(), ChronoUnit.MILLIS);
+            } catch (IllegalArgumentException e) {
+                throw new ServerWebInputException("Invalid " + header + " header '" + value + "'");
+            }
+            return maxTimeout != null && requested.compareTo(maxTimeout) > 0 ? maxTimeout : requested;
+        }
+        PathContainer path = exchange.getRequest().getPath().pathWithinApplication();
+        return routes.stream()
+                .filter(route -> route.getKey().matches(path))
+                .findFirst()
+                .map(Map.Entry::getValue)
+                .orElse(defaultTimeout);
+    }
+}
@@ -0,0 +1,35 @@
+package org.feuyeux.resilience.events;
+
+import io.github.resilience4j.bulkhead.event.BulkheadEvent;
+import io.github.resilience4j.circuitbreaker.event.CircuitBreakerEvent;
+import io.github.resilience4j.ratelimiter.event.RateLimiterEvent;
+import io.github.resilience4j.retry.event.RetryEvent;
+import io.github.resilience4j.timelimiter.event.TimeLimiterEvent;
+
+/**
+ * The resilience4j components whose events are recorded, each with the event types it publishes; an event is stored
+ * as the ordinals of both.
+ */
+public enum Component {
+    CIRCUIT_BREAKER(CircuitBreakerEvent.Type.values()),
+    RETRY(RetryEvent.Type.values()),
+    BULKHEAD(BulkheadEvent.Type.values()),
+    RATE_LIMITER(RateLimiterEvent.Type.values()),
+    TIME_LIMITER(TimeLimiterEvent.Type.values()),
+    THREAD_POOL_BULKHEAD(BulkheadEvent.Type.values());
+
+    private static final Component[] VALUES = values();
+    private final Enum<?>[] types;
+
+    Component(Enum<?>[] types) {
+        this.types = types;
+    }
+
+    static Component of(int ordinal) {
+        return VALUES[ordinal];
+    }
+
+    String type(int ordinal) {
+        return types[ordinal].name();
+    }
+}
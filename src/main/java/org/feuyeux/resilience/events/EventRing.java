@@ -0,0 +1,153 @@
+package org.feuyeux.resilience.events;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Preallocated ring of the last {@code capacity} resilience events, stored field by field in primitive arrays so
+ * recording allocates nothing. Names and exception classes are interned to small ids once.
+ * <p>
+ * Writers claim a sequence with one atomic increment and never wait for readers: a reader that falls more than
+ * {@code capacity} events behind loses the oldest ones. Each slot carries the sequence written into it, marked busy
+ * while the fields are written, and a reader checks it before and after copying the fields, so a torn or overwritten
+ * slot is never returned. A writer takes its slot with a compare-and-set from an older sequence, so two writers a
+ * whole ring apart never write the same slot at once: the newer one spins until the older one has published, and an
+ * older one that finds a newer sequence in its slot drops its event, which would have been overwritten anyway.
+ */
+public class EventRing {
+
+    private static final long EMPTY = -1;
+    private static final long BUSY = -2;
+    private static final int MAX_IDS = Short.MAX_VALUE;
+    private static final short NONE = -1;
+
+    private final int capacity;
+    private final int mask;
+    private final AtomicLong head = new AtomicLong();
+    private final AtomicLongArray sequences;
+    private final long[] timestamps;
+    private final long[] values;
+    private final byte[] components;
+    private final byte[] types;
+    private final short[] names;
+    private final short[] details;
+    private final ConcurrentMap<String, Short> ids = new ConcurrentHashMap<>();
+    private final AtomicReferenceArray<String> strings = new AtomicReferenceArray<>(MAX_IDS);
+    private final ClassValue<Short> classIds = new ClassValue<>() {
+        @Override
+        protected Short computeValue(Class<?> type) {
+            return intern(type.getName());
+        }
+    };
+
+    public EventRing(int capacity) {
+        this.capacity = Integer.highestOneBit(Math.max(1, capacity - 1)) << 1;
+        this.mask = this.capacity - 1;
+        this.sequences = new AtomicLongArray(this.capacity);
+        for (int i = 0; i < this.capacity; i++) {
+            sequences.set(i, EMPTY);
+        }
+        this.timestamps = new long[this.capacity];
+        this.values = new long[this.capacity];
+        this.components = new byte[this.capacity];
+        this.types = new byte[this.capacity];
+        this.names = new short[this.capacity];
+        this.details = new short[this.capacity];
+    }
+
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * @return the sequence the next event will get
+     */
+    public long head() {
+        return head.get();
+    }
+
+    /**
+     * @return the id of {@code value}, to be passed to {@link #record}
+     */
+    public short intern(String value) {
+        Short id = ids.get(value);
+        if (id != null) {
+            return id;
+        }
+        synchronized (ids) {
+            return ids.computeIfAbsent(value, key -> {
+                int next = ids.size();
+                if (next >= MAX_IDS) {
+                    return NONE;
+                }
+                strings.set(next, key);
+                return (short) next;
+            });
+        }
+    }
+
+    public short intern(Throwable throwable) {
+        return throwable == null ? NONE : classIds.get(throwable.getClass());
+    }
+
+    public void record(Component component, int type, short name, long value, short detail) {
+        long sequence = head.getAndIncrement();
+        int slot = (int) (sequence & mask);
+        // the compare-and-set is a full fence, the fields cannot become visible before the slot is marked busy
+        if (!claim(slot, sequence)) {
+            return;
+        }
+        timestamps[slot] = System.currentTimeMillis();
+        values[slot] = value;
+        components[slot] = (byte) component.ordinal();
+        types[slot] = (byte) type;
+        names[slot] = name;
+        details[slot] = detail;
+        sequences.setRelease(slot, sequence);
+    }
+
+    private boolean claim(int slot, long sequence) {
+        while (true) {
+            long current = sequences.get(slot);
+            if (current == BUSY) {
+                // another writer is still writing this slot
+                Thread.onSpinWait();
+            } else if (current > sequence) {
+                return false;
+            } else if (sequences.compareAndSet(slot, current, BUSY)) {
+                return true;
+            }
+        }
+    }
+
+    /**
+     * @return the event recorded with {@code sequence}, null when it is not recorded yet or was overwritten
+     */
+    public ResilienceEvent read(long sequence) {
+        int slot = (int) (sequence & mask);
+        if (sequences.getAcquire(slot) != sequence) {
+            return null;
+        }
+        long timestamp = timestamps[slot];
+        long value = values[slot];
+        int component = components[slot];
+        int type = types[slot];
+        short name = names[slot];
+        short detail = details[slot];
+        VarHandle.acquireFence();
+        if (sequences.get(slot) != sequence) {
+            return null;
+        }
+        Component decoded = Component.of(component);
+        return new ResilienceEvent(sequence, timestamp, decoded, lookup(name), decoded.type(type), value,
+                lookup(detail));
+    }
+
+    private String lookup(short id) {
+        return id == NONE ? null : strings.get(id);
+    }
+}
@@ -0,0 +1,54 @@
+package org.feuyeux.resilience.events;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+@Configuration
+@EnableConfigurationProperties(EventRingProperties.class)
+public class EventRingConfiguration {
+
+    @Bean
+    public EventRing eventRing(EventRingProperties properties, MeterRegistry meterRegistry) {
+        EventRing eventRing = new EventRing(properties.getCapacity());
+        FunctionCounter.builder("resilience.events.recorded", eventRing, EventRing::head)
+                .description("The number of resilience events recorded into the ring")
+                .register(meterRegistry);
+        return eventRing;
+    }
+
+    @Bean
+    public EventRingRecorder eventRingRecorder(EventRing eventRing, EventRingProperties properties,
+                                               CircuitBreakerRegistry circuitBreakerRegistry,
+                                               RetryRegistry retryRegistry, BulkheadRegistry bulkheadRegistry,
+                                               ThreadPoolBulkheadRegistry threadPoolBulkheadRegistry,
+                                               RateLimiterRegistry rateLimiterRegistry,
+                                               TimeLimiterRegistry timeLimiterRegistry) {
+        return new EventRingRecorder(eventRing, properties.getNames(), circuitBreakerRegistry, retryRegistry,
+                bulkheadRegistry, threadPoolBulkheadRegistry, rateLimiterRegistry, timeLimiterRegistry);
+    }
+
+    /**
+     * Only polls the ring for the streams, the events are written by the calls.
+     */
+    @Bean(destroyMethod = "dispose")
+    public Scheduler eventStreamScheduler() {
+        return Schedulers.newSingle("event-stream", true);
+    }
+
+    @Bean
+    public EventStream eventStream(EventRing eventRing, EventRingProperties properties,
+                                   Scheduler eventStreamScheduler) {
+        return new EventStream(eventRing, properties.getPollInterval(), eventStreamScheduler);
+    }
+}
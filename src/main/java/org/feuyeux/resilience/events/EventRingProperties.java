@@ -0,0 +1,26 @@
+package org.feuyeux.resilience.events;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "resilience.events")
+public class EventRingProperties {
+
+    /**
+     * events kept, rounded up to a power of two
+     */
+    private int capacity = 65536;
+    /**
+     * instances whose events are recorded
+     */
+    private List<String> names = new ArrayList<>(List.of("backendA", "backendB"));
+    /**
+     * how often a stream looks for new events
+     */
+    private Duration pollInterval = Duration.ofMillis(100);
+}
@@ -0,0 +1,164 @@
+package org.feuyeux.resilience.events;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.circuitbreaker.event.CircuitBreakerEvent;
+import io.github.resilience4j.circuitbreaker.event.CircuitBreakerOnErrorEvent;
+import io.github.resilience4j.circuitbreaker.event.CircuitBreakerOnIgnoredErrorEvent;
+import io.github.resilience4j.circuitbreaker.event.CircuitBreakerOnStateTransitionEvent;
+import io.github.resilience4j.circuitbreaker.event.CircuitBreakerOnSuccessEvent;
+import io.github.resilience4j.core.Registry;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.github.resilience4j.timelimiter.event.TimeLimiterOnErrorEvent;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.List;
+import java.util.Set;
+import java.util.function.Consumer;
+
+/**
+ * Records every event of the circuit breakers, retries, bulkheads, thread-pool bulkheads, rate limiters and time
+ * limiters of the configured names into the {@link EventRing}. Subscribes once all singletons exist, so instances
+ * replaced by the installers are the ones subscribed, and follows later additions and replacements. An instance
+ * removed or replaced is forgotten, so the recorder does not keep it alive.
+ */
+public class EventRingRecorder implements SmartInitializingSingleton {
+
+    private final EventRing eventRing;
+    private final List<String> names;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final RetryRegistry retryRegistry;
+    private final BulkheadRegistry bulkheadRegistry;
+    private final ThreadPoolBulkheadRegistry threadPoolBulkheadRegistry;
+    private final RateLimiterRegistry rateLimiterRegistry;
+    private final TimeLimiterRegistry timeLimiterRegistry;
+    private final Set<Object> subscribed = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+
+    public EventRingRecorder(EventRing eventRing, List<String> names, CircuitBreakerRegistry circuitBreakerRegistry,
+                             RetryRegistry retryRegistry, BulkheadRegistry bulkheadRegistry,
+                             ThreadPoolBulkheadRegistry threadPoolBulkheadRegistry,
+                             RateLimiterRegistry rateLimiterRegistry, TimeLimiterRegistry timeLimiterRegistry) {
+        this.eventRing = eventRing;
+        this.names = names;
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.retryRegistry = retryRegistry;
+        this.bulkheadRegistry = bulkheadRegistry;
+        this.threadPoolBulkheadRegistry = threadPoolBulkheadRegistry;
+        this.rateLimiterRegistry = rateLimiterRegistry;
+        this.timeLimiterRegistry = timeLimiterRegistry;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        follow(circuitBreakerRegistry, this::subscribe);
+        follow(retryRegistry, this::subscribe);
+        follow(bulkheadRegistry, this::subscribe);
+        follow(threadPoolBulkheadRegistry, this::subscribe);
+        follow(rateLimiterRegistry, this::subscribe);
+        follow(timeLimiterRegistry, this::subscribe);
+        for (String name : names) {
+            subscribe(circuitBreakerRegistry.circuitBreaker(name));
+            subscribe(retryRegistry.retry(name));
+            subscribe(bulkheadRegistry.bulkhead(name));
+            subscribe(threadPoolBulkheadRegistry.bulkhead(name));
+            subscribe(rateLimiterRegistry.rateLimiter(name));
+            subscribe(timeLimiterRegistry.timeLimiter(name));
+        }
+    }
+
+    private <E> void follow(Registry<E, ?> registry, Consumer<E> subscriber) {
+        registry.getEventPublisher()
+                .onEntryAdded(event -> subscriber.accept(event.getAddedEntry()))
+                .onEntryRemoved(event -> subscribed.remove(event.getRemovedEntry()))
+                .onEntryReplaced(event -> {
+                    subscribed.remove(event.getOldEntry());
+                    subscriber.accept(event.getNewEntry());
+                });
+    }
+
+    private boolean firstTime(Object instance, String name) {
+        return names.contains(name) && subscribed.add(instance);
+    }
+
+    private void subscribe(CircuitBreaker circuitBreaker) {
+        if (!firstTime(circuitBreaker, circuitBreaker.getName())) {
+            return;
+        }
+        short name = eventRing.intern(circuitBreaker.getName());
+        circuitBreaker.getEventPublisher().onEvent(event -> record(name, event));
+    }
+
+    private void record(short name, CircuitBreakerEvent event) {
+        long value = 0;
+        short detail = -1;
+        if (event instanceof CircuitBreakerOnSuccessEvent success) {
+            value = success.getElapsedDuration().toNanos();
+        } else if (event instanceof CircuitBreakerOnErrorEvent error) {
+            value = error.getElapsedDuration().toNanos();
+            detail = eventRing.intern(error.getThrowable());
+        } else if (event instanceof CircuitBreakerOnIgnoredErrorEvent ignored) {
+            value = ignored.getElapsedDuration().toNanos();
+            detail = eventRing.intern(ignored.getThrowable());
+        } else if (event instanceof CircuitBreakerOnStateTransitionEvent transition) {
+            detail = eventRing.intern(transition.getStateTransition().name());
+        }
+        eventRing.record(Component.CIRCUIT_BREAKER, event.getEventType().ordinal(), name, value, detail);
+    }
+
+    private void subscribe(Retry retry) {
+        if (!firstTime(retry, retry.getName())) {
+            return;
+        }
+        short name = eventRing.intern(retry.getName());
+        retry.getEventPublisher().onEvent(event -> eventRing.record(Component.RETRY, event.getEventType().ordinal(),
+                name, event.getNumberOfRetryAttempts(), eventRing.intern(event.getLastThrowable())));
+    }
+
+    private void subscribe(Bulkhead bulkhead) {
+        if (!firstTime(bulkhead, bulkhead.getName())) {
+            return;
+        }
+        short name = eventRing.intern(bulkhead.getName());
+        bulkhead.getEventPublisher().onEvent(event -> eventRing.record(Component.BULKHEAD,
+                event.getEventType().ordinal(), name, 0, (short) -1));
+    }
+
+    private void subscribe(ThreadPoolBulkhead threadPoolBulkhead) {
+        if (!firstTime(threadPoolBulkhead, threadPoolBulkhead.getName())) {
+            return;
+        }
+        short name = eventRing.intern(threadPoolBulkhead.getName());
+        threadPoolBulkhead.getEventPublisher().onEvent(event -> eventRing.record(Component.THREAD_POOL_BULKHEAD,
+                event.getEventType().ordinal(), name, 0, (short) -1));
+    }
+
+    private void subscribe(RateLimiter rateLimiter) {
+        if (!firstTime(rateLimiter, rateLimiter.getName())) {
+            return;
+        }
+        short name = eventRing.intern(rateLimiter.getName());
+        rateLimiter.getEventPublisher().onEvent(event -> eventRing.record(Component.RATE_LIMITER,
+                event.getEventType().ordinal(), name, event.getNumberOfPermits(), (short) -1));
+    }
+
+    private void subscribe(TimeLimiter timeLimiter) {
+        if (!firstTime(timeLimiter, timeLimiter.getName())) {
+            return;
+        }
+        short name = eventRing.intern(timeLimiter.getName());
+        timeLimiter.getEventPublisher().onEvent(event -> eventRing.record(Component.TIME_LIMITER,
+                event.getEventType().ordinal(), name, 0,
+                event instanceof TimeLimiterOnErrorEvent error ? eventRing.intern(error.getThrowable()) : -1));
+    }
+}
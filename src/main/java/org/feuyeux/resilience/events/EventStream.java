@@ -0,0 +1,116 @@
+package org.feuyeux.resilience.events;
+
+import org.springframework.http.MediaType;
+import org.springframework.http.codec.ServerSentEvent;
+import org.springframework.web.reactive.function.BodyInserters;
+import org.springframework.web.reactive.function.server.ServerRequest;
+import org.springframework.web.reactive.function.server.ServerResponse;
+import reactor.core.Disposable;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.FluxSink;
+import reactor.core.publisher.Mono;
+import reactor.core.scheduler.Scheduler;
+
+import java.time.Duration;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Streams the {@link EventRing} as Server-Sent Events. Every subscriber reads the ring through its own cursor, only
+ * as far as it has requested, and polls for new events instead of being woken by the writers, so neither a slow nor
+ * a fast subscriber costs the request path anything. A subscriber that falls more than the ring capacity behind gets
+ * a {@code dropped} event with the number of events it missed and continues with the oldest one still recorded.
+ * <p>
+ * A stream starts at the oldest recorded event, or after the one named by {@code Last-Event-ID} when reconnecting.
+ */
+public class EventStream {
+
+    private static final String LAST_EVENT_ID = "Last-Event-ID";
+    private final EventRing eventRing;
+    private final long pollIntervalNanos;
+    private final Scheduler scheduler;
+
+    public EventStream(EventRing eventRing, Duration pollInterval, Scheduler scheduler) {
+        this.eventRing = eventRing;
+        this.pollIntervalNanos = pollInterval.toNanos();
+        this.scheduler = scheduler;
+    }
+
+    public Mono<ServerResponse> handle(ServerRequest request) {
+        long from = request.headers().firstHeader(LAST_EVENT_ID) == null ? oldest()
+                : parse(request.headers().firstHeader(LAST_EVENT_ID)) + 1;
+        return ServerResponse.ok()
+                .contentType(MediaType.TEXT_EVENT_STREAM)
+                .body(BodyInserters.fromServerSentEvents(stream(from)));
+    }
+
+    public Flux<ServerSentEvent<Object>> stream(long from) {
+        return Flux.create(sink -> {
+            Cursor cursor = new Cursor(sink, from);
+            Disposable poller = scheduler.schedulePeriodically(cursor::drain, pollIntervalNanos, pollIntervalNanos,
+                    TimeUnit.NANOSECONDS);
+            sink.onRequest(requested -> cursor.drain());
+            sink.onDispose(poller);
+        });
+    }
+
+    private long oldest() {
+        return Math.max(0, eventRing.head() - eventRing.capacity());
+    }
+
+    private long parse(String lastEventId) {
+        try {
+            return Long.parseLong(lastEventId.trim());
+        } catch (NumberFormatException e) {
+            return oldest() - 1;
+        }
+    }
+
+    private final class Cursor {
+
+        private final FluxSink<ServerSentEvent<Object>> sink;
+        private final AtomicInteger wip = new AtomicInteger();
+        private long next;
+
+        private Cursor(FluxSink<ServerSentEvent<Object>> sink, long from) {
+            this.sink = sink;
+            this.next = from;
+        }
+
+        /**
+         * Emits what is recorded and requested; concurrent calls from the poller and from requests are serialized,
+         * a call arriving while another one drains makes it loop once more.
+         */
+        private void drain() {
+            if (wip.getAndIncrement() != 0) {
+                return;
+            }
+            int missed = 1;
+            do {
+                emit();
+                missed = wip.addAndGet(-missed);
+            } while (missed != 0);
+        }
+
+        private void emit() {
+            while (sink.requestedFromDownstream() > 0 && !sink.isCancelled()) {
+                long oldest = eventRing.head() - eventRing.capacity();
+                if (next < oldest) {
+                    sink.next(ServerSentEvent.<Object>builder(oldest - next).event("dropped").build());
+                    next = oldest;
+                    continue;
+                }
+                ResilienceEvent event = eventRing.read(next);
+                if (event == null) {
+                    // not recorded yet, or overwritten while reading, which the next round reports as dropped
+                    return;
+                }
+                next++;
+                sink.next(ServerSentEvent.<Object>builder(event)
+                        .id(Long.toString(event.sequence()))
+                        .event(event.component().name())
+                        .build());
+            }
+        }
+    }
+}
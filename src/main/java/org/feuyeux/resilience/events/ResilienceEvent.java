@@ -0,0 +1,13 @@
+package org.feuyeux.resilience.events;
+
+/**
+ * An event read back from the {@link EventRing}.
+ *
+ * @param sequence  position in the ring, the SSE event id
+ * @param timestamp epoch millis
+ * @param value     elapsed nanos of a circuit breaker call, attempts of a retry, permits of a rate limiter, else 0
+ * @param detail    the state transition of a circuit breaker, or the exception class of a failed call
+ */
+public record ResilienceEvent(long sequence, long timestamp, Component component, String name, String type,
+                              long value, String detail) {
+}
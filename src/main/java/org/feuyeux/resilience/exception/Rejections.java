@@ -0,0 +1,81 @@
+package org.feuyeux.resilience.exception;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RequestNotPermitted;
+
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.function.Supplier;
+
+/**
+ * The exceptions circuit breakers, bulkheads and rate limiters fail fast with. Once a component's config turns
+ * writable stack traces off ({@code writableStackTraceEnabled: false}), each supplier creates its exception once, per
+ * circuit breaker state, and every rejected call shares it; during an outage the fail-fast path then allocates
+ * nothing. With stack traces on, every rejection gets its own exception, as resilience4j creates it.
+ * <p>
+ * Sharing is safe because resilience4j creates these exceptions without a cause and with suppression disabled, so
+ * nothing can be attached to a shared instance.
+ */
+public final class Rejections {
+
+    private Rejections() {
+    }
+
+    public static Supplier<CallNotPermittedException> callNotPermitted(CircuitBreaker circuitBreaker) {
+        AtomicReferenceArray<CallNotPermittedException> shared =
+                new AtomicReferenceArray<>(CircuitBreaker.State.values().length);
+        return () -> {
+            if (circuitBreaker.getCircuitBreakerConfig().isWritableStackTraceEnabled()) {
+                return CallNotPermittedException.createCallNotPermittedException(circuitBreaker);
+            }
+            // the message names the state
+            CircuitBreaker.State state = circuitBreaker.getState();
+            CallNotPermittedException exception = shared.get(state.ordinal());
+            if (exception == null) {
+                exception = CallNotPermittedException.createCallNotPermittedException(circuitBreaker);
+                if (circuitBreaker.getState() == state) {
+                    shared.set(state.ordinal(), exception);
+                }
+            }
+            return exception;
+        };
+    }
+
+    public static Supplier<BulkheadFullException> bulkheadFull(Bulkhead bulkhead) {
+        return new Shared<>(() -> bulkhead.getBulkheadConfig().isWritableStackTraceEnabled(),
+                () -> BulkheadFullException.createBulkheadFullException(bulkhead));
+    }
+
+    public static Supplier<RequestNotPermitted> requestNotPermitted(RateLimiter rateLimiter) {
+        return new Shared<>(() -> rateLimiter.getRateLimiterConfig().isWritableStackTraceEnabled(),
+                () -> RequestNotPermitted.createRequestNotPermitted(rateLimiter));
+    }
+
+    private static final class Shared<E extends RuntimeException> implements Supplier<E> {
+
+        private final Supplier<Boolean> writableStackTrace;
+        private final Supplier<E> factory;
+        private volatile E shared;
+
+        private Shared(Supplier<Boolean> writableStackTrace, Supplier<E> factory) {
+            this.writableStackTrace = writableStackTrace;
+            this.factory = factory;
+        }
+
+        @Override
+        public E get() {
+            if (writableStackTrace.get()) {
+                return factory.get();
+            }
+            E exception = shared;
+            if (exception == null) {
+                exception = factory.get();
+                shared = exception;
+            }
+            return exception;
+        }
+    }
+}
@@ -0,0 +1,21 @@
+package org.feuyeux.resilience.exception;
+
+import org.springframework.http.HttpStatusCode;
+import org.springframework.web.client.HttpServerErrorException;
+
+/**
+ * A server error of a simulated remote backend. It carries no stack trace, which would only point into the simulator,
+ * so failing calls cost no more than the fallbacks handling them. A new instance is thrown every time, reactive
+ * operators attach suppressed exceptions to the errors passing through.
+ */
+public class RemoteServerErrorException extends HttpServerErrorException {
+
+    public RemoteServerErrorException(HttpStatusCode statusCode, String statusText) {
+        super(statusCode, statusText);
+    }
+
+    @Override
+    public synchronized Throwable fillInStackTrace() {
+        return this;
+    }
+}
@@ -0,0 +1,185 @@
+package org.feuyeux.resilience.hedge;
+
+import java.time.Duration;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Issues a second, speculative attempt when the first one has not completed after the hedge delay and completes with
+ * whichever attempt succeeds first; the other one is cancelled. The call fails only when every issued attempt failed,
+ * a failing first attempt is not hedged.
+ * <p>
+ * The delay is the configured percentile of recent successful attempts, or the fixed delay until enough attempts were
+ * seen. Hedges are paid from a budget every call deposits {@code maxHedgeRatio} into, so at most that fraction of the
+ * traffic is hedged, plus a small burst.
+ */
+public class Hedge {
+
+    private static final long TOKEN = 1_000_000L;
+    private final String name;
+    private final long fixedDelayNanos;
+    private final int minSamples;
+    private final LatencyWindow latencyWindow;
+    private final long tokensPerCall;
+    private final long maxTokens;
+    private final AtomicLong tokens;
+    private final LongAdder issuedHedges = new LongAdder();
+    private final LongAdder wonHedges = new LongAdder();
+    private final LongAdder deniedHedges = new LongAdder();
+
+    public Hedge(String name, Duration delay, double percentile, int window, int minSamples,
+                 double maxHedgeRatio, int burst) {
+        this.name = name;
+        this.fixedDelayNanos = delay.toNanos();
+        this.minSamples = minSamples;
+        this.latencyWindow = percentile > 0 ? new LatencyWindow(window, percentile) : null;
+        this.tokensPerCall = (long) (maxHedgeRatio * TOKEN);
+        this.maxTokens = burst * TOKEN;
+        this.tokens = new AtomicLong(maxTokens);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public <T> CompletionStage<T> executeCompletionStage(Supplier<CompletionStage<T>> supplier,
+                                                         ScheduledExecutorService scheduler) {
+        deposit();
+        Race<T> race = new Race<>(supplier);
+        race.primary = race.attempt(false);
+        if (!race.result.isDone()) {
+            race.timer = scheduler.schedule(race::hedge, getDelayNanos(), TimeUnit.NANOSECONDS);
+        }
+        race.result.whenComplete((result, throwable) -> race.cancelAll());
+        return race.result;
+    }
+
+    public long getDelayNanos() {
+        if (latencyWindow == null || latencyWindow.count() < minSamples) {
+            return fixedDelayNanos;
+        }
+        return latencyWindow.percentileNanos();
+    }
+
+    public long getIssuedHedges() {
+        return issuedHedges.sum();
+    }
+
+    public long getWonHedges() {
+        return wonHedges.sum();
+    }
+
+    public long getDeniedHedges() {
+        return deniedHedges.sum();
+    }
+
+    private void deposit() {
+        tokens.getAndUpdate(current -> Math.min(maxTokens, current + tokensPerCall));
+    }
+
+    private boolean tryWithdraw() {
+        long current;
+        do {
+            current = tokens.get();
+            if (current < TOKEN) {
+                return false;
+            }
+        } while (!tokens.compareAndSet(current, current - TOKEN));
+        return true;
+    }
+
+    private void record(long latencyNanos) {
+        if (latencyWindow != null) {
+            latencyWindow.record(latencyNanos);
+        }
+    }
+
+    private final class Race<T> {
+
+        private final Supplier<CompletionStage<T>> supplier;
+        private final CompletableFuture<T> result = new CompletableFuture<>();
+        private final AtomicInteger outstanding = new AtomicInteger(1);
+        // set once the hedge has been issued or can no longer be
+        private final AtomicBoolean hedgeDecided = new AtomicBoolean();
+        private final AtomicReference<Throwable> lastFailure = new AtomicReference<>();
+        private volatile CompletableFuture<T> primary;
+        private volatile CompletableFuture<T> hedged;
+        private volatile ScheduledFuture<?> timer;
+
+        private Race(Supplier<CompletionStage<T>> supplier) {
+            this.supplier = supplier;
+        }
+
+        private CompletableFuture<T> attempt(boolean hedge) {
+            long start = System.nanoTime();
+            CompletableFuture<T> attempt;
+            try {
+                attempt = supplier.get().toCompletableFuture();
+            } catch (Throwable t) {
+                attempt = CompletableFuture.failedFuture(t);
+            }
+            attempt.whenComplete((value, throwable) -> {
+                if (throwable == null) {
+                    record(System.nanoTime() - start);
+                    if (result.complete(value) && hedge) {
+                        wonHedges.increment();
+                    }
+                } else {
+                    lastFailure.set(throwable);
+                    hedgeDecided.set(true);
+                    release();
+                }
+            });
+            return attempt;
+        }
+
+        private void hedge() {
+            if (!hedgeDecided.compareAndSet(false, true)) {
+                return;
+            }
+            outstanding.incrementAndGet();
+            if (result.isDone()) {
+                return;
+            }
+            if (!tryWithdraw()) {
+                deniedHedges.increment();
+                release();
+                return;
+            }
+            issuedHedges.increment();
+            hedged = attempt(true);
+            if (result.isDone()) {
+                cancel(hedged);
+            }
+        }
+
+        private void release() {
+            if (outstanding.decrementAndGet() == 0) {
+                result.completeExceptionally(lastFailure.get());
+            }
+        }
+
+        private void cancelAll() {
+            hedgeDecided.set(true);
+            cancel(timer);
+            cancel(primary);
+            cancel(hedged);
+        }
+
+        private static void cancel(Future<?> future) {
+            if (future != null && !future.isDone()) {
+                future.cancel(true);
+            }
+        }
+    }
+}
@@ -0,0 +1,99 @@
+package org.feuyeux.resilience.hedge;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.aspectj.lang.reflect.MethodSignature;
+import org.feuyeux.resilience.hedge.annotation.Hedge;
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotationUtils;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ScheduledExecutorService;
+
+/**
+ * Runs inside the Bulkhead aspect (the innermost resilience4j aspect), so the time limiter, circuit breaker and
+ * bulkhead see the hedged call as one call: both attempts share the permit of the call.
+ */
+@Aspect
+@Slf4j
+public class HedgeAspect implements Ordered {
+
+    private final HedgeRegistry hedgeRegistry;
+    private final Executor virtualThreadExecutor;
+    private final ScheduledExecutorService scheduler;
+    private final int order;
+
+    /**
+     * @param bulkheadAspectOrder order of the Bulkhead aspect, the hedge aspect is the next one inside it
+     */
+    public HedgeAspect(HedgeRegistry hedgeRegistry, Executor virtualThreadExecutor,
+                       ScheduledExecutorService scheduler, int bulkheadAspectOrder) {
+        this.hedgeRegistry = hedgeRegistry;
+        this.virtualThreadExecutor = virtualThreadExecutor;
+        this.scheduler = scheduler;
+        // fails at startup instead of wrapping around when the Bulkhead aspect is already the innermost order
+        this.order = Math.addExact(bulkheadAspectOrder, 1);
+    }
+
+    /**
+     * Not bound as an advice argument: the thread-pool Bulkhead aspect proceeds on a pool thread, where the
+     * annotation binding of an inner advice is not available.
+     */
+    @Pointcut(value = "@annotation(org.feuyeux.resilience.hedge.annotation.Hedge)")
+    public void matchAnnotatedMethod() {
+    }
+
+    @Around(value = "matchAnnotatedMethod()")
+    public Object hedgeAroundAdvice(ProceedingJoinPoint proceedingJoinPoint) throws Throwable {
+        Method method = ((MethodSignature) proceedingJoinPoint.getSignature()).getMethod();
+        Hedge hedgeAnnotation = AnnotationUtils.findAnnotation(method, Hedge.class);
+        if (!CompletionStage.class.isAssignableFrom(method.getReturnType())) {
+            log.warn("@Hedge on {} is ignored, only CompletionStage results can be hedged", method);
+            return proceedingJoinPoint.proceed();
+        }
+        return hedgeRegistry.hedge(hedgeAnnotation.name())
+                .executeCompletionStage(() -> attempt(proceedingJoinPoint), scheduler);
+    }
+
+    /**
+     * One attempt on its own virtual thread, interrupted when the attempt is cancelled.
+     */
+    @SuppressWarnings("unchecked")
+    private CompletionStage<Object> attempt(ProceedingJoinPoint proceedingJoinPoint) {
+        CompletableFuture<Object> attempt = new CompletableFuture<>();
+        virtualThreadExecutor.execute(() -> {
+            if (attempt.isDone()) {
+                return;
+            }
+            Thread worker = Thread.currentThread();
+            attempt.whenComplete((result, throwable) -> {
+                if (attempt.isCancelled()) {
+                    worker.interrupt();
+                }
+            });
+            try {
+                ((CompletionStage<Object>) proceedingJoinPoint.proceed()).whenComplete((result, throwable) -> {
+                    if (throwable != null) {
+                        attempt.completeExceptionally(throwable);
+                    } else {
+                        attempt.complete(result);
+                    }
+                });
+            } catch (Throwable throwable) {
+                attempt.completeExceptionally(throwable);
+            }
+        });
+        return attempt;
+    }
+
+    @Override
+    public int getOrder() {
+        return order;
+    }
+}
@@ -0,0 +1,39 @@
+package org.feuyeux.resilience.hedge;
+
+import io.github.resilience4j.spring6.bulkhead.configure.BulkheadConfigurationProperties;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+@Configuration
+@EnableConfigurationProperties(HedgeProperties.class)
+public class HedgeConfiguration {
+
+    @Bean
+    public HedgeRegistry hedgeRegistry(HedgeProperties properties, MeterRegistry meterRegistry) {
+        return new HedgeRegistry(properties, meterRegistry);
+    }
+
+    /**
+     * Only fires the hedge timers, the attempts run elsewhere.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ScheduledExecutorService hedgeScheduler() {
+        return Executors.newSingleThreadScheduledExecutor(Thread.ofPlatform().name("hedge-scheduler").daemon().factory());
+    }
+
+    @Bean
+    public HedgeAspect hedgeAspect(HedgeRegistry hedgeRegistry,
+                                   @Qualifier("virtualThreadExecutor") ExecutorService virtualThreadExecutor,
+                                   @Qualifier("hedgeScheduler") ScheduledExecutorService hedgeScheduler,
+                                   BulkheadConfigurationProperties bulkheadProperties) {
+        return new HedgeAspect(hedgeRegistry, virtualThreadExecutor, hedgeScheduler,
+                bulkheadProperties.getBulkheadAspectOrder());
+    }
+}
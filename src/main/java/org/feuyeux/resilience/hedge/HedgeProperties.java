@@ -0,0 +1,40 @@
+package org.feuyeux.resilience.hedge;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "resilience.hedge")
+public class HedgeProperties {
+
+    private Map<String, InstanceProperties> instances = new HashMap<>();
+
+    @Data
+    public static class InstanceProperties {
+        /**
+         * hedge delay while fewer than minSamples attempts were seen, or always when percentile is 0
+         */
+        private Duration delay = Duration.ofMillis(100);
+        /**
+         * latency percentile of recent successful attempts used as hedge delay, 0 for the fixed delay
+         */
+        private double percentile = 0.95;
+        /**
+         * number of recent attempts the percentile is computed from
+         */
+        private int window = 1000;
+        private int minSamples = 100;
+        /**
+         * fraction of calls that may be hedged
+         */
+        private double maxHedgeRatio = 0.1;
+        /**
+         * hedges that may be issued at once on top of the ratio
+         */
+        private int burst = 10;
+    }
+}
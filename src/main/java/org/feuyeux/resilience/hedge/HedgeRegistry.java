@@ -0,0 +1,54 @@
+package org.feuyeux.resilience.hedge;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.ToDoubleFunction;
+
+import static org.feuyeux.resilience.hedge.HedgeProperties.InstanceProperties;
+
+/**
+ * Creates one {@link Hedge} per name and publishes the hedges issued, won and denied by the budget, and the current
+ * hedge delay.
+ */
+public class HedgeRegistry {
+
+    private final HedgeProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, Hedge> hedges = new ConcurrentHashMap<>();
+
+    public HedgeRegistry(HedgeProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public Hedge hedge(String name) {
+        return hedges.computeIfAbsent(name, this::create);
+    }
+
+    private Hedge create(String name) {
+        InstanceProperties instance = properties.getInstances().getOrDefault(name, new InstanceProperties());
+        Hedge hedge = new Hedge(name, instance.getDelay(), instance.getPercentile(), instance.getWindow(),
+                instance.getMinSamples(), instance.getMaxHedgeRatio(), instance.getBurst());
+        registerCounter(hedge, "issued", Hedge::getIssuedHedges);
+        registerCounter(hedge, "won", Hedge::getWonHedges);
+        registerCounter(hedge, "denied", Hedge::getDeniedHedges);
+        TimeGauge.builder("resilience.hedge.delay", hedge, TimeUnit.NANOSECONDS, Hedge::getDelayNanos)
+                .description("The delay after which a call is hedged")
+                .tag("name", name)
+                .register(meterRegistry);
+        return hedge;
+    }
+
+    private void registerCounter(Hedge hedge, String kind, ToDoubleFunction<Hedge> count) {
+        FunctionCounter.builder("resilience.hedge.attempts", hedge, count)
+                .description("The number of hedged attempts issued, won against the first attempt or denied by the budget")
+                .tag("name", hedge.getName())
+                .tag("kind", kind)
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,50 @@
+package org.feuyeux.resilience.hedge;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * The latest {@code size} latencies in a ring. The percentile is recomputed from a sorted copy every {@code size / 10}
+ * samples and served from a cached value in between.
+ */
+class LatencyWindow {
+
+    private final AtomicLongArray samples;
+    private final AtomicLong recorded = new AtomicLong();
+    private final double percentile;
+    private final int recomputeEvery;
+    private volatile long percentileNanos;
+
+    LatencyWindow(int size, double percentile) {
+        this.samples = new AtomicLongArray(size);
+        this.percentile = percentile;
+        this.recomputeEvery = Math.max(1, size / 10);
+    }
+
+    void record(long latencyNanos) {
+        long count = recorded.incrementAndGet();
+        samples.set((int) ((count - 1) % samples.length()), latencyNanos);
+        if (count % recomputeEvery == 0) {
+            percentileNanos = compute(count);
+        }
+    }
+
+    long count() {
+        return recorded.get();
+    }
+
+    long percentileNanos() {
+        return percentileNanos;
+    }
+
+    private long compute(long count) {
+        int n = (int) Math.min(count, samples.length());
+        long[] sorted = new long[n];
+        for (int i = 0; i < n; i++) {
+            sorted[i] = samples.get(i);
+        }
+        Arrays.sort(sorted);
+        return sorted[Math.max(0, (int) Math.ceil(percentile * n) - 1)];
+    }
+}
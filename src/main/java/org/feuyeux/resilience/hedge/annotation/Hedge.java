@@ -0,0 +1,21 @@
+package org.feuyeux.resilience.hedge.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Hedges the annotated method, which must return a {@link java.util.concurrent.CompletionStage}. The aspect is the
+ * innermost one, every attempt passes through the resilience4j aspects as a single call and runs on its own virtual
+ * thread, which is interrupted when the other attempt wins.
+ */
+@Retention(value = RetentionPolicy.RUNTIME)
+@Target(value = {ElementType.METHOD})
+@Documented
+public @interface Hedge {
+
+    /**
+     * Name of the hedge instance configured under resilience.hedge.instances.
+     *
+     * @return the name
+     */
+    String name();
+}
@@ -0,0 +1,12 @@
+package org.feuyeux.resilience.loadbalancer;
+
+/**
+ * Thrown without a call when every replica of a {@link ReplicaLoadBalancer} is ejected, so the circuit breaker of the
+ * backend counts a failure for each call it lets through while none is healthy.
+ */
+public class NoHealthyReplicaException extends RuntimeException {
+
+    public NoHealthyReplicaException(String name) {
+        super("All replicas of '" + name + "' are ejected");
+    }
+}
@@ -0,0 +1,110 @@
+package org.feuyeux.resilience.loadbalancer;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * One target of a {@link ReplicaLoadBalancer} with what the balancer knows of it: the calls in flight, a peak EWMA of
+ * the latency, which jumps to a slower sample at once and decays towards faster ones, and towards zero while the
+ * replica is not called, so a replica avoided after a slow call is tried again, and the outlier state. After {@code consecutiveFailures} failures in a row the replica is ejected for the base ejection time
+ * times the number of ejections since its last success; when that has passed it is back on probation, where one more
+ * failure ejects it again.
+ */
+public class Replica<T> {
+
+    private final String name;
+    private final T target;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final AtomicInteger consecutiveFailures = new AtomicInteger();
+    private final LongAdder ejectionCount = new LongAdder();
+    private volatile double ewmaNanos;
+    private volatile long lastSampleNanos;
+    private volatile long ejectedUntilNanos;
+    private int ejections;
+
+    Replica(String name, T target, long nowNanos) {
+        this.name = name;
+        this.target = target;
+        this.ejectedUntilNanos = nowNanos;
+        this.lastSampleNanos = nowNanos;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public T getTarget() {
+        return target;
+    }
+
+    public int getInFlightCalls() {
+        return inFlight.get();
+    }
+
+    public double getLatencyNanos() {
+        return ewmaNanos;
+    }
+
+    public long getEjectionCount() {
+        return ejectionCount.sum();
+    }
+
+    public boolean isEjected(long nowNanos) {
+        return ejectedUntilNanos - nowNanos > 0;
+    }
+
+    /**
+     * The expected wait behind the calls in flight, 1ns for an idle replica never sampled, so those are tried first.
+     */
+    double cost(long nowNanos, long decayNanos) {
+        double decayed = ewmaNanos * Math.exp(-(double) Math.max(0, nowNanos - lastSampleNanos) / decayNanos);
+        return (decayed + 1) * (inFlight.get() + 1);
+    }
+
+    void start() {
+        inFlight.incrementAndGet();
+    }
+
+    void onSuccess(long nowNanos, long rttNanos, long decayNanos) {
+        inFlight.decrementAndGet();
+        consecutiveFailures.set(0);
+        synchronized (this) {
+            ejections = 0;
+            sample(nowNanos, rttNanos, decayNanos);
+        }
+    }
+
+    void onFailure(long nowNanos, long rttNanos, long decayNanos, long penaltyNanos, int maxConsecutiveFailures,
+                   long baseEjectionNanos, long maxEjectionNanos) {
+        inFlight.decrementAndGet();
+        synchronized (this) {
+            sample(nowNanos, Math.max(rttNanos, penaltyNanos), decayNanos);
+        }
+        if (consecutiveFailures.incrementAndGet() >= maxConsecutiveFailures) {
+            synchronized (this) {
+                if (!isEjected(nowNanos)) {
+                    ejections++;
+                    ejectedUntilNanos = nowNanos + Math.min(baseEjectionNanos * ejections, maxEjectionNanos);
+                    consecutiveFailures.set(maxConsecutiveFailures - 1);
+                    ejectionCount.increment();
+                }
+            }
+        }
+    }
+
+    // guarded by this
+    private void sample(long nowNanos, long rttNanos, long decayNanos) {
+        if (rttNanos > ewmaNanos) {
+            ewmaNanos = rttNanos;
+        } else {
+            double w = Math.exp(-(double) Math.max(0, nowNanos - lastSampleNanos) / decayNanos);
+            ewmaNanos = ewmaNanos * w + rttNanos * (1 - w);
+        }
+        lastSampleNanos = nowNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("Replica '%s'", name);
+    }
+}
@@ -0,0 +1,211 @@
+package org.feuyeux.resilience.loadbalancer;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.function.BooleanSupplier;
+import java.util.function.Function;
+import java.util.function.LongSupplier;
+import java.util.function.Predicate;
+
+/**
+ * Spreads the calls of one backend over its replicas by the power of two choices: two replicas that are not ejected
+ * are picked at random and the call goes to the one with the lower cost, the latency EWMA weighted by the calls in
+ * flight. A call failing with what {@code isFailure} accepts counts against its replica's
+ * outlier detection and is tried again on another replica, up to {@code maxAttempts} in all, while
+ * {@code failoverBudget} grants it a token; other exceptions are answers of the backend and are passed on as they are.
+ * Failing over is a retry of the call, so it is charged to the same budget as the retries around the balancer.
+ * <p>
+ * The circuit breaker of the backend goes around the balancer, so it only sees the failures left after failing over,
+ * and a {@link NoHealthyReplicaException} once all replicas are ejected.
+ */
+public class ReplicaLoadBalancer<T> {
+
+    private final String name;
+    private final List<Replica<T>> replicas;
+    private final Predicate<Throwable> isFailure;
+    private final int maxAttempts;
+    private final BooleanSupplier failoverBudget;
+    private final int consecutiveFailures;
+    private final long baseEjectionNanos;
+    private final long maxEjectionNanos;
+    private final long decayNanos;
+    private final long failurePenaltyNanos;
+    private final LongSupplier clock;
+
+    /**
+     * @param failoverBudget withdraws a token for every attempt after the first, no more attempts once it answers false
+     */
+    public ReplicaLoadBalancer(String name, List<T> targets, Predicate<Throwable> isFailure, int maxAttempts,
+                               BooleanSupplier failoverBudget, int consecutiveFailures, Duration baseEjectionTime,
+                               Duration maxEjectionTime, Duration decayTime, Duration failurePenalty) {
+        this(name, targets, isFailure, maxAttempts, failoverBudget, consecutiveFailures, baseEjectionTime,
+                maxEjectionTime, decayTime, failurePenalty, System::nanoTime);
+    }
+
+    ReplicaLoadBalancer(String name, List<T> targets, Predicate<Throwable> isFailure, int maxAttempts,
+                        BooleanSupplier failoverBudget, int consecutiveFailures, Duration baseEjectionTime,
+                        Duration maxEjectionTime, Duration decayTime, Duration failurePenalty, LongSupplier clock) {
+        if (targets.isEmpty()) {
+            throw new IllegalArgumentException("LoadBalancer '" + name + "' needs at least one replica");
+        }
+        this.name = name;
+        this.isFailure = isFailure;
+        this.maxAttempts = Math.max(1, maxAttempts);
+        this.failoverBudget = failoverBudget;
+        this.consecutiveFailures = Math.max(1, consecutiveFailures);
+        this.baseEjectionNanos = baseEjectionTime.toNanos();
+        this.maxEjectionNanos = maxEjectionTime.toNanos();
+        this.decayNanos = Math.max(1, decayTime.toNanos());
+        this.failurePenaltyNanos = failurePenalty.toNanos();
+        this.clock = clock;
+        long now = clock.getAsLong();
+        List<Replica<T>> replicas = new ArrayList<>(targets.size());
+        for (int i = 0; i < targets.size(); i++) {
+            replicas.add(new Replica<>(name + "-" + i, targets.get(i), now));
+        }
+        this.replicas = Collections.unmodifiableList(replicas);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public List<Replica<T>> getReplicas() {
+        return replicas;
+    }
+
+    public int getHealthyReplicas() {
+        long now = clock.getAsLong();
+        int healthy = 0;
+        for (Replica<T> replica : replicas) {
+            if (!replica.isEjected(now)) {
+                healthy++;
+            }
+        }
+        return healthy;
+    }
+
+    public <R> R execute(Function<T, R> call) {
+        Replica<T> tried = null;
+        for (int attempt = 1; ; attempt++) {
+            Replica<T> replica = select(tried);
+            if (replica == null) {
+                throw new NoHealthyReplicaException(name);
+            }
+            long start = begin(replica);
+            try {
+                R result = call.apply(replica.getTarget());
+                succeeded(replica, start);
+                return result;
+            } catch (RuntimeException e) {
+                if (!isFailure.test(e)) {
+                    succeeded(replica, start);
+                    throw e;
+                }
+                failed(replica, start);
+                if (attempt >= maxAttempts || select(replica) == null || !failoverBudget.getAsBoolean()) {
+                    throw e;
+                }
+                tried = replica;
+            }
+        }
+    }
+
+    public <R> CompletableFuture<R> executeAsync(Function<T, CompletableFuture<R>> call) {
+        return attemptAsync(call, null, 1);
+    }
+
+    private <R> CompletableFuture<R> attemptAsync(Function<T, CompletableFuture<R>> call, Replica<T> tried,
+                                                  int attempt) {
+        Replica<T> replica = select(tried);
+        if (replica == null) {
+            return CompletableFuture.failedFuture(new NoHealthyReplicaException(name));
+        }
+        long start = begin(replica);
+        CompletableFuture<R> future;
+        try {
+            future = call.apply(replica.getTarget());
+        } catch (RuntimeException e) {
+            future = CompletableFuture.failedFuture(e);
+        }
+        return future.handle((result, throwable) -> {
+            Throwable cause = throwable instanceof CompletionException || throwable instanceof ExecutionException
+                    ? throwable.getCause() : throwable;
+            if (cause == null || !isFailure.test(cause)) {
+                succeeded(replica, start);
+                return cause == null ? CompletableFuture.completedFuture(result)
+                        : CompletableFuture.<R>failedFuture(cause);
+            }
+            failed(replica, start);
+            if (attempt >= maxAttempts || select(replica) == null || !failoverBudget.getAsBoolean()) {
+                return CompletableFuture.<R>failedFuture(cause);
+            }
+            return attemptAsync(call, replica, attempt + 1);
+        }).thenCompose(Function.identity());
+    }
+
+    /**
+     * Picks two of the replicas that are neither ejected nor {@code tried} by reservoir sampling, in one pass and
+     * without allocating.
+     *
+     * @return the cheaper of the two, null if there is no such replica
+     */
+    private Replica<T> select(Replica<T> tried) {
+        long now = clock.getAsLong();
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        Replica<T> a = null;
+        Replica<T> b = null;
+        int seen = 0;
+        for (Replica<T> replica : replicas) {
+            if (replica == tried || replica.isEjected(now)) {
+                continue;
+            }
+            seen++;
+            if (seen == 1) {
+                a = replica;
+            } else if (seen == 2) {
+                b = replica;
+            } else {
+                int slot = random.nextInt(seen);
+                if (slot == 0) {
+                    a = replica;
+                } else if (slot == 1) {
+                    b = replica;
+                }
+            }
+        }
+        if (b == null) {
+            return a;
+        }
+        double costA = a.cost(now, decayNanos);
+        double costB = b.cost(now, decayNanos);
+        return costA < costB || costA == costB && random.nextBoolean() ? a : b;
+    }
+
+    private long begin(Replica<T> replica) {
+        replica.start();
+        return clock.getAsLong();
+    }
+
+    private void succeeded(Replica<T> replica, long start) {
+        long now = clock.getAsLong();
+        replica.onSuccess(now, now - start, decayNanos);
+    }
+
+    private void failed(Replica<T> replica, long start) {
+        long now = clock.getAsLong();
+        replica.onFailure(now, now - start, decayNanos, failurePenaltyNanos, consecutiveFailures, baseEjectionNanos,
+                maxEjectionNanos);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ReplicaLoadBalancer '%s'", name);
+    }
+}
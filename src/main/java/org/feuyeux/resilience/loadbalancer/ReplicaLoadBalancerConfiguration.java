@@ -0,0 +1,26 @@
+package org.feuyeux.resilience.loadbalancer;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.feuyeux.resilience.retry.RetryBudgetRegistry;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ReplicaLoadBalancerProperties.class)
+public class ReplicaLoadBalancerConfiguration {
+
+    @Bean
+    public static ReplicatedBackendServiceInstaller replicatedBackendServiceInstaller(
+            ReplicaLoadBalancerProperties properties, ObjectProvider<ReplicaLoadBalancerRegistry> loadBalancerRegistry) {
+        return new ReplicatedBackendServiceInstaller(properties, loadBalancerRegistry);
+    }
+
+    @Bean
+    public ReplicaLoadBalancerRegistry replicaLoadBalancerRegistry(ReplicaLoadBalancerProperties properties,
+                                                                   RetryBudgetRegistry retryBudgetRegistry,
+                                                                   MeterRegistry meterRegistry) {
+        return new ReplicaLoadBalancerRegistry(properties, retryBudgetRegistry, meterRegistry);
+    }
+}
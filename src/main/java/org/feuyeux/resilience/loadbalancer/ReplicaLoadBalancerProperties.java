@@ -0,0 +1,57 @@
+package org.feuyeux.resilience.loadbalancer;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeoutException;
+
+@Data
+@ConfigurationProperties(prefix = "resilience.loadbalancer")
+public class ReplicaLoadBalancerProperties {
+
+    /**
+     * the replicas stand for distinct targets of the backend; those of the installer are stubs sharing the one
+     * service, so failing over between them only calls the same backend again
+     */
+    private boolean enabled = false;
+    private Map<String, InstanceProperties> instances = new HashMap<>();
+
+    @Data
+    public static class InstanceProperties {
+        private int replicas = 3;
+        /**
+         * attempts of a call on different replicas, while the failures are outliers
+         */
+        private int maxAttempts = 2;
+        /**
+         * outliers in a row that eject a replica
+         */
+        private int consecutiveFailures = 5;
+        /**
+         * ejection time, times the number of ejections since the last success of the replica
+         */
+        private Duration baseEjectionTime = Duration.ofSeconds(30);
+        private Duration maxEjectionTime = Duration.ofMinutes(5);
+        /**
+         * how fast the latency EWMA forgets a slow call
+         */
+        private Duration decayTime = Duration.ofSeconds(10);
+        /**
+         * latency an outlier counts as, so a replica failing fast does not draw the calls
+         */
+        private Duration failurePenalty = Duration.ofSeconds(5);
+        /**
+         * failures of the replica rather than answers of the backend
+         */
+        private List<Class<? extends Throwable>> outlierExceptions = new ArrayList<>(List.of(IOException.class,
+                TimeoutException.class, HttpServerErrorException.BadGateway.class,
+                HttpServerErrorException.ServiceUnavailable.class, HttpServerErrorException.GatewayTimeout.class));
+    }
+}
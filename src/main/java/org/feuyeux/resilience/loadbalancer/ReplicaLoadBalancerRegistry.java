@@ -0,0 +1,82 @@
+package org.feuyeux.resilience.loadbalancer;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.feuyeux.resilience.retry.RetryBudget;
+import org.feuyeux.resilience.retry.RetryBudgetRegistry;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntFunction;
+
+import static org.feuyeux.resilience.loadbalancer.ReplicaLoadBalancerProperties.InstanceProperties;
+
+/**
+ * Creates one {@link ReplicaLoadBalancer} per name over the configured number of replicas and publishes the calls in
+ * flight, the latency EWMA and the ejections of every replica, and the healthy replicas of the balancer. Failing over
+ * withdraws from the {@link RetryBudget} of the same name.
+ */
+public class ReplicaLoadBalancerRegistry {
+
+    private final ReplicaLoadBalancerProperties properties;
+    private final RetryBudgetRegistry retryBudgetRegistry;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, ReplicaLoadBalancer<?>> loadBalancers = new ConcurrentHashMap<>();
+
+    public ReplicaLoadBalancerRegistry(ReplicaLoadBalancerProperties properties,
+                                       RetryBudgetRegistry retryBudgetRegistry, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.retryBudgetRegistry = retryBudgetRegistry;
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * @param replica creates the target of the replica of an index
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ReplicaLoadBalancer<T> loadBalancer(String name, IntFunction<T> replica) {
+        return (ReplicaLoadBalancer<T>) loadBalancers.computeIfAbsent(name, key -> create(key, replica));
+    }
+
+    private <T> ReplicaLoadBalancer<T> create(String name, IntFunction<T> replica) {
+        InstanceProperties instance = properties.getInstances().getOrDefault(name, new InstanceProperties());
+        List<T> targets = new ArrayList<>(instance.getReplicas());
+        for (int i = 0; i < instance.getReplicas(); i++) {
+            targets.add(replica.apply(i));
+        }
+        List<Class<? extends Throwable>> outlierExceptions = List.copyOf(instance.getOutlierExceptions());
+        RetryBudget retryBudget = retryBudgetRegistry.retryBudget(name);
+        ReplicaLoadBalancer<T> loadBalancer = new ReplicaLoadBalancer<>(name, targets,
+                throwable -> outlierExceptions.stream().anyMatch(type -> type.isInstance(throwable)),
+                instance.getMaxAttempts(), retryBudget::tryWithdraw, instance.getConsecutiveFailures(),
+                instance.getBaseEjectionTime(),
+                instance.getMaxEjectionTime(), instance.getDecayTime(), instance.getFailurePenalty());
+        Gauge.builder("resilience.loadbalancer.healthy", loadBalancer, ReplicaLoadBalancer::getHealthyReplicas)
+                .description("The number of replicas not ejected")
+                .tag("name", name)
+                .register(meterRegistry);
+        for (Replica<T> r : loadBalancer.getReplicas()) {
+            Gauge.builder("resilience.loadbalancer.inflight", r, Replica::getInFlightCalls)
+                    .description("The number of calls in flight on the replica")
+                    .tag("name", name)
+                    .tag("replica", r.getName())
+                    .register(meterRegistry);
+            TimeGauge.builder("resilience.loadbalancer.latency", r, TimeUnit.NANOSECONDS, Replica::getLatencyNanos)
+                    .description("The peak EWMA of the latency of the replica")
+                    .tag("name", name)
+                    .tag("replica", r.getName())
+                    .register(meterRegistry);
+            FunctionCounter.builder("resilience.loadbalancer.ejections", r, Replica::getEjectionCount)
+                    .description("The number of times the replica was ejected as an outlier")
+                    .tag("name", name)
+                    .tag("replica", r.getName())
+                    .register(meterRegistry);
+        }
+        return loadBalancer;
+    }
+}
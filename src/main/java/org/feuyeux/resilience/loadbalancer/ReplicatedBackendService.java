@@ -0,0 +1,67 @@
+package org.feuyeux.resilience.loadbalancer;
+
+import org.feuyeux.resilience.service.BackendService;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+
+/**
+ * A {@link BackendService} whose every call goes to one of the replicas of a {@link ReplicaLoadBalancer}.
+ */
+public class ReplicatedBackendService implements BackendService {
+
+    private final ReplicaLoadBalancer<BackendService> loadBalancer;
+
+    public ReplicatedBackendService(ReplicaLoadBalancer<BackendService> loadBalancer) {
+        this.loadBalancer = loadBalancer;
+    }
+
+    public ReplicaLoadBalancer<BackendService> getLoadBalancer() {
+        return loadBalancer;
+    }
+
+    @Override
+    public String failure() {
+        return loadBalancer.execute(BackendService::failure);
+    }
+
+    @Override
+    public String failureWithFallback() {
+        return loadBalancer.execute(BackendService::failureWithFallback);
+    }
+
+    @Override
+    public String success() {
+        return loadBalancer.execute(BackendService::success);
+    }
+
+    @Override
+    public List<String> successBatch(List<String> keys) {
+        return loadBalancer.execute(backend -> backend.successBatch(keys));
+    }
+
+    @Override
+    public String successException() {
+        return loadBalancer.execute(BackendService::successException);
+    }
+
+    @Override
+    public String ignoreException() {
+        return loadBalancer.execute(BackendService::ignoreException);
+    }
+
+    @Override
+    public CompletableFuture<String> futureSuccess() {
+        return loadBalancer.executeAsync(BackendService::futureSuccess);
+    }
+
+    @Override
+    public CompletableFuture<String> futureFailure() {
+        return loadBalancer.executeAsync(BackendService::futureFailure);
+    }
+
+    @Override
+    public CompletableFuture<String> futureTimeout() {
+        return loadBalancer.executeAsync(BackendService::futureTimeout);
+    }
+}
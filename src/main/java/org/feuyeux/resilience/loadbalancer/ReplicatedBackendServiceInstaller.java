@@ -0,0 +1,41 @@
+package org.feuyeux.resilience.loadbalancer;
+
+import lombok.extern.slf4j.Slf4j;
+import org.feuyeux.resilience.service.BackendService;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+/**
+ * Replaces the {@link BackendService} bean {@code <name>Service} of every configured name with a
+ * {@link ReplicatedBackendService} over local replicas of it, before the controllers are wired. The replicas are stubs
+ * sharing the one service, which stands for a remote backend here, so the installer does nothing unless
+ * {@code resilience.loadbalancer.enabled} is set.
+ */
+@Slf4j
+public class ReplicatedBackendServiceInstaller implements BeanPostProcessor {
+
+    private static final String SUFFIX = "Service";
+
+    private final ReplicaLoadBalancerProperties properties;
+    private final ObjectProvider<ReplicaLoadBalancerRegistry> loadBalancerRegistry;
+
+    public ReplicatedBackendServiceInstaller(ReplicaLoadBalancerProperties properties,
+                                             ObjectProvider<ReplicaLoadBalancerRegistry> loadBalancerRegistry) {
+        this.properties = properties;
+        this.loadBalancerRegistry = loadBalancerRegistry;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (properties.isEnabled() && bean instanceof BackendService backendService && beanName.endsWith(SUFFIX)) {
+            String name = beanName.substring(0, beanName.length() - SUFFIX.length());
+            if (properties.getInstances().containsKey(name)) {
+                ReplicaLoadBalancer<BackendService> loadBalancer = loadBalancerRegistry.getObject()
+                        .loadBalancer(name, replica -> backendService);
+                log.info("ReplicaLoadBalancer[{}] replicas:{}", name, loadBalancer.getReplicas().size());
+                return new ReplicatedBackendService(loadBalancer);
+            }
+        }
+        return bean;
+    }
+}
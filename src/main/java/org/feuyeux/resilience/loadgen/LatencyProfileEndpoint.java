@@ -0,0 +1,47 @@
+package org.feuyeux.resilience.loadgen;
+
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.boot.web.context.WebServerApplicationContext;
+import org.springframework.context.ApplicationContext;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+
+/**
+ * {@code POST /actuator/latencyprofile} with {@code {"path": "/backendB/bulkhead", "rate": 20, "seconds": 5}} runs a
+ * {@link LoadProfile} against this server and answers with its {@link LoadReport}.
+ */
+@Endpoint(id = "latencyprofile")
+public class LatencyProfileEndpoint {
+
+    static final int MAX_RATE = 5000;
+    static final int MAX_SECONDS = 60;
+
+    private final ApplicationContext applicationContext;
+
+    public LatencyProfileEndpoint(ApplicationContext applicationContext) {
+        this.applicationContext = applicationContext;
+    }
+
+    @WriteOperation
+    public LoadReport profile(String path, @Nullable Integer rate, @Nullable Integer seconds) throws InterruptedException {
+        int r = rate != null ? rate : 10;
+        int s = seconds != null ? seconds : 5;
+        if (!path.startsWith("/backendA/") && !path.startsWith("/backendB/") && !path.startsWith("/reactive/")) {
+            throw new InvalidEndpointRequestException("Unknown path " + path, "path must be a backend endpoint");
+        }
+        if (r <= 0 || r > MAX_RATE || s <= 0 || s > MAX_SECONDS) {
+            throw new InvalidEndpointRequestException("rate " + r + " seconds " + s,
+                    "rate must be in 1.." + MAX_RATE + " and seconds in 1.." + MAX_SECONDS);
+        }
+        if (!(applicationContext instanceof WebServerApplicationContext webServerApplicationContext)) {
+            throw new InvalidEndpointRequestException("No web server", "no web server to profile");
+        }
+        int port = webServerApplicationContext.getWebServer().getPort();
+        try (LoadGenerator loadGenerator = new LoadGenerator("http://localhost:" + port)) {
+            return loadGenerator.run(new LoadProfile(path, r, Duration.ofSeconds(s)));
+        }
+    }
+}
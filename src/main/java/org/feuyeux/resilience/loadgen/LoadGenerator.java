@@ -0,0 +1,137 @@
+package org.feuyeux.resilience.loadgen;
+
+import lombok.extern.slf4j.Slf4j;
+import org.HdrHistogram.Recorder;
+import org.springframework.core.ParameterizedTypeReference;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.ClientResponse;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Mono;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Open-loop HTTP load generator. Requests are sent at a constant arrival rate from one pacing thread through a
+ * non-blocking {@link WebClient}, so a slow or rejecting server does not slow the load down, and latencies are
+ * recorded into HdrHistograms from the intended send time (see {@link LoadReport}).
+ * <pre>
+ * java -cp target/hello-resilience-0.0.1-SNAPSHOT.jar -Dloader.main=org.feuyeux.resilience.loadgen.LoadGenerator \
+ *     org.springframework.boot.loader.launch.PropertiesLauncher http://localhost:9080 /backendB/bulkhead 20 10
+ * </pre>
+ */
+@Slf4j
+public class LoadGenerator implements AutoCloseable {
+
+    private static final String OK = "OK";
+    private static final ParameterizedTypeReference<Map<String, Object>> ERROR_BODY = new ParameterizedTypeReference<>() {
+    };
+
+    private final ConnectionProvider connectionProvider;
+    private final WebClient webClient;
+
+    public LoadGenerator(String baseUrl) {
+        this.connectionProvider = ConnectionProvider.builder("load-generator")
+                .maxConnections(1000)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        this.webClient = WebClient.builder()
+                .baseUrl(baseUrl)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(connectionProvider)))
+                .build();
+    }
+
+    /**
+     * Blocks until every request got its response or timed out.
+     */
+    public LoadReport run(LoadProfile profile) throws InterruptedException {
+        long requests = profile.requests();
+        double intervalNanos = TimeUnit.SECONDS.toNanos(1) / (double) profile.rate();
+        Recorder latency = new Recorder(3);
+        Recorder serviceTime = new Recorder(3);
+        LongAdder succeeded = new LongAdder();
+        Map<String, LongAdder> rejected = new ConcurrentHashMap<>();
+        CountDownLatch done = new CountDownLatch((int) requests);
+        long start = System.nanoTime();
+        for (long i = 0; i < requests; i++) {
+            long intendedNanos = start + (long) (i * intervalNanos);
+            long wait = intendedNanos - System.nanoTime();
+            if (wait > 0) {
+                LockSupport.parkNanos(wait);
+            }
+            long sentNanos = System.nanoTime();
+            send(profile).subscribe(outcome -> {
+                long now = System.nanoTime();
+                latency.recordValue(now - intendedNanos);
+                serviceTime.recordValue(now - sentNanos);
+                if (OK.equals(outcome)) {
+                    succeeded.increment();
+                } else {
+                    rejected.computeIfAbsent(outcome, key -> new LongAdder()).increment();
+                }
+                done.countDown();
+            });
+        }
+        if (!done.await(profile.timeout().toMillis() + 1000, TimeUnit.MILLISECONDS)) {
+            log.warn("{} requests to {} still open", done.getCount(), profile.path());
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+        Map<String, Long> rejections = new TreeMap<>();
+        rejected.forEach((outcome, count) -> rejections.put(outcome, count.sum()));
+        return new LoadReport(profile.path(), profile.rate(), requests, succeeded.sum(), rejections,
+                succeeded.sum() / seconds,
+                LoadReport.Percentiles.of(latency.getIntervalHistogram()),
+                LoadReport.Percentiles.of(serviceTime.getIntervalHistogram()));
+    }
+
+    /**
+     * @return {@link #OK} or what the request was rejected with, never an error
+     */
+    private Mono<String> send(LoadProfile profile) {
+        return webClient.get().uri(profile.path())
+                .exchangeToMono(LoadGenerator::outcome)
+                .timeout(profile.timeout())
+                .onErrorResume(e -> Mono.just("client:" + e.getClass().getSimpleName()));
+    }
+
+    private static Mono<String> outcome(ClientResponse response) {
+        if (response.statusCode().is2xxSuccessful()) {
+            return response.releaseBody().thenReturn(OK);
+        }
+        String status = "HTTP " + response.statusCode().value();
+        // the exception class is in the error body only where server.error.include-exception is set, as in tests
+        return response.bodyToMono(ERROR_BODY)
+                .mapNotNull(body -> body.get("exception") instanceof String exception
+                        ? exception.substring(exception.lastIndexOf('.') + 1) : null)
+                .defaultIfEmpty(status)
+                .onErrorReturn(status);
+    }
+
+    @Override
+    public void close() {
+        connectionProvider.dispose();
+    }
+
+    /**
+     * Arguments: base url, path, requests per second, seconds.
+     */
+    public static void main(String[] args) throws InterruptedException {
+        if (args.length != 4) {
+            System.err.println("usage: LoadGenerator <baseUrl> <path> <rate> <seconds>");
+            System.exit(1);
+        }
+        LoadProfile profile = new LoadProfile(args[1], Integer.parseInt(args[2]),
+                Duration.ofSeconds(Long.parseLong(args[3])));
+        try (LoadGenerator loadGenerator = new LoadGenerator(args[0])) {
+            System.out.println(loadGenerator.run(profile).summary());
+        }
+    }
+}
@@ -0,0 +1,14 @@
+package org.feuyeux.resilience.loadgen;
+
+import org.springframework.context.ApplicationContext;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class LoadGeneratorConfiguration {
+
+    @Bean
+    public LatencyProfileEndpoint latencyProfileEndpoint(ApplicationContext applicationContext) {
+        return new LatencyProfileEndpoint(applicationContext);
+    }
+}
@@ -0,0 +1,30 @@
+package org.feuyeux.resilience.loadgen;
+
+import java.time.Duration;
+
+/**
+ * An open-loop load: {@code rate} requests per second to {@code path} for {@code duration}, whatever the responses
+ * take. A request without a response after {@code timeout} is given up and counted as rejected.
+ */
+public record LoadProfile(String path, int rate, Duration duration, Duration timeout) {
+
+    public LoadProfile {
+        if (path == null || !path.startsWith("/")) {
+            throw new IllegalArgumentException("path must start with '/': " + path);
+        }
+        if (rate <= 0) {
+            throw new IllegalArgumentException("rate must be positive: " + rate);
+        }
+        if (duration.isNegative() || duration.isZero()) {
+            throw new IllegalArgumentException("duration must be positive: " + duration);
+        }
+    }
+
+    public LoadProfile(String path, int rate, Duration duration) {
+        this(path, rate, duration, Duration.ofSeconds(10));
+    }
+
+    long requests() {
+        return Math.max(1, rate * duration.toMillis() / 1000);
+    }
+}
@@ -0,0 +1,52 @@
+package org.feuyeux.resilience.loadgen;
+
+import org.HdrHistogram.Histogram;
+
+import java.util.Map;
+
+/**
+ * Outcome of a {@link LoadProfile}. {@code latency} is measured from the time a request was due to be sent, so a
+ * generator falling behind a stalled server still charges the stall to every request it delayed; {@code serviceTime}
+ * is measured from the time it was actually sent. Rejections are keyed by the exception the server reported, by
+ * {@code HTTP <status>} when it reported none, and by {@code client:<exception>} for requests that failed here.
+ */
+public record LoadReport(String path,
+                         int rate,
+                         long requests,
+                         long succeeded,
+                         Map<String, Long> rejected,
+                         double throughput,
+                         Percentiles latency,
+                         Percentiles serviceTime) {
+
+    public long rejectedCount() {
+        return rejected.values().stream().mapToLong(Long::longValue).sum();
+    }
+
+    public String summary() {
+        return String.format("%s @ %d/s: %d requests, %d succeeded (%.1f/s), rejected %s, latency %s, service time %s",
+                path, rate, requests, succeeded, throughput, rejected, latency, serviceTime);
+    }
+
+    /**
+     * In milliseconds.
+     */
+    public record Percentiles(double p50, double p99, double p999, double max) {
+
+        static Percentiles of(Histogram histogram) {
+            return new Percentiles(millis(histogram.getValueAtPercentile(50)),
+                    millis(histogram.getValueAtPercentile(99)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()));
+        }
+
+        private static double millis(long nanos) {
+            return nanos / 1_000_000.0;
+        }
+
+        @Override
+        public String toString() {
+            return String.format("p50=%.1fms p99=%.1fms p99.9=%.1fms max=%.1fms", p50, p99, p999, max);
+        }
+    }
+}
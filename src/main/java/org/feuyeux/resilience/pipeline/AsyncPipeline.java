@@ -0,0 +1,381 @@
+package org.feuyeux.resilience.pipeline;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import org.feuyeux.resilience.bulkhead.AsyncBulkhead;
+import org.feuyeux.resilience.deadline.Deadline;
+import org.feuyeux.resilience.deadline.DeadlineGuard;
+import org.feuyeux.resilience.exception.Rejections;
+import org.feuyeux.resilience.hedge.Hedge;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.BiFunction;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * The asynchronous counterpart of {@link Pipeline}: a chain of decorators built once per endpoint, running the
+ * blocking supplier of each call on an {@link AsyncBulkhead} and decorating the stage it completes.
+ * <p>
+ * The circuit breaker, retry and fallback stages keep their per-call state in one object that is at the same time
+ * the future they complete and the callback of the stage they decorate, where {@code Decorators.ofCompletionStage}
+ * allocates a decorator, a promise and a callback for each of them. The callbacks are registered with
+ * {@code handle}, as {@code whenComplete} would wrap every failure in a new {@link CompletionException} for a future
+ * nobody reads.
+ */
+public final class AsyncPipeline {
+
+    private final Stage head;
+
+    private AsyncPipeline(Stage head) {
+        this.head = head;
+    }
+
+    /**
+     * @param asyncBulkhead runs the supplier of each call, the innermost stage
+     */
+    public static Builder builder(AsyncBulkhead asyncBulkhead) {
+        return new Builder(asyncBulkhead);
+    }
+
+    public <T> CompletableFuture<T> execute(Deadline deadline, Supplier<T> supplier) {
+        return head.<T>execute(deadline, supplier).toCompletableFuture();
+    }
+
+    public static final class Builder {
+
+        private final AsyncBulkhead asyncBulkhead;
+        // innermost first
+        private final List<Function<Stage, Stage>> stages = new ArrayList<>();
+
+        private Builder(AsyncBulkhead asyncBulkhead) {
+            this.asyncBulkhead = asyncBulkhead;
+        }
+
+        /**
+         * Hedges what is inside, the hedge timer running on {@code scheduler}.
+         */
+        public Builder withHedge(Hedge hedge, ScheduledExecutorService scheduler) {
+            stages.add(next -> new HedgeStage(next, hedge, scheduler));
+            return this;
+        }
+
+        /**
+         * Limits every attempt to the timeout of {@code timeLimiter} or the deadline of the call, as
+         * {@link DeadlineGuard#decorateTimeLimiter} does.
+         */
+        public Builder withTimeLimiter(TimeLimiter timeLimiter, DeadlineGuard deadlineGuard,
+                                       ScheduledExecutorService scheduler) {
+            stages.add(next -> new TimeLimiterStage(next, timeLimiter, deadlineGuard, scheduler));
+            return this;
+        }
+
+        public Builder withCircuitBreaker(CircuitBreaker circuitBreaker) {
+            stages.add(next -> new CircuitBreakerStage(next, circuitBreaker));
+            return this;
+        }
+
+        /**
+         * Retries what is inside, waiting on {@code scheduler}, every attempt held to the deadline of the call as
+         * {@link DeadlineGuard#decorateRetryAttemptStage} holds it.
+         */
+        public Builder withRetry(Retry retry, DeadlineGuard deadlineGuard, ScheduledExecutorService scheduler) {
+            stages.add(next -> new RetryStage(next, retry, deadlineGuard, scheduler));
+            return this;
+        }
+
+        /**
+         * Completes a call failing with one of {@code exceptionTypes} with what {@code fallback} makes of the failure,
+         * which must be of the type every supplier of the pipeline returns.
+         */
+        public Builder withFallback(List<Class<? extends Throwable>> exceptionTypes,
+                                    Function<Throwable, ?> fallback) {
+            stages.add(next -> new FallbackStage(next, List.copyOf(exceptionTypes), fallback));
+            return this;
+        }
+
+        public AsyncPipeline build() {
+            Stage stage = new AsyncBulkheadStage(asyncBulkhead);
+            for (Function<Stage, Stage> decorator : stages) {
+                stage = decorator.apply(stage);
+            }
+            return new AsyncPipeline(stage);
+        }
+    }
+
+    private abstract static class Stage {
+
+        final Stage next;
+
+        Stage(Stage next) {
+            this.next = next;
+        }
+
+        abstract <T> CompletionStage<T> execute(Deadline deadline, Supplier<T> supplier);
+    }
+
+    private static final class AsyncBulkheadStage extends Stage {
+
+        private final AsyncBulkhead asyncBulkhead;
+
+        private AsyncBulkheadStage(AsyncBulkhead asyncBulkhead) {
+            super(null);
+            this.asyncBulkhead = asyncBulkhead;
+        }
+
+        @Override
+        <T> CompletionStage<T> execute(Deadline deadline, Supplier<T> supplier) {
+            return asyncBulkhead.executeSupplier(supplier);
+        }
+    }
+
+    private static final class HedgeStage extends Stage {
+
+        private final Hedge hedge;
+        private final ScheduledExecutorService scheduler;
+
+        private HedgeStage(Stage next, Hedge hedge, ScheduledExecutorService scheduler) {
+            super(next);
+            this.hedge = hedge;
+            this.scheduler = scheduler;
+        }
+
+        @Override
+        <T> CompletionStage<T> execute(Deadline deadline, Supplier<T> supplier) {
+            return hedge.executeCompletionStage(() -> next.execute(deadline, supplier), scheduler);
+        }
+    }
+
+    private static final class TimeLimiterStage extends Stage {
+
+        private final TimeLimiter timeLimiter;
+        private final DeadlineGuard deadlineGuard;
+        private final ScheduledExecutorService scheduler;
+
+        private TimeLimiterStage(Stage next, TimeLimiter timeLimiter, DeadlineGuard deadlineGuard,
+                                 ScheduledExecutorService scheduler) {
+            super(next);
+            this.timeLimiter = timeLimiter;
+            this.deadlineGuard = deadlineGuard;
+            this.scheduler = scheduler;
+        }
+
+        @Override
+        <T> CompletionStage<T> execute(Deadline deadline, Supplier<T> supplier) {
+            return deadlineGuard.executeTimeLimited(deadline, timeLimiter, scheduler,
+                    () -> next.execute(deadline, supplier));
+        }
+    }
+
+    private static final class CircuitBreakerStage extends Stage {
+
+        private final CircuitBreaker circuitBreaker;
+        private final Supplier<CallNotPermittedException> callNotPermitted;
+
+        private CircuitBreakerStage(Stage next, CircuitBreaker circuitBreaker) {
+            super(next);
+            this.circuitBreaker = circuitBreaker;
+            this.callNotPermitted = Rejections.callNotPermitted(circuitBreaker);
+        }
+
+        @Override
+        <T> CompletionStage<T> execute(Deadline deadline, Supplier<T> supplier) {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                return CompletableFuture.failedFuture(callNotPermitted.get());
+            }
+            CircuitBreakerCall<T> call = new CircuitBreakerCall<>(circuitBreaker);
+            try {
+                next.<T>execute(deadline, supplier).handle(call);
+            } catch (Exception e) {
+                call.apply(null, e);
+            }
+            return call;
+        }
+    }
+
+    private static final class CircuitBreakerCall<T> extends CompletableFuture<T>
+            implements BiFunction<T, Throwable, Void> {
+
+        private final CircuitBreaker circuitBreaker;
+        private final long start;
+
+        private CircuitBreakerCall(CircuitBreaker circuitBreaker) {
+            this.circuitBreaker = circuitBreaker;
+            this.start = circuitBreaker.getCurrentTimestamp();
+        }
+
+        @Override
+        public Void apply(T result, Throwable throwable) {
+            long duration = circuitBreaker.getCurrentTimestamp() - start;
+            if (throwable != null) {
+                if (throwable instanceof Exception) {
+                    circuitBreaker.onError(duration, circuitBreaker.getTimestampUnit(), throwable);
+                }
+                completeExceptionally(throwable);
+            } else {
+                circuitBreaker.onResult(duration, circuitBreaker.getTimestampUnit(), result);
+                complete(result);
+            }
+            return null;
+        }
+    }
+
+    private static final class RetryStage extends Stage {
+
+        private final Retry retry;
+        private final DeadlineGuard deadlineGuard;
+        private final ScheduledExecutorService scheduler;
+
+        private RetryStage(Stage next, Retry retry, DeadlineGuard deadlineGuard, ScheduledExecutorService scheduler) {
+            super(next);
+            this.retry = retry;
+            this.deadlineGuard = deadlineGuard;
+            this.scheduler = scheduler;
+        }
+
+        @Override
+        <T> CompletionStage<T> execute(Deadline deadline, Supplier<T> supplier) {
+            RetryCall<T> call = new RetryCall<>(this, deadline, supplier);
+            call.run();
+            return call;
+        }
+    }
+
+    /**
+     * Runs the attempts of one call, as resilience4j runs those of {@code Retry.decorateCompletionStage}.
+     */
+    private static final class RetryCall<T> extends CompletableFuture<T>
+            implements Runnable, BiFunction<T, Throwable, Void> {
+
+        private final RetryStage stage;
+        private final Deadline deadline;
+        private final Supplier<T> supplier;
+        private final Retry.AsyncContext<T> context;
+        private int attempts;
+        private long start;
+
+        private RetryCall(RetryStage stage, Deadline deadline, Supplier<T> supplier) {
+            this.stage = stage;
+            this.deadline = deadline;
+            this.supplier = supplier;
+            this.context = stage.retry.asyncContext();
+        }
+
+        @Override
+        public void run() {
+            start = deadline.isBounded() ? System.nanoTime() : 0;
+            CompletionStage<T> attempt;
+            try {
+                stage.deadlineGuard.check(deadline);
+                attempt = stage.next.execute(deadline, supplier);
+            } catch (RuntimeException e) {
+                onError(e);
+                return;
+            }
+            attempt.handle(this);
+        }
+
+        @Override
+        public Void apply(T result, Throwable throwable) {
+            if (throwable == null) {
+                onResult(result);
+            } else if (throwable instanceof Exception) {
+                onError(unwrap(throwable));
+            } else {
+                completeExceptionally(throwable);
+            }
+            return null;
+        }
+
+        private void onError(Throwable throwable) {
+            Throwable failure = stage.deadlineGuard.onAttemptFailure(deadline, stage.retry, ++attempts, start,
+                    throwable);
+            long delay = context.onError(failure);
+            if (delay < 0) {
+                completeExceptionally(failure);
+            } else {
+                stage.scheduler.schedule(this, delay, TimeUnit.MILLISECONDS);
+            }
+        }
+
+        private void onResult(T result) {
+            long delay = context.onResult(result);
+            if (delay < 0) {
+                try {
+                    context.onComplete();
+                    complete(result);
+                } catch (Exception e) {
+                    completeExceptionally(e);
+                }
+            } else {
+                stage.scheduler.schedule(this, delay, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    private static final class FallbackStage extends Stage {
+
+        private final List<Class<? extends Throwable>> exceptionTypes;
+        private final Function<Throwable, ?> fallback;
+
+        private FallbackStage(Stage next, List<Class<? extends Throwable>> exceptionTypes,
+                              Function<Throwable, ?> fallback) {
+            super(next);
+            this.exceptionTypes = exceptionTypes;
+            this.fallback = fallback;
+        }
+
+        @Override
+        <T> CompletionStage<T> execute(Deadline deadline, Supplier<T> supplier) {
+            FallbackCall<T> call = new FallbackCall<>(this);
+            next.<T>execute(deadline, supplier).handle(call);
+            return call;
+        }
+    }
+
+    private static final class FallbackCall<T> extends CompletableFuture<T>
+            implements BiFunction<T, Throwable, Void> {
+
+        private final FallbackStage stage;
+
+        private FallbackCall(FallbackStage stage) {
+            this.stage = stage;
+        }
+
+        @Override
+        @SuppressWarnings("unchecked")
+        public Void apply(T result, Throwable throwable) {
+            if (throwable == null) {
+                complete(result);
+                return null;
+            }
+            Throwable cause = unwrap(throwable);
+            for (Class<? extends Throwable> exceptionType : stage.exceptionTypes) {
+                if (exceptionType.isInstance(cause)) {
+                    try {
+                        complete((T) stage.fallback.apply(cause));
+                    } catch (Exception e) {
+                        completeExceptionally(e);
+                    }
+                    return null;
+                }
+            }
+            completeExceptionally(cause);
+            return null;
+        }
+    }
+
+    private static Throwable unwrap(Throwable throwable) {
+        return (throwable instanceof CompletionException || throwable instanceof ExecutionException)
+                && throwable.getCause() != null ? throwable.getCause() : throwable;
+    }
+}
@@ -0,0 +1,255 @@
+package org.feuyeux.resilience.pipeline;
+
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.core.exception.AcquirePermissionCancelledException;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RequestNotPermitted;
+import io.github.resilience4j.retry.Retry;
+import org.feuyeux.resilience.admission.AdmissionQueue;
+import org.feuyeux.resilience.admission.Priority;
+import org.feuyeux.resilience.deadline.Deadline;
+import org.feuyeux.resilience.deadline.DeadlineGuard;
+import org.feuyeux.resilience.exception.Rejections;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+/**
+ * A chain of decorators built once per endpoint and shared by all of its calls, which pass their supplier, priority
+ * and deadline as arguments. A {@code Decorators.ofSupplier(supplier)} chain is rebuilt for every call, a nest of
+ * decorator objects and lambdas allocated before any work is done; a call through a pipeline allocates only what the
+ * decorators keep per call, such as the retry context.
+ * <p>
+ * Decorators are added as with {@code Decorators}, the first one added is the innermost, and each stage makes the same
+ * calls on its resilience4j component as the component's own {@code decorateSupplier}, so events, metrics and
+ * outcomes are unchanged. Rejected calls fail with the exceptions of {@link Rejections}.
+ */
+public final class Pipeline {
+
+    private final Stage head;
+
+    private Pipeline(Stage head) {
+        this.head = head;
+    }
+
+    public static Builder builder() {
+        return new Builder();
+    }
+
+    public <T> T execute(Priority priority, Deadline deadline, Supplier<T> supplier) {
+        return head.execute(priority, deadline, supplier);
+    }
+
+    public <T> T execute(Deadline deadline, Supplier<T> supplier) {
+        return head.execute(Priority.INTERACTIVE, deadline, supplier);
+    }
+
+    public static final class Builder {
+
+        // innermost first
+        private final List<Function<Stage, Stage>> stages = new ArrayList<>();
+
+        private Builder() {
+        }
+
+        public Builder withCircuitBreaker(CircuitBreaker circuitBreaker) {
+            stages.add(next -> new CircuitBreakerStage(next, circuitBreaker));
+            return this;
+        }
+
+        /**
+         * Passes the admission queue with the priority of the call, waiting until its deadline at the latest.
+         */
+        public Builder withAdmissionQueue(AdmissionQueue admissionQueue) {
+            stages.add(next -> new AdmissionQueueStage(next, admissionQueue));
+            return this;
+        }
+
+        public Builder withRateLimiter(RateLimiter rateLimiter) {
+            stages.add(next -> new RateLimiterStage(next, rateLimiter));
+            return this;
+        }
+
+        /**
+         * Retries what is inside, every attempt held to the deadline of the call as
+         * {@link DeadlineGuard#decorateRetryAttempt} holds it.
+         */
+        public Builder withRetry(Retry retry, DeadlineGuard deadlineGuard) {
+            stages.add(next -> new RetryStage(next, retry, deadlineGuard));
+            return this;
+        }
+
+        /**
+         * Fails a call whose deadline has passed before it gets any further.
+         */
+        public Builder withDeadline(DeadlineGuard deadlineGuard) {
+            stages.add(next -> new DeadlineStage(next, deadlineGuard));
+            return this;
+        }
+
+        public Pipeline build() {
+            Stage stage = new SupplierStage();
+            for (Function<Stage, Stage> decorator : stages) {
+                stage = decorator.apply(stage);
+            }
+            return new Pipeline(stage);
+        }
+    }
+
+    private abstract static class Stage {
+
+        final Stage next;
+
+        Stage(Stage next) {
+            this.next = next;
+        }
+
+        abstract <T> T execute(Priority priority, Deadline deadline, Supplier<T> supplier);
+    }
+
+    private static final class SupplierStage extends Stage {
+
+        private SupplierStage() {
+            super(null);
+        }
+
+        @Override
+        <T> T execute(Priority priority, Deadline deadline, Supplier<T> supplier) {
+            return supplier.get();
+        }
+    }
+
+    private static final class CircuitBreakerStage extends Stage {
+
+        private final CircuitBreaker circuitBreaker;
+        private final Supplier<CallNotPermittedException> callNotPermitted;
+
+        private CircuitBreakerStage(Stage next, CircuitBreaker circuitBreaker) {
+            super(next);
+            this.circuitBreaker = circuitBreaker;
+            this.callNotPermitted = Rejections.callNotPermitted(circuitBreaker);
+        }
+
+        @Override
+        <T> T execute(Priority priority, Deadline deadline, Supplier<T> supplier) {
+            if (!circuitBreaker.tryAcquirePermission()) {
+                throw callNotPermitted.get();
+            }
+            long start = circuitBreaker.getCurrentTimestamp();
+            try {
+                T result = next.execute(priority, deadline, supplier);
+                circuitBreaker.onResult(circuitBreaker.getCurrentTimestamp() - start,
+                        circuitBreaker.getTimestampUnit(), result);
+                return result;
+            } catch (Exception e) {
+                circuitBreaker.onError(circuitBreaker.getCurrentTimestamp() - start,
+                        circuitBreaker.getTimestampUnit(), e);
+                throw e;
+            }
+        }
+    }
+
+    private static final class AdmissionQueueStage extends Stage {
+
+        private final AdmissionQueue admissionQueue;
+
+        private AdmissionQueueStage(Stage next, AdmissionQueue admissionQueue) {
+            super(next);
+            this.admissionQueue = admissionQueue;
+        }
+
+        @Override
+        <T> T execute(Priority priority, Deadline deadline, Supplier<T> supplier) {
+            long permittedNanos = admissionQueue.acquire(priority, deadline);
+            try {
+                return next.execute(priority, deadline, supplier);
+            } finally {
+                admissionQueue.onComplete(permittedNanos);
+            }
+        }
+    }
+
+    private static final class RateLimiterStage extends Stage {
+
+        private final RateLimiter rateLimiter;
+        private final Supplier<RequestNotPermitted> requestNotPermitted;
+
+        private RateLimiterStage(Stage next, RateLimiter rateLimiter) {
+            super(next);
+            this.rateLimiter = rateLimiter;
+            this.requestNotPermitted = Rejections.requestNotPermitted(rateLimiter);
+        }
+
+        @Override
+        <T> T execute(Priority priority, Deadline deadline, Supplier<T> supplier) {
+            // RateLimiter.waitForPermission, failing with the shared exception
+            boolean permitted = rateLimiter.acquirePermission();
+            if (Thread.currentThread().isInterrupted()) {
+                throw new AcquirePermissionCancelledException();
+            }
+            if (!permitted) {
+                throw requestNotPermitted.get();
+            }
+            try {
+                T result = next.execute(priority, deadline, supplier);
+                rateLimiter.onResult(result);
+                return result;
+            } catch (Exception e) {
+                rateLimiter.onError(e);
+                throw e;
+            }
+        }
+    }
+
+    private static final class RetryStage extends Stage {
+
+        private final Retry retry;
+        private final DeadlineGuard deadlineGuard;
+
+        private RetryStage(Stage next, Retry retry, DeadlineGuard deadlineGuard) {
+            super(next);
+            this.retry = retry;
+            this.deadlineGuard = deadlineGuard;
+        }
+
+        @Override
+        <T> T execute(Priority priority, Deadline deadline, Supplier<T> supplier) {
+            Retry.Context<T> context = retry.context();
+            boolean bounded = deadline.isBounded();
+            int attempts = 0;
+            while (true) {
+                long start = bounded ? System.nanoTime() : 0;
+                try {
+                    deadlineGuard.check(deadline);
+                    T result = next.execute(priority, deadline, supplier);
+                    if (!context.onResult(result)) {
+                        context.onComplete();
+                        return result;
+                    }
+                } catch (RuntimeException e) {
+                    context.onRuntimeError(
+                            (RuntimeException) deadlineGuard.onAttemptFailure(deadline, retry, ++attempts, start, e));
+                }
+            }
+        }
+    }
+
+    private static final class DeadlineStage extends Stage {
+
+        private final DeadlineGuard deadlineGuard;
+
+        private DeadlineStage(Stage next, DeadlineGuard deadlineGuard) {
+            super(next);
+            this.deadlineGuard = deadlineGuard;
+        }
+
+        @Override
+        <T> T execute(Priority priority, Deadline deadline, Supplier<T> supplier) {
+            deadlineGuard.check(deadline);
+            return next.execute(priority, deadline, supplier);
+        }
+    }
+}
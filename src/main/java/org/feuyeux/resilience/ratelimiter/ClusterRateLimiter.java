@@ -0,0 +1,274 @@
+package org.feuyeux.resilience.ratelimiter;
+
+import io.github.resilience4j.core.EventConsumer;
+import io.github.resilience4j.core.EventProcessor;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.github.resilience4j.ratelimiter.event.RateLimiterEvent;
+import io.github.resilience4j.ratelimiter.event.RateLimiterOnDrainedEvent;
+import io.github.resilience4j.ratelimiter.event.RateLimiterOnFailureEvent;
+import io.github.resilience4j.ratelimiter.event.RateLimiterOnSuccessEvent;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Supplier;
+
+/**
+ * A {@link RateLimiter} that enforces {@code limitForPeriod} across all nodes sharing a {@link PermitStore}. It is
+ * registered in the {@link io.github.resilience4j.ratelimiter.RateLimiterRegistry} under the name of the rate limiter
+ * it replaces, so the {@code @RateLimiter} aspect and decorators use it unchanged.
+ * <p>
+ * Permits are leased from the store in batches of {@code leaseSize} and handed out locally until the batch is used
+ * up, so only one request in {@code leaseSize} leaves the node. Permits leased but not used before the cycle ends are
+ * lost to the cluster, which keeps the global limit and costs at most {@code leaseSize - 1} permits per node and
+ * cycle. Once the store runs out, the node refuses locally for the rest of the cycle. A request finding the cycle
+ * exhausted leases from the next one and waits for it when it starts within {@code timeoutDuration}.
+ */
+public class ClusterRateLimiter implements RateLimiter {
+
+    private final String name;
+    private final PermitStore permitStore;
+    private final int leaseSize;
+    private final Map<String, String> tags;
+    private final ReentrantLock leaseLock = new ReentrantLock();
+    private final AtomicInteger waitingThreads = new AtomicInteger();
+    private final LeaseMetrics metrics = new LeaseMetrics();
+    private final ClusterRateLimiterEventProcessor eventProcessor = new ClusterRateLimiterEventProcessor();
+    private volatile RateLimiterConfig config;
+    private volatile Lease lease = new Lease(-1, 0);
+
+    public ClusterRateLimiter(String name, RateLimiterConfig config, PermitStore permitStore, int leaseSize,
+                              Map<String, String> tags) {
+        this.name = name;
+        this.config = config;
+        this.permitStore = permitStore;
+        this.leaseSize = leaseSize;
+        this.tags = tags;
+    }
+
+    @Override
+    public void changeTimeoutDuration(Duration timeoutDuration) {
+        config = RateLimiterConfig.from(config).timeoutDuration(timeoutDuration).build();
+    }
+
+    /**
+     * Applies to this node only, every node has to be given the same limit.
+     */
+    @Override
+    public void changeLimitForPeriod(int limitForPeriod) {
+        config = RateLimiterConfig.from(config).limitForPeriod(limitForPeriod).build();
+    }
+
+    @Override
+    public boolean acquirePermission(int permits) {
+        long nanosToWait = reserve(permits);
+        boolean permitted = nanosToWait == 0 || nanosToWait > 0 && waitForPermission(nanosToWait);
+        publishRateLimiterEvent(() -> permitted ? new RateLimiterOnSuccessEvent(name, permits)
+                : new RateLimiterOnFailureEvent(name, permits));
+        return permitted;
+    }
+
+    @Override
+    public long reservePermission(int permits) {
+        long nanosToWait = reserve(permits);
+        publishRateLimiterEvent(() -> nanosToWait >= 0 ? new RateLimiterOnSuccessEvent(name, permits)
+                : new RateLimiterOnFailureEvent(name, permits));
+        return nanosToWait;
+    }
+
+    /**
+     * Drains the permits of the current cycle on this node and in the store.
+     */
+    @Override
+    public void drainPermissions() {
+        RateLimiterConfig current = config;
+        long cycle = System.currentTimeMillis() / periodMillis(current);
+        int drained = 0;
+        leaseLock.lock();
+        try {
+            Lease local = lease;
+            if (local.cycle == cycle) {
+                drained += local.remaining.getAndSet(0);
+            }
+            drained += permitStore.acquire(name, cycle, current.getLimitForPeriod(), current.getLimitForPeriod());
+        } finally {
+            leaseLock.unlock();
+        }
+        int permits = drained;
+        publishRateLimiterEvent(() -> new RateLimiterOnDrainedEvent(name, permits));
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public RateLimiterConfig getRateLimiterConfig() {
+        return config;
+    }
+
+    @Override
+    public Map<String, String> getTags() {
+        return tags;
+    }
+
+    @Override
+    public Metrics getMetrics() {
+        return metrics;
+    }
+
+    @Override
+    public EventPublisher getEventPublisher() {
+        return eventProcessor;
+    }
+
+    public int getLeaseSize() {
+        return leaseSize;
+    }
+
+    /**
+     * @return 0 when the permits are available now, the nanos until they are when they were taken from the next
+     * cycle, -1 when they are not available within {@code timeoutDuration}
+     */
+    private long reserve(int permits) {
+        RateLimiterConfig current = config;
+        long periodMillis = periodMillis(current);
+        long now = System.currentTimeMillis();
+        long cycle = now / periodMillis;
+        if (take(cycle, permits, current.getLimitForPeriod())) {
+            return 0;
+        }
+        long nanosToNextCycle = TimeUnit.MILLISECONDS.toNanos((cycle + 1) * periodMillis - now);
+        if (nanosToNextCycle > current.getTimeoutDuration().toNanos()) {
+            return -1;
+        }
+        return take(cycle + 1, permits, current.getLimitForPeriod()) ? nanosToNextCycle : -1;
+    }
+
+    private boolean take(long cycle, int permits, int limitForPeriod) {
+        Lease local = lease;
+        if (local.cycle == cycle && local.tryTake(permits)) {
+            return true;
+        }
+        leaseLock.lock();
+        try {
+            local = lease;
+            if (local.cycle == cycle && local.tryTake(permits)) {
+                return true;
+            }
+            if (local.cycle > cycle || local.cycle == cycle && local.exhausted) {
+                // another caller already moved on to the next cycle, or the cluster has no permits left in this one
+                return false;
+            }
+            int requested = Math.max(permits, leaseSize);
+            int granted = permitStore.acquire(name, cycle, limitForPeriod, requested);
+            if (local.cycle == cycle) {
+                local.remaining.addAndGet(granted);
+            } else {
+                local = new Lease(cycle, granted);
+                lease = local;
+            }
+            // permits are never given back, so refused callers need not ask the store again until the next cycle
+            local.exhausted = granted < requested;
+            return local.tryTake(permits);
+        } finally {
+            leaseLock.unlock();
+        }
+    }
+
+    private boolean waitForPermission(long nanosToWait) {
+        waitingThreads.incrementAndGet();
+        long deadline = System.nanoTime() + nanosToWait;
+        boolean interrupted = false;
+        while (System.nanoTime() < deadline && !interrupted) {
+            LockSupport.parkNanos(deadline - System.nanoTime());
+            interrupted = Thread.interrupted();
+        }
+        waitingThreads.decrementAndGet();
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+        return !interrupted;
+    }
+
+    private static long periodMillis(RateLimiterConfig config) {
+        return Math.max(1, config.getLimitRefreshPeriod().toMillis());
+    }
+
+    private void publishRateLimiterEvent(Supplier<RateLimiterEvent> eventSupplier) {
+        if (eventProcessor.hasConsumers()) {
+            eventProcessor.consumeEvent(eventSupplier.get());
+        }
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ClusterRateLimiter '%s'", name);
+    }
+
+    private static final class Lease {
+
+        private final long cycle;
+        private final AtomicInteger remaining;
+        private volatile boolean exhausted;
+
+        private Lease(long cycle, int permits) {
+            this.cycle = cycle;
+            this.remaining = new AtomicInteger(permits);
+        }
+
+        private boolean tryTake(int permits) {
+            int current;
+            do {
+                current = remaining.get();
+                if (current < permits) {
+                    return false;
+                }
+            } while (!remaining.compareAndSet(current, current - permits));
+            return true;
+        }
+    }
+
+    private final class LeaseMetrics implements Metrics {
+
+        @Override
+        public int getNumberOfWaitingThreads() {
+            return waitingThreads.get();
+        }
+
+        /**
+         * Permits leased by this node and not used yet, other nodes may still hold more.
+         */
+        @Override
+        public int getAvailablePermissions() {
+            Lease local = lease;
+            return local.cycle == System.currentTimeMillis() / periodMillis(config) ? local.remaining.get() : 0;
+        }
+    }
+
+    private static final class ClusterRateLimiterEventProcessor extends EventProcessor<RateLimiterEvent>
+            implements EventPublisher, EventConsumer<RateLimiterEvent> {
+
+        @Override
+        public EventPublisher onSuccess(EventConsumer<RateLimiterOnSuccessEvent> eventConsumer) {
+            registerConsumer(RateLimiterOnSuccessEvent.class.getName(), eventConsumer);
+            return this;
+        }
+
+        @Override
+        public EventPublisher onFailure(EventConsumer<RateLimiterOnFailureEvent> eventConsumer) {
+            registerConsumer(RateLimiterOnFailureEvent.class.getName(), eventConsumer);
+            return this;
+        }
+
+        @Override
+        public void consumeEvent(RateLimiterEvent event) {
+            super.processEvent(event);
+        }
+    }
+}
@@ -0,0 +1,27 @@
+package org.feuyeux.resilience.ratelimiter;
+
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnMissingBean;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ClusterRateLimiterProperties.class)
+public class ClusterRateLimiterConfiguration {
+
+    @Bean
+    public static ClusterRateLimiterInstaller clusterRateLimiterInstaller(ClusterRateLimiterProperties properties,
+                                                                          ObjectProvider<PermitStore> permitStore) {
+        return new ClusterRateLimiterInstaller(properties, permitStore);
+    }
+
+    /**
+     * Without a shared store every node only limits itself, as the resilience4j rate limiter does.
+     */
+    @Bean
+    @ConditionalOnMissingBean
+    public PermitStore permitStore() {
+        return new InMemoryPermitStore();
+    }
+}
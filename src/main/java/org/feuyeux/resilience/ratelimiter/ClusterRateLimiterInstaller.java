@@ -0,0 +1,45 @@
+package org.feuyeux.resilience.ratelimiter;
+
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import static org.feuyeux.resilience.ratelimiter.ClusterRateLimiterProperties.InstanceProperties;
+
+/**
+ * Replaces the configured rate limiters of the {@link RateLimiterRegistry} with {@link ClusterRateLimiter}s right
+ * after the registry is created, before any controller or aspect looks them up.
+ */
+@Slf4j
+public class ClusterRateLimiterInstaller implements BeanPostProcessor {
+
+    private final ClusterRateLimiterProperties properties;
+    private final ObjectProvider<PermitStore> permitStore;
+
+    public ClusterRateLimiterInstaller(ClusterRateLimiterProperties properties, ObjectProvider<PermitStore> permitStore) {
+        this.properties = properties;
+        this.permitStore = permitStore;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof RateLimiterRegistry rateLimiterRegistry) {
+            properties.getInstances().forEach((name, instance) -> install(rateLimiterRegistry, name, instance));
+        }
+        return bean;
+    }
+
+    private void install(RateLimiterRegistry rateLimiterRegistry, String name, InstanceProperties instance) {
+        RateLimiter local = rateLimiterRegistry.rateLimiter(name);
+        RateLimiterConfig config = local.getRateLimiterConfig();
+        int leaseSize = instance.getLeaseSize() > 0
+                ? instance.getLeaseSize() : Math.max(1, config.getLimitForPeriod() / 10);
+        PermitStore store = permitStore.getObject();
+        rateLimiterRegistry.replace(name, new ClusterRateLimiter(name, config, store, leaseSize, local.getTags()));
+        log.info("ClusterRateLimiter[{}] limitForPeriod:{} limitRefreshPeriod:{} leaseSize:{} store:{}", name,
+                config.getLimitForPeriod(), config.getLimitRefreshPeriod(), leaseSize, store.getClass().getSimpleName());
+    }
+}
@@ -0,0 +1,22 @@
+package org.feuyeux.resilience.ratelimiter;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "resilience.cluster-ratelimiter")
+public class ClusterRateLimiterProperties {
+
+    private Map<String, InstanceProperties> instances = new HashMap<>();
+
+    @Data
+    public static class InstanceProperties {
+        /**
+         * permits leased from the store at once, 0 for a tenth of limitForPeriod
+         */
+        private int leaseSize = 0;
+    }
+}
@@ -0,0 +1,38 @@
+package org.feuyeux.resilience.ratelimiter;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * {@link PermitStore} of a single JVM. Cluster rate limiters share it when they share the instance, as the app
+ * contexts of a multi-instance test do; it is also the default of a node running alone.
+ */
+public class InMemoryPermitStore implements PermitStore {
+
+    private final Map<Key, AtomicInteger> taken = new ConcurrentHashMap<>();
+
+    @Override
+    public int acquire(String name, long cycle, int limitForPeriod, int permits) {
+        Key key = new Key(name, cycle);
+        AtomicInteger counter = taken.get(key);
+        if (counter == null) {
+            // a cycle is only asked for until the next one starts, and a limiter idle for a while skips cycles
+            taken.keySet().removeIf(old -> old.name().equals(name) && old.cycle() < cycle - 1);
+            counter = taken.computeIfAbsent(key, k -> new AtomicInteger());
+        }
+        int current;
+        int granted;
+        do {
+            current = counter.get();
+            granted = Math.min(permits, limitForPeriod - current);
+            if (granted <= 0) {
+                return 0;
+            }
+        } while (!counter.compareAndSet(current, current + granted));
+        return granted;
+    }
+
+    private record Key(String name, long cycle) {
+    }
+}
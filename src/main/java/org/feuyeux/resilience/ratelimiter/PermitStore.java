@@ -0,0 +1,17 @@
+package org.feuyeux.resilience.ratelimiter;
+
+/**
+ * State shared by the {@link ClusterRateLimiter}s of all nodes: how many of the {@code limitForPeriod} permits of a
+ * cycle the cluster has taken so far. Cycles are numbered from the epoch in {@code limitRefreshPeriod} steps, so every
+ * node agrees on them as far as its clock does. A networked store needs one atomic round trip per call, e.g. INCRBY of
+ * {@code name:cycle} with an expiry of two periods in Redis, and is called once per lease, not per request.
+ */
+public interface PermitStore {
+
+    /**
+     * Takes up to {@code permits} of the permits still left in {@code cycle}.
+     *
+     * @return the number of permits taken, 0 once the cycle is exhausted
+     */
+    int acquire(String name, long cycle, int limitForPeriod, int permits);
+}
@@ -0,0 +1,108 @@
+package org.feuyeux.resilience.reconfig;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.feuyeux.resilience.circuitbreaker.StripedCircuitBreaker;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Changes the limits of the running instances of a name in place: the registries keep the same instances, so the
+ * controllers and aspects holding them see the change at once, calls in flight keep their permits and the circuit
+ * breaker keeps its state and recent calls. Every requested limit is checked before any is changed, so a change is
+ * applied whole or not at all.
+ */
+@Slf4j
+public class LimitReconfigurer {
+
+    private final BulkheadRegistry bulkheadRegistry;
+    private final RateLimiterRegistry rateLimiterRegistry;
+    private final TimeLimiterRegistry timeLimiterRegistry;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+
+    public LimitReconfigurer(BulkheadRegistry bulkheadRegistry, RateLimiterRegistry rateLimiterRegistry,
+                             TimeLimiterRegistry timeLimiterRegistry, CircuitBreakerRegistry circuitBreakerRegistry) {
+        this.bulkheadRegistry = bulkheadRegistry;
+        this.rateLimiterRegistry = rateLimiterRegistry;
+        this.timeLimiterRegistry = timeLimiterRegistry;
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+    }
+
+    /**
+     * @return the limits of {@code name} after the change
+     * @throws IllegalArgumentException if a limit is out of range or the instance of a limit cannot change it
+     */
+    public synchronized ResilienceLimits apply(String name, ResilienceLimits limits) {
+        List<Runnable> changes = new ArrayList<>();
+        if (limits.getMaxConcurrentCalls() != null) {
+            int maxConcurrentCalls = atLeastOne("maxConcurrentCalls", limits.getMaxConcurrentCalls());
+            Bulkhead bulkhead = required(bulkheadRegistry.find(name), "bulkhead", name);
+            changes.add(() -> bulkhead.changeConfig(BulkheadConfig.from(bulkhead.getBulkheadConfig())
+                    .maxConcurrentCalls(maxConcurrentCalls)
+                    .build()));
+        }
+        if (limits.getLimitForPeriod() != null) {
+            int limitForPeriod = atLeastOne("limitForPeriod", limits.getLimitForPeriod());
+            RateLimiter rateLimiter = required(rateLimiterRegistry.find(name), "rate limiter", name);
+            changes.add(() -> rateLimiter.changeLimitForPeriod(limitForPeriod));
+        }
+        if (limits.getTimeoutDuration() != null) {
+            Duration timeoutDuration = limits.getTimeoutDuration();
+            if (timeoutDuration.isNegative() || timeoutDuration.isZero()) {
+                throw new IllegalArgumentException("timeoutDuration must be positive");
+            }
+            if (!(required(timeLimiterRegistry.find(name), "time limiter", name)
+                    instanceof ReconfigurableTimeLimiter timeLimiter)) {
+                throw new IllegalArgumentException("The time limiter '" + name + "' is not reconfigurable");
+            }
+            changes.add(() -> timeLimiter.changeTimeoutDuration(timeoutDuration));
+        }
+        if (limits.getSlidingWindowSize() != null) {
+            int slidingWindowSize = atLeastOne("slidingWindowSize", limits.getSlidingWindowSize());
+            if (!(required(circuitBreakerRegistry.find(name), "circuit breaker", name)
+                    instanceof StripedCircuitBreaker circuitBreaker)) {
+                throw new IllegalArgumentException("Only a striped circuit breaker can change its sliding window, '"
+                        + name + "' is not striped");
+            }
+            changes.add(() -> circuitBreaker.changeSlidingWindowSize(slidingWindowSize));
+        }
+        changes.forEach(Runnable::run);
+        ResilienceLimits applied = limits(name);
+        log.info("Limits[{}] changed to {}", name, applied);
+        return applied;
+    }
+
+    public ResilienceLimits limits(String name) {
+        return new ResilienceLimits(
+                bulkheadRegistry.find(name)
+                        .map(bulkhead -> bulkhead.getBulkheadConfig().getMaxConcurrentCalls()).orElse(null),
+                rateLimiterRegistry.find(name)
+                        .map(rateLimiter -> rateLimiter.getRateLimiterConfig().getLimitForPeriod()).orElse(null),
+                timeLimiterRegistry.find(name)
+                        .map(timeLimiter -> timeLimiter.getTimeLimiterConfig().getTimeoutDuration()).orElse(null),
+                circuitBreakerRegistry.find(name)
+                        .filter(StripedCircuitBreaker.class::isInstance)
+                        .map(circuitBreaker -> ((StripedCircuitBreaker) circuitBreaker).getSlidingWindowSize())
+                        .orElse(null));
+    }
+
+    private static int atLeastOne(String limit, int value) {
+        if (value < 1) {
+            throw new IllegalArgumentException(limit + " must be at least 1");
+        }
+        return value;
+    }
+
+    private static <E> E required(Optional<E> instance, String component, String name) {
+        return instance.orElseThrow(() -> new IllegalArgumentException("No " + component + " '" + name + "'"));
+    }
+}
@@ -0,0 +1,55 @@
+package org.feuyeux.resilience.reconfig;
+
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * {@code GET /actuator/limits} reports the limits of the configured names, {@code POST /actuator/limits/backendB}
+ * with {@code {"maxConcurrentCalls": 4, "timeoutDuration": "1s"}} changes those given and answers with the result.
+ * The write operation is not authenticated, so the endpoint is off unless {@code management.endpoint.limits.enabled}
+ * is set.
+ */
+@Endpoint(id = "limits", enableByDefault = false)
+public class LimitsEndpoint {
+
+    private final LimitReconfigurer limitReconfigurer;
+    private final List<String> names;
+
+    public LimitsEndpoint(LimitReconfigurer limitReconfigurer, List<String> names) {
+        this.limitReconfigurer = limitReconfigurer;
+        this.names = names;
+    }
+
+    @ReadOperation
+    public Map<String, ResilienceLimits> limits() {
+        Map<String, ResilienceLimits> limits = new LinkedHashMap<>();
+        names.forEach(name -> limits.put(name, limitReconfigurer.limits(name)));
+        return limits;
+    }
+
+    @ReadOperation
+    public ResilienceLimits limits(@Selector String name) {
+        return limitReconfigurer.limits(name);
+    }
+
+    @WriteOperation
+    public ResilienceLimits change(@Selector String name, @Nullable Integer maxConcurrentCalls,
+                                   @Nullable Integer limitForPeriod, @Nullable Duration timeoutDuration,
+                                   @Nullable Integer slidingWindowSize) {
+        try {
+            return limitReconfigurer.apply(name,
+                    new ResilienceLimits(maxConcurrentCalls, limitForPeriod, timeoutDuration, slidingWindowSize));
+        } catch (IllegalArgumentException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package org.feuyeux.resilience.reconfig;
+
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.DisposableBean;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+import org.springframework.boot.context.properties.bind.Bindable;
+import org.springframework.boot.context.properties.bind.Binder;
+import org.springframework.boot.context.properties.source.ConfigurationPropertySources;
+import org.springframework.boot.env.YamlPropertySourceLoader;
+import org.springframework.core.io.FileSystemResource;
+
+import java.io.IOException;
+import java.nio.file.ClosedWatchServiceException;
+import java.nio.file.FileSystems;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardWatchEventKinds;
+import java.nio.file.WatchEvent;
+import java.nio.file.WatchKey;
+import java.nio.file.WatchService;
+import java.util.Map;
+
+/**
+ * Applies the {@code instances.<name>.<limit>} of a YAML file once all singletons exist, and again whenever the file
+ * is written or replaced. The directory is watched rather than the file, so editors that save by renaming are seen
+ * too. A file that cannot be read or bound, or a limit that is rejected, is logged and the previous limits stay.
+ */
+@Slf4j
+public class LimitsFileWatcher implements SmartInitializingSingleton, DisposableBean {
+
+    private final Path file;
+    private final LimitReconfigurer limitReconfigurer;
+    private WatchService watchService;
+
+    public LimitsFileWatcher(Path file, LimitReconfigurer limitReconfigurer) {
+        this.file = file.toAbsolutePath();
+        this.limitReconfigurer = limitReconfigurer;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        load();
+        try {
+            watchService = FileSystems.getDefault().newWatchService();
+            file.getParent().register(watchService, StandardWatchEventKinds.ENTRY_CREATE,
+                    StandardWatchEventKinds.ENTRY_MODIFY);
+        } catch (IOException e) {
+            throw new IllegalStateException("Cannot watch " + file, e);
+        }
+        Thread watcher = new Thread(this::watch, "limits-file-watcher");
+        watcher.setDaemon(true);
+        watcher.start();
+    }
+
+    @Override
+    public void destroy() throws IOException {
+        if (watchService != null) {
+            watchService.close();
+        }
+    }
+
+    void load() {
+        if (!Files.isRegularFile(file)) {
+            return;
+        }
+        try {
+            Map<String, ResilienceLimits> instances = new Binder(ConfigurationPropertySources.from(
+                    new YamlPropertySourceLoader().load(file.toString(), new FileSystemResource(file))))
+                    .bind("instances", Bindable.mapOf(String.class, ResilienceLimits.class))
+                    .orElse(Map.of());
+            instances.forEach(limitReconfigurer::apply);
+        } catch (Exception e) {
+            log.warn("Limits of {} not applied: {}", file, e.getMessage());
+        }
+    }
+
+    private void watch() {
+        try {
+            while (true) {
+                WatchKey key = watchService.take();
+                boolean changed = false;
+                for (WatchEvent<?> event : key.pollEvents()) {
+                    changed |= event.kind() == StandardWatchEventKinds.OVERFLOW
+                            || file.getFileName().equals(event.context());
+                }
+                key.reset();
+                if (changed) {
+                    load();
+                }
+            }
+        } catch (ClosedWatchServiceException e) {
+            // shut down
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
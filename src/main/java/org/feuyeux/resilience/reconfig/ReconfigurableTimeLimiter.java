@@ -0,0 +1,90 @@
+package org.feuyeux.resilience.reconfig;
+
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import io.github.resilience4j.timelimiter.TimeLimiterConfig;
+import io.github.resilience4j.timelimiter.internal.TimeLimiterEventProcessor;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Future;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.function.Supplier;
+
+/**
+ * A {@link TimeLimiter} whose timeout can be changed, which resilience4j's cannot. Each change swaps in a new
+ * resilience4j time limiter of the same name and tags; a call takes the one current when it starts, so calls already
+ * running keep their timeout. The events of every one of them go to the consumers registered here.
+ */
+public class ReconfigurableTimeLimiter implements TimeLimiter {
+
+    private final String name;
+    private final Map<String, String> tags;
+    private final TimeLimiterEventProcessor eventProcessor = new TimeLimiterEventProcessor();
+    private volatile TimeLimiter delegate;
+
+    public ReconfigurableTimeLimiter(TimeLimiter timeLimiter) {
+        this.name = timeLimiter.getName();
+        this.tags = timeLimiter.getTags();
+        this.delegate = forward(timeLimiter);
+    }
+
+    public void changeTimeoutDuration(Duration timeoutDuration) {
+        TimeLimiterConfig config = TimeLimiterConfig.from(delegate.getTimeLimiterConfig())
+                .timeoutDuration(timeoutDuration)
+                .build();
+        delegate = forward(TimeLimiter.of(name, config, tags));
+    }
+
+    @Override
+    public <T, F extends Future<T>> Callable<T> decorateFutureSupplier(Supplier<F> futureSupplier) {
+        return () -> delegate.<T, F>decorateFutureSupplier(futureSupplier).call();
+    }
+
+    @Override
+    public <T, F extends CompletionStage<T>> Supplier<CompletionStage<T>> decorateCompletionStage(
+            ScheduledExecutorService scheduler, Supplier<F> supplier) {
+        return () -> delegate.<T, F>decorateCompletionStage(scheduler, supplier).get();
+    }
+
+    @Override
+    public String getName() {
+        return name;
+    }
+
+    @Override
+    public Map<String, String> getTags() {
+        return tags;
+    }
+
+    @Override
+    public TimeLimiterConfig getTimeLimiterConfig() {
+        return delegate.getTimeLimiterConfig();
+    }
+
+    @Override
+    public EventPublisher getEventPublisher() {
+        return eventProcessor;
+    }
+
+    @Override
+    public void onSuccess() {
+        delegate.onSuccess();
+    }
+
+    @Override
+    public void onError(Throwable throwable) {
+        delegate.onError(throwable);
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ReconfigurableTimeLimiter '%s'", name);
+    }
+
+    private TimeLimiter forward(TimeLimiter timeLimiter) {
+        timeLimiter.getEventPublisher().onEvent(eventProcessor::consumeEvent);
+        return timeLimiter;
+    }
+}
@@ -0,0 +1,28 @@
+package org.feuyeux.resilience.reconfig;
+
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+/**
+ * Replaces the time limiters of the configured names with {@link ReconfigurableTimeLimiter}s right after the registry
+ * is created, before any controller or aspect looks them up.
+ */
+public class ReconfigurableTimeLimiterInstaller implements BeanPostProcessor {
+
+    private final ReconfigurationProperties properties;
+
+    public ReconfigurableTimeLimiterInstaller(ReconfigurationProperties properties) {
+        this.properties = properties;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof TimeLimiterRegistry timeLimiterRegistry) {
+            for (String name : properties.getNames()) {
+                timeLimiterRegistry.replace(name,
+                        new ReconfigurableTimeLimiter(timeLimiterRegistry.timeLimiter(name)));
+            }
+        }
+        return bean;
+    }
+}
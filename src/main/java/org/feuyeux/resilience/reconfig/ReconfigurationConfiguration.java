@@ -0,0 +1,44 @@
+package org.feuyeux.resilience.reconfig;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import org.springframework.boot.actuate.autoconfigure.endpoint.condition.ConditionalOnAvailableEndpoint;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(ReconfigurationProperties.class)
+public class ReconfigurationConfiguration {
+
+    @Bean
+    public static ReconfigurableTimeLimiterInstaller reconfigurableTimeLimiterInstaller(
+            ReconfigurationProperties properties) {
+        return new ReconfigurableTimeLimiterInstaller(properties);
+    }
+
+    @Bean
+    public LimitReconfigurer limitReconfigurer(BulkheadRegistry bulkheadRegistry,
+                                               RateLimiterRegistry rateLimiterRegistry,
+                                               TimeLimiterRegistry timeLimiterRegistry,
+                                               CircuitBreakerRegistry circuitBreakerRegistry) {
+        return new LimitReconfigurer(bulkheadRegistry, rateLimiterRegistry, timeLimiterRegistry,
+                circuitBreakerRegistry);
+    }
+
+    @Bean
+    @ConditionalOnAvailableEndpoint
+    public LimitsEndpoint limitsEndpoint(LimitReconfigurer limitReconfigurer, ReconfigurationProperties properties) {
+        return new LimitsEndpoint(limitReconfigurer, properties.getNames());
+    }
+
+    @Bean
+    @ConditionalOnProperty("resilience.reconfig.file")
+    public LimitsFileWatcher limitsFileWatcher(ReconfigurationProperties properties,
+                                               LimitReconfigurer limitReconfigurer) {
+        return new LimitsFileWatcher(properties.getFile(), limitReconfigurer);
+    }
+}
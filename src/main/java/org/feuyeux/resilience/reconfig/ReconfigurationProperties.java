@@ -0,0 +1,22 @@
+package org.feuyeux.resilience.reconfig;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.List;
+
+@Data
+@ConfigurationProperties(prefix = "resilience.reconfig")
+public class ReconfigurationProperties {
+
+    /**
+     * instances whose time limiters are made reconfigurable and that /actuator/limits lists
+     */
+    private List<String> names = new ArrayList<>(List.of("backendA", "backendB"));
+    /**
+     * YAML file of {@code instances.<name>.<limit>} applied at startup and whenever it changes, none if unset
+     */
+    private Path file;
+}
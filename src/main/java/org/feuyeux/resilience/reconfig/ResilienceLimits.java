@@ -0,0 +1,36 @@
+package org.feuyeux.resilience.reconfig;
+
+import com.fasterxml.jackson.annotation.JsonInclude;
+import lombok.AllArgsConstructor;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.time.Duration;
+
+/**
+ * The limits of one instance name that can be changed at runtime, {@code null} where nothing changes or, when read,
+ * where the instance has no such component or cannot change it; those are left out of the payload.
+ */
+@Data
+@JsonInclude(JsonInclude.Include.NON_NULL)
+@NoArgsConstructor
+@AllArgsConstructor
+public class ResilienceLimits {
+
+    /**
+     * of the bulkhead, an adaptive bulkhead restarts its limit from there
+     */
+    private Integer maxConcurrentCalls;
+    /**
+     * of the rate limiter
+     */
+    private Integer limitForPeriod;
+    /**
+     * of the time limiter
+     */
+    private Duration timeoutDuration;
+    /**
+     * of the striped circuit breaker, a plain one keeps the sliding window it was built with
+     */
+    private Integer slidingWindowSize;
+}
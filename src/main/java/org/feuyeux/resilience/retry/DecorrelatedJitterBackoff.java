@@ -0,0 +1,30 @@
+package org.feuyeux.resilience.retry;
+
+import java.time.Duration;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Decorrelated-jitter exponential backoff: the wait before retry {@code n} is drawn uniformly from
+ * {@code [baseInterval, min(maxInterval, baseInterval * 3^n)]}. The classic form draws from {@code [base, 3 * previous]},
+ * which needs the previous wait of the same call; resilience4j only passes the attempt number, and an asynchronous
+ * retry changes threads between attempts, so the range is taken from the attempt instead.
+ */
+public class DecorrelatedJitterBackoff {
+
+    private final long baseMillis;
+    private final long maxMillis;
+
+    public DecorrelatedJitterBackoff(Duration baseInterval, Duration maxInterval) {
+        this.baseMillis = Math.max(1, baseInterval.toMillis());
+        this.maxMillis = Math.max(baseMillis, maxInterval.toMillis());
+    }
+
+    public long intervalMillis(int attempt) {
+        long upper = baseMillis;
+        for (int i = 0; i < attempt && upper < maxMillis; i++) {
+            upper *= 3;
+        }
+        upper = Math.min(upper, maxMillis);
+        return upper == baseMillis ? baseMillis : ThreadLocalRandom.current().nextLong(baseMillis, upper + 1);
+    }
+}
@@ -0,0 +1,68 @@
+package org.feuyeux.resilience.retry;
+
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Lock-free token bucket that allows retries as a ratio of recent successful calls: each success deposits
+ * {@code ratio} tokens up to {@code maxTokens}, each retry withdraws one. Tokens are kept in thousandths so the
+ * deposit of a fractional ratio is a single atomic add. The bucket starts full, so an idle backend may still retry
+ * a burst of {@code maxTokens} failures; under a total outage it allows no more than that burst.
+ */
+public class RetryBudget {
+
+    private static final long SCALE = 1000;
+
+    private final String name;
+    private final long depositMilliTokens;
+    private final long maxMilliTokens;
+    private final AtomicLong milliTokens;
+    private final LongAdder allowed = new LongAdder();
+    private final LongAdder denied = new LongAdder();
+
+    public RetryBudget(String name, double ratio, int maxTokens) {
+        this.name = name;
+        this.depositMilliTokens = Math.round(ratio * SCALE);
+        this.maxMilliTokens = maxTokens * SCALE;
+        this.milliTokens = new AtomicLong(maxMilliTokens);
+    }
+
+    public void deposit() {
+        long current;
+        do {
+            current = milliTokens.get();
+            if (current >= maxMilliTokens) {
+                return;
+            }
+        } while (!milliTokens.compareAndSet(current, Math.min(maxMilliTokens, current + depositMilliTokens)));
+    }
+
+    public boolean tryWithdraw() {
+        long current;
+        do {
+            current = milliTokens.get();
+            if (current < SCALE) {
+                denied.increment();
+                return false;
+            }
+        } while (!milliTokens.compareAndSet(current, current - SCALE));
+        allowed.increment();
+        return true;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public double getTokens() {
+        return milliTokens.get() / (double) SCALE;
+    }
+
+    public long getAllowedRetries() {
+        return allowed.sum();
+    }
+
+    public long getDeniedRetries() {
+        return denied.sum();
+    }
+}
@@ -0,0 +1,26 @@
+package org.feuyeux.resilience.retry;
+
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(RetryBudgetProperties.class)
+public class RetryBudgetConfiguration {
+
+    @Bean
+    public static RetryBudgetRegistry retryBudgetRegistry(RetryBudgetProperties properties) {
+        return new RetryBudgetRegistry(properties);
+    }
+
+    @Bean
+    public static RetryBudgetInstaller retryBudgetInstaller(RetryBudgetProperties properties,
+                                                            RetryBudgetRegistry retryBudgetRegistry) {
+        return new RetryBudgetInstaller(properties, retryBudgetRegistry);
+    }
+
+    @Bean
+    public RetryBudgetMetrics retryBudgetMetrics(RetryBudgetRegistry retryBudgetRegistry) {
+        return new RetryBudgetMetrics(retryBudgetRegistry);
+    }
+}
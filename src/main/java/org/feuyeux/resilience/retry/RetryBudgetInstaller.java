@@ -0,0 +1,69 @@
+package org.feuyeux.resilience.retry;
+
+import io.github.resilience4j.core.IntervalBiFunction;
+import io.github.resilience4j.core.functions.Either;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.beans.factory.config.BeanPostProcessor;
+
+import java.time.Duration;
+import java.util.function.Predicate;
+
+import static org.feuyeux.resilience.retry.RetryBudgetProperties.InstanceProperties;
+
+/**
+ * Replaces the configured retries of the {@link RetryRegistry} right after the registry is created with retries of
+ * the same config plus a {@link RetryBudget} and a {@link DecorrelatedJitterBackoff}. The result predicate, which
+ * resilience4j asks after every successful attempt, deposits into the budget; the interval function, which it asks
+ * before every retry, withdraws from it and answers -1 to stop retrying when the budget is spent. A call stopped that
+ * way fails with its last exception and is counted in {@code resilience.retry.budget.denied}, not in the
+ * resilience4j retry calls.
+ * <p>
+ * Retries asked for by a result predicate of the original config are not charged, resilience4j cannot stop those
+ * through the interval function.
+ */
+@Slf4j
+public class RetryBudgetInstaller implements BeanPostProcessor {
+
+    private final RetryBudgetProperties properties;
+    private final RetryBudgetRegistry retryBudgetRegistry;
+
+    public RetryBudgetInstaller(RetryBudgetProperties properties, RetryBudgetRegistry retryBudgetRegistry) {
+        this.properties = properties;
+        this.retryBudgetRegistry = retryBudgetRegistry;
+    }
+
+    @Override
+    public Object postProcessAfterInitialization(Object bean, String beanName) {
+        if (bean instanceof RetryRegistry retryRegistry) {
+            properties.getInstances().forEach((name, instance) -> install(retryRegistry, name, instance));
+        }
+        return bean;
+    }
+
+    private void install(RetryRegistry retryRegistry, String name, InstanceProperties instance) {
+        Retry original = retryRegistry.retry(name);
+        RetryConfig config = original.getRetryConfig();
+        // waitDuration is kept as an interval function that ignores the outcome
+        Duration baseInterval = instance.getBaseInterval() != null ? instance.getBaseInterval()
+                : Duration.ofMillis(config.<Object>getIntervalBiFunction().apply(1, Either.left(null)));
+        RetryBudget budget = retryBudgetRegistry.retryBudget(name);
+        DecorrelatedJitterBackoff backoff = new DecorrelatedJitterBackoff(baseInterval, instance.getMaxInterval());
+        Predicate<Object> resultPredicate = config.getResultPredicate();
+        IntervalBiFunction<Object> intervalBiFunction = (attempt, either) ->
+                either.isLeft() && !budget.tryWithdraw() ? -1L : backoff.intervalMillis(attempt);
+        RetryConfig budgeted = RetryConfig.from(config)
+                .intervalFunction(null)
+                .intervalBiFunction(intervalBiFunction)
+                .retryOnResult(result -> {
+                    budget.deposit();
+                    return resultPredicate != null && resultPredicate.test(result);
+                })
+                .build();
+        retryRegistry.replace(name, Retry.of(name, budgeted, original.getTags()));
+        log.info("RetryBudget[{}] ratio:{} maxTokens:{} backoff:{}..{}", name, instance.getRatio(),
+                instance.getMaxTokens(), baseInterval, instance.getMaxInterval());
+    }
+}
@@ -0,0 +1,38 @@
+package org.feuyeux.resilience.retry;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.binder.MeterBinder;
+
+/**
+ * Publishes the tokens left and the retries allowed and denied of every {@link RetryBudget}.
+ */
+public class RetryBudgetMetrics implements MeterBinder {
+
+    private final RetryBudgetRegistry retryBudgetRegistry;
+
+    public RetryBudgetMetrics(RetryBudgetRegistry retryBudgetRegistry) {
+        this.retryBudgetRegistry = retryBudgetRegistry;
+    }
+
+    @Override
+    public void bindTo(MeterRegistry meterRegistry) {
+        retryBudgetRegistry.getAllRetryBudgets().forEach(budget -> bindTo(budget, meterRegistry));
+    }
+
+    private static void bindTo(RetryBudget budget, MeterRegistry meterRegistry) {
+        Gauge.builder("resilience.retry.budget.tokens", budget, RetryBudget::getTokens)
+                .description("The number of retries the budget currently allows")
+                .tag("name", budget.getName())
+                .register(meterRegistry);
+        FunctionCounter.builder("resilience.retry.budget.allowed", budget, RetryBudget::getAllowedRetries)
+                .description("The number of retries allowed by the budget")
+                .tag("name", budget.getName())
+                .register(meterRegistry);
+        FunctionCounter.builder("resilience.retry.budget.denied", budget, RetryBudget::getDeniedRetries)
+                .description("The number of retries denied because the budget was spent")
+                .tag("name", budget.getName())
+                .register(meterRegistry);
+    }
+}
@@ -0,0 +1,32 @@
+package org.feuyeux.resilience.retry;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "resilience.retry-budget")
+public class RetryBudgetProperties {
+
+    private Map<String, InstanceProperties> instances = new HashMap<>();
+
+    @Data
+    public static class InstanceProperties {
+        /**
+         * retries allowed per successful call
+         */
+        private double ratio = 0.1;
+        /**
+         * retries that may be saved up, and the burst allowed before any call succeeded
+         */
+        private int maxTokens = 10;
+        /**
+         * defaults to the first wait of the resilience4j.retry instance of the same name
+         */
+        private Duration baseInterval;
+        private Duration maxInterval = Duration.ofSeconds(2);
+    }
+}
@@ -0,0 +1,28 @@
+package org.feuyeux.resilience.retry;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.feuyeux.resilience.retry.RetryBudgetProperties.InstanceProperties;
+
+public class RetryBudgetRegistry {
+
+    private final RetryBudgetProperties properties;
+    private final Map<String, RetryBudget> budgets = new ConcurrentHashMap<>();
+
+    public RetryBudgetRegistry(RetryBudgetProperties properties) {
+        this.properties = properties;
+    }
+
+    public RetryBudget retryBudget(String name) {
+        return budgets.computeIfAbsent(name, key -> {
+            InstanceProperties instance = properties.getInstances().getOrDefault(key, new InstanceProperties());
+            return new RetryBudget(key, instance.getRatio(), instance.getMaxTokens());
+        });
+    }
+
+    public Collection<RetryBudget> getAllRetryBudgets() {
+        return budgets.values();
+    }
+}
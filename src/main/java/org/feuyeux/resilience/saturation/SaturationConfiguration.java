@@ -0,0 +1,16 @@
+package org.feuyeux.resilience.saturation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(SaturationProperties.class)
+public class SaturationConfiguration {
+
+    @Bean
+    public SaturationTelemetry saturationTelemetry(SaturationProperties properties, MeterRegistry meterRegistry) {
+        return new SaturationTelemetry(properties, meterRegistry);
+    }
+}
@@ -0,0 +1,23 @@
+package org.feuyeux.resilience.saturation;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+
+@Data
+@ConfigurationProperties(prefix = "resilience.saturation")
+public class SaturationProperties {
+    /**
+     * while false no timer is created and the bulkheads and schedulers take no timestamps
+     */
+    private boolean enabled = false;
+    /**
+     * publish histogram buckets for percentiles aggregated across instances, one time series per bucket and timer
+     */
+    private boolean percentileHistogram = false;
+    /**
+     * the largest bucket of the percentile histograms
+     */
+    private Duration maximumExpectedValue = Duration.ofSeconds(30);
+}
@@ -0,0 +1,34 @@
+package org.feuyeux.resilience.saturation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.lang.Nullable;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import static org.feuyeux.resilience.saturation.SaturationTimers.Kind;
+
+/**
+ * Creates one {@link SaturationTimers} per name and kind. While telemetry is disabled there are none, and the
+ * components given {@code null} run exactly as uninstrumented.
+ */
+public class SaturationTelemetry {
+
+    private final SaturationProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, SaturationTimers> timers = new ConcurrentHashMap<>();
+
+    public SaturationTelemetry(SaturationProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    @Nullable
+    public SaturationTimers timers(String name, Kind kind) {
+        if (!properties.isEnabled()) {
+            return null;
+        }
+        return timers.computeIfAbsent(name + '/' + kind,
+                key -> new SaturationTimers(name, kind, properties, meterRegistry));
+    }
+}
@@ -0,0 +1,81 @@
+package org.feuyeux.resilience.saturation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * The time the calls of one bulkhead or scheduler waited for a permit, sat in a queue and ran, each recorded
+ * separately. A {@link Kind} only publishes the stages it has.
+ */
+public final class SaturationTimers {
+
+    private final Timer admission;
+    private final Timer queue;
+    private final Timer execution;
+
+    SaturationTimers(String name, Kind kind, SaturationProperties properties, MeterRegistry meterRegistry) {
+        this.admission = kind.admits ? timer("resilience.saturation.admission",
+                "The time admitted calls waited for a permit", name, kind, properties, meterRegistry) : null;
+        this.queue = kind.queues ? timer("resilience.saturation.queue",
+                "The time calls sat in the queue before a thread picked them up", name, kind, properties,
+                meterRegistry) : null;
+        this.execution = timer("resilience.saturation.execution",
+                "The time calls ran once admitted", name, kind, properties, meterRegistry);
+    }
+
+    public void recordAdmission(long nanos) {
+        if (admission != null) {
+            admission.record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void recordQueue(long nanos) {
+        if (queue != null) {
+            queue.record(nanos, TimeUnit.NANOSECONDS);
+        }
+    }
+
+    public void recordExecution(long nanos) {
+        execution.record(nanos, TimeUnit.NANOSECONDS);
+    }
+
+    private static Timer timer(String meterName, String description, String name, Kind kind,
+                               SaturationProperties properties, MeterRegistry meterRegistry) {
+        return Timer.builder(meterName)
+                .description(description)
+                .tag("name", name)
+                .tag("kind", kind.name().toLowerCase())
+                .publishPercentileHistogram(properties.isPercentileHistogram())
+                .maximumExpectedValue(properties.getMaximumExpectedValue())
+                .register(meterRegistry);
+    }
+
+    public enum Kind {
+        /**
+         * a semaphore bulkhead, waiting for a permit in place or in the admission queue in front of it
+         */
+        SEMAPHORE(true, false),
+        /**
+         * a thread-pool bulkhead, which never waits for admission but queues calls for its threads
+         */
+        THREADPOOL(false, true),
+        /**
+         * a virtual bulkhead, whose calls wait for a carrier thread and then for a permit
+         */
+        VIRTUAL(true, true),
+        /**
+         * a scheduler, whose queue time is how late a task started after it was due
+         */
+        SCHEDULER(false, true);
+
+        private final boolean admits;
+        private final boolean queues;
+
+        Kind(boolean admits, boolean queues) {
+            this.admits = admits;
+            this.queues = queues;
+        }
+    }
+}
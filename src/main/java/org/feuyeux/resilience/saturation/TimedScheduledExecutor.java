@@ -0,0 +1,40 @@
+package org.feuyeux.resilience.saturation;
+
+import org.springframework.lang.Nullable;
+
+import java.util.concurrent.Delayed;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A {@link ScheduledThreadPoolExecutor} recording how late every task started after it was due, which is the time it
+ * sat in the queue behind other tasks, and how long it ran; the delay a task was scheduled with is not counted.
+ * Without timers it is a plain scheduled thread pool.
+ */
+public class TimedScheduledExecutor extends ScheduledThreadPoolExecutor {
+
+    private final SaturationTimers timers;
+    private final ThreadLocal<long[]> startNanos = ThreadLocal.withInitial(() -> new long[1]);
+
+    public TimedScheduledExecutor(int corePoolSize, @Nullable SaturationTimers timers) {
+        super(corePoolSize);
+        this.timers = timers;
+    }
+
+    @Override
+    protected void beforeExecute(Thread thread, Runnable task) {
+        if (timers != null) {
+            // the delay of a due task is negative, by how long ago it was due
+            long late = task instanceof Delayed delayed ? -delayed.getDelay(TimeUnit.NANOSECONDS) : 0;
+            timers.recordQueue(Math.max(0, late));
+            startNanos.get()[0] = System.nanoTime();
+        }
+    }
+
+    @Override
+    protected void afterExecute(Runnable task, Throwable throwable) {
+        if (timers != null) {
+            timers.recordExecution(System.nanoTime() - startNanos.get()[0]);
+        }
+    }
+}
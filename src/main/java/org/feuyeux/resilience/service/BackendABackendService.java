@@ -7,19 +7,25 @@ import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
 import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
 import io.github.resilience4j.retry.annotation.Retry;
 import io.github.resilience4j.timelimiter.annotation.TimeLimiter;
-import io.vavr.control.Try;
 import lombok.extern.slf4j.Slf4j;
+import org.feuyeux.resilience.bulkhead.annotation.AsyncBulkhead;
+import org.feuyeux.resilience.cache.annotation.ResultCache;
 import org.feuyeux.resilience.exception.BusinessException;
+import org.feuyeux.resilience.exception.RemoteServerErrorException;
+import org.feuyeux.resilience.hedge.annotation.Hedge;
+import org.feuyeux.resilience.simulator.BackendSimulator;
+import org.feuyeux.resilience.simulator.BackendSimulatorRegistry;
+import org.feuyeux.resilience.singleflight.annotation.SingleFlight;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.HttpClientErrorException;
 import org.springframework.web.client.HttpServerErrorException;
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
 import java.util.concurrent.*;
 
-import static io.github.resilience4j.bulkhead.annotation.Bulkhead.Type;
-
 /**
  * This Service shows how to use the CircuitBreaker annotation.
  */
@@ -28,13 +34,18 @@ import static io.github.resilience4j.bulkhead.annotation.Bulkhead.Type;
 public class BackendABackendService implements BackendService {
 
     public static final String BACKEND_A = "backendA";
+    private final BackendSimulator simulator;
+
+    public BackendABackendService(BackendSimulatorRegistry simulatorRegistry) {
+        this.simulator = simulatorRegistry.simulator(BACKEND_A);
+    }
 
     @Override
     @CircuitBreaker(name = BACKEND_A)
     @Bulkhead(name = BACKEND_A)
     @Retry(name = BACKEND_A)
     public String failure() {
-        throw new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR, "This is a remote exception");
+        throw new RemoteServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR, "This is a remote exception");
     }
 
     @Override
@@ -48,8 +59,16 @@ public class BackendABackendService implements BackendService {
     @CircuitBreaker(name = BACKEND_A)
     @Bulkhead(name = BACKEND_A)
     @Retry(name = BACKEND_A)
+    @SingleFlight(name = BACKEND_A)
     public String success() {
-        return "Hello World from backend A";
+        return simulator.execute(() -> "Hello World from backend A");
+    }
+
+    @Override
+    @CircuitBreaker(name = BACKEND_A)
+    @Bulkhead(name = BACKEND_A)
+    public List<String> successBatch(List<String> keys) {
+        return simulator.execute(() -> keys.stream().map(key -> "Hello " + key + " from backend A").toList());
     }
 
     @Override
@@ -66,14 +85,15 @@ public class BackendABackendService implements BackendService {
     }
 
     @Override
-    @Bulkhead(name = BACKEND_A, type = Type.THREADPOOL)
+    @AsyncBulkhead(name = BACKEND_A)
+    @ResultCache(name = BACKEND_A)
+    @Hedge(name = BACKEND_A)
     public CompletableFuture<String> futureSuccess() {
-        Try.run(() -> Thread.sleep(5000));
-        return CompletableFuture.completedFuture("Hello World from backend A");
+        return simulator.executeAsync(() -> "Hello World from backend A");
     }
 
     @Override
-    @Bulkhead(name = BACKEND_A, type = Type.THREADPOOL)
+    @AsyncBulkhead(name = BACKEND_A)
     @TimeLimiter(name = BACKEND_A)
     @CircuitBreaker(name = BACKEND_A)
     @Retry(name = BACKEND_A)
@@ -85,24 +105,17 @@ public class BackendABackendService implements BackendService {
 
     @TimeLimiter(name = BACKEND_A)
     @CircuitBreaker(name = BACKEND_A, fallbackMethod = "futureFallback")
-    @Bulkhead(name = BACKEND_A, type = Type.THREADPOOL)
+    @AsyncBulkhead(name = BACKEND_A)
     public CompletableFuture<String> futureTimeout1() {
-        try {
-            Thread.sleep(3000);
-        } catch (InterruptedException ignored) {}
-        return CompletableFuture.completedFuture("Hello World from backend A");
+        return simulator.executeAfter(Duration.ofSeconds(3), () -> "Hello World from backend A");
     }
 
     @Override
     @TimeLimiter(name = BACKEND_A)
     @CircuitBreaker(name = BACKEND_A, fallbackMethod = "futureFallback")
+    @Hedge(name = BACKEND_A)
     public CompletableFuture<String> futureTimeout() {
-        return CompletableFuture.supplyAsync(()->{
-            try {
-                Thread.sleep(300);
-            } catch (InterruptedException ignored) {}
-            return "Hello World from backend A";
-        }, Executors.newVirtualThreadPerTaskExecutor());
+        return simulator.executeAfter(Duration.ofMillis(300), () -> "Hello World from backend A");
     }
 
     private String fallback(HttpServerErrorException ex) {
@@ -2,34 +2,41 @@ package org.feuyeux.resilience.service;
 
 import io.vavr.control.Try;
 import org.feuyeux.resilience.exception.BusinessException;
+import org.feuyeux.resilience.exception.RemoteServerErrorException;
+import org.feuyeux.resilience.simulator.BackendSimulator;
+import org.feuyeux.resilience.simulator.BackendSimulatorRegistry;
 import org.springframework.http.HttpStatus;
 import org.springframework.stereotype.Component;
 import org.springframework.web.client.HttpClientErrorException;
-import org.springframework.web.client.HttpServerErrorException;
-
 
 import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
-import java.util.concurrent.TimeUnit;
 
 @Component(value = "backendBService")
 public class BackendBBackendService implements BackendService {
 
     public static final String BACKEND_B = "backendB";
+    private final BackendSimulator simulator;
+
+    public BackendBBackendService(BackendSimulatorRegistry simulatorRegistry) {
+        this.simulator = simulatorRegistry.simulator(BACKEND_B);
+    }
 
     @Override
     public String failure() {
-        throw new HttpServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR, "This is a remote exception");
+        throw new RemoteServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR, "This is a remote exception");
     }
 
     @Override
     public String success() {
-        try {
-            TimeUnit.SECONDS.sleep(1);
-        } catch (InterruptedException e) {
-            throw new RuntimeException(e);
-        }
-        return "Hello World from backend B";
+        return simulator.execute(() -> "Hello World from backend B");
+    }
+
+    @Override
+    public List<String> successBatch(List<String> keys) {
+        return simulator.execute(() -> keys.stream().map(key -> "Hello " + key + " from backend B").toList());
     }
 
     @Override
@@ -44,8 +51,7 @@ public class BackendBBackendService implements BackendService {
 
     @Override
     public CompletableFuture<String> futureSuccess() {
-        Try.run(() -> Thread.sleep(2000));
-        return CompletableFuture.completedFuture("Hello World from backend B");
+        return simulator.executeAsync(() -> "Hello World from backend B");
     }
 
     @Override
@@ -57,8 +63,7 @@ public class BackendBBackendService implements BackendService {
 
     @Override
     public CompletableFuture<String> futureTimeout() {
-        Try.run(() -> Thread.sleep(5000));
-        return CompletableFuture.completedFuture("Hello World from backend A");
+        return simulator.executeAfter(Duration.ofSeconds(5), () -> "Hello World from backend A");
     }
 
     @Override
@@ -1,5 +1,6 @@
 package org.feuyeux.resilience.service;
 
+import java.util.List;
 import java.util.concurrent.CompletableFuture;
 
 public interface BackendService {
@@ -9,6 +10,13 @@ public interface BackendService {
 
     String success();
 
+    /**
+     * One round trip for many keys.
+     *
+     * @return the result of each key, in the order of {@code keys}
+     */
+    List<String> successBatch(List<String> keys);
+
     String successException();
 
     String ignoreException();
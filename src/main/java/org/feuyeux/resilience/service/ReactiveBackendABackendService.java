@@ -0,0 +1,120 @@
+package org.feuyeux.resilience.service;
+
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.annotation.CircuitBreaker;
+import io.github.resilience4j.retry.annotation.Retry;
+import io.github.resilience4j.timelimiter.annotation.TimeLimiter;
+import lombok.extern.slf4j.Slf4j;
+import org.feuyeux.resilience.exception.BusinessException;
+import org.feuyeux.resilience.exception.RemoteServerErrorException;
+import org.feuyeux.resilience.simulator.BackendSimulator;
+import org.feuyeux.resilience.simulator.BackendSimulatorRegistry;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.concurrent.TimeoutException;
+
+import static org.feuyeux.resilience.service.BackendABackendService.BACKEND_A;
+
+/**
+ * This Service shows how to use the annotations on Mono/Flux: the aspects apply the reactor operators instead of
+ * blocking the calling thread.
+ */
+@Component(value = "reactiveBackendAService")
+@Slf4j
+public class ReactiveBackendABackendService implements ReactiveBackendService {
+
+    private final BackendSimulator simulator;
+
+    public ReactiveBackendABackendService(BackendSimulatorRegistry simulatorRegistry) {
+        this.simulator = simulatorRegistry.simulator(BACKEND_A);
+    }
+
+    @Override
+    @CircuitBreaker(name = BACKEND_A)
+    @Bulkhead(name = BACKEND_A)
+    @Retry(name = BACKEND_A)
+    public Mono<String> failure() {
+        return Mono.error(() -> new RemoteServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR,
+                "This is a remote exception"));
+    }
+
+    @Override
+    @CircuitBreaker(name = BACKEND_A, fallbackMethod = "fallback")
+    public Mono<String> failureWithFallback() {
+        return failure();
+    }
+
+    @Override
+    @CircuitBreaker(name = BACKEND_A)
+    @Bulkhead(name = BACKEND_A)
+    @Retry(name = BACKEND_A)
+    public Mono<String> success() {
+        return Mono.fromFuture(() -> simulator.executeAsync(() -> "Hello World from backend A"));
+    }
+
+    @Override
+    @CircuitBreaker(name = BACKEND_A)
+    @Bulkhead(name = BACKEND_A)
+    public Mono<String> successException() {
+        return Mono.error(() -> new HttpClientErrorException(HttpStatus.BAD_REQUEST, "This is a remote client exception"));
+    }
+
+    @Override
+    @CircuitBreaker(name = BACKEND_A)
+    @Bulkhead(name = BACKEND_A)
+    public Mono<String> ignoreException() {
+        return Mono.error(() -> new BusinessException("This exception is ignored by the CircuitBreaker of backend A"));
+    }
+
+    @Override
+    @CircuitBreaker(name = BACKEND_A)
+    @Bulkhead(name = BACKEND_A)
+    @Retry(name = BACKEND_A)
+    public Flux<String> fluxSuccess() {
+        return Flux.just("Hello", "World");
+    }
+
+    @Override
+    @CircuitBreaker(name = BACKEND_A)
+    @Bulkhead(name = BACKEND_A)
+    @Retry(name = BACKEND_A)
+    public Flux<String> fluxFailure() {
+        return Flux.error(() -> new IOException("BAM!"));
+    }
+
+    @Override
+    @TimeLimiter(name = BACKEND_A)
+    @CircuitBreaker(name = BACKEND_A, fallbackMethod = "monoFallback")
+    public Mono<String> monoTimeout() {
+        return Mono.delay(Duration.ofSeconds(3)).thenReturn("Hello World from backend A");
+    }
+
+    private Mono<String> fallback(HttpServerErrorException ex) {
+        return Mono.just("Recovered HttpServerErrorException: " + ex.getMessage());
+    }
+
+    private Mono<String> fallback(Exception ex) {
+        return Mono.just("Recovered: " + ex.toString());
+    }
+
+    private Mono<String> monoFallback(TimeoutException ex) {
+        return Mono.just("Recovered specific TimeoutException: " + ex.toString());
+    }
+
+    private Mono<String> monoFallback(BulkheadFullException ex) {
+        return Mono.just("Recovered specific BulkheadFullException: " + ex.toString());
+    }
+
+    private Mono<String> monoFallback(CallNotPermittedException ex) {
+        return Mono.just("Recovered specific CallNotPermittedException: " + ex.toString());
+    }
+}
@@ -0,0 +1,71 @@
+package org.feuyeux.resilience.service;
+
+import org.feuyeux.resilience.exception.BusinessException;
+import org.feuyeux.resilience.exception.RemoteServerErrorException;
+import org.feuyeux.resilience.simulator.BackendSimulator;
+import org.feuyeux.resilience.simulator.BackendSimulatorRegistry;
+import org.springframework.http.HttpStatus;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpClientErrorException;
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+import java.io.IOException;
+import java.time.Duration;
+
+import static org.feuyeux.resilience.service.BackendBBackendService.BACKEND_B;
+
+@Component(value = "reactiveBackendBService")
+public class ReactiveBackendBBackendService implements ReactiveBackendService {
+
+    private final BackendSimulator simulator;
+
+    public ReactiveBackendBBackendService(BackendSimulatorRegistry simulatorRegistry) {
+        this.simulator = simulatorRegistry.simulator(BACKEND_B);
+    }
+
+    @Override
+    public Mono<String> failure() {
+        return Mono.error(() -> new RemoteServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR,
+                "This is a remote exception"));
+    }
+
+    @Override
+    public Mono<String> success() {
+        return Mono.fromFuture(() -> simulator.executeAsync(() -> "Hello World from backend B"));
+    }
+
+    @Override
+    public Mono<String> successException() {
+        return Mono.error(() -> new HttpClientErrorException(HttpStatus.BAD_REQUEST, "This is a remote client exception"));
+    }
+
+    @Override
+    public Mono<String> ignoreException() {
+        return Mono.error(() -> new BusinessException("This exception is ignored by the CircuitBreaker of backend B"));
+    }
+
+    @Override
+    public Flux<String> fluxSuccess() {
+        return Flux.just("Hello", "World").delayElements(Duration.ofMillis(500));
+    }
+
+    @Override
+    public Flux<String> fluxFailure() {
+        return Flux.error(() -> new IOException("BAM!"));
+    }
+
+    @Override
+    public Mono<String> monoTimeout() {
+        return Mono.delay(Duration.ofSeconds(5)).thenReturn("Hello World from backend B");
+    }
+
+    @Override
+    public Mono<String> failureWithFallback() {
+        return failure().onErrorResume(ex -> Mono.just(fallback(ex)));
+    }
+
+    private String fallback(Throwable ex) {
+        return "Recovered: " + ex.toString();
+    }
+}
@@ -0,0 +1,27 @@
+package org.feuyeux.resilience.service;
+
+import reactor.core.publisher.Flux;
+import reactor.core.publisher.Mono;
+
+/**
+ * Non-blocking counterpart of {@link BackendService}: slow backends are modelled with timers instead of sleeping
+ * threads, so callers on the Netty event loop are never parked.
+ */
+public interface ReactiveBackendService {
+    Mono<String> failure();
+
+    Mono<String> failureWithFallback();
+
+    Mono<String> success();
+
+    Mono<String> successException();
+
+    Mono<String> ignoreException();
+
+    Flux<String> fluxSuccess();
+
+    Flux<String> fluxFailure();
+
+    Mono<String> monoTimeout();
+
+}
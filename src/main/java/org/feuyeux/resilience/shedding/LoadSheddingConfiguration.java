@@ -0,0 +1,45 @@
+package org.feuyeux.resilience.shedding;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.client.ReactorResourceFactory;
+import reactor.netty.resources.LoopResources;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+@Configuration
+@EnableConfigurationProperties(LoadSheddingProperties.class)
+public class LoadSheddingConfiguration {
+
+    /**
+     * Only probes the event loops and reads the collectors.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ScheduledExecutorService loadSheddingSampler() {
+        return Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("load-shedding-sampler").daemon().factory());
+    }
+
+    /**
+     * Probes the server event loops, which the server takes from the same resource factory.
+     */
+    @Bean
+    public LoadSignals loadSignals(LoadSheddingProperties properties, ReactorResourceFactory reactorResourceFactory,
+                                   @Qualifier("loadSheddingSampler") ScheduledExecutorService loadSheddingSampler) {
+        LoadSignals signals = new LoadSignals(
+                reactorResourceFactory.getLoopResources().onServer(LoopResources.DEFAULT_NATIVE),
+                properties.getGcWindow());
+        signals.start(loadSheddingSampler, properties.getSampleInterval());
+        return signals;
+    }
+
+    @Bean
+    public LoadSheddingWebFilter loadSheddingWebFilter(LoadSheddingProperties properties, LoadSignals loadSignals,
+                                                       MeterRegistry meterRegistry) {
+        return new LoadSheddingWebFilter(properties, loadSignals, meterRegistry);
+    }
+}
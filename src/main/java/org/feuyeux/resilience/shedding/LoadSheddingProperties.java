@@ -0,0 +1,56 @@
+package org.feuyeux.resilience.shedding;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "resilience.shedding")
+public class LoadSheddingProperties {
+
+    /**
+     * how often the event loops are probed and the collectors read
+     */
+    private Duration sampleInterval = Duration.ofMillis(50);
+    /**
+     * window of the GC pause ratio
+     */
+    private Duration gcWindow = Duration.ofSeconds(1);
+    /**
+     * by endpoint path pattern, e.g. "[/backendB/**]", the most specific matching pattern wins; other paths get the
+     * defaults
+     */
+    private Map<String, InstanceProperties> instances = new HashMap<>();
+
+    @Data
+    public static class InstanceProperties {
+        /**
+         * whether requests of the route may be shed at all
+         */
+        private boolean enabled = true;
+        /**
+         * longest event-loop lag at which requests are still admitted, 0 to leave the lag out
+         */
+        private Duration maxEventLoopLag = Duration.ofMillis(500);
+        /**
+         * largest share of time spent in GC pauses at which requests are still admitted
+         */
+        private double maxGcPauseRatio = 0.5;
+        /**
+         * whether the route streams its response, e.g. server-sent events; a stream lasts as long as its subscriber
+         * listens, so it is shed on event-loop lag and GC pauses but never counted in flight
+         */
+        private boolean streaming = false;
+        /**
+         * most requests of all routes in flight at which requests are still admitted
+         */
+        private int maxInFlight = 1000;
+        /**
+         * sent in the Retry-After header of a shed request, in whole seconds
+         */
+        private Duration retryAfter = Duration.ofSeconds(1);
+    }
+}
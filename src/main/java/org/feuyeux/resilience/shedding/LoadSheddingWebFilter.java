@@ -0,0 +1,157 @@
+package org.feuyeux.resilience.shedding;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+
+import java.nio.charset.StandardCharsets;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.feuyeux.resilience.shedding.LoadSheddingProperties.InstanceProperties;
+
+/**
+ * Sheds requests at the edge, before handler mapping, body decoding or any controller work, while the event loop
+ * running the request lags, the collectors pause too much, or too many requests are in flight. A shed request gets
+ * 503 with {@code Retry-After}, the status that tells well-behaved clients and load balancers to back off, rather than
+ * the 429 a single caller over its rate gets.
+ * <p>
+ * Thresholds are per route, by the most specific path pattern matching the request; lower thresholds on less
+ * important routes shed those first. The in-flight count is shared by all routes but the streaming ones, whose
+ * responses stay open for as long as their subscribers listen.
+ */
+public class LoadSheddingWebFilter implements WebFilter, Ordered {
+
+    private static final String DEFAULT_ROUTE = "default";
+    private static final byte[] BODY = "Service Unavailable".getBytes(StandardCharsets.UTF_8);
+
+    private final LoadSignals signals;
+    private final AtomicInteger inFlight = new AtomicInteger();
+    private final List<Map.Entry<PathPattern, Route>> routes;
+    private final Route defaultRoute;
+
+    public LoadSheddingWebFilter(LoadSheddingProperties properties, LoadSignals signals, MeterRegistry meterRegistry) {
+        this.signals = signals;
+        this.routes = properties.getInstances().entrySet().stream()
+                .map(route -> Map.entry(PathPatternParser.defaultInstance.parse(route.getKey()),
+                        new Route(route.getKey(), route.getValue(), meterRegistry)))
+                .sorted(Map.Entry.comparingByKey(PathPattern.SPECIFICITY_COMPARATOR))
+                .toList();
+        this.defaultRoute = new Route(DEFAULT_ROUTE, new InstanceProperties(), meterRegistry);
+        TimeGauge.builder("resilience.shedding.eventloop.lag", signals, TimeUnit.NANOSECONDS,
+                        LoadSignals::maxEventLoopLagNanos)
+                .description("The longest time a task waited on an event loop to run")
+                .register(meterRegistry);
+        Gauge.builder("resilience.shedding.gc.pause", signals, LoadSignals::getGcPauseRatio)
+                .description("The share of recent time spent in GC pauses")
+                .register(meterRegistry);
+        Gauge.builder("resilience.shedding.inflight", inFlight, AtomicInteger::get)
+                .description("The number of admitted requests in flight")
+                .register(meterRegistry);
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        Route route = route(exchange.getRequest().getPath().pathWithinApplication());
+        if (!route.limits.isEnabled()) {
+            return chain.filter(exchange);
+        }
+        Reason reason = null;
+        if (signals.eventLoopLagNanos() > route.maxEventLoopLagNanos) {
+            reason = Reason.EVENT_LOOP_LAG;
+        } else if (signals.getGcPauseRatio() > route.limits.getMaxGcPauseRatio()) {
+            reason = Reason.GC_PAUSE;
+        } else if (!route.limits.isStreaming() && inFlight.incrementAndGet() > route.limits.getMaxInFlight()) {
+            inFlight.decrementAndGet();
+            reason = Reason.IN_FLIGHT;
+        }
+        if (reason != null) {
+            route.shed.get(reason).increment();
+            return shed(exchange.getResponse(), route);
+        }
+        route.admitted.increment();
+        if (route.limits.isStreaming()) {
+            return chain.filter(exchange);
+        }
+        return chain.filter(exchange).doFinally(signal -> inFlight.decrementAndGet());
+    }
+
+    public int getInFlight() {
+        return inFlight.get();
+    }
+
+    private Route route(PathContainer path) {
+        for (Map.Entry<PathPattern, Route> route : routes) {
+            if (route.getKey().matches(path)) {
+                return route.getValue();
+            }
+        }
+        return defaultRoute;
+    }
+
+    private static Mono<Void> shed(ServerHttpResponse response, Route route) {
+        response.setStatusCode(HttpStatus.SERVICE_UNAVAILABLE);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, route.retryAfter);
+        response.getHeaders().setContentType(MediaType.TEXT_PLAIN);
+        DataBuffer body = response.bufferFactory().wrap(BODY);
+        return response.writeWith(Mono.just(body));
+    }
+
+    public enum Reason {
+        EVENT_LOOP_LAG,
+        GC_PAUSE,
+        IN_FLIGHT
+    }
+
+    private static final class Route {
+
+        private final InstanceProperties limits;
+        private final long maxEventLoopLagNanos;
+        private final String retryAfter;
+        private final Counter admitted;
+        private final Map<Reason, Counter> shed = new EnumMap<>(Reason.class);
+
+        private Route(String name, InstanceProperties limits, MeterRegistry meterRegistry) {
+            this.limits = limits;
+            this.maxEventLoopLagNanos = limits.getMaxEventLoopLag().isZero()
+                    ? Long.MAX_VALUE : limits.getMaxEventLoopLag().toNanos();
+            // whole seconds, rounded up
+            this.retryAfter = String.valueOf((limits.getRetryAfter().toMillis() + 999) / 1000);
+            this.admitted = counter(meterRegistry, name, "admitted", "none");
+            for (Reason reason : Reason.values()) {
+                shed.put(reason, counter(meterRegistry, name, "shed", reason.name().toLowerCase()));
+            }
+        }
+
+        private static Counter counter(MeterRegistry meterRegistry, String route, String outcome, String reason) {
+            return Counter.builder("resilience.shedding.requests")
+                    .description("The number of requests admitted or shed, by the signal that shed them")
+                    .tag("route", route)
+                    .tag("outcome", outcome)
+                    .tag("reason", reason)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,133 @@
+package org.feuyeux.resilience.shedding;
+
+import io.netty.util.concurrent.EventExecutor;
+
+import java.lang.management.GarbageCollectorMXBean;
+import java.lang.management.ManagementFactory;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Overload signals sampled off the request path, so reading them costs a volatile read.
+ * <ul>
+ *     <li>Event-loop lag: every sample puts a probe task on each event loop and measures how long it waited to run.
+ *     While a probe waits, its age is the lag, so a loop stuck in a blocking call reports a growing lag, and a loop
+ *     that has caught up stops reporting the lag of its last burst one sample later.</li>
+ *     <li>GC pause ratio: the share of the last {@code gcWindow} the collectors spent in pauses. Collectors
+ *     reporting concurrent cycles rather than pauses are left out.</li>
+ * </ul>
+ */
+public class LoadSignals {
+
+    private final List<LoopProbe> probes = new ArrayList<>();
+    private final List<GarbageCollectorMXBean> collectors;
+    private final long gcWindowNanos;
+    // touched by the sampling thread only
+    private final ArrayDeque<long[]> gcSamples = new ArrayDeque<>();
+    private volatile double gcPauseRatio;
+
+    public LoadSignals(Iterable<EventExecutor> eventLoops, Duration gcWindow) {
+        for (EventExecutor eventLoop : eventLoops) {
+            probes.add(new LoopProbe(eventLoop));
+        }
+        this.collectors = ManagementFactory.getGarbageCollectorMXBeans().stream()
+                .filter(collector -> !collector.getName().contains("Concurrent")
+                        && !collector.getName().contains("Cycles"))
+                .toList();
+        this.gcWindowNanos = gcWindow.toNanos();
+    }
+
+    public void start(ScheduledExecutorService scheduler, Duration interval) {
+        scheduler.scheduleAtFixedRate(this::sample, 0, interval.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    void sample() {
+        long now = System.nanoTime();
+        for (LoopProbe probe : probes) {
+            probe.submit(now);
+        }
+        long gcMillis = 0;
+        for (GarbageCollectorMXBean collector : collectors) {
+            gcMillis += Math.max(0, collector.getCollectionTime());
+        }
+        gcSamples.addLast(new long[]{now, gcMillis});
+        while (gcSamples.size() > 2 && now - gcSamples.peekFirst()[0] > gcWindowNanos) {
+            gcSamples.removeFirst();
+        }
+        long[] oldest = gcSamples.peekFirst();
+        long elapsed = now - oldest[0];
+        gcPauseRatio = elapsed > 0
+                ? Math.min(1, TimeUnit.MILLISECONDS.toNanos(gcMillis - oldest[1]) / (double) elapsed) : 0;
+    }
+
+    /**
+     * @return the lag of the event loop running the caller, or the largest lag of all when the caller is not on one
+     */
+    public long eventLoopLagNanos() {
+        long now = System.nanoTime();
+        long max = 0;
+        for (LoopProbe probe : probes) {
+            long lag = probe.lagNanos(now);
+            if (probe.eventLoop.inEventLoop()) {
+                return lag;
+            }
+            max = Math.max(max, lag);
+        }
+        return max;
+    }
+
+    /**
+     * @return the largest lag of all event loops
+     */
+    public long maxEventLoopLagNanos() {
+        long now = System.nanoTime();
+        long max = 0;
+        for (LoopProbe probe : probes) {
+            max = Math.max(max, probe.lagNanos(now));
+        }
+        return max;
+    }
+
+    public double getGcPauseRatio() {
+        return gcPauseRatio;
+    }
+
+    private static final class LoopProbe {
+
+        private final EventExecutor eventLoop;
+        // 0 while no probe waits
+        private volatile long submittedNanos;
+        private volatile long lastLagNanos;
+
+        private LoopProbe(EventExecutor eventLoop) {
+            this.eventLoop = eventLoop;
+        }
+
+        private void submit(long now) {
+            // a loop shutting down waits for a quiet period without tasks, which probes would never give it
+            if (submittedNanos != 0 || eventLoop.isShuttingDown()) {
+                return;
+            }
+            submittedNanos = now;
+            try {
+                eventLoop.execute(() -> {
+                    lastLagNanos = System.nanoTime() - submittedNanos;
+                    submittedNanos = 0;
+                });
+            } catch (RejectedExecutionException e) {
+                // shutting down
+                submittedNanos = 0;
+            }
+        }
+
+        private long lagNanos(long now) {
+            long submitted = submittedNanos;
+            return submitted == 0 ? lastLagNanos : now - submitted;
+        }
+    }
+}
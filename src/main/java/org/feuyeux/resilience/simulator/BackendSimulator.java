@@ -0,0 +1,252 @@
+package org.feuyeux.resilience.simulator;
+
+import org.feuyeux.resilience.simulator.SimulationProfile.Phase;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+import java.util.random.RandomGenerator;
+
+/**
+ * A remote backend whose every call takes a latency and fails at a rate drawn from its {@link SimulationProfile},
+ * which can be swapped at runtime. A slow call is a timer, not a sleeping thread: {@link #executeAsync} returns a
+ * future that the timer thread completes once the latency has passed, so ten thousand slow calls in flight are ten
+ * thousand timer entries. {@link #execute} parks its caller on such a future, as a blocking client would be parked.
+ * <p>
+ * The stages depending on a future run on the timer thread when it completes, they must not block.
+ */
+public class BackendSimulator {
+
+    private final String name;
+    private final ScheduledExecutorService timer;
+    private final RandomGenerator seeded;
+    private final LongAdder calls = new LongAdder();
+    private final LongAdder failures = new LongAdder();
+    private final AtomicInteger pending = new AtomicInteger();
+    private volatile SimulationProfile profile;
+    private volatile long phasesStartNanos;
+    private volatile Brownout brownout;
+
+    /**
+     * @param seed makes the latencies and failures of calls on one thread repeat from run to run, none if
+     *             {@code null}
+     */
+    public BackendSimulator(String name, SimulationProfile profile, ScheduledExecutorService timer, Long seed) {
+        this.name = name;
+        this.timer = timer;
+        this.seeded = seed != null ? new Random(seed) : null;
+        setProfile(profile);
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public SimulationProfile getProfile() {
+        return profile;
+    }
+
+    /**
+     * Swaps the profile for the calls from now on, restarting its phases; calls in flight keep their latency.
+     */
+    public void setProfile(SimulationProfile profile) {
+        this.profile = profile;
+        this.phasesStartNanos = System.nanoTime();
+    }
+
+    /**
+     * Runs {@code phase} once from now, instead of the phases of the profile.
+     */
+    public void brownout(Phase phase) {
+        brownout = new Brownout(phase, System.nanoTime() + phase.duration().toNanos());
+    }
+
+    /**
+     * @return the brownout running, if any
+     */
+    public Phase getBrownout() {
+        Brownout current = brownout;
+        return current != null && current.untilNanos - System.nanoTime() > 0 ? current.phase : null;
+    }
+
+    public long getCalls() {
+        return calls.sum();
+    }
+
+    public long getFailures() {
+        return failures.sum();
+    }
+
+    /**
+     * @return the calls waiting for their latency to pass
+     */
+    public int getPendingCalls() {
+        return pending.get();
+    }
+
+    /**
+     * A blocking call: waits out the latency on the calling thread and returns what {@code result} supplies, or
+     * throws the simulated failure.
+     */
+    public <T> T execute(Supplier<T> result) {
+        SimulationProfile current = profile;
+        Phase phase = phase(current);
+        long latencyNanos = latencyNanos(current, phase);
+        SimulatedError error = error(current, phase);
+        if (latencyNanos <= 0) {
+            if (error != null) {
+                throw error.create(name);
+            }
+            return result.get();
+        }
+        CompletableFuture<T> call = schedule(latencyNanos, error, result);
+        try {
+            return call.get();
+        } catch (InterruptedException e) {
+            call.cancel(false);
+            Thread.currentThread().interrupt();
+            throw new RuntimeException(e);
+        } catch (ExecutionException e) {
+            if (e.getCause() instanceof RuntimeException cause) {
+                throw cause;
+            }
+            throw new IllegalStateException(e.getCause());
+        }
+    }
+
+    /**
+     * A non-blocking call: the future completes with what {@code result} supplies, or the simulated failure, once the
+     * latency has passed. Cancelling it drops the timer.
+     */
+    public <T> CompletableFuture<T> executeAsync(Supplier<T> result) {
+        SimulationProfile current = profile;
+        Phase phase = phase(current);
+        return schedule(latencyNanos(current, phase), error(current, phase), result);
+    }
+
+    /**
+     * A call that takes exactly {@code latency} and never fails, whatever the profile, for callers that must be slow.
+     */
+    public <T> CompletableFuture<T> executeAfter(Duration latency, Supplier<T> result) {
+        calls.increment();
+        return schedule(latency.toNanos(), null, result);
+    }
+
+    private <T> CompletableFuture<T> schedule(long latencyNanos, SimulatedError error, Supplier<T> result) {
+        boolean timed = latencyNanos > 0;
+        SimulatedCall<T> call = new SimulatedCall<>(error, result, timed);
+        if (timed) {
+            pending.incrementAndGet();
+            call.timer = timer.schedule(call, latencyNanos, TimeUnit.NANOSECONDS);
+        } else {
+            call.run();
+        }
+        return call;
+    }
+
+    private Phase phase(SimulationProfile current) {
+        long now = System.nanoTime();
+        Brownout running = brownout;
+        if (running != null) {
+            if (running.untilNanos - now > 0) {
+                return running.phase;
+            }
+            brownout = null;
+        }
+        List<Phase> phases = current.phases();
+        if (phases.isEmpty()) {
+            return Phase.NORMAL;
+        }
+        long cycleNanos = 0;
+        for (Phase phase : phases) {
+            cycleNanos += phase.duration().toNanos();
+        }
+        long offset = (now - phasesStartNanos) % cycleNanos;
+        for (Phase phase : phases) {
+            offset -= phase.duration().toNanos();
+            if (offset < 0) {
+                return phase;
+            }
+        }
+        return phases.get(phases.size() - 1);
+    }
+
+    private long latencyNanos(SimulationProfile current, Phase phase) {
+        double latency = current.latency().toNanos() * phase.latencyFactor();
+        if (current.latencySpread() > 0) {
+            latency *= Math.exp(current.latencySpread() * random().nextGaussian());
+        }
+        return (long) Math.min(latency, current.maxLatency().toNanos());
+    }
+
+    private SimulatedError error(SimulationProfile current, Phase phase) {
+        calls.increment();
+        double errorRate = current.errorRate(phase);
+        if (errorRate <= 0 || random().nextDouble() >= errorRate) {
+            return null;
+        }
+        failures.increment();
+        List<SimulatedError> errors = current.errors();
+        return errors.get(errors.size() == 1 ? 0 : random().nextInt(errors.size()));
+    }
+
+    private RandomGenerator random() {
+        return seeded != null ? seeded : ThreadLocalRandom.current();
+    }
+
+    private record Brownout(Phase phase, long untilNanos) {
+    }
+
+    private final class SimulatedCall<T> extends CompletableFuture<T> implements Runnable {
+
+        private final SimulatedError error;
+        private final Supplier<T> result;
+        private final boolean timed;
+        private volatile ScheduledFuture<?> timer;
+
+        private SimulatedCall(SimulatedError error, Supplier<T> result, boolean timed) {
+            this.error = error;
+            this.result = result;
+            this.timed = timed;
+        }
+
+        @Override
+        public void run() {
+            boolean completed;
+            if (error != null) {
+                completed = completeExceptionally(error.create(name));
+            } else {
+                try {
+                    completed = complete(result.get());
+                } catch (RuntimeException e) {
+                    completed = completeExceptionally(e);
+                }
+            }
+            if (completed && timed) {
+                pending.decrementAndGet();
+            }
+        }
+
+        @Override
+        public boolean cancel(boolean mayInterruptIfRunning) {
+            boolean cancelled = super.cancel(mayInterruptIfRunning);
+            if (cancelled && timed) {
+                pending.decrementAndGet();
+                ScheduledFuture<?> scheduled = timer;
+                if (scheduled != null) {
+                    scheduled.cancel(false);
+                }
+            }
+            return cancelled;
+        }
+    }
+}
@@ -0,0 +1,38 @@
+package org.feuyeux.resilience.simulator;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+
+@Configuration
+@EnableConfigurationProperties(BackendSimulatorProperties.class)
+public class BackendSimulatorConfiguration {
+
+    /**
+     * Holds the simulated calls in flight until their latency has passed; a cancelled call leaves the queue at once.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ScheduledExecutorService simulatorTimer() {
+        ScheduledThreadPoolExecutor timer = new ScheduledThreadPoolExecutor(1,
+                Thread.ofPlatform().name("simulator-timer").daemon().factory());
+        timer.setRemoveOnCancelPolicy(true);
+        return timer;
+    }
+
+    @Bean
+    public BackendSimulatorRegistry backendSimulatorRegistry(
+            BackendSimulatorProperties properties, @Qualifier("simulatorTimer") ScheduledExecutorService timer,
+            MeterRegistry meterRegistry) {
+        return new BackendSimulatorRegistry(properties, timer, meterRegistry);
+    }
+
+    @Bean
+    public BackendSimulatorEndpoint backendSimulatorEndpoint(BackendSimulatorRegistry registry) {
+        return new BackendSimulatorEndpoint(registry);
+    }
+}
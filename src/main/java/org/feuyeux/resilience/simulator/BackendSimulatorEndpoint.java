@@ -0,0 +1,73 @@
+package org.feuyeux.resilience.simulator;
+
+import org.springframework.boot.actuate.endpoint.InvalidEndpointRequestException;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+import org.springframework.boot.actuate.endpoint.annotation.WriteOperation;
+import org.springframework.lang.Nullable;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * {@code GET /actuator/simulator} reports the simulated backends. {@code POST /actuator/simulator/backendB} with
+ * {@code {"latency": "200ms", "latencySpread": 0.5, "errorRate": 0.05, "errors": "SERVICE_UNAVAILABLE,BAD_GATEWAY"}}
+ * changes those given, and with {@code {"brownout": "30s", "brownoutLatencyFactor": 10, "brownoutErrorRate": 0.5}}
+ * starts a brownout of that long.
+ */
+@Endpoint(id = "simulator")
+public class BackendSimulatorEndpoint {
+
+    private final BackendSimulatorRegistry registry;
+
+    public BackendSimulatorEndpoint(BackendSimulatorRegistry registry) {
+        this.registry = registry;
+    }
+
+    @ReadOperation
+    public Map<String, SimulatorReport> simulators() {
+        Map<String, SimulatorReport> reports = new LinkedHashMap<>();
+        registry.getNames().forEach(name -> reports.put(name, SimulatorReport.of(registry.simulator(name))));
+        return reports;
+    }
+
+    @ReadOperation
+    public SimulatorReport simulator(@Selector String name) {
+        return registry.getNames().contains(name) ? SimulatorReport.of(registry.simulator(name)) : null;
+    }
+
+    @WriteOperation
+    public SimulatorReport change(@Selector String name, @Nullable Duration latency, @Nullable Double latencySpread,
+                                  @Nullable Duration maxLatency, @Nullable Double errorRate,
+                                  @Nullable String errors, @Nullable Duration brownout,
+                                  @Nullable Double brownoutLatencyFactor, @Nullable Double brownoutErrorRate) {
+        if (!registry.getNames().contains(name)) {
+            throw new InvalidEndpointRequestException("Unknown backend " + name, "no simulated backend " + name);
+        }
+        BackendSimulator simulator = registry.simulator(name);
+        try {
+            List<SimulatedError> simulatedErrors = errors == null ? null
+                    : Arrays.stream(errors.split(","))
+                    .map(error -> SimulatedError.valueOf(error.strip().toUpperCase(Locale.ROOT)))
+                    .toList();
+            SimulationProfile.Phase phase = brownout == null ? null : new SimulationProfile.Phase(brownout,
+                    brownoutLatencyFactor != null ? brownoutLatencyFactor : 1, brownoutErrorRate);
+            SimulationProfile profile = simulator.getProfile();
+            SimulationProfile changed = profile.with(latency, latencySpread, maxLatency, errorRate, simulatedErrors);
+            if (!changed.equals(profile)) {
+                simulator.setProfile(changed);
+            }
+            if (phase != null) {
+                simulator.brownout(phase);
+            }
+        } catch (IllegalArgumentException e) {
+            throw new InvalidEndpointRequestException(e.getMessage(), e.getMessage());
+        }
+        return SimulatorReport.of(simulator);
+    }
+}
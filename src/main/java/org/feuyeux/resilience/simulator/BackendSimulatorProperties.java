@@ -0,0 +1,66 @@
+package org.feuyeux.resilience.simulator;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "resilience.simulator")
+public class BackendSimulatorProperties {
+
+    private Map<String, InstanceProperties> instances = new HashMap<>();
+
+    @Data
+    public static class InstanceProperties {
+        /**
+         * median latency of a call
+         */
+        private Duration latency = Duration.ZERO;
+        /**
+         * standard deviation of the logarithm of the latency, 0 for a fixed latency; at 1 one call in twenty takes
+         * over five times the median
+         */
+        private double latencySpread = 0;
+        private Duration maxLatency = Duration.ofSeconds(30);
+        /**
+         * fraction of calls failing with one of errors
+         */
+        private double errorRate = 0;
+        private List<SimulatedError> errors = new ArrayList<>(List.of(SimulatedError.SERVER_ERROR));
+        /**
+         * repeated in turn from startup, e.g. a long healthy phase followed by a brownout
+         */
+        private List<PhaseProperties> phases = new ArrayList<>();
+        /**
+         * seeds the latencies and failures, random if unset
+         */
+        private Long seed;
+
+        SimulationProfile toProfile() {
+            return new SimulationProfile(latency, latencySpread, maxLatency, errorRate, errors,
+                    phases.stream().map(PhaseProperties::toPhase).toList());
+        }
+    }
+
+    @Data
+    public static class PhaseProperties {
+        private Duration duration;
+        /**
+         * multiplies the latency of the calls during the phase
+         */
+        private double latencyFactor = 1;
+        /**
+         * error rate during the phase, that of the instance if unset
+         */
+        private Double errorRate;
+
+        SimulationProfile.Phase toPhase() {
+            return new SimulationProfile.Phase(duration, latencyFactor, errorRate);
+        }
+    }
+}
@@ -0,0 +1,63 @@
+package org.feuyeux.resilience.simulator;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.Set;
+import java.util.TreeSet;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+
+import static org.feuyeux.resilience.simulator.BackendSimulatorProperties.InstanceProperties;
+
+/**
+ * Creates one {@link BackendSimulator} per name, all on one timer, and publishes their calls, failures and calls
+ * waiting for their latency.
+ */
+public class BackendSimulatorRegistry {
+
+    private final BackendSimulatorProperties properties;
+    private final ScheduledExecutorService timer;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, BackendSimulator> simulators = new ConcurrentHashMap<>();
+
+    public BackendSimulatorRegistry(BackendSimulatorProperties properties, ScheduledExecutorService timer,
+                                    MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.timer = timer;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public BackendSimulator simulator(String name) {
+        return simulators.computeIfAbsent(name, this::create);
+    }
+
+    /**
+     * @return the configured names and those of the simulators created
+     */
+    public Set<String> getNames() {
+        Set<String> names = new TreeSet<>(properties.getInstances().keySet());
+        names.addAll(simulators.keySet());
+        return names;
+    }
+
+    private BackendSimulator create(String name) {
+        InstanceProperties instance = properties.getInstances().getOrDefault(name, new InstanceProperties());
+        BackendSimulator simulator = new BackendSimulator(name, instance.toProfile(), timer, instance.getSeed());
+        FunctionCounter.builder("resilience.simulator.calls", simulator, BackendSimulator::getCalls)
+                .description("The number of calls to the simulated backend")
+                .tag("name", name)
+                .register(meterRegistry);
+        FunctionCounter.builder("resilience.simulator.failures", simulator, BackendSimulator::getFailures)
+                .description("The number of calls the simulated backend failed")
+                .tag("name", name)
+                .register(meterRegistry);
+        Gauge.builder("resilience.simulator.pending", simulator, BackendSimulator::getPendingCalls)
+                .description("The number of calls waiting for their simulated latency")
+                .tag("name", name)
+                .register(meterRegistry);
+        return simulator;
+    }
+}
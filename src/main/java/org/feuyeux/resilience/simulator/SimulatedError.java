@@ -0,0 +1,38 @@
+package org.feuyeux.resilience.simulator;
+
+import org.feuyeux.resilience.exception.BusinessException;
+import org.feuyeux.resilience.exception.RemoteServerErrorException;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.client.HttpClientErrorException;
+import org.springframework.web.client.HttpServerErrorException;
+
+/**
+ * The failures a {@link BackendSimulator} answers with. The 502, 503 and 504 errors are the subclasses of
+ * {@link HttpServerErrorException} a client would see, so they count as outliers for the load balancer.
+ */
+public enum SimulatedError {
+
+    SERVER_ERROR,
+    BAD_GATEWAY,
+    SERVICE_UNAVAILABLE,
+    GATEWAY_TIMEOUT,
+    CLIENT_ERROR,
+    BUSINESS;
+
+    RuntimeException create(String backend) {
+        String message = "Simulated failure of " + backend;
+        return switch (this) {
+            case SERVER_ERROR -> new RemoteServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR, message);
+            case BAD_GATEWAY -> serverError(HttpStatus.BAD_GATEWAY, message);
+            case SERVICE_UNAVAILABLE -> serverError(HttpStatus.SERVICE_UNAVAILABLE, message);
+            case GATEWAY_TIMEOUT -> serverError(HttpStatus.GATEWAY_TIMEOUT, message);
+            case CLIENT_ERROR -> new HttpClientErrorException(HttpStatus.BAD_REQUEST, message);
+            case BUSINESS -> new BusinessException(message);
+        };
+    }
+
+    private static HttpServerErrorException serverError(HttpStatus status, String message) {
+        return HttpServerErrorException.create(status, message, HttpHeaders.EMPTY, null, null);
+    }
+}
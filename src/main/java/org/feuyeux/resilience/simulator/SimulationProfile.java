@@ -0,0 +1,80 @@
+package org.feuyeux.resilience.simulator;
+
+import java.time.Duration;
+import java.util.List;
+
+/**
+ * How a simulated backend behaves: a log-normal latency of median {@code latency} whose tail grows with
+ * {@code latencySpread} (the standard deviation of its logarithm, 0 for a fixed latency), capped at
+ * {@code maxLatency}, and failures with one of {@code errors} at {@code errorRate}. The {@code phases}, if any, repeat
+ * in turn, each scaling the latency and replacing the error rate for its duration, so a cycle can model brownouts.
+ */
+public record SimulationProfile(Duration latency, double latencySpread, Duration maxLatency, double errorRate,
+                                List<SimulatedError> errors, List<Phase> phases) {
+
+    public SimulationProfile {
+        if (latency.isNegative()) {
+            throw new IllegalArgumentException("latency must not be negative: " + latency);
+        }
+        if (latencySpread < 0) {
+            throw new IllegalArgumentException("latencySpread must not be negative: " + latencySpread);
+        }
+        if (maxLatency.isNegative()) {
+            throw new IllegalArgumentException("maxLatency must not be negative: " + maxLatency);
+        }
+        checkRate(errorRate);
+        if (errors.isEmpty()) {
+            throw new IllegalArgumentException("errors must not be empty");
+        }
+        for (Phase phase : phases) {
+            if (phase.duration().isZero()) {
+                throw new IllegalArgumentException("the duration of a phase must be positive");
+            }
+        }
+        errors = List.copyOf(errors);
+        phases = List.copyOf(phases);
+    }
+
+    /**
+     * @return this profile with those of the arguments that are not {@code null}
+     */
+    public SimulationProfile with(Duration latency, Double latencySpread, Duration maxLatency, Double errorRate,
+                                  List<SimulatedError> errors) {
+        return new SimulationProfile(latency != null ? latency : this.latency,
+                latencySpread != null ? latencySpread : this.latencySpread,
+                maxLatency != null ? maxLatency : this.maxLatency,
+                errorRate != null ? errorRate : this.errorRate,
+                errors != null ? errors : this.errors,
+                phases);
+    }
+
+    double errorRate(Phase phase) {
+        return phase.errorRate() != null ? phase.errorRate() : errorRate;
+    }
+
+    private static void checkRate(double rate) {
+        if (rate < 0 || rate > 1) {
+            throw new IllegalArgumentException("errorRate must be in 0..1: " + rate);
+        }
+    }
+
+    /**
+     * @param errorRate replaces the error rate of the profile, unless {@code null}
+     */
+    public record Phase(Duration duration, double latencyFactor, Double errorRate) {
+
+        static final Phase NORMAL = new Phase(Duration.ZERO, 1, null);
+
+        public Phase {
+            if (duration.isNegative()) {
+                throw new IllegalArgumentException("duration must not be negative: " + duration);
+            }
+            if (latencyFactor <= 0) {
+                throw new IllegalArgumentException("latencyFactor must be positive: " + latencyFactor);
+            }
+            if (errorRate != null) {
+                checkRate(errorRate);
+            }
+        }
+    }
+}
@@ -0,0 +1,15 @@
+package org.feuyeux.resilience.simulator;
+
+/**
+ * What {@code /actuator/simulator} answers for one simulated backend.
+ *
+ * @param brownout the brownout running, if any
+ */
+public record SimulatorReport(SimulationProfile profile, SimulationProfile.Phase brownout, long calls, long failures,
+                              int pendingCalls) {
+
+    static SimulatorReport of(BackendSimulator simulator) {
+        return new SimulatorReport(simulator.getProfile(), simulator.getBrownout(), simulator.getCalls(),
+                simulator.getFailures(), simulator.getPendingCalls());
+    }
+}
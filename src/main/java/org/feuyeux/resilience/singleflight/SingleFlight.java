@@ -0,0 +1,115 @@
+package org.feuyeux.resilience.singleflight;
+
+import io.github.resilience4j.core.functions.CheckedSupplier;
+import org.feuyeux.resilience.aop.Invocations;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Supplier;
+
+/**
+ * Collapses concurrent calls with the same key into one invocation: the first caller executes the supplier, callers
+ * arriving while it is in flight wait for and share its outcome, result or exception.
+ */
+public class SingleFlight {
+
+    private final String name;
+    private final ConcurrentMap<Object, CompletableFuture<Object>> inFlight = new ConcurrentHashMap<>();
+    private final LongAdder executedCalls = new LongAdder();
+    private final LongAdder coalescedCalls = new LongAdder();
+
+    public SingleFlight(String name) {
+        this.name = name;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public <T> Supplier<T> decorateSupplier(Object key, Supplier<T> supplier) {
+        return () -> executeSupplier(key, supplier);
+    }
+
+    public <T> T executeSupplier(Object key, Supplier<T> supplier) {
+        try {
+            return executeCheckedSupplier(key, supplier::get);
+        } catch (Throwable t) {
+            throw Invocations.sneakyThrow(t);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> T executeCheckedSupplier(Object key, CheckedSupplier<T> supplier) throws Throwable {
+        CompletableFuture<Object> call = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(key, call);
+        if (leader != null) {
+            coalescedCalls.increment();
+            return (T) await(leader);
+        }
+        executedCalls.increment();
+        try {
+            T result = supplier.get();
+            call.complete(result);
+            return result;
+        } catch (Throwable t) {
+            call.completeExceptionally(t);
+            throw t;
+        } finally {
+            inFlight.remove(key, call);
+        }
+    }
+
+    @SuppressWarnings("unchecked")
+    public <T> CompletionStage<T> executeCompletionStage(Object key, Supplier<CompletionStage<T>> supplier) {
+        CompletableFuture<Object> call = new CompletableFuture<>();
+        CompletableFuture<Object> leader = inFlight.putIfAbsent(key, call);
+        if (leader != null) {
+            coalescedCalls.increment();
+            // a copy, so a waiter cancelling its future does not cancel the shared call
+            return (CompletionStage<T>) leader.thenApply(result -> result);
+        }
+        executedCalls.increment();
+        try {
+            supplier.get().whenComplete((result, throwable) -> {
+                inFlight.remove(key, call);
+                if (throwable != null) {
+                    call.completeExceptionally(throwable);
+                } else {
+                    call.complete(result);
+                }
+            });
+        } catch (Throwable t) {
+            inFlight.remove(key, call);
+            call.completeExceptionally(t);
+        }
+        return (CompletionStage<T>) call.thenApply(result -> result);
+    }
+
+    public long getExecutedCalls() {
+        return executedCalls.sum();
+    }
+
+    public long getCoalescedCalls() {
+        return coalescedCalls.sum();
+    }
+
+    public int getInFlightCalls() {
+        return inFlight.size();
+    }
+
+    private static Object await(CompletableFuture<Object> leader) {
+        try {
+            return leader.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new CompletionException(e);
+        } catch (ExecutionException e) {
+            throw Invocations.sneakyThrow(e.getCause());
+        }
+    }
+}
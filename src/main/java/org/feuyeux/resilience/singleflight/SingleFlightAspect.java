@@ -0,0 +1,49 @@
+package org.feuyeux.resilience.singleflight;
+
+import lombok.extern.slf4j.Slf4j;
+import org.aspectj.lang.ProceedingJoinPoint;
+import org.aspectj.lang.annotation.Around;
+import org.aspectj.lang.annotation.Aspect;
+import org.aspectj.lang.annotation.Pointcut;
+import org.feuyeux.resilience.aop.Invocations;
+import org.feuyeux.resilience.singleflight.annotation.SingleFlight;
+import org.springframework.core.Ordered;
+
+import static org.feuyeux.resilience.aop.AspectOrders.SINGLE_FLIGHT_ASPECT_ORDER;
+
+/**
+ * Runs before the Retry aspect (the outermost resilience4j aspect), so one backend invocation, with all its
+ * attempts, serves every coalesced caller.
+ */
+@Aspect
+@Slf4j
+public class SingleFlightAspect implements Ordered {
+
+    private final SingleFlightRegistry singleFlightRegistry;
+
+    public SingleFlightAspect(SingleFlightRegistry singleFlightRegistry) {
+        this.singleFlightRegistry = singleFlightRegistry;
+    }
+
+    @Pointcut(value = "@annotation(singleFlight)", argNames = "singleFlight")
+    public void matchAnnotatedMethod(SingleFlight singleFlight) {
+    }
+
+    @Around(value = "matchAnnotatedMethod(singleFlightAnnotation)", argNames = "proceedingJoinPoint, singleFlightAnnotation")
+    public Object singleFlightAroundAdvice(ProceedingJoinPoint proceedingJoinPoint,
+                                           SingleFlight singleFlightAnnotation) throws Throwable {
+        org.feuyeux.resilience.singleflight.SingleFlight singleFlight =
+                singleFlightRegistry.singleFlight(singleFlightAnnotation.name());
+        Object key = Invocations.key(proceedingJoinPoint);
+        if (Invocations.returnsCompletionStage(Invocations.method(proceedingJoinPoint))) {
+            return singleFlight.executeCompletionStage(key,
+                    () -> Invocations.proceedCompletionStage(proceedingJoinPoint));
+        }
+        return singleFlight.executeCheckedSupplier(key, proceedingJoinPoint::proceed);
+    }
+
+    @Override
+    public int getOrder() {
+        return SINGLE_FLIGHT_ASPECT_ORDER;
+    }
+}
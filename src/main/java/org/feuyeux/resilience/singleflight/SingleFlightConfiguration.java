@@ -0,0 +1,19 @@
+package org.feuyeux.resilience.singleflight;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+public class SingleFlightConfiguration {
+
+    @Bean
+    public SingleFlightRegistry singleFlightRegistry(MeterRegistry meterRegistry) {
+        return new SingleFlightRegistry(meterRegistry);
+    }
+
+    @Bean
+    public SingleFlightAspect singleFlightAspect(SingleFlightRegistry singleFlightRegistry) {
+        return new SingleFlightAspect(singleFlightRegistry);
+    }
+}
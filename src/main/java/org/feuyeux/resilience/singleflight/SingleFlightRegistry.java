@@ -0,0 +1,45 @@
+package org.feuyeux.resilience.singleflight;
+
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+/**
+ * Creates one {@link SingleFlight} per name and publishes how many calls were executed against the backend and how
+ * many were served by an in-flight call.
+ */
+public class SingleFlightRegistry {
+
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, SingleFlight> singleFlights = new ConcurrentHashMap<>();
+
+    public SingleFlightRegistry(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    public SingleFlight singleFlight(String name) {
+        return singleFlights.computeIfAbsent(name, this::create);
+    }
+
+    private SingleFlight create(String name) {
+        SingleFlight singleFlight = new SingleFlight(name);
+        FunctionCounter.builder("resilience.singleflight.calls", singleFlight, SingleFlight::getExecutedCalls)
+                .description("The number of calls executed or coalesced into an in-flight call")
+                .tag("name", name)
+                .tag("kind", "executed")
+                .register(meterRegistry);
+        FunctionCounter.builder("resilience.singleflight.calls", singleFlight, SingleFlight::getCoalescedCalls)
+                .description("The number of calls executed or coalesced into an in-flight call")
+                .tag("name", name)
+                .tag("kind", "coalesced")
+                .register(meterRegistry);
+        Gauge.builder("resilience.singleflight.in.flight", singleFlight, SingleFlight::getInFlightCalls)
+                .description("The number of distinct calls currently in flight")
+                .tag("name", name)
+                .register(meterRegistry);
+        return singleFlight;
+    }
+}
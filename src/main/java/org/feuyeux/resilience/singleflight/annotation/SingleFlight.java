@@ -0,0 +1,20 @@
+package org.feuyeux.resilience.singleflight.annotation;
+
+import java.lang.annotation.*;
+
+/**
+ * Concurrent invocations of the annotated method with equal arguments share one execution. The aspect runs outside
+ * the resilience4j aspects, so coalesced calls never take a retry attempt, circuit breaker or bulkhead permit.
+ */
+@Retention(value = RetentionPolicy.RUNTIME)
+@Target(value = {ElementType.METHOD})
+@Documented
+public @interface SingleFlight {
+
+    /**
+     * Name of the single-flight instance, the metrics are tagged with it.
+     *
+     * @return the name
+     */
+    String name();
+}
@@ -0,0 +1,83 @@
+package org.feuyeux.resilience.slo;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * DDSketch-style latency sketch: counts per logarithmic bucket, so every quantile is answered within 1% relative
+ * error in a fixed 8KB, whatever the number of values. Buckets cover 1µs to 1000s, values outside land in the first
+ * or the last one. Two sketches merge by adding their counts, so a rolling window is the sum of its slots.
+ * <p>
+ * Recording is one atomic increment and safe from any number of threads.
+ */
+public class LatencySketch {
+
+    static final double RELATIVE_ACCURACY = 0.01;
+    private static final double GAMMA = (1 + RELATIVE_ACCURACY) / (1 - RELATIVE_ACCURACY);
+    private static final double LOG_GAMMA = Math.log(GAMMA);
+    private static final double MIN_NANOS = TimeUnit.MICROSECONDS.toNanos(1);
+    private static final double MAX_NANOS = TimeUnit.SECONDS.toNanos(1000);
+    private static final int BUCKETS = (int) Math.ceil(Math.log(MAX_NANOS / MIN_NANOS) / LOG_GAMMA) + 1;
+
+    private final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    public void record(long nanos) {
+        counts.incrementAndGet(index(nanos));
+    }
+
+    public void merge(LatencySketch other) {
+        for (int i = 0; i < BUCKETS; i++) {
+            long count = other.counts.get(i);
+            if (count != 0) {
+                counts.addAndGet(i, count);
+            }
+        }
+    }
+
+    public void clear() {
+        for (int i = 0; i < BUCKETS; i++) {
+            counts.set(i, 0);
+        }
+    }
+
+    public long count() {
+        long count = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            count += counts.get(i);
+        }
+        return count;
+    }
+
+    /**
+     * @return the value at quantile {@code q} in nanos, 0 for an empty sketch
+     */
+    public long quantileNanos(double q) {
+        long count = count();
+        if (count == 0) {
+            return 0;
+        }
+        long rank = (long) (q * (count - 1));
+        long seen = 0;
+        for (int i = 0; i < BUCKETS; i++) {
+            seen += counts.get(i);
+            if (seen > rank) {
+                return value(i);
+            }
+        }
+        return value(BUCKETS - 1);
+    }
+
+    private static int index(long nanos) {
+        if (nanos <= MIN_NANOS) {
+            return 0;
+        }
+        return Math.min(BUCKETS - 1, (int) Math.ceil(Math.log(nanos / MIN_NANOS) / LOG_GAMMA));
+    }
+
+    /**
+     * The bucket {@code (γ^(i-1), γ^i]} is represented by the value at most 1% away from both of its bounds.
+     */
+    private static long value(int index) {
+        return (long) (MIN_NANOS * 2 * Math.pow(GAMMA, index) / (GAMMA + 1));
+    }
+}
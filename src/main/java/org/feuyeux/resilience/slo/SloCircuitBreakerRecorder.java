@@ -0,0 +1,50 @@
+package org.feuyeux.resilience.slo;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import org.springframework.beans.factory.SmartInitializingSingleton;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+/**
+ * Records every call through a circuit breaker into the tracker of its name, the SLO of that backend as the service
+ * sees it. Ignored errors count as served, calls the circuit breaker did not permit never reached the backend and are
+ * not recorded. Subscribes once all singletons exist and follows replaced circuit breakers; one removed or replaced
+ * is forgotten, so the recorder does not keep it alive.
+ */
+public class SloCircuitBreakerRecorder implements SmartInitializingSingleton {
+
+    private final SloRegistry sloRegistry;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final Set<CircuitBreaker> subscribed = Collections.synchronizedSet(Collections.newSetFromMap(new IdentityHashMap<>()));
+
+    public SloCircuitBreakerRecorder(SloRegistry sloRegistry, CircuitBreakerRegistry circuitBreakerRegistry) {
+        this.sloRegistry = sloRegistry;
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+    }
+
+    @Override
+    public void afterSingletonsInstantiated() {
+        circuitBreakerRegistry.getEventPublisher()
+                .onEntryAdded(event -> subscribe(event.getAddedEntry()))
+                .onEntryRemoved(event -> subscribed.remove(event.getRemovedEntry()))
+                .onEntryReplaced(event -> {
+                    subscribed.remove(event.getOldEntry());
+                    subscribe(event.getNewEntry());
+                });
+        circuitBreakerRegistry.getAllCircuitBreakers().forEach(this::subscribe);
+    }
+
+    private void subscribe(CircuitBreaker circuitBreaker) {
+        if (!subscribed.add(circuitBreaker)) {
+            return;
+        }
+        SloTracker tracker = sloRegistry.tracker(circuitBreaker.getName());
+        circuitBreaker.getEventPublisher()
+                .onSuccess(event -> tracker.record(event.getElapsedDuration().toNanos(), true))
+                .onIgnoredError(event -> tracker.record(event.getElapsedDuration().toNanos(), true))
+                .onError(event -> tracker.record(event.getElapsedDuration().toNanos(), false));
+    }
+}
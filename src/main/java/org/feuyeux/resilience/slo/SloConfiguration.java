@@ -0,0 +1,33 @@
+package org.feuyeux.resilience.slo;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+@Configuration
+@EnableConfigurationProperties(SloProperties.class)
+public class SloConfiguration {
+
+    @Bean
+    public SloRegistry sloRegistry(SloProperties properties, MeterRegistry meterRegistry) {
+        return new SloRegistry(properties, meterRegistry);
+    }
+
+    @Bean
+    public SloWebFilter sloWebFilter(SloRegistry sloRegistry) {
+        return new SloWebFilter(sloRegistry);
+    }
+
+    @Bean
+    public SloCircuitBreakerRecorder sloCircuitBreakerRecorder(SloRegistry sloRegistry,
+                                                               CircuitBreakerRegistry circuitBreakerRegistry) {
+        return new SloCircuitBreakerRecorder(sloRegistry, circuitBreakerRegistry);
+    }
+
+    @Bean
+    public SloEndpoint sloEndpoint(SloRegistry sloRegistry) {
+        return new SloEndpoint(sloRegistry);
+    }
+}
@@ -0,0 +1,40 @@
+package org.feuyeux.resilience.slo;
+
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Selector;
+
+import java.util.Map;
+import java.util.TreeMap;
+
+/**
+ * {@code GET /actuator/slo} reports every tracked SLO, {@code GET /actuator/slo/backendB/futureSuccess} the one of an
+ * endpoint and {@code GET /actuator/slo/backendB} the one of a circuit breaker.
+ */
+@Endpoint(id = "slo")
+public class SloEndpoint {
+
+    private final SloRegistry sloRegistry;
+
+    public SloEndpoint(SloRegistry sloRegistry) {
+        this.sloRegistry = sloRegistry;
+    }
+
+    @ReadOperation
+    public Map<String, SloReport> slos() {
+        Map<String, SloReport> reports = new TreeMap<>();
+        sloRegistry.getAllTrackers().forEach(tracker -> reports.put(tracker.getName(), tracker.report()));
+        return reports;
+    }
+
+    @ReadOperation
+    public SloReport slo(@Selector(match = Selector.Match.ALL_REMAINING) String[] path) {
+        String name = String.join("/", path);
+        for (SloTracker tracker : sloRegistry.getAllTrackers()) {
+            if (tracker.getName().equals(name) || tracker.getName().equals("/" + name)) {
+                return tracker.report();
+            }
+        }
+        return null;
+    }
+}
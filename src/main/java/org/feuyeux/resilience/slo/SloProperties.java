@@ -0,0 +1,42 @@
+package org.feuyeux.resilience.slo;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "resilience.slo")
+public class SloProperties {
+
+    /**
+     * the window SLIs, burn rates and latencies are computed over
+     */
+    private Duration window = Duration.ofMinutes(5);
+    /**
+     * parts the window moves by
+     */
+    private int slots = 10;
+    /**
+     * window of the short burn rate, rounded up to whole slots
+     */
+    private Duration shortWindow = Duration.ofMinutes(1);
+    /**
+     * by endpoint path pattern, e.g. "[/backendB/futureSuccess]", or by circuit breaker name
+     */
+    private Map<String, InstanceProperties> instances = new HashMap<>();
+
+    @Data
+    public static class InstanceProperties {
+        /**
+         * slowest latency that still counts as a good call
+         */
+        private Duration threshold = Duration.ofMillis(500);
+        /**
+         * fraction of calls that must be good
+         */
+        private double objective = 0.99;
+    }
+}
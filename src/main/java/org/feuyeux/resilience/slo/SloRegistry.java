@@ -0,0 +1,64 @@
+package org.feuyeux.resilience.slo;
+
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.TimeGauge;
+
+import java.util.Collection;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
+
+import static org.feuyeux.resilience.slo.SloProperties.InstanceProperties;
+
+/**
+ * Creates one {@link SloTracker} per endpoint or backend and publishes four gauges for it, the SLI, both burn rates
+ * and the p99, in place of a full latency histogram.
+ */
+public class SloRegistry {
+
+    private final SloProperties properties;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, SloTracker> trackers = new ConcurrentHashMap<>();
+
+    public SloRegistry(SloProperties properties, MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public SloTracker tracker(String name) {
+        SloTracker tracker = trackers.get(name);
+        return tracker != null ? tracker : trackers.computeIfAbsent(name, this::create);
+    }
+
+    public Collection<SloTracker> getAllTrackers() {
+        return trackers.values();
+    }
+
+    private SloTracker create(String name) {
+        InstanceProperties instance = properties.getInstances().getOrDefault(name, new InstanceProperties());
+        SloTracker tracker = new SloTracker(name, instance.getThreshold(), instance.getObjective(),
+                properties.getWindow(), properties.getSlots(), properties.getShortWindow());
+        Gauge.builder("resilience.slo.sli", tracker, SloTracker::getSli)
+                .description("The fraction of calls that succeeded within the SLO threshold")
+                .tag("name", name)
+                .register(meterRegistry);
+        Gauge.builder("resilience.slo.burn.rate", tracker, SloTracker::getBurnRate)
+                .description("The rate the error budget is spent at, 1 spends it exactly over the SLO period")
+                .tag("name", name)
+                .tag("window", "long")
+                .register(meterRegistry);
+        Gauge.builder("resilience.slo.burn.rate", tracker, SloTracker::getShortBurnRate)
+                .description("The rate the error budget is spent at, 1 spends it exactly over the SLO period")
+                .tag("name", name)
+                .tag("window", "short")
+                .register(meterRegistry);
+        TimeGauge.builder("resilience.slo.latency", tracker, TimeUnit.NANOSECONDS,
+                        t -> t.getQuantileNanos(0.99))
+                .description("The 99th percentile latency over the SLO window")
+                .tag("name", name)
+                .tag("quantile", "0.99")
+                .register(meterRegistry);
+        return tracker;
+    }
+}
@@ -0,0 +1,16 @@
+package org.feuyeux.resilience.slo;
+
+/**
+ * State of one SLO over its window, latencies in milliseconds.
+ *
+ * @param sli                  fraction of calls that succeeded within the threshold
+ * @param errorBudgetRemaining fraction of the window's error budget not spent yet, negative once overspent
+ * @param burnRate             bad-call fraction over the error budget, for the whole window
+ * @param shortBurnRate        the same over the short window
+ */
+public record SloReport(double thresholdMillis, double objective, String window, long calls, double sli,
+                        double errorBudgetRemaining, double burnRate, double shortBurnRate, Latency latency) {
+
+    public record Latency(double p50, double p90, double p99, double p999) {
+    }
+}
@@ -0,0 +1,154 @@
+package org.feuyeux.resilience.slo;
+
+import java.time.Duration;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.LongSupplier;
+
+/**
+ * Tracks one latency SLO, "{@code objective} of the calls succeed within {@code threshold}", over a rolling window
+ * split into slots. Each slot holds a {@link LatencySketch} and the calls and bad calls it saw, and is cleared when
+ * the window has moved past it, so memory stays fixed.
+ * <p>
+ * The burn rate is the fraction of bad calls divided by the error budget {@code 1 - objective}: at 1 the budget lasts
+ * exactly the SLO period, at 14.4 a 30-day budget is gone in two days. It is reported over the whole window and over
+ * the most recent slots covering {@code shortWindow}, so a fast burn shows before the long window catches up.
+ */
+public class SloTracker {
+
+    private static final double[] QUANTILES = {0.5, 0.9, 0.99, 0.999};
+    private final String name;
+    private final long thresholdNanos;
+    private final double objective;
+    private final Duration window;
+    private final long slotMillis;
+    private final int shortSlots;
+    private final Slot[] slots;
+    private final LongSupplier clock;
+
+    public SloTracker(String name, Duration threshold, double objective, Duration window, int slots,
+                      Duration shortWindow) {
+        this(name, threshold, objective, window, slots, shortWindow, System::currentTimeMillis);
+    }
+
+    SloTracker(String name, Duration threshold, double objective, Duration window, int slots, Duration shortWindow,
+               LongSupplier clock) {
+        if (objective <= 0 || objective >= 1) {
+            throw new IllegalArgumentException("objective must be between 0 and 1, was " + objective);
+        }
+        this.name = name;
+        this.thresholdNanos = threshold.toNanos();
+        this.objective = objective;
+        this.window = window;
+        this.slotMillis = Math.max(1, window.toMillis() / slots);
+        this.shortSlots = (int) Math.max(1, Math.min(slots, Math.ceilDiv(shortWindow.toMillis(), slotMillis)));
+        this.slots = new Slot[slots];
+        for (int i = 0; i < slots; i++) {
+            this.slots[i] = new Slot();
+        }
+        this.clock = clock;
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public void record(long nanos, boolean success) {
+        long epoch = clock.getAsLong() / slotMillis;
+        Slot slot = slots[(int) (epoch % slots.length)];
+        if (slot.epoch != epoch) {
+            slot.roll(epoch);
+        }
+        slot.sketch.record(nanos);
+        slot.calls.incrementAndGet();
+        if (!success || nanos > thresholdNanos) {
+            slot.bad.incrementAndGet();
+        }
+    }
+
+    /**
+     * @return the fraction of good calls over the window, 1 without calls
+     */
+    public double getSli() {
+        long[] counts = counts(slots.length);
+        return counts[0] == 0 ? 1 : 1 - (double) counts[1] / counts[0];
+    }
+
+    public double getBurnRate() {
+        return burnRate(slots.length);
+    }
+
+    public double getShortBurnRate() {
+        return burnRate(shortSlots);
+    }
+
+    public long getQuantileNanos(double q) {
+        return merged().quantileNanos(q);
+    }
+
+    public SloReport report() {
+        long[] counts = counts(slots.length);
+        LatencySketch merged = merged();
+        double[] quantiles = new double[QUANTILES.length];
+        for (int i = 0; i < QUANTILES.length; i++) {
+            quantiles[i] = merged.quantileNanos(QUANTILES[i]) / 1e6;
+        }
+        double budget = counts[0] * (1 - objective);
+        return new SloReport(thresholdNanos / 1e6, objective, window.toString(), counts[0],
+                counts[0] == 0 ? 1 : 1 - (double) counts[1] / counts[0],
+                budget == 0 ? 1 : 1 - counts[1] / budget,
+                getBurnRate(), getShortBurnRate(),
+                new SloReport.Latency(quantiles[0], quantiles[1], quantiles[2], quantiles[3]));
+    }
+
+    private double burnRate(int recentSlots) {
+        long[] counts = counts(recentSlots);
+        return counts[0] == 0 ? 0 : (double) counts[1] / counts[0] / (1 - objective);
+    }
+
+    /**
+     * @return calls and bad calls of the most recent slots
+     */
+    private long[] counts(int recentSlots) {
+        long current = clock.getAsLong() / slotMillis;
+        long[] counts = new long[2];
+        for (Slot slot : slots) {
+            if (current - slot.epoch < recentSlots) {
+                counts[0] += slot.calls.get();
+                counts[1] += slot.bad.get();
+            }
+        }
+        return counts;
+    }
+
+    private LatencySketch merged() {
+        long current = clock.getAsLong() / slotMillis;
+        LatencySketch merged = new LatencySketch();
+        for (Slot slot : slots) {
+            if (current - slot.epoch < slots.length) {
+                merged.merge(slot.sketch);
+            }
+        }
+        return merged;
+    }
+
+    private static final class Slot {
+
+        private final LatencySketch sketch = new LatencySketch();
+        private final AtomicLong calls = new AtomicLong();
+        private final AtomicLong bad = new AtomicLong();
+        private volatile long epoch = Long.MIN_VALUE / 2;
+
+        /**
+         * A call recorded into the old epoch while the slot rolls may end up in the new one, which is off by one call
+         * in a window of many.
+         */
+        private synchronized void roll(long next) {
+            if (epoch < next) {
+                sketch.clear();
+                calls.set(0);
+                bad.set(0);
+                epoch = next;
+            }
+        }
+    }
+}
@@ -0,0 +1,57 @@
+package org.feuyeux.resilience.slo;
+
+import org.springframework.core.Ordered;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.http.HttpStatusCode;
+import org.springframework.stereotype.Controller;
+import org.springframework.web.method.HandlerMethod;
+import org.springframework.web.reactive.HandlerMapping;
+import org.springframework.web.server.ResponseStatusException;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import reactor.core.publisher.Mono;
+
+/**
+ * Records every call of a controller endpoint into the tracker named by its path pattern, so the number of trackers is
+ * bounded by the routes. A call is bad when it fails with a 5xx or is slower than the threshold; client errors count as
+ * served. Cancelled calls are not recorded.
+ */
+public class SloWebFilter implements WebFilter, Ordered {
+
+    private final SloRegistry sloRegistry;
+
+    public SloWebFilter(SloRegistry sloRegistry) {
+        this.sloRegistry = sloRegistry;
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 2;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        long start = System.nanoTime();
+        return chain.filter(exchange)
+                .doOnEach(signal -> {
+                    if (signal.isOnComplete()) {
+                        record(exchange, start, exchange.getResponse().getStatusCode());
+                    } else if (signal.isOnError()) {
+                        record(exchange, start, signal.getThrowable() instanceof ResponseStatusException e
+                                ? e.getStatusCode() : null);
+                    }
+                });
+    }
+
+    private void record(ServerWebExchange exchange, long start, HttpStatusCode status) {
+        long nanos = System.nanoTime() - start;
+        if (!(exchange.getAttribute(HandlerMapping.BEST_MATCHING_HANDLER_ATTRIBUTE) instanceof HandlerMethod handler)
+                || !AnnotatedElementUtils.hasAnnotation(handler.getBeanType(), Controller.class)
+                || !(exchange.getAttribute(HandlerMapping.BEST_MATCHING_PATTERN_ATTRIBUTE) instanceof PathPattern pattern)) {
+            return;
+        }
+        sloRegistry.tracker(pattern.getPatternString()).record(nanos, status != null && !status.is5xxServerError());
+    }
+}
@@ -0,0 +1,128 @@
+package org.feuyeux.resilience.tenant;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicIntegerFieldUpdater;
+
+/**
+ * The circuit breaker, rate limiter and bulkhead of one tenant, each {@code null} when disabled. They share the configs
+ * of their backend and are neither registered nor given meters or event consumers, so that a tenant costs no more
+ * than the state of its components.
+ */
+public final class Tenant {
+
+    private static final AtomicIntegerFieldUpdater<Tenant> REJECTIONS =
+            AtomicIntegerFieldUpdater.newUpdater(Tenant.class, "rejections");
+
+    private final String key;
+    private final CircuitBreaker circuitBreaker;
+    private final RateLimiter rateLimiter;
+    private final Bulkhead bulkhead;
+    private volatile int rejections;
+    // only touched by the reporter
+    private int reportedRejections;
+
+    Tenant(String key, CircuitBreaker circuitBreaker, RateLimiter rateLimiter, Bulkhead bulkhead) {
+        this.key = key;
+        this.circuitBreaker = circuitBreaker;
+        this.rateLimiter = rateLimiter;
+        this.bulkhead = bulkhead;
+    }
+
+    public String getKey() {
+        return key;
+    }
+
+    public CircuitBreaker getCircuitBreaker() {
+        return circuitBreaker;
+    }
+
+    public RateLimiter getRateLimiter() {
+        return rateLimiter;
+    }
+
+    public Bulkhead getBulkhead() {
+        return bulkhead;
+    }
+
+    public int getRejections() {
+        return rejections;
+    }
+
+    /**
+     * Never waits: the rate limiter and the bulkhead of a tenant reject at once instead.
+     *
+     * @return why the call is rejected, {@code null} once it holds its permits
+     */
+    Rejection tryAcquire() {
+        if (circuitBreaker != null && !circuitBreaker.tryAcquirePermission()) {
+            return rejected(Rejection.CIRCUIT_BREAKER);
+        }
+        if (bulkhead != null && !bulkhead.tryAcquirePermission()) {
+            releaseCircuitBreaker();
+            return rejected(Rejection.BULKHEAD);
+        }
+        // last, a rate permit cannot be given back
+        if (rateLimiter != null && !rateLimiter.acquirePermission()) {
+            releaseCircuitBreaker();
+            releaseBulkhead();
+            return rejected(Rejection.RATE_LIMITER);
+        }
+        return null;
+    }
+
+    void onSuccess(long durationNanos) {
+        if (circuitBreaker != null) {
+            circuitBreaker.onSuccess(durationNanos, TimeUnit.NANOSECONDS);
+        }
+        releaseBulkhead();
+    }
+
+    void onError(long durationNanos, Throwable throwable) {
+        if (circuitBreaker != null) {
+            circuitBreaker.onError(durationNanos, TimeUnit.NANOSECONDS, throwable);
+        }
+        releaseBulkhead();
+    }
+
+    void onCancel() {
+        releaseCircuitBreaker();
+        releaseBulkhead();
+    }
+
+    /**
+     * @return the rejections since the previous report
+     */
+    int report() {
+        int total = rejections;
+        int recent = total - reportedRejections;
+        reportedRejections = total;
+        return recent;
+    }
+
+    private Rejection rejected(Rejection rejection) {
+        REJECTIONS.incrementAndGet(this);
+        return rejection;
+    }
+
+    private void releaseCircuitBreaker() {
+        if (circuitBreaker != null) {
+            circuitBreaker.releasePermission();
+        }
+    }
+
+    private void releaseBulkhead() {
+        if (bulkhead != null) {
+            bulkhead.onComplete();
+        }
+    }
+
+    public enum Rejection {
+        CIRCUIT_BREAKER,
+        RATE_LIMITER,
+        BULKHEAD
+    }
+}
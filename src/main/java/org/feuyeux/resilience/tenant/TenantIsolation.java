@@ -0,0 +1,194 @@
+package org.feuyeux.resilience.tenant;
+
+import com.github.benmanes.caffeine.cache.Cache;
+import com.github.benmanes.caffeine.cache.Caffeine;
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.github.resilience4j.ratelimiter.RequestNotPermitted;
+import org.feuyeux.resilience.deadline.DeadlineExceededException;
+import org.feuyeux.resilience.tenant.Tenant.Rejection;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * The tenants of one backend. A tenant is created on its first call, with a circuit breaker, rate limiter and
+ * bulkhead from the configs of the backend, and kept in a Caffeine cache bounded by {@code maximumTenants} and
+ * {@code idleTimeout}: any number of tenant keys costs bounded memory, and W-TinyLFU keeps the frequent callers, the
+ * noisy ones among them, over one-off keys. An evicted tenant starts over with fresh state on its next call, its calls
+ * in flight release the permits of the old one.
+ * <p>
+ * Tenant circuit breakers never move from OPEN to HALF_OPEN on a timer of their own, the next call moves them, so that
+ * an open tenant holds no scheduled task. They ignore the rejections of the shared components behind them, an open
+ * shared circuit breaker, a full shared bulkhead or admission queue, an exhausted shared rate limiter or a passed
+ * deadline: those say nothing about the calls of the tenant, and counting them would open the circuit breakers of all
+ * tenants at once during a shared outage or behind one noisy tenant.
+ */
+public class TenantIsolation {
+
+    private static final Comparator<Offender> BY_REJECTIONS = Comparator.comparingLong(Offender::rejections);
+    private static final List<Class<? extends Throwable>> SHARED_REJECTIONS = List.of(CallNotPermittedException.class,
+            BulkheadFullException.class, RequestNotPermitted.class, DeadlineExceededException.class);
+
+    private final String name;
+    private final int maxKeyLength;
+    private final int topOffenders;
+    private final CircuitBreakerConfig circuitBreakerConfig;
+    private final RateLimiterConfig rateLimiterConfig;
+    private final BulkheadConfig bulkheadConfig;
+    private final Cache<String, Tenant> tenants;
+    private final Function<String, Tenant> factory = this::create;
+    private final LongAdder evictions = new LongAdder();
+    private final Map<Rejection, LongAdder> rejections = new EnumMap<>(Rejection.class);
+    private volatile List<Offender> offenders = List.of();
+    private volatile int openCircuitBreakers;
+
+    /**
+     * @param circuitBreakerConfig the config of every tenant circuit breaker, none if {@code null}, likewise the others
+     */
+    public TenantIsolation(String name, long maximumTenants, Duration idleTimeout, int maxKeyLength,
+                           int topOffenders, CircuitBreakerConfig circuitBreakerConfig,
+                           RateLimiterConfig rateLimiterConfig, BulkheadConfig bulkheadConfig) {
+        this.name = name;
+        this.maxKeyLength = maxKeyLength;
+        this.topOffenders = topOffenders;
+        this.circuitBreakerConfig = circuitBreakerConfig == null ? null : CircuitBreakerConfig.from(circuitBreakerConfig)
+                .automaticTransitionFromOpenToHalfOpenEnabled(false)
+                .ignoreException(ignoring(circuitBreakerConfig.getIgnoreExceptionPredicate()))
+                .build();
+        this.rateLimiterConfig = rateLimiterConfig == null ? null : RateLimiterConfig.from(rateLimiterConfig)
+                .timeoutDuration(Duration.ZERO)
+                .build();
+        this.bulkheadConfig = bulkheadConfig == null ? null : BulkheadConfig.from(bulkheadConfig)
+                .maxWaitDuration(Duration.ZERO)
+                .build();
+        this.tenants = Caffeine.newBuilder()
+                .maximumSize(maximumTenants)
+                .expireAfterAccess(idleTimeout)
+                .evictionListener((key, tenant, cause) -> evictions.increment())
+                .build();
+        for (Rejection rejection : Rejection.values()) {
+            rejections.put(rejection, new LongAdder());
+        }
+    }
+
+    public String getName() {
+        return name;
+    }
+
+    public Tenant tenant(String key) {
+        return tenants.get(key.length() > maxKeyLength ? key.substring(0, maxKeyLength) : key, factory);
+    }
+
+    /**
+     * @return why the call of the tenant is rejected, {@code null} once it holds its permits
+     */
+    public Rejection tryAcquire(Tenant tenant) {
+        Rejection rejection = tenant.tryAcquire();
+        if (rejection != null) {
+            rejections.get(rejection).increment();
+        }
+        return rejection;
+    }
+
+    public long size() {
+        return tenants.estimatedSize();
+    }
+
+    public long getEvictions() {
+        return evictions.sum();
+    }
+
+    public long getRejections(Rejection rejection) {
+        return rejections.get(rejection).sum();
+    }
+
+    public RateLimiterConfig getRateLimiterConfig() {
+        return rateLimiterConfig;
+    }
+
+    public CircuitBreakerConfig getCircuitBreakerConfig() {
+        return circuitBreakerConfig;
+    }
+
+    /**
+     * @return the tenants with the most rejections between the two latest reports, most first
+     */
+    public List<Offender> getOffenders() {
+        return offenders;
+    }
+
+    /**
+     * @return the tenants whose circuit breaker was not CLOSED at the latest report
+     */
+    public int getOpenCircuitBreakers() {
+        return openCircuitBreakers;
+    }
+
+    /**
+     * Counts the open circuit breakers and picks the top offenders in one pass over the tenants, keeping at most
+     * {@code topOffenders} of them at any time. Only one thread may report.
+     */
+    void report() {
+        PriorityQueue<Offender> top = new PriorityQueue<>(BY_REJECTIONS);
+        int open = 0;
+        for (Tenant tenant : tenants.asMap().values()) {
+            int recent = tenant.report();
+            if (recent > 0 && topOffenders > 0
+                    && (top.size() < topOffenders || recent > top.peek().rejections())) {
+                if (top.size() == topOffenders) {
+                    top.poll();
+                }
+                top.add(new Offender(tenant.getKey(), recent));
+            }
+            CircuitBreaker circuitBreaker = tenant.getCircuitBreaker();
+            if (circuitBreaker != null && circuitBreaker.getState() != CircuitBreaker.State.CLOSED) {
+                open++;
+            }
+        }
+        List<Offender> sorted = new ArrayList<>(top);
+        sorted.sort(BY_REJECTIONS.reversed());
+        this.offenders = List.copyOf(sorted);
+        this.openCircuitBreakers = open;
+    }
+
+    void cleanUp() {
+        tenants.cleanUp();
+    }
+
+    private static Predicate<Throwable> ignoring(Predicate<Throwable> ignored) {
+        return throwable -> {
+            for (Class<? extends Throwable> rejection : SHARED_REJECTIONS) {
+                if (rejection.isInstance(throwable)) {
+                    return true;
+                }
+            }
+            return ignored.test(throwable);
+        };
+    }
+
+    private Tenant create(String key) {
+        // the key names the components, so that it is the only string a tenant holds
+        return new Tenant(key,
+                circuitBreakerConfig == null ? null : CircuitBreaker.of(key, circuitBreakerConfig),
+                rateLimiterConfig == null ? null : RateLimiter.of(key, rateLimiterConfig),
+                bulkheadConfig == null ? null : Bulkhead.of(key, bulkheadConfig));
+    }
+
+    public record Offender(String tenant, long rejections) {
+    }
+}
@@ -0,0 +1,46 @@
+package org.feuyeux.resilience.tenant;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.micrometer.core.instrument.MeterRegistry;
+import org.springframework.beans.factory.annotation.Qualifier;
+import org.springframework.boot.context.properties.EnableConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+
+@Configuration
+@EnableConfigurationProperties(TenantIsolationProperties.class)
+public class TenantIsolationConfiguration {
+
+    /**
+     * Only counts the offenders and the open circuit breakers of the tenants.
+     */
+    @Bean(destroyMethod = "shutdownNow")
+    public ScheduledExecutorService tenantReporter() {
+        return Executors.newSingleThreadScheduledExecutor(
+                Thread.ofPlatform().name("tenant-reporter").daemon().factory());
+    }
+
+    @Bean
+    public TenantIsolationRegistry tenantIsolationRegistry(TenantIsolationProperties properties,
+                                                           CircuitBreakerRegistry circuitBreakerRegistry,
+                                                           RateLimiterRegistry rateLimiterRegistry,
+                                                           BulkheadRegistry bulkheadRegistry,
+                                                           MeterRegistry meterRegistry,
+                                                           @Qualifier("tenantReporter") ScheduledExecutorService tenantReporter) {
+        TenantIsolationRegistry registry = new TenantIsolationRegistry(properties, circuitBreakerRegistry,
+                rateLimiterRegistry, bulkheadRegistry, meterRegistry);
+        registry.start(tenantReporter, properties.getReportInterval());
+        return registry;
+    }
+
+    @Bean
+    public TenantIsolationWebFilter tenantIsolationWebFilter(TenantIsolationProperties properties,
+                                                             TenantIsolationRegistry tenantIsolationRegistry) {
+        return new TenantIsolationWebFilter(properties, tenantIsolationRegistry);
+    }
+}
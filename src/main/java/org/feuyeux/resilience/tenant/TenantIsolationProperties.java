@@ -0,0 +1,62 @@
+package org.feuyeux.resilience.tenant;
+
+import lombok.Data;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+
+@Data
+@ConfigurationProperties(prefix = "resilience.tenant")
+public class TenantIsolationProperties {
+
+    /**
+     * request header naming the tenant of a call; calls without it are not isolated
+     */
+    private String header = "X-Tenant";
+    /**
+     * how often the top offenders and the open circuit breakers are counted
+     */
+    private Duration reportInterval = Duration.ofSeconds(10);
+    /**
+     * by backend name, whose circuit breaker, rate limiter and bulkhead configs the tenants start from
+     */
+    private Map<String, InstanceProperties> instances = new HashMap<>();
+
+    @Data
+    public static class InstanceProperties {
+        /**
+         * request path patterns of the backend, {@code /<name>/**} if empty
+         */
+        private List<String> paths = new ArrayList<>();
+        /**
+         * most tenants kept at once, beyond it the least valuable are evicted with their state
+         */
+        private long maximumTenants = 10_000;
+        /**
+         * a tenant without calls for this long is evicted with its state
+         */
+        private Duration idleTimeout = Duration.ofMinutes(10);
+        /**
+         * longer tenant keys are cut, so that a key costs bounded memory
+         */
+        private int maxKeyLength = 64;
+        private boolean circuitBreaker = true;
+        private boolean rateLimiter = true;
+        private boolean bulkhead = true;
+        /**
+         * the share of one tenant, that of the backend if unset
+         */
+        private Integer slidingWindowSize;
+        private Integer minimumNumberOfCalls;
+        private Integer limitForPeriod;
+        private Integer maxConcurrentCalls;
+        /**
+         * tenants with the most rejections per report that get meters of their own
+         */
+        private int topOffenders = 10;
+    }
+}
@@ -0,0 +1,167 @@
+package org.feuyeux.resilience.tenant;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.feuyeux.resilience.tenant.Tenant.Rejection;
+
+import java.time.Duration;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.feuyeux.resilience.tenant.TenantIsolationProperties.InstanceProperties;
+
+/**
+ * Creates one {@link TenantIsolation} per backend name, from the circuit breaker, rate limiter and bulkhead configs of
+ * the backend with the tenant shares of the properties. Meters are per backend, never per tenant: the tenants kept,
+ * evicted and with a breaker not closed, the rejections of all tenants by component, and only for the
+ * {@code topOffenders} tenants with the most rejections in the latest report interval a gauge tagged with the
+ * tenant, removed again once the tenant drops out.
+ */
+@Slf4j
+public class TenantIsolationRegistry {
+
+    private final TenantIsolationProperties properties;
+    private final CircuitBreakerRegistry circuitBreakerRegistry;
+    private final RateLimiterRegistry rateLimiterRegistry;
+    private final BulkheadRegistry bulkheadRegistry;
+    private final MeterRegistry meterRegistry;
+    private final ConcurrentMap<String, TenantIsolation> isolations = new ConcurrentHashMap<>();
+    // only touched by the reporter
+    private final Map<String, Map<String, TopOffender>> topOffenders = new HashMap<>();
+
+    public TenantIsolationRegistry(TenantIsolationProperties properties,
+                                   CircuitBreakerRegistry circuitBreakerRegistry,
+                                   RateLimiterRegistry rateLimiterRegistry,
+                                   BulkheadRegistry bulkheadRegistry,
+                                   MeterRegistry meterRegistry) {
+        this.properties = properties;
+        this.circuitBreakerRegistry = circuitBreakerRegistry;
+        this.rateLimiterRegistry = rateLimiterRegistry;
+        this.bulkheadRegistry = bulkheadRegistry;
+        this.meterRegistry = meterRegistry;
+    }
+
+    public TenantIsolation tenantIsolation(String name) {
+        return isolations.computeIfAbsent(name, this::create);
+    }
+
+    public void start(ScheduledExecutorService scheduler, Duration interval) {
+        scheduler.scheduleWithFixedDelay(this::report, interval.toNanos(), interval.toNanos(), TimeUnit.NANOSECONDS);
+    }
+
+    void report() {
+        for (TenantIsolation isolation : isolations.values()) {
+            isolation.report();
+            publish(isolation);
+        }
+    }
+
+    private void publish(TenantIsolation isolation) {
+        Map<String, TopOffender> published = topOffenders.computeIfAbsent(isolation.getName(), name -> new HashMap<>());
+        Set<String> current = new HashSet<>();
+        for (TenantIsolation.Offender offender : isolation.getOffenders()) {
+            current.add(offender.tenant());
+            published.computeIfAbsent(offender.tenant(), tenant -> new TopOffender(isolation.getName(), tenant))
+                    .rejections.set(offender.rejections());
+        }
+        published.values().removeIf(offender -> {
+            if (current.contains(offender.tenant)) {
+                return false;
+            }
+            meterRegistry.remove(offender.gauge);
+            return true;
+        });
+    }
+
+    private TenantIsolation create(String name) {
+        InstanceProperties instance = properties.getInstances().getOrDefault(name, new InstanceProperties());
+        TenantIsolation isolation = new TenantIsolation(name, instance.getMaximumTenants(),
+                instance.getIdleTimeout(), instance.getMaxKeyLength(), instance.getTopOffenders(),
+                instance.isCircuitBreaker() ? circuitBreakerConfig(name, instance) : null,
+                instance.isRateLimiter() ? rateLimiterConfig(name, instance) : null,
+                instance.isBulkhead() ? bulkheadConfig(name, instance) : null);
+        log.info("TenantIsolation[{}] maximumTenants:{} idleTimeout:{}", name, instance.getMaximumTenants(),
+                instance.getIdleTimeout());
+        Gauge.builder("resilience.tenant.tenants", isolation, TenantIsolation::size)
+                .description("The number of tenants kept with their state")
+                .tag("name", name)
+                .register(meterRegistry);
+        FunctionCounter.builder("resilience.tenant.evicted", isolation, TenantIsolation::getEvictions)
+                .description("The number of tenants evicted because there were too many or they were idle")
+                .tag("name", name)
+                .register(meterRegistry);
+        Gauge.builder("resilience.tenant.open", isolation, TenantIsolation::getOpenCircuitBreakers)
+                .description("The number of tenants whose circuit breaker was not closed at the latest report")
+                .tag("name", name)
+                .register(meterRegistry);
+        for (Rejection rejection : Rejection.values()) {
+            FunctionCounter.builder("resilience.tenant.rejected", isolation,
+                            tenants -> tenants.getRejections(rejection))
+                    .description("The number of calls of all tenants rejected by the tenant component")
+                    .tag("name", name)
+                    .tag("component", rejection.name().toLowerCase().replace("_", ""))
+                    .register(meterRegistry);
+        }
+        return isolation;
+    }
+
+    private CircuitBreakerConfig circuitBreakerConfig(String name, InstanceProperties instance) {
+        CircuitBreakerConfig.Builder builder = CircuitBreakerConfig.from(
+                circuitBreakerRegistry.circuitBreaker(name).getCircuitBreakerConfig());
+        if (instance.getSlidingWindowSize() != null) {
+            builder.slidingWindowSize(instance.getSlidingWindowSize());
+        }
+        if (instance.getMinimumNumberOfCalls() != null) {
+            builder.minimumNumberOfCalls(instance.getMinimumNumberOfCalls());
+        }
+        return builder.build();
+    }
+
+    private RateLimiterConfig rateLimiterConfig(String name, InstanceProperties instance) {
+        RateLimiterConfig.Builder builder = RateLimiterConfig.from(
+                rateLimiterRegistry.rateLimiter(name).getRateLimiterConfig());
+        if (instance.getLimitForPeriod() != null) {
+            builder.limitForPeriod(instance.getLimitForPeriod());
+        }
+        return builder.build();
+    }
+
+    private BulkheadConfig bulkheadConfig(String name, InstanceProperties instance) {
+        BulkheadConfig.Builder builder = BulkheadConfig.from(bulkheadRegistry.bulkhead(name).getBulkheadConfig());
+        if (instance.getMaxConcurrentCalls() != null) {
+            builder.maxConcurrentCalls(instance.getMaxConcurrentCalls());
+        }
+        return builder.build();
+    }
+
+    private final class TopOffender {
+
+        private final String tenant;
+        private final AtomicLong rejections = new AtomicLong();
+        private final Gauge gauge;
+
+        private TopOffender(String name, String tenant) {
+            this.tenant = tenant;
+            this.gauge = Gauge.builder("resilience.tenant.top.rejected", rejections, AtomicLong::get)
+                    .description("The rejections of one of the tenants rejected most in the latest report interval")
+                    .tag("name", name)
+                    .tag("tenant", tenant)
+                    .register(meterRegistry);
+        }
+    }
+}
@@ -0,0 +1,149 @@
+package org.feuyeux.resilience.tenant;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import org.feuyeux.resilience.tenant.Tenant.Rejection;
+import org.springframework.core.Ordered;
+import org.springframework.core.io.buffer.DataBuffer;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.server.PathContainer;
+import org.springframework.http.server.reactive.ServerHttpResponse;
+import org.springframework.web.server.ServerWebExchange;
+import org.springframework.web.server.WebFilter;
+import org.springframework.web.server.WebFilterChain;
+import org.springframework.web.util.pattern.PathPattern;
+import org.springframework.web.util.pattern.PathPatternParser;
+import reactor.core.publisher.Mono;
+import reactor.core.publisher.SignalType;
+
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Map;
+
+import static org.feuyeux.resilience.tenant.TenantIsolationProperties.InstanceProperties;
+
+/**
+ * Guards the calls of each tenant, named by the tenant header, with the circuit breaker, rate limiter and bulkhead of
+ * the tenant before the backend's shared ones, so that a noisy tenant opens its own circuit breaker and uses up its
+ * own rate and concurrency rather than those of all tenants. Calls without the header, or outside the paths of the
+ * backends, pass as they are.
+ * <p>
+ * A tenant whose circuit breaker is open gets 503, one over its rate or concurrency 429, both with
+ * {@code Retry-After}. The tenant components never wait for a permit, so the filter never blocks the event loop.
+ */
+public class TenantIsolationWebFilter implements WebFilter, Ordered {
+
+    private static final byte[] SERVICE_UNAVAILABLE = "Service Unavailable".getBytes(StandardCharsets.UTF_8);
+    private static final byte[] TOO_MANY_REQUESTS = "Too Many Requests".getBytes(StandardCharsets.UTF_8);
+
+    private final String header;
+    private final List<Map.Entry<PathPattern, Route>> routes;
+
+    public TenantIsolationWebFilter(TenantIsolationProperties properties, TenantIsolationRegistry registry) {
+        this.header = properties.getHeader();
+        List<Map.Entry<PathPattern, Route>> routes = new ArrayList<>();
+        properties.getInstances().forEach((name, instance) -> {
+            Route route = new Route(registry.tenantIsolation(name));
+            List<String> paths = instance.getPaths().isEmpty() ? List.of("/" + name + "/**") : instance.getPaths();
+            for (String path : paths) {
+                routes.add(Map.entry(PathPatternParser.defaultInstance.parse(path), route));
+            }
+        });
+        routes.sort(Map.Entry.comparingByKey(PathPattern.SPECIFICITY_COMPARATOR));
+        this.routes = List.copyOf(routes);
+    }
+
+    @Override
+    public int getOrder() {
+        return Ordered.HIGHEST_PRECEDENCE + 3;
+    }
+
+    @Override
+    public Mono<Void> filter(ServerWebExchange exchange, WebFilterChain chain) {
+        String key = exchange.getRequest().getHeaders().getFirst(header);
+        Route route = key == null || key.isEmpty() ? null
+                : route(exchange.getRequest().getPath().pathWithinApplication());
+        if (route == null) {
+            return chain.filter(exchange);
+        }
+        Tenant tenant = route.isolation.tenant(key);
+        Rejection rejection = route.isolation.tryAcquire(tenant);
+        if (rejection != null) {
+            return reject(exchange.getResponse(), rejection, route.retryAfter.get(rejection));
+        }
+        Call call = new Call(tenant);
+        return chain.filter(exchange)
+                .doOnError(call::failed)
+                .doFinally(call::finished);
+    }
+
+    private Route route(PathContainer path) {
+        for (Map.Entry<PathPattern, Route> route : routes) {
+            if (route.getKey().matches(path)) {
+                return route.getValue();
+            }
+        }
+        return null;
+    }
+
+    private static Mono<Void> reject(ServerHttpResponse response, Rejection rejection, String retryAfter) {
+        boolean open = rejection == Rejection.CIRCUIT_BREAKER;
+        response.setStatusCode(open ? HttpStatus.SERVICE_UNAVAILABLE : HttpStatus.TOO_MANY_REQUESTS);
+        response.getHeaders().set(HttpHeaders.RETRY_AFTER, retryAfter);
+        response.getHeaders().setContentType(MediaType.TEXT_PLAIN);
+        DataBuffer body = response.bufferFactory().wrap(open ? SERVICE_UNAVAILABLE : TOO_MANY_REQUESTS);
+        return response.writeWith(Mono.just(body));
+    }
+
+    private static final class Route {
+
+        private final TenantIsolation isolation;
+        private final Map<Rejection, String> retryAfter = new EnumMap<>(Rejection.class);
+
+        private Route(TenantIsolation isolation) {
+            this.isolation = isolation;
+            CircuitBreakerConfig circuitBreakerConfig = isolation.getCircuitBreakerConfig();
+            RateLimiterConfig rateLimiterConfig = isolation.getRateLimiterConfig();
+            retryAfter.put(Rejection.CIRCUIT_BREAKER, seconds(circuitBreakerConfig == null ? 0
+                    : circuitBreakerConfig.getWaitIntervalFunctionInOpenState().apply(1)));
+            retryAfter.put(Rejection.RATE_LIMITER, seconds(rateLimiterConfig == null ? 0
+                    : rateLimiterConfig.getLimitRefreshPeriod().toMillis()));
+            retryAfter.put(Rejection.BULKHEAD, seconds(0));
+        }
+
+        // whole seconds, rounded up, at least one
+        private static String seconds(long millis) {
+            return String.valueOf(Math.max(1, (millis + 999) / 1000));
+        }
+    }
+
+    private static final class Call {
+
+        private final Tenant tenant;
+        private final long start = System.nanoTime();
+        private Throwable error;
+
+        private Call(Tenant tenant) {
+            this.tenant = tenant;
+        }
+
+        private void failed(Throwable throwable) {
+            this.error = throwable;
+        }
+
+        private void finished(SignalType signal) {
+            long nanos = System.nanoTime() - start;
+            if (signal == SignalType.CANCEL) {
+                tenant.onCancel();
+            } else if (error != null) {
+                tenant.onError(nanos, error);
+            } else {
+                tenant.onSuccess(nanos);
+            }
+        }
+    }
+}
@@ -6,6 +6,9 @@ import io.github.resilience4j.retry.Retry;
 import io.github.resilience4j.retry.RetryRegistry;
 import io.vavr.collection.Stream;
 import lombok.extern.slf4j.Slf4j;
+import org.feuyeux.resilience.loadgen.LoadGenerator;
+import org.feuyeux.resilience.loadgen.LoadProfile;
+import org.feuyeux.resilience.loadgen.LoadReport;
 import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
@@ -13,21 +16,24 @@ import org.springframework.beans.factory.annotation.Autowired;
 import org.springframework.boot.test.autoconfigure.actuate.observability.AutoConfigureObservability;
 import org.springframework.boot.test.context.SpringBootTest;
 import org.springframework.boot.test.web.client.TestRestTemplate;
+import org.springframework.boot.test.web.server.LocalServerPort;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.HttpStatusCode;
 import org.springframework.http.ResponseEntity;
 import org.springframework.test.context.junit.jupiter.SpringExtension;
 
+import java.time.Duration;
 import java.util.concurrent.TimeUnit;
-import java.util.stream.IntStream;
 
 import static org.assertj.core.api.Assertions.assertThat;
 import static org.feuyeux.resilience.service.BackendABackendService.BACKEND_A;
 import static org.feuyeux.resilience.service.BackendBBackendService.BACKEND_B;
 
+// the load generator reports rejections by the exception class, which only the tests put into the error body
 @SpringBootTest(
         webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
-        classes = HelloResilienceApplication.class
+        classes = HelloResilienceApplication.class,
+        properties = "server.error.include-exception=true"
 )
 @ExtendWith(SpringExtension.class)
 @AutoConfigureObservability
@@ -44,6 +50,9 @@ public class HelloResilienceApplicationTests {
     @Autowired
     private TestRestTemplate restTemplate;
 
+    @LocalServerPort
+    private int port;
+
     @BeforeEach
     public void setup() {
         transitionToClosedState(BACKEND_A);
@@ -105,33 +114,23 @@ public class HelloResilienceApplicationTests {
     // Limit Test
     @Test
     public void testRateLimiting() throws InterruptedException {
-        TimeUnit.MICROSECONDS.sleep(100);
-        Stream.rangeClosed(1, 10).forEach((count) -> {
-            ResponseEntity<String> response = restTemplate.getForEntity("/" + BACKEND_A + "/limit", String.class);
-            HttpStatusCode statusCode = response.getStatusCode();
-            String body = response.getBody();
-            log.info("A[{}] statusCode:{},body:{}", count, statusCode, body);
-            response = restTemplate.getForEntity("/" + BACKEND_B + "/successWithRateLimiter", String.class);
-            statusCode = response.getStatusCode();
-            body = response.getBody();
-            log.info("B[{}] statusCode:{},body:{}", count, statusCode, body);
-        });
+        // 5 permits per 500ms, the rest is answered by the fallback
+        LoadReport limit = profile("/" + BACKEND_A + "/limit", 50, 1);
+        assertThat(limit.rejected()).containsOnlyKeys("HTTP 429");
+        assertThat(limit.succeeded()).isPositive().isLessThan(limit.requests());
+        LoadReport successWithRateLimiter = profile("/" + BACKEND_B + "/successWithRateLimiter", 10, 1);
+        assertThat(successWithRateLimiter.rejected()).doesNotContainKey("client:TimeoutException");
+        assertThat(successWithRateLimiter.succeeded() + successWithRateLimiter.rejectedCount())
+                .isEqualTo(successWithRateLimiter.requests());
     }
 
 
     @Test
     public void testBulkHead() throws InterruptedException {
-        TimeUnit.MICROSECONDS.sleep(100);
-        IntStream.rangeClosed(1, 10).parallel().forEach((count) -> {
-            ResponseEntity<String> response = restTemplate.getForEntity("/" + BACKEND_B + "/bulkhead", String.class);
-            HttpStatusCode statusCode = response.getStatusCode();
-            if (statusCode == HttpStatus.OK) {
-                String body = response.getBody();
-                log.info("BulkHead statusCode:{},body:{}", statusCode, body);
-            } else {
-                log.error("BulkHead statusCode:{}", statusCode);
-            }
-        });
+        LoadReport report = profile("/" + BACKEND_B + "/bulkhead", 10, 1);
+        assertThat(report.succeeded()).isPositive();
+        assertThat(report.rejected().keySet()).isSubsetOf("BulkheadFullException");
+        assertThat(report.succeeded() + report.rejectedCount()).isEqualTo(report.requests());
     }
 
     @Test
@@ -151,13 +150,19 @@ public class HelloResilienceApplicationTests {
 
     @Test
     public void testTimeout() throws InterruptedException {
-        TimeUnit.MICROSECONDS.sleep(100);
-        Stream.rangeClosed(1, 10).toJavaParallelStream().forEach((count) -> {
-            ResponseEntity<String> response = restTemplate.getForEntity("/" + BACKEND_A + "/futureTimeout", String.class);
-            HttpStatusCode statusCode = response.getStatusCode();
-            String body = response.getBody();
-            log.info("testTimeout body:{}", body);
-        });
+        // 300ms calls well within the 2s time limit
+        LoadReport report = profile("/" + BACKEND_A + "/futureTimeout", 10, 1);
+        assertThat(report.rejected()).isEmpty();
+        assertThat(report.succeeded()).isEqualTo(report.requests());
+        assertThat(report.latency().p99()).isLessThan(2000);
+    }
+
+    private LoadReport profile(String path, int rate, int seconds) throws InterruptedException {
+        try (LoadGenerator loadGenerator = new LoadGenerator("http://localhost:" + port)) {
+            LoadReport report = loadGenerator.run(new LoadProfile(path, rate, Duration.ofSeconds(seconds)));
+            log.info("{}", report.summary());
+            return report;
+        }
     }
 
     private void produceFailure(String backend) {
@@ -0,0 +1,88 @@
+package org.feuyeux.resilience;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.boot.test.web.server.LocalServerPort;
+import org.springframework.http.client.reactive.ReactorClientHttpConnector;
+import org.springframework.web.reactive.function.client.WebClient;
+import reactor.core.publisher.Flux;
+import reactor.netty.http.client.HttpClient;
+import reactor.netty.resources.ConnectionProvider;
+
+import java.time.Duration;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.feuyeux.resilience.service.BackendBBackendService.BACKEND_B;
+
+/**
+ * Each call to /reactive/backendB/monoSuccess waits one second on the backend. When nothing blocks the event loop,
+ * a wave of concurrent requests finishes in about one backend latency no matter how many event-loop threads exist.
+ */
+@SpringBootTest(
+        webEnvironment = SpringBootTest.WebEnvironment.RANDOM_PORT,
+        classes = HelloResilienceApplication.class
+)
+@Slf4j
+public class ReactiveLoadTests {
+
+    @LocalServerPort
+    private int port;
+
+    @Autowired
+    private CircuitBreakerRegistry circuitBreakerRegistry;
+
+    private WebClient webClient;
+
+    @BeforeEach
+    public void setup() {
+        circuitBreakerRegistry.circuitBreaker(BACKEND_B).transitionToClosedState();
+        ConnectionProvider provider = ConnectionProvider.builder("reactive-load")
+                .maxConnections(1000)
+                .pendingAcquireMaxCount(-1)
+                .build();
+        webClient = WebClient.builder()
+                .baseUrl("http://localhost:" + port)
+                .clientConnector(new ReactorClientHttpConnector(HttpClient.create(provider)))
+                .build();
+    }
+
+    @Test
+    public void testThroughputScalesWithInFlightRequests() {
+        // warm up
+        fire(1);
+        double low = fire(50);
+        double high = fire(200);
+        log.info("throughput 50 in-flight:{} req/s, 200 in-flight:{} req/s, cores:{}",
+                low, high, Runtime.getRuntime().availableProcessors());
+        // 4x the in-flight requests should give well over 2x the throughput
+        assertThat(high).isGreaterThan(low * 2);
+    }
+
+    @Test
+    public void testFluxSuccess() {
+        List<String> body = webClient.get().uri("/reactive/backendA/fluxSuccess")
+                .retrieve()
+                .bodyToFlux(String.class)
+                .collectList()
+                .block(Duration.ofSeconds(5));
+        assertThat(body).isNotEmpty();
+    }
+
+    private double fire(int concurrency) {
+        long start = System.nanoTime();
+        List<String> bodies = Flux.range(0, concurrency)
+                .flatMap(i -> webClient.get().uri("/reactive/" + BACKEND_B + "/monoSuccess")
+                        .retrieve()
+                        .bodyToMono(String.class), concurrency)
+                .collectList()
+                .block(Duration.ofSeconds(30));
+        double seconds = (System.nanoTime() - start) / 1e9;
+        assertThat(bodies).hasSize(concurrency).allMatch(body -> body.startsWith("Hello World from backend B"));
+        return concurrency / seconds;
+    }
+}
@@ -0,0 +1,102 @@
+package org.feuyeux.resilience.admission;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class AdmissionQueueTests {
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @Test
+    public void testHighestPriorityIsAdmittedFirst() throws Exception {
+        AdmissionQueue queue = admissionQueue(10, Duration.ofSeconds(10));
+        Bulkhead held = queue.bulkhead(Priority.INTERACTIVE);
+        held.acquirePermission();
+        List<Priority> admitted = new CopyOnWriteArrayList<>();
+        List<Future<?>> calls = new CopyOnWriteArrayList<>();
+        for (Priority priority : List.of(Priority.BATCH, Priority.INTERACTIVE, Priority.CRITICAL)) {
+            calls.add(executor.submit(() -> queue.bulkhead(priority).executeRunnable(() -> admitted.add(priority))));
+            awaitUntil(() -> queue.getQueueDepth(priority) == 1);
+        }
+        held.onComplete();
+        for (Future<?> call : calls) {
+            call.get(5, TimeUnit.SECONDS);
+        }
+        assertThat(admitted).containsExactly(Priority.CRITICAL, Priority.INTERACTIVE, Priority.BATCH);
+    }
+
+    @Test
+    public void testFullQueueEvictsLowerPriority() throws Exception {
+        AdmissionQueue queue = admissionQueue(2, Duration.ofSeconds(10));
+        Bulkhead held = queue.bulkhead(Priority.INTERACTIVE);
+        held.acquirePermission();
+        Future<?> batch1 = executor.submit(() -> queue.bulkhead(Priority.BATCH).acquirePermission());
+        Future<?> batch2 = executor.submit(() -> queue.bulkhead(Priority.BATCH).acquirePermission());
+        awaitUntil(() -> queue.getQueueDepth(Priority.BATCH) == 2);
+
+        Future<?> critical = executor.submit(() -> queue.bulkhead(Priority.CRITICAL).acquirePermission());
+        Future<?> interactive = executor.submit(() -> queue.bulkhead(Priority.INTERACTIVE).acquirePermission());
+        awaitUntil(() -> queue.getQueueDepth(Priority.BATCH) == 0);
+        // nothing left to evict for a call of the lowest priority
+        assertThat(queue.bulkhead(Priority.BATCH).tryAcquirePermission()).isFalse();
+
+        assertThat(queue.getRejectedCalls(Priority.BATCH, AdmissionQueue.Rejection.EVICTED)).isEqualTo(2);
+        assertThat(queue.getRejectedCalls(Priority.BATCH, AdmissionQueue.Rejection.FULL)).isEqualTo(1);
+        assertThatThrownBy(() -> batch1.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(BulkheadFullException.class);
+        assertThatThrownBy(() -> batch2.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(BulkheadFullException.class);
+
+        held.onComplete();
+        critical.get(5, TimeUnit.SECONDS);
+        assertThat(interactive.isDone()).isFalse();
+        queue.bulkhead(Priority.CRITICAL).onComplete();
+        interactive.get(5, TimeUnit.SECONDS);
+    }
+
+    @Test
+    public void testStandingQueueIsShed() {
+        AdmissionQueue queue = admissionQueue(10, Duration.ofMillis(200));
+        queue.bulkhead(Priority.INTERACTIVE).acquirePermission();
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> queue.bulkhead(Priority.CRITICAL).acquirePermission())
+                .isInstanceOf(BulkheadFullException.class);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isBetween(Duration.ofMillis(200), Duration.ofSeconds(1));
+        assertThat(queue.getRejectedCalls(Priority.CRITICAL, AdmissionQueue.Rejection.SHED)).isEqualTo(1);
+    }
+
+    @Test
+    public void testWaitingBulkheadIsRefused() {
+        Bulkhead bulkhead = Bulkhead.of("backend", BulkheadConfig.custom()
+                .maxWaitDuration(Duration.ofMillis(500))
+                .build());
+        assertThatThrownBy(() -> new AdmissionQueue(bulkhead, 10, Duration.ofMillis(100), Duration.ofMillis(500),
+                (priority, sojournNanos) -> {
+                })).isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            TimeUnit.MILLISECONDS.sleep(1);
+        }
+    }
+
+    private static AdmissionQueue admissionQueue(int capacity, Duration interval) {
+        Bulkhead bulkhead = Bulkhead.of("backend", BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        return new AdmissionQueue(bulkhead, capacity, Duration.ofMillis(50), interval, (priority, sojournNanos) -> {
+        });
+    }
+}
@@ -0,0 +1,78 @@
+package org.feuyeux.resilience.batch;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.*;
+import java.util.function.Function;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class MicroBatcherTests {
+
+    private final ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+
+    @AfterEach
+    public void tearDown() {
+        executor.shutdownNow();
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void testResultsGoBackToTheirCalls() {
+        List<List<Integer>> batches = new CopyOnWriteArrayList<>();
+        MicroBatcher<Integer, String> microBatcher = microBatcher(10, Duration.ofSeconds(10), keys -> {
+            batches.add(keys);
+            return keys.stream().map(key -> "value" + key).toList();
+        });
+        List<CompletableFuture<String>> results = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < 100; i++) {
+            results.add(microBatcher.submit(i));
+        }
+        for (int i = 0; i < 100; i++) {
+            assertThat(results.get(i).join()).isEqualTo("value" + i);
+        }
+        // full batches are sent at once, without waiting for the delay
+        assertThat(batches).hasSize(10).allSatisfy(keys -> assertThat(keys).hasSize(10));
+        assertThat(microBatcher.getCalls()).isEqualTo(100);
+        assertThat(microBatcher.getBatches()).isEqualTo(10);
+    }
+
+    @Test
+    public void testPartialBatchIsSentAfterDelay() {
+        MicroBatcher<Integer, Integer> microBatcher = microBatcher(10, Duration.ofMillis(50), keys -> keys);
+        long start = System.nanoTime();
+        CompletableFuture<Integer> first = microBatcher.submit(1);
+        CompletableFuture<Integer> second = microBatcher.submit(2);
+        assertThat(first.join()).isEqualTo(1);
+        assertThat(second.join()).isEqualTo(2);
+        assertThat(Duration.ofNanos(System.nanoTime() - start)).isGreaterThanOrEqualTo(Duration.ofMillis(50));
+        assertThat(microBatcher.getBatches()).isEqualTo(1);
+    }
+
+    @Test
+    public void testFailedBatchFailsEveryCall() {
+        MicroBatcher<Integer, Integer> failing = microBatcher(2, Duration.ofSeconds(10), keys -> {
+            throw new IllegalArgumentException("BAM!");
+        });
+        CompletableFuture<Integer> first = failing.submit(1);
+        CompletableFuture<Integer> second = failing.submit(2);
+        assertThatThrownBy(first::join).hasCauseInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(second::join).hasCauseInstanceOf(IllegalArgumentException.class);
+
+        MicroBatcher<Integer, Integer> incomplete = microBatcher(2, Duration.ofSeconds(10), keys -> List.of(1));
+        CompletableFuture<Integer> third = incomplete.submit(3);
+        assertThatThrownBy(incomplete.submit(4)::join).hasCauseInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(third::join).hasCauseInstanceOf(IllegalStateException.class);
+    }
+
+    private <K, V> MicroBatcher<K, V> microBatcher(int maxBatchSize, Duration maxDelay,
+                                                   Function<List<K>, List<V>> batchFunction) {
+        return new MicroBatcher<>("backend", maxBatchSize, maxDelay, batchFunction, executor, scheduler, size -> {
+        });
+    }
+}
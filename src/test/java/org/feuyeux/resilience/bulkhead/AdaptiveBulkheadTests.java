@@ -0,0 +1,108 @@
+package org.feuyeux.resilience.bulkhead;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * The limit algorithms move the limit within their bounds, and the bulkhead samples the latency of each call from its
+ * own permit, whichever thread completes it.
+ */
+public class AdaptiveBulkheadTests {
+
+    private static final long FAST = TimeUnit.MILLISECONDS.toNanos(10);
+    private static final long SLOW = TimeUnit.MILLISECONDS.toNanos(100);
+    private static final long CALL_MILLIS = 100;
+
+    @Test
+    public void testAimdLimit() {
+        AimdLimit aimd = new AimdLimit(5, 12, 0.5, Duration.ofMillis(50));
+
+        assertThat(aimd.update(10, FAST, 10)).isEqualTo(11);
+        // less than half of the limit in use says nothing about the backend
+        assertThat(aimd.update(10, FAST, 4)).isEqualTo(10);
+        assertThat(aimd.update(12, FAST, 12)).isEqualTo(12);
+        assertThat(aimd.update(11, SLOW, 11)).isEqualTo(5.5);
+        assertThat(aimd.update(8, SLOW, 8)).isEqualTo(5);
+    }
+
+    @Test
+    public void testGradientLimit() {
+        // no smoothing, so that every sample moves the limit all the way
+        GradientLimit gradient = new GradientLimit(50, 105, 1.0, 1.5, 600);
+
+        // as fast as the long-term average: grows by sqrt(limit)
+        assertThat(gradient.update(64, FAST, 64)).isEqualTo(72);
+        assertThat(gradient.update(100, FAST, 100)).isEqualTo(105);
+        assertThat(gradient.update(100, FAST, 10)).isEqualTo(100);
+        // ten times slower than the average: halved, plus the allowance
+        assertThat(gradient.update(100, SLOW, 100)).isCloseTo(60, within(0.5));
+        assertThat(gradient.update(60, SLOW * 10, 60)).isEqualTo(50);
+
+        GradientLimit smoothed = new GradientLimit(1, 200, 0.2, 1.5, 600);
+        assertThat(smoothed.update(100, FAST, 100)).isEqualTo(102);
+    }
+
+    @Test
+    public void testChangedLimitStaysWithinTheBounds() {
+        BulkheadConfig config = BulkheadConfig.custom()
+                .maxConcurrentCalls(10)
+                .maxWaitDuration(Duration.ZERO)
+                .build();
+        AdaptiveBulkhead bulkhead = new AdaptiveBulkhead("backend", config,
+                new AimdLimit(2, 20, 0.5, Duration.ofMillis(50)), 10, 2, 20, Map.of());
+
+        bulkhead.changeConfig(BulkheadConfig.from(config).maxConcurrentCalls(100).build());
+        assertThat(bulkhead.getLimit()).isEqualTo(20);
+        assertThat(bulkhead.getMetrics().getAvailableConcurrentCalls()).isEqualTo(20);
+        bulkhead.changeConfig(BulkheadConfig.from(config).maxConcurrentCalls(1).build());
+        assertThat(bulkhead.getLimit()).isEqualTo(2);
+        bulkhead.changeConfig(BulkheadConfig.from(config).maxConcurrentCalls(8).build());
+        assertThat(bulkhead.getLimit()).isEqualTo(8);
+    }
+
+    @Test
+    public void testLatencyIsSampledFromThePermit() throws InterruptedException {
+        List<Long> samples = new CopyOnWriteArrayList<>();
+        AdaptiveBulkhead bulkhead = new AdaptiveBulkhead("backend", BulkheadConfig.custom()
+                .maxWaitDuration(Duration.ZERO)
+                .build(), (limit, rttNanos, inFlight) -> {
+            samples.add(TimeUnit.NANOSECONDS.toMillis(rttNanos));
+            return limit;
+        }, 2, 1, 2, Map.of());
+
+        // permitted here, completed on another thread
+        CompletableFuture<String> backend = new CompletableFuture<>();
+        CompletableFuture<String> call = bulkhead.executeCompletionStage(() -> backend).toCompletableFuture();
+        assertThat(bulkhead.getInFlightCalls()).isEqualTo(1);
+        Thread completing = Thread.ofPlatform().start(() -> {
+            LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(CALL_MILLIS));
+            backend.complete("OK");
+        });
+        // a short call on this thread in the meantime takes no part of the other one's latency
+        assertThat(bulkhead.executeSupplier(() -> "OK")).isEqualTo("OK");
+        assertThat(call.join()).isEqualTo("OK");
+        completing.join();
+
+        assertThat(samples).hasSize(2);
+        assertThat(samples.get(0)).isLessThan(CALL_MILLIS / 2);
+        assertThat(samples.get(1)).isGreaterThanOrEqualTo(CALL_MILLIS * 3 / 4);
+        assertThat(bulkhead.getInFlightCalls()).isZero();
+
+        // without the time of the permit the call is released but not sampled
+        bulkhead.acquirePermission();
+        bulkhead.onComplete();
+        assertThat(samples).hasSize(2);
+        assertThat(bulkhead.getInFlightCalls()).isZero();
+    }
+}
@@ -0,0 +1,127 @@
+package org.feuyeux.resilience.bulkhead;
+
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadRegistry;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.feuyeux.resilience.bulkhead.AsyncBulkheadProperties.InstanceProperties;
+import org.feuyeux.resilience.bulkhead.AsyncBulkheadProperties.Mode;
+import org.feuyeux.resilience.bulkhead.annotation.AsyncBulkhead;
+import org.feuyeux.resilience.saturation.SaturationProperties;
+import org.feuyeux.resilience.saturation.SaturationTelemetry;
+import org.feuyeux.resilience.saturation.SaturationTimers.Kind;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * An annotated method follows the mode of its async bulkhead: in virtual mode it runs on a virtual thread, holds the
+ * permit until its future completes, and a full bulkhead fails the returned future. Like the programmatic callers,
+ * it records its saturation timers.
+ */
+public class AsyncBulkheadAspectTests {
+
+    private final ExecutorService virtualThreadExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final BulkheadRegistry bulkheadRegistry = BulkheadRegistry.ofDefaults();
+    private final ThreadPoolBulkheadRegistry threadPoolBulkheadRegistry = ThreadPoolBulkheadRegistry.ofDefaults();
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final CountDownLatch release = new CountDownLatch(1);
+
+    @AfterEach
+    public void tearDown() throws Exception {
+        virtualThreadExecutor.shutdownNow();
+        for (ThreadPoolBulkhead bulkhead : threadPoolBulkheadRegistry.getAllBulkheads()) {
+            bulkhead.close();
+        }
+    }
+
+    @Test
+    public void testVirtualModeAppliesToAnnotatedMethods() throws Exception {
+        Backend backend = proxy(Mode.VIRTUAL);
+
+        CompletableFuture<Boolean> first = backend.call();
+        assertThat(bulkheadRegistry.bulkhead("backend" + AsyncBulkheadRegistry.VIRTUAL_SUFFIX).getMetrics()
+                .getAvailableConcurrentCalls()).isZero();
+        CompletableFuture<Boolean> rejected = backend.call();
+        assertThatThrownBy(() -> rejected.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(BulkheadFullException.class);
+
+        release.countDown();
+        assertThat(first.get(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(bulkheadRegistry.bulkhead("backend" + AsyncBulkheadRegistry.VIRTUAL_SUFFIX).getMetrics()
+                .getAvailableConcurrentCalls()).isEqualTo(1);
+    }
+
+    @Test
+    public void testThreadPoolCallsAreTimed() throws Exception {
+        Backend backend = proxy(Mode.THREADPOOL);
+        release.countDown();
+
+        assertThat(backend.call().get(5, TimeUnit.SECONDS)).isFalse();
+        assertThat(timer("queue").count()).isEqualTo(1);
+        assertThat(timer("execution").count()).isEqualTo(1);
+    }
+
+    private Backend proxy(Mode mode) {
+        InstanceProperties instance = new InstanceProperties();
+        instance.setMode(mode);
+        instance.setMaxConcurrentCalls(1);
+        AsyncBulkheadProperties properties = new AsyncBulkheadProperties();
+        properties.setInstances(Map.of("backend", instance));
+        SaturationProperties saturationProperties = new SaturationProperties();
+        saturationProperties.setEnabled(true);
+        AsyncBulkheadRegistry asyncBulkheadRegistry = new AsyncBulkheadRegistry(threadPoolBulkheadRegistry,
+                bulkheadRegistry, virtualThreadExecutor, properties,
+                new SaturationTelemetry(saturationProperties, meterRegistry));
+
+        AspectJProxyFactory factory = new AspectJProxyFactory(new Backend(release));
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new AsyncBulkheadAspect(asyncBulkheadRegistry, 0));
+        return factory.getProxy();
+    }
+
+    private Timer timer(String stage) {
+        return meterRegistry.get("resilience.saturation." + stage)
+                .tag("name", "backend")
+                .tag("kind", Kind.THREADPOOL.name().toLowerCase())
+                .timer();
+    }
+
+    public static class Backend {
+
+        private final CountDownLatch release;
+
+        public Backend() {
+            this(null);
+        }
+
+        Backend(CountDownLatch release) {
+            this.release = release;
+        }
+
+        /**
+         * @return whether the call ran on a virtual thread
+         */
+        @AsyncBulkhead(name = "backend")
+        public CompletableFuture<Boolean> call() {
+            boolean virtual = Thread.currentThread().isVirtual();
+            try {
+                release.await();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return CompletableFuture.completedFuture(virtual);
+        }
+    }
+}
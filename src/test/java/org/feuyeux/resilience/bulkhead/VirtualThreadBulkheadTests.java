@@ -0,0 +1,93 @@
+package org.feuyeux.resilience.bulkhead;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Without a wait the permit is taken on the calling thread: a full bulkhead rejects before a virtual thread is started,
+ * and the permit comes back however the call ends.
+ */
+public class VirtualThreadBulkheadTests {
+
+    private final Bulkhead bulkhead = Bulkhead.of("backend", BulkheadConfig.custom()
+            .maxConcurrentCalls(2)
+            .maxWaitDuration(Duration.ZERO)
+            .build());
+    private final List<Runnable> started = new ArrayList<>();
+
+    @Test
+    public void testPermitsBoundConcurrentCalls() throws Exception {
+        VirtualThreadBulkhead virtualThreadBulkhead = new VirtualThreadBulkhead(bulkhead, virtualThreads(), null);
+        CountDownLatch release = new CountDownLatch(1);
+        List<CompletableFuture<String>> calls = new ArrayList<>();
+        for (int i = 0; i < 2; i++) {
+            calls.add(virtualThreadBulkhead.executeSupplier(() -> await(release)).toCompletableFuture());
+        }
+        assertThat(bulkhead.getMetrics().getAvailableConcurrentCalls()).isZero();
+        assertThatThrownBy(() -> virtualThreadBulkhead.executeSupplier(() -> "rejected"))
+                .isInstanceOf(BulkheadFullException.class);
+
+        release.countDown();
+        for (CompletableFuture<String> call : calls) {
+            assertThat(call.get(5, TimeUnit.SECONDS)).isEqualTo("released");
+        }
+        assertThat(bulkhead.getMetrics().getAvailableConcurrentCalls()).isEqualTo(2);
+        CompletableFuture<String> admitted = virtualThreadBulkhead.executeSupplier(() -> "admitted")
+                .toCompletableFuture();
+        assertThat(admitted.get(5, TimeUnit.SECONDS)).isEqualTo("admitted");
+    }
+
+    @Test
+    public void testRejectionStartsNoThread() {
+        VirtualThreadBulkhead virtualThreadBulkhead = new VirtualThreadBulkhead(bulkhead, started::add, null);
+        virtualThreadBulkhead.executeSupplier(() -> "first");
+        virtualThreadBulkhead.executeSupplier(() -> "second");
+
+        assertThatThrownBy(() -> virtualThreadBulkhead.executeSupplier(() -> "rejected"))
+                .isInstanceOf(BulkheadFullException.class);
+        assertThat(started).hasSize(2);
+    }
+
+    @Test
+    public void testPermitIsReleasedWhenTheCallFailsOrIsCancelled() {
+        VirtualThreadBulkhead virtualThreadBulkhead = new VirtualThreadBulkhead(bulkhead, started::add, null);
+        CompletableFuture<String> failed = virtualThreadBulkhead.<String>executeSupplier(() -> {
+            throw new IllegalStateException("BAM!");
+        }).toCompletableFuture();
+        CompletableFuture<String> cancelled = virtualThreadBulkhead.executeSupplier(() -> "cancelled")
+                .toCompletableFuture();
+        assertThat(bulkhead.getMetrics().getAvailableConcurrentCalls()).isZero();
+
+        cancelled.cancel(true);
+        started.forEach(Runnable::run);
+
+        assertThatThrownBy(failed::join).hasCauseInstanceOf(IllegalStateException.class);
+        assertThat(bulkhead.getMetrics().getAvailableConcurrentCalls()).isEqualTo(2);
+    }
+
+    private static Executor virtualThreads() {
+        return command -> Thread.ofVirtual().start(command);
+    }
+
+    private static String await(CountDownLatch release) {
+        try {
+            assertThat(release.await(5, TimeUnit.SECONDS)).isTrue();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        return "released";
+    }
+}
@@ -0,0 +1,108 @@
+package org.feuyeux.resilience.cache;
+
+import org.feuyeux.resilience.exception.BusinessException;
+import org.feuyeux.resilience.exception.RemoteServerErrorException;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * A fresh entry is served without calling through, an expired one is served only when the call fails with a
+ * stale-if-error exception, thrown or as a failed stage, and the size bound evicts.
+ */
+public class ResultCacheTests {
+
+    private static final Duration TTL = Duration.ofMillis(50);
+
+    private final ResultCache cache = new ResultCache("backend", TTL, Duration.ofMinutes(1), 100,
+            List.of(RemoteServerErrorException.class));
+    private final AtomicInteger calls = new AtomicInteger();
+
+    @Test
+    public void testFreshEntryIsAHitExpiredEntryIsAMiss() throws Throwable {
+        assertThat(cache.executeCheckedSupplier("a", this::call)).isEqualTo("a-1");
+        assertThat(cache.executeCheckedSupplier("a", this::call)).isEqualTo("a-1");
+        assertThat(cache.getHits()).isEqualTo(1);
+
+        expire();
+        assertThat(cache.executeCheckedSupplier("a", this::call)).isEqualTo("a-2");
+        assertThat(cache.getMisses()).isEqualTo(2);
+        assertThat(calls).hasValue(2);
+    }
+
+    @Test
+    public void testStaleValueIsServedWhenTheSupplierThrows() throws Throwable {
+        cache.executeCheckedSupplier("a", this::call);
+        expire();
+
+        assertThat(cache.<String>executeCheckedSupplier("a", () -> {
+            throw serverError();
+        })).isEqualTo("a-1");
+        CompletionStage<String> stage = cache.executeCompletionStage("a", () -> {
+            throw serverError();
+        });
+        assertThat(stage.toCompletableFuture().get(1, TimeUnit.SECONDS)).isEqualTo("a-1");
+        assertThat(cache.getStaleServed()).isEqualTo(2);
+    }
+
+    @Test
+    public void testStaleValueIsServedWhenTheStageFails() throws Exception {
+        cache.executeCompletionStage("a", () -> CompletableFuture.completedFuture(call()))
+                .toCompletableFuture().get(1, TimeUnit.SECONDS);
+        expire();
+
+        CompletionStage<String> stage = cache.executeCompletionStage("a",
+                () -> CompletableFuture.failedFuture(serverError()));
+        assertThat(stage.toCompletableFuture().get(1, TimeUnit.SECONDS)).isEqualTo("a-1");
+        assertThat(cache.getStaleServed()).isEqualTo(1);
+    }
+
+    @Test
+    public void testOtherFailuresAreNotMasked() throws Throwable {
+        cache.executeCheckedSupplier("a", this::call);
+        expire();
+
+        assertThatThrownBy(() -> cache.executeCheckedSupplier("a", () -> {
+            throw new BusinessException("rejected");
+        })).isInstanceOf(BusinessException.class);
+        CompletionStage<String> stage = cache.executeCompletionStage("a", () -> {
+            throw new BusinessException("rejected");
+        });
+        assertThatThrownBy(() -> stage.toCompletableFuture().join()).hasCauseInstanceOf(BusinessException.class);
+        assertThat(cache.getStaleServed()).isZero();
+    }
+
+    @Test
+    public void testSizeBoundEvicts() throws Throwable {
+        ResultCache small = new ResultCache("small", TTL, TTL, 10, List.of());
+        for (int i = 0; i < 100; i++) {
+            small.executeCheckedSupplier("k" + i, this::call);
+        }
+        small.cleanUp();
+
+        assertThat(small.size()).isLessThanOrEqualTo(10);
+        assertThat(small.getEvictions()).isGreaterThanOrEqualTo(90);
+        assertThat(small.getPuts()).isEqualTo(100);
+    }
+
+    private String call() {
+        return "a-" + calls.incrementAndGet();
+    }
+
+    private static RemoteServerErrorException serverError() {
+        return new RemoteServerErrorException(HttpStatus.SERVICE_UNAVAILABLE, "down");
+    }
+
+    private static void expire() throws InterruptedException {
+        TimeUnit.MILLISECONDS.sleep(TTL.toMillis() + 10);
+    }
+}
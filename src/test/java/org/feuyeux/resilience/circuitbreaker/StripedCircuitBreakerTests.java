@@ -0,0 +1,110 @@
+package org.feuyeux.resilience.circuitbreaker;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * The striped circuit breaker must make the same decisions as the resilience4j one on the same calls.
+ */
+public class StripedCircuitBreakerTests {
+
+    private static final CircuitBreakerConfig CONFIG = CircuitBreakerConfig.custom()
+            .slidingWindowSize(10)
+            .minimumNumberOfCalls(5)
+            .failureRateThreshold(50)
+            .slowCallRateThreshold(60)
+            .slowCallDurationThreshold(Duration.ofMillis(100))
+            .permittedNumberOfCallsInHalfOpenState(3)
+            .waitDurationInOpenState(Duration.ofMinutes(1))
+            .build();
+
+    @Test
+    public void testSameDecisionsAsResilience4j() {
+        CircuitBreaker reference = CircuitBreaker.of("reference", CONFIG);
+        CircuitBreaker striped = new StripedCircuitBreaker(CircuitBreaker.of("striped", CONFIG), 4);
+        Random random = new Random(7);
+        int opened = 0;
+        for (int i = 0; i < 5000; i++) {
+            if (reference.getState() == CircuitBreaker.State.OPEN) {
+                opened++;
+                reference.transitionToHalfOpenState();
+                striped.transitionToHalfOpenState();
+            }
+            assertThat(striped.tryAcquirePermission()).isEqualTo(reference.tryAcquirePermission());
+            long duration = random.nextInt(10) < 3 ? 150 : 10;
+            if (random.nextInt(10) < 3) {
+                IOException failure = new IOException("BAM!");
+                reference.onError(duration, TimeUnit.MILLISECONDS, failure);
+                striped.onError(duration, TimeUnit.MILLISECONDS, failure);
+            } else {
+                reference.onSuccess(duration, TimeUnit.MILLISECONDS);
+                striped.onSuccess(duration, TimeUnit.MILLISECONDS);
+            }
+            assertThat(striped.getState()).isEqualTo(reference.getState());
+            assertThat(striped.getMetrics().getNumberOfBufferedCalls())
+                    .isEqualTo(reference.getMetrics().getNumberOfBufferedCalls());
+            assertThat(striped.getMetrics().getFailureRate()).isEqualTo(reference.getMetrics().getFailureRate());
+            assertThat(striped.getMetrics().getSlowCallRate()).isEqualTo(reference.getMetrics().getSlowCallRate());
+        }
+        assertThat(opened).isPositive();
+    }
+
+    @Test
+    public void testConcurrentFailuresOpenOnce() throws InterruptedException {
+        StripedCircuitBreaker striped = new StripedCircuitBreaker(CircuitBreaker.of("concurrent", CONFIG), 8);
+        AtomicInteger transitions = new AtomicInteger();
+        AtomicInteger failureRateExceeded = new AtomicInteger();
+        striped.getEventPublisher()
+                .onStateTransition(event -> transitions.incrementAndGet())
+                .onFailureRateExceeded(event -> failureRateExceeded.incrementAndGet());
+        ExecutorService executor = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        for (int t = 0; t < 8; t++) {
+            executor.execute(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    return;
+                }
+                for (int i = 0; i < 1000; i++) {
+                    striped.onError(1, TimeUnit.MILLISECONDS, new IOException("BAM!"));
+                }
+            });
+        }
+        start.countDown();
+        executor.shutdown();
+        assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+        assertThat(striped.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(transitions).hasValue(1);
+        assertThat(failureRateExceeded).hasValue(1);
+        assertThat(striped.getMetrics().getNumberOfBufferedCalls()).isEqualTo(10);
+        assertThat(striped.getMetrics().getFailureRate()).isEqualTo(100f);
+    }
+
+    @Test
+    public void testStripesSplitTheWindowEvenly() {
+        // 10 calls split into two segments of 5, the other six stripes are dropped
+        StripedCircuitBreaker striped = new StripedCircuitBreaker(CircuitBreaker.of("segments", CONFIG), 8);
+        assertThat(striped.getStripes()).isEqualTo(2);
+        striped.changeSlidingWindowSize(7);
+        for (int i = 0; i < 7; i++) {
+            striped.onSuccess(1, TimeUnit.MILLISECONDS);
+        }
+        striped.onError(1, TimeUnit.MILLISECONDS, new IOException("BAM!"));
+        assertThat(striped.getStripes()).isEqualTo(1);
+        assertThat(striped.getMetrics().getNumberOfBufferedCalls()).isEqualTo(7);
+        assertThat(striped.getMetrics().getNumberOfFailedCalls()).isEqualTo(1);
+    }
+}
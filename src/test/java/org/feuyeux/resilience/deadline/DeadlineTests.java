@@ -0,0 +1,287 @@
+package org.feuyeux.resilience.deadline;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadConfig;
+import io.github.resilience4j.core.ContextAwareScheduledThreadPoolExecutor;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.spring6.fallback.FallbackDecorators;
+import io.github.resilience4j.spring6.fallback.FallbackExecutor;
+import io.github.resilience4j.spring6.spelresolver.SpelResolver;
+import io.github.resilience4j.spring6.timelimiter.configure.TimeLimiterAspect;
+import io.github.resilience4j.spring6.timelimiter.configure.TimeLimiterConfigurationProperties;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import io.github.resilience4j.timelimiter.TimeLimiterConfig;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.feuyeux.resilience.admission.AdmissionQueue;
+import org.feuyeux.resilience.admission.Priority;
+import org.feuyeux.resilience.bulkhead.ThreadPoolAsyncBulkhead;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.ServerWebInputException;
+import reactor.core.publisher.Mono;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * One deadline holds the whole chain: retries, queue waits and time limits share it, and the work is cancelled at it.
+ */
+public class DeadlineTests {
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private final DeadlineRegistry deadlineRegistry = new DeadlineRegistry(meterRegistry);
+    private final DeadlineGuard guard = deadlineRegistry.deadlineGuard("backend");
+
+    @Test
+    public void testRetryStopsWhenTheBudgetCannotCoverAnotherAttempt() {
+        Retry retry = Retry.of("backend", RetryConfig.custom()
+                .maxAttempts(3)
+                .waitDuration(Duration.ofMillis(10))
+                .retryExceptions(IllegalStateException.class)
+                .build());
+        AtomicInteger attempts = new AtomicInteger();
+        IllegalStateException failure = new IllegalStateException("BAM!");
+
+        assertThatThrownBy(() -> Retry.decorateSupplier(retry, guard.decorateRetryAttempt(Deadline.NONE, retry,
+                () -> slowFailure(attempts, failure))).get()).isSameAs(failure);
+        assertThat(attempts).hasValue(3);
+
+        attempts.set(0);
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> Retry.decorateSupplier(retry, guard.decorateRetryAttempt(
+                Deadline.after(Duration.ofMillis(300)), retry, () -> slowFailure(attempts, failure))).get())
+                .isInstanceOf(DeadlineExceededException.class)
+                .hasCause(failure);
+        // 200ms for the first attempt leaves too little for a second one
+        assertThat(attempts).hasValue(1);
+        assertThat(System.nanoTime() - start).isLessThan(TimeUnit.MILLISECONDS.toNanos(300));
+        assertThat(guard.getRejectedCalls()).isEqualTo(1);
+
+        attempts.set(0);
+        assertThatThrownBy(() -> Retry.decorateSupplier(retry, guard.decorateRetryAttempt(
+                Deadline.after(Duration.ZERO), retry, () -> slowFailure(attempts, failure))).get())
+                .isInstanceOf(DeadlineExceededException.class);
+        assertThat(attempts).hasValue(0);
+    }
+
+    @Test
+    public void testTimeLimiterCancelsRunningWorkAtTheDeadline() throws Exception {
+        ThreadPoolBulkhead pool = ThreadPoolBulkhead.of("backend", ThreadPoolBulkheadConfig.custom()
+                .coreThreadPoolSize(1)
+                .maxThreadPoolSize(1)
+                .build());
+        ThreadPoolAsyncBulkhead bulkhead = new ThreadPoolAsyncBulkhead(pool, null);
+        TimeLimiter timeLimiter = TimeLimiter.of("backend", TimeLimiterConfig.custom()
+                .timeoutDuration(Duration.ofSeconds(2))
+                .cancelRunningFuture(false)
+                .build());
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+        try {
+            CountDownLatch started = new CountDownLatch(1);
+            AtomicBoolean interrupted = new AtomicBoolean();
+            long start = System.nanoTime();
+            CompletableFuture<String> call = guard.<String>decorateTimeLimiter(Deadline.after(Duration.ofMillis(200)),
+                    timeLimiter, scheduler, () -> bulkhead.executeSupplier(() -> {
+                        started.countDown();
+                        try {
+                            Thread.sleep(10_000);
+                        } catch (InterruptedException e) {
+                            interrupted.set(true);
+                        }
+                        return "late";
+                    })).get().toCompletableFuture();
+
+            assertThat(call).failsWithin(Duration.ofSeconds(1))
+                    .withThrowableThat()
+                    .withCauseInstanceOf(DeadlineExceededException.class);
+            assertThat(System.nanoTime() - start).isLessThan(TimeUnit.SECONDS.toNanos(1));
+            assertThat(started.await(1, TimeUnit.SECONDS)).isTrue();
+            awaitUntil(interrupted::get);
+            // counted by the timer right after it failed the call
+            awaitUntil(() -> guard.getCancelledCalls() == 1);
+            // the time limiter would have waited for 2s
+            assertThat(guard.getAvoidedNanos()).isGreaterThan(TimeUnit.MILLISECONDS.toNanos(1500));
+            assertThat(meterRegistry.get("resilience.deadline.avoided").functionCounter().count())
+                    .isGreaterThan(1.5);
+
+            // the pool thread is not left interrupted for the next call
+            assertThat(bulkhead.executeSupplier(() -> Thread.currentThread().isInterrupted()).toCompletableFuture()
+                    .get(1, TimeUnit.SECONDS)).isFalse();
+
+            // with budget to spare, the time limiter alone applies
+            assertThat(guard.<String>decorateTimeLimiter(Deadline.after(Duration.ofSeconds(5)), timeLimiter, scheduler,
+                    () -> bulkhead.executeSupplier(() -> "ok")).get().toCompletableFuture().get(1, TimeUnit.SECONDS))
+                    .isEqualTo("ok");
+        } finally {
+            scheduler.shutdownNow();
+            pool.close();
+        }
+    }
+
+    @Test
+    public void testAnnotatedTimeLimiterEndsAtTheBoundDeadline() throws Exception {
+        ContextAwareScheduledThreadPoolExecutor scheduler = ContextAwareScheduledThreadPoolExecutor
+                .newScheduledThreadPool()
+                .corePoolSize(1)
+                .contextPropagators(new DeadlineContextPropagator())
+                .build();
+        try {
+            Backend backend = proxy(scheduler);
+            long start = System.nanoTime();
+            CompletableFuture<String> call = Deadline.after(Duration.ofMillis(200)).bind(backend::call);
+
+            assertThat(call).failsWithin(Duration.ofSeconds(1))
+                    .withThrowableThat()
+                    .withCauseInstanceOf(DeadlineExceededException.class);
+            assertThat(System.nanoTime() - start).isLessThan(TimeUnit.SECONDS.toNanos(1));
+            awaitUntil(() -> guard.getCancelledCalls() == 1);
+            assertThat(Deadline.current()).isSameAs(Deadline.NONE);
+
+            // the scheduler carries the deadline to the tasks submitted under it, and only to them
+            Deadline deadline = Deadline.after(Duration.ofSeconds(5));
+            assertThat(deadline.bind(() -> scheduler.schedule(Deadline::current, 0, TimeUnit.MILLISECONDS))
+                    .get(1, TimeUnit.SECONDS)).isSameAs(deadline);
+            assertThat(scheduler.schedule(Deadline::current, 0, TimeUnit.MILLISECONDS).get(1, TimeUnit.SECONDS))
+                    .isSameAs(Deadline.NONE);
+        } finally {
+            scheduler.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testAdmissionQueueWaitEndsAtTheDeadline() {
+        Bulkhead delegate = Bulkhead.of("backend", BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        AdmissionQueue queue = new AdmissionQueue(delegate, 10, Duration.ofSeconds(5), Duration.ofSeconds(5),
+                (priority, sojournNanos) -> {
+                });
+        delegate.acquirePermission();
+
+        long start = System.nanoTime();
+        assertThatThrownBy(() -> queue.bulkhead(Priority.CRITICAL, Deadline.after(Duration.ofMillis(100)))
+                .acquirePermission())
+                .isInstanceOf(DeadlineExceededException.class);
+        long waited = System.nanoTime() - start;
+        assertThat(waited).isBetween(TimeUnit.MILLISECONDS.toNanos(90), TimeUnit.SECONDS.toNanos(1));
+        assertThat(queue.getRejectedCalls(Priority.CRITICAL, AdmissionQueue.Rejection.DEADLINE)).isEqualTo(1);
+        assertThat(queue.getQueueDepth(Priority.CRITICAL)).isZero();
+    }
+
+    @Test
+    public void testReactiveDeadlineComesFromTheContextAndCancelsTheSubscription() {
+        TimeLimiter timeLimiter = TimeLimiter.of(Duration.ofSeconds(2));
+        AtomicBoolean cancelled = new AtomicBoolean();
+        Mono<String> call = Mono.<String>never()
+                .doOnCancel(() -> cancelled.set(true))
+                .transformDeferred(guard.timeLimiterOperator(timeLimiter));
+
+        assertThatThrownBy(() -> call.contextWrite(context -> context.put(Deadline.class,
+                        Deadline.after(Duration.ofMillis(100))))
+                .block(Duration.ofSeconds(1)))
+                .isInstanceOf(DeadlineExceededException.class);
+        assertThat(cancelled).isTrue();
+        assertThat(guard.getCancelledCalls()).isEqualTo(1);
+
+        // without a deadline in the context, the time limiter applies
+        assertThat(Mono.just("ok").transformDeferred(guard.timeLimiterOperator(timeLimiter)).block())
+                .isEqualTo("ok");
+    }
+
+    @Test
+    public void testDeadlineFromHeaderOrRoute() {
+        DeadlineProperties properties = new DeadlineProperties();
+        properties.setMaxTimeout(Duration.ofSeconds(10));
+        DeadlineProperties.InstanceProperties future = new DeadlineProperties.InstanceProperties();
+        future.setTimeout(Duration.ofSeconds(5));
+        DeadlineProperties.InstanceProperties futureTimeout = new DeadlineProperties.InstanceProperties();
+        futureTimeout.setTimeout(Duration.ofSeconds(1));
+        properties.setInstances(Map.of("/backendB/future*", future, "/backendB/futureTimeout", futureTimeout));
+        DeadlineWebFilter filter = new DeadlineWebFilter(properties);
+
+        assertThat(remaining(filter, MockServerHttpRequest.get("/backendB/futureTimeout")))
+                .isBetween(Duration.ofMillis(900), Duration.ofSeconds(1));
+        assertThat(remaining(filter, MockServerHttpRequest.get("/backendB/futureSuccess")))
+                .isBetween(Duration.ofMillis(4900), Duration.ofSeconds(5));
+        assertThat(remaining(filter, MockServerHttpRequest.get("/backendB/futureSuccess")
+                .header(Deadline.HEADER, "250")))
+                .isBetween(Duration.ofMillis(150), Duration.ofMillis(250));
+        assertThat(remaining(filter, MockServerHttpRequest.get("/backendB/success").header(Deadline.HEADER, "1m")))
+                .isBetween(Duration.ofMillis(9900), Duration.ofSeconds(10));
+        assertThat(remaining(filter, MockServerHttpRequest.get("/backendB/success"))).isNull();
+        assertThatThrownBy(() -> remaining(filter, MockServerHttpRequest.get("/backendB/success")
+                .header(Deadline.HEADER, "soon")))
+                .isInstanceOf(ServerWebInputException.class);
+    }
+
+    private Duration remaining(DeadlineWebFilter filter, MockServerHttpRequest.BaseBuilder<?> request) {
+        MockServerWebExchange exchange = MockServerWebExchange.from(request);
+        AtomicReference<Deadline> fromContext = new AtomicReference<>();
+        filter.filter(exchange, ex -> Mono.deferContextual(context -> {
+            fromContext.set(context.getOrDefault(Deadline.class, null));
+            return Mono.<Void>empty();
+        })).block();
+        Deadline deadline = exchange.getAttribute(Deadline.ATTRIBUTE);
+        assertThat(fromContext.get()).isSameAs(deadline);
+        return deadline == null ? null : deadline.remaining();
+    }
+
+    private Backend proxy(ContextAwareScheduledThreadPoolExecutor scheduler) {
+        SpelResolver spelResolver = (method, arguments, expression) -> expression;
+        TimeLimiterAspect timeLimiterAspect = new TimeLimiterAspect(
+                TimeLimiterRegistry.of(TimeLimiterConfig.custom().timeoutDuration(Duration.ofSeconds(2)).build()),
+                new TimeLimiterConfigurationProperties(),
+                List.of(new DeadlineTimeLimiterAspectExt(deadlineRegistry, scheduler)),
+                new FallbackExecutor(spelResolver, new FallbackDecorators(List.of())), spelResolver, scheduler);
+        AspectJProxyFactory factory = new AspectJProxyFactory(new Backend());
+        factory.setProxyTargetClass(true);
+        factory.addAspect(timeLimiterAspect);
+        return factory.getProxy();
+    }
+
+    private static String slowFailure(AtomicInteger attempts, RuntimeException failure) {
+        attempts.incrementAndGet();
+        try {
+            Thread.sleep(200);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        throw failure;
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            TimeUnit.MILLISECONDS.sleep(1);
+        }
+    }
+
+    public static class Backend {
+
+        @io.github.resilience4j.timelimiter.annotation.TimeLimiter(name = "backend")
+        public CompletableFuture<String> call() {
+            return new CompletableFuture<>();
+        }
+    }
+}
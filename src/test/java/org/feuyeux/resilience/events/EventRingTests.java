@@ -0,0 +1,145 @@
+package org.feuyeux.resilience.events;
+
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.github.resilience4j.retry.RetryRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.codec.ServerSentEvent;
+import reactor.core.scheduler.Scheduler;
+import reactor.core.scheduler.Schedulers;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+public class EventRingTests {
+
+    @Test
+    public void testConcurrentWritersNeverTearAnEvent() throws InterruptedException {
+        writeConcurrently(new EventRing(1024));
+    }
+
+    @Test
+    public void testWritersLappingTheRingNeverTearAnEvent() throws InterruptedException {
+        // writers a whole ring apart land on the same slot all the time
+        writeConcurrently(new EventRing(2));
+    }
+
+    private static void writeConcurrently(EventRing eventRing) throws InterruptedException {
+        int writers = 4;
+        int events = 100_000;
+        CountDownLatch done = new CountDownLatch(writers);
+        try (ExecutorService executor = Executors.newFixedThreadPool(writers)) {
+            for (int w = 0; w < writers; w++) {
+                short name = eventRing.intern("writer" + w);
+                executor.execute(() -> {
+                    for (int i = 0; i < events; i++) {
+                        // the value names its writer, so a torn event does not match its name
+                        eventRing.record(Component.RETRY, 0, name, (long) name << 32 | i, (short) -1);
+                    }
+                    done.countDown();
+                });
+            }
+            long read = 0;
+            while (done.getCount() > 0 || read < eventRing.head()) {
+                ResilienceEvent event = eventRing.read(read);
+                if (event != null) {
+                    assertThat(event.name()).isEqualTo("writer" + eventRing.intern(event.name()));
+                    assertThat(event.value() >>> 32).isEqualTo(eventRing.intern(event.name()));
+                    read++;
+                } else if (read < eventRing.head() - eventRing.capacity()) {
+                    read = eventRing.head() - eventRing.capacity();
+                }
+            }
+        }
+        assertThat(eventRing.head()).isEqualTo((long) writers * events);
+        assertThat(eventRing.read(0)).isNull();
+        assertThat(eventRing.read(eventRing.head() - 1)).isNotNull();
+    }
+
+    @Test
+    public void testRecordsCircuitBreakerEvents() {
+        EventRing eventRing = new EventRing(16);
+        CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.ofDefaults();
+        new EventRingRecorder(eventRing, List.of("backend"), circuitBreakerRegistry, RetryRegistry.ofDefaults(),
+                BulkheadRegistry.ofDefaults(), ThreadPoolBulkheadRegistry.ofDefaults(),
+                RateLimiterRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults())
+                .afterSingletonsInstantiated();
+        CircuitBreaker circuitBreaker = circuitBreakerRegistry.circuitBreaker("backend");
+        circuitBreaker.executeSupplier(() -> "OK");
+        assertThatThrownBy(() -> circuitBreaker.executeCheckedSupplier(() -> {
+            throw new IOException("BAM!");
+        })).isInstanceOf(IOException.class);
+        circuitBreaker.transitionToOpenState();
+        // unnamed instances are not recorded
+        circuitBreakerRegistry.circuitBreaker("other").executeSupplier(() -> "OK");
+
+        assertThat(eventRing.head()).isEqualTo(3);
+        assertThat(eventRing.read(0).type()).isEqualTo("SUCCESS");
+        assertThat(eventRing.read(1).type()).isEqualTo("ERROR");
+        assertThat(eventRing.read(1).detail()).isEqualTo(IOException.class.getName());
+        assertThat(eventRing.read(2).type()).isEqualTo("STATE_TRANSITION");
+        assertThat(eventRing.read(2).detail()).isEqualTo("CLOSED_TO_OPEN");
+        assertThat(eventRing.read(2).component()).isEqualTo(Component.CIRCUIT_BREAKER);
+        assertThat(eventRing.read(2).name()).isEqualTo("backend");
+    }
+
+    @Test
+    public void testRecordsThreadPoolBulkheadEventsOfReplacements() {
+        EventRing eventRing = new EventRing(16);
+        ThreadPoolBulkheadRegistry threadPoolBulkheadRegistry = ThreadPoolBulkheadRegistry.ofDefaults();
+        new EventRingRecorder(eventRing, List.of("backend"), CircuitBreakerRegistry.ofDefaults(),
+                RetryRegistry.ofDefaults(), BulkheadRegistry.ofDefaults(), threadPoolBulkheadRegistry,
+                RateLimiterRegistry.ofDefaults(), TimeLimiterRegistry.ofDefaults())
+                .afterSingletonsInstantiated();
+        threadPoolBulkheadRegistry.bulkhead("backend").executeSupplier(() -> "OK").toCompletableFuture().join();
+        ThreadPoolBulkhead replacement = ThreadPoolBulkhead.ofDefaults("backend");
+        threadPoolBulkheadRegistry.replace("backend", replacement);
+        replacement.executeSupplier(() -> "OK").toCompletableFuture().join();
+
+        assertThat(eventRing.head()).isEqualTo(4);
+        for (int i = 0; i < 4; i++) {
+            assertThat(eventRing.read(i).component()).isEqualTo(Component.THREAD_POOL_BULKHEAD);
+            assertThat(eventRing.read(i).type()).isEqualTo(i % 2 == 0 ? "CALL_PERMITTED" : "CALL_FINISHED");
+        }
+    }
+
+    @Test
+    public void testSlowSubscriberIsToldWhatItMissed() {
+        EventRing eventRing = new EventRing(8);
+        short name = eventRing.intern("backend");
+        Scheduler scheduler = Schedulers.newSingle("event-stream-test", true);
+        try {
+            EventStream eventStream = new EventStream(eventRing, Duration.ofMillis(10), scheduler);
+            for (int i = 0; i < 4; i++) {
+                eventRing.record(Component.BULKHEAD, 0, name, i, (short) -1);
+            }
+            List<ServerSentEvent<Object>> first = eventStream.stream(0).take(4).collectList().block(Duration.ofSeconds(5));
+            assertThat(first).extracting(ServerSentEvent::id).containsExactly("0", "1", "2", "3");
+
+            // the subscriber reconnects after the ring went around twice
+            for (int i = 4; i < 20; i++) {
+                eventRing.record(Component.BULKHEAD, 0, name, i, (short) -1);
+            }
+            List<ServerSentEvent<Object>> resumed = eventStream.stream(4).take(9).collectList()
+                    .block(Duration.ofSeconds(5));
+            assertThat(resumed.get(0).event()).isEqualTo("dropped");
+            assertThat(resumed.get(0).data()).isEqualTo(8L);
+            assertThat(resumed.subList(1, 9)).extracting(ServerSentEvent::id)
+                    .containsExactly("12", "13", "14", "15", "16", "17", "18", "19");
+        } finally {
+            scheduler.dispose();
+        }
+    }
+}
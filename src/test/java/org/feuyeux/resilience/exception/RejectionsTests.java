@@ -0,0 +1,86 @@
+package org.feuyeux.resilience.exception;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.github.resilience4j.ratelimiter.RequestNotPermitted;
+import org.feuyeux.resilience.deadline.Deadline;
+import org.feuyeux.resilience.pipeline.Pipeline;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.catchThrowable;
+
+/**
+ * Rejections are shared and carry no stack trace once the config turns stack traces off, and are created per call
+ * otherwise.
+ */
+public class RejectionsTests {
+
+    @Test
+    public void testStacklessRejectionsAreShared() {
+        CircuitBreaker circuitBreaker = CircuitBreaker.of("backend", CircuitBreakerConfig.custom()
+                .writableStackTraceEnabled(false)
+                .build());
+        Supplier<CallNotPermittedException> callNotPermitted = Rejections.callNotPermitted(circuitBreaker);
+        circuitBreaker.transitionToOpenState();
+        CallNotPermittedException open = callNotPermitted.get();
+        circuitBreaker.transitionToForcedOpenState();
+        CallNotPermittedException forcedOpen = callNotPermitted.get();
+
+        assertThat(open.getStackTrace()).isEmpty();
+        assertThat(open.getMessage()).contains("OPEN");
+        assertThat(forcedOpen).isNotSameAs(open).isSameAs(callNotPermitted.get());
+        assertThat(forcedOpen.getMessage()).contains("FORCED_OPEN");
+
+        Supplier<BulkheadFullException> bulkheadFull = Rejections.bulkheadFull(Bulkhead.of("backend",
+                BulkheadConfig.custom().writableStackTraceEnabled(false).build()));
+        assertThat(bulkheadFull.get()).isSameAs(bulkheadFull.get());
+        assertThat(bulkheadFull.get().getStackTrace()).isEmpty();
+    }
+
+    @Test
+    public void testWritableRejectionsArePerCall() {
+        Supplier<RequestNotPermitted> requestNotPermitted = Rejections.requestNotPermitted(RateLimiter.of("backend",
+                RateLimiterConfig.custom().writableStackTraceEnabled(true).build()));
+        RequestNotPermitted first = requestNotPermitted.get();
+
+        assertThat(first).isNotSameAs(requestNotPermitted.get());
+        assertThat(first.getStackTrace()).isNotEmpty();
+    }
+
+    @Test
+    public void testPipelineRejectsWithSharedException() {
+        RateLimiter rateLimiter = RateLimiter.of("backend", RateLimiterConfig.custom()
+                .limitForPeriod(1)
+                .limitRefreshPeriod(Duration.ofHours(1))
+                .timeoutDuration(Duration.ZERO)
+                .writableStackTraceEnabled(false)
+                .build());
+        Pipeline pipeline = Pipeline.builder().withRateLimiter(rateLimiter).build();
+
+        assertThat(pipeline.execute(Deadline.NONE, () -> "OK")).isEqualTo("OK");
+        Throwable first = catchThrowable(() -> pipeline.execute(Deadline.NONE, () -> "OK"));
+        Throwable second = catchThrowable(() -> pipeline.execute(Deadline.NONE, () -> "OK"));
+        assertThat(first).isInstanceOf(RequestNotPermitted.class).isSameAs(second);
+        assertThat(rateLimiter.getMetrics().getAvailablePermissions()).isZero();
+    }
+
+    @Test
+    public void testRemoteServerErrorIsStackless() {
+        RemoteServerErrorException exception = new RemoteServerErrorException(HttpStatus.INTERNAL_SERVER_ERROR,
+                "This is a remote exception");
+
+        assertThat(exception.getStackTrace()).isEmpty();
+        assertThat(exception.getStatusCode()).isEqualTo(HttpStatus.INTERNAL_SERVER_ERROR);
+    }
+}
@@ -0,0 +1,125 @@
+package org.feuyeux.resilience.hedge;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadRegistry;
+import io.github.resilience4j.bulkhead.annotation.Bulkhead;
+import io.github.resilience4j.spring6.bulkhead.configure.BulkheadAspect;
+import io.github.resilience4j.spring6.bulkhead.configure.BulkheadConfigurationProperties;
+import io.github.resilience4j.spring6.fallback.FallbackDecorators;
+import io.github.resilience4j.spring6.fallback.FallbackExecutor;
+import io.github.resilience4j.spring6.spelresolver.SpelResolver;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.feuyeux.resilience.hedge.annotation.Hedge;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+import org.springframework.core.OrderComparator;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.IntSupplier;
+import java.util.stream.Stream;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A bulkhead of one permit in front of a hedged method: the hedged attempt runs on the permit of the call instead of
+ * being rejected, and the slow first attempt is interrupted once the hedge wins.
+ */
+public class HedgeAspectTests {
+
+    private final ExecutorService virtualThreadExecutor = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final BulkheadConfigurationProperties bulkheadProperties = new BulkheadConfigurationProperties();
+    private final BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+            .maxConcurrentCalls(1)
+            .maxWaitDuration(Duration.ZERO)
+            .build());
+    private final HedgeRegistry hedgeRegistry = new HedgeRegistry(hedgeProperties(), new SimpleMeterRegistry());
+    private final Backend target = new Backend(
+            () -> bulkheadRegistry.bulkhead("backend").getMetrics().getAvailableConcurrentCalls());
+
+    @AfterEach
+    public void tearDown() {
+        virtualThreadExecutor.shutdownNow();
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void testHedgedAttemptsShareTheBulkheadPermit() throws Exception {
+        Backend backend = proxy();
+
+        assertThat(backend.call().get(5, TimeUnit.SECONDS)).isEqualTo("hedged");
+        assertThat(target.attempts).hasValue(2);
+        assertThat(target.availableToHedge).isZero();
+        assertThat(hedgeRegistry.hedge("backend").getIssuedHedges()).isEqualTo(1);
+        assertThat(target.loserInterrupted.await(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(bulkheadRegistry.bulkhead("backend").getMetrics().getAvailableConcurrentCalls()).isEqualTo(1);
+    }
+
+    private Backend proxy() {
+        SpelResolver spelResolver = (method, arguments, expression) -> expression;
+        BulkheadAspect bulkheadAspect = new BulkheadAspect(bulkheadProperties, ThreadPoolBulkheadRegistry.ofDefaults(),
+                bulkheadRegistry, List.of(), new FallbackExecutor(spelResolver, new FallbackDecorators(List.of())),
+                spelResolver);
+        HedgeAspect hedgeAspect = new HedgeAspect(hedgeRegistry, virtualThreadExecutor, scheduler,
+                bulkheadProperties.getBulkheadAspectOrder());
+        assertThat(hedgeAspect.getOrder()).isGreaterThan(bulkheadAspect.getOrder());
+
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        // the factory keeps the aspects in the order they are added, as the application context sorts them
+        Stream.of(hedgeAspect, bulkheadAspect).sorted(OrderComparator.INSTANCE).forEach(factory::addAspect);
+        return factory.getProxy();
+    }
+
+    private static HedgeProperties hedgeProperties() {
+        HedgeProperties.InstanceProperties instance = new HedgeProperties.InstanceProperties();
+        instance.setDelay(Duration.ofMillis(50));
+        instance.setPercentile(0);
+        instance.setMaxHedgeRatio(1);
+        HedgeProperties properties = new HedgeProperties();
+        properties.getInstances().put("backend", instance);
+        return properties;
+    }
+
+    public static class Backend {
+
+        private final IntSupplier availablePermits;
+        private final AtomicInteger attempts = new AtomicInteger();
+        private final CountDownLatch loserInterrupted = new CountDownLatch(1);
+        private volatile int availableToHedge = -1;
+
+        public Backend() {
+            this(() -> -1);
+        }
+
+        Backend(IntSupplier availablePermits) {
+            this.availablePermits = availablePermits;
+        }
+
+        @Bulkhead(name = "backend")
+        @Hedge(name = "backend")
+        public CompletableFuture<String> call() {
+            if (attempts.incrementAndGet() == 1) {
+                try {
+                    TimeUnit.SECONDS.sleep(10);
+                } catch (InterruptedException e) {
+                    loserInterrupted.countDown();
+                    return CompletableFuture.failedFuture(e);
+                }
+                return CompletableFuture.completedFuture("first");
+            }
+            availableToHedge = availablePermits.getAsInt();
+            return CompletableFuture.completedFuture("hedged");
+        }
+    }
+}
@@ -0,0 +1,119 @@
+package org.feuyeux.resilience.hedge;
+
+import lombok.extern.slf4j.Slf4j;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.*;
+import java.util.function.Function;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * A stub backend answers in 10-30ms, except for one call in twenty that takes two seconds. Hedging after 100ms turns
+ * that tail into roughly the delay plus a fast call.
+ */
+@Slf4j
+public class HedgeTests {
+
+    private static final int CALLS = 400;
+    private static final long SLOW_MILLIS = 2000;
+    private final ExecutorService backend = Executors.newVirtualThreadPerTaskExecutor();
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final Random random = new Random(42);
+
+    @AfterEach
+    public void tearDown() {
+        backend.shutdownNow();
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void testHedgingCutsTheTail() throws Exception {
+        List<CompletableFuture<String>> attempts = new CopyOnWriteArrayList<>();
+        Supplier<CompletionStage<String>> longTail = () -> {
+            CompletableFuture<String> attempt = longTailCall();
+            attempts.add(attempt);
+            return attempt;
+        };
+        long unhedgedP99 = p99(call -> longTail.get().toCompletableFuture());
+
+        Hedge hedge = new Hedge("longTail", Duration.ofMillis(100), 0, 1000, 100, 0.1, 10);
+        attempts.clear();
+        long hedgedP99 = p99(call -> hedge.executeCompletionStage(longTail, scheduler).toCompletableFuture());
+        log.info("p99 unhedged:{}ms hedged:{}ms issued:{} won:{} denied:{}", unhedgedP99, hedgedP99,
+                hedge.getIssuedHedges(), hedge.getWonHedges(), hedge.getDeniedHedges());
+
+        assertThat(unhedgedP99).isGreaterThanOrEqualTo(SLOW_MILLIS);
+        assertThat(hedgedP99).isLessThan(SLOW_MILLIS / 2);
+        assertThat(hedge.getWonHedges()).isPositive().isLessThanOrEqualTo(hedge.getIssuedHedges());
+        assertThat(hedge.getIssuedHedges()).isLessThanOrEqualTo((long) (CALLS * 0.1) + 10);
+        // every slow attempt lost and was cancelled instead of running to the end
+        assertThat(attempts).filteredOn(attempt -> !attempt.isCancelled())
+                .allSatisfy(attempt -> assertThat(attempt).isCompleted());
+    }
+
+    @Test
+    public void testBudgetCapsHedges() {
+        Hedge hedge = new Hedge("noBudget", Duration.ofMillis(10), 0, 1000, 100, 0, 0);
+        String result = hedge.executeCompletionStage(() -> delayed("primary", 100), scheduler)
+                .toCompletableFuture().join();
+        assertThat(result).isEqualTo("primary");
+        assertThat(hedge.getIssuedHedges()).isZero();
+        assertThat(hedge.getDeniedHedges()).isEqualTo(1);
+    }
+
+    @Test
+    public void testFailedAttemptIsNotHedged() {
+        Hedge hedge = new Hedge("failure", Duration.ofMillis(50), 0, 1000, 100, 1, 10);
+        CompletableFuture<String> result = hedge.<String>executeCompletionStage(
+                () -> CompletableFuture.failedFuture(new IOException("BAM!")), scheduler).toCompletableFuture();
+        assertThatThrownBy(result::join).hasCauseInstanceOf(IOException.class);
+        assertThat(hedge.getIssuedHedges()).isZero();
+    }
+
+    @Test
+    public void testDelayFollowsPercentile() {
+        Hedge hedge = new Hedge("percentile", Duration.ofSeconds(1), 0.95, 100, 20, 0, 0);
+        for (int i = 0; i < 100; i++) {
+            hedge.executeCompletionStage(() -> delayed("fast", 5), scheduler).toCompletableFuture().join();
+        }
+        assertThat(Duration.ofNanos(hedge.getDelayNanos())).isLessThan(Duration.ofMillis(100));
+    }
+
+    private long p99(Function<Integer, CompletableFuture<String>> call) throws Exception {
+        List<CompletableFuture<Long>> latencies = new ArrayList<>();
+        for (int i = 0; i < CALLS; i++) {
+            long start = System.nanoTime();
+            latencies.add(call.apply(i).thenApply(result -> TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - start)));
+            // an open-loop arrival rate, so the budget refills between the slow calls
+            TimeUnit.MILLISECONDS.sleep(2);
+        }
+        CompletableFuture.allOf(latencies.toArray(CompletableFuture[]::new)).get(30, TimeUnit.SECONDS);
+        return latencies.stream().map(CompletableFuture::join).sorted()
+                .skip((long) Math.ceil(CALLS * 0.99) - 1).findFirst().orElseThrow();
+    }
+
+    private CompletableFuture<String> longTailCall() {
+        long latency = random.nextInt(20) == 0 ? SLOW_MILLIS : 10 + random.nextInt(20);
+        return delayed("latency " + latency, latency);
+    }
+
+    private CompletableFuture<String> delayed(String result, long millis) {
+        return CompletableFuture.supplyAsync(() -> {
+            try {
+                TimeUnit.MILLISECONDS.sleep(millis);
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+            return result;
+        }, backend);
+    }
+}
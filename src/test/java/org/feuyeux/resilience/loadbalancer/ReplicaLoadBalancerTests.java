@@ -0,0 +1,194 @@
+package org.feuyeux.resilience.loadbalancer;
+
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import lombok.extern.slf4j.Slf4j;
+import org.feuyeux.resilience.retry.RetryBudget;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Simulated replicas on a simulated clock: a call moves the clock by its latency, so many calls take no real time.
+ */
+@Slf4j
+public class ReplicaLoadBalancerTests {
+
+    private static final int CALLS = 20_000;
+
+    private final AtomicLong clock = new AtomicLong();
+    private final Random random = new Random(11);
+
+    @Test
+    public void testDegradedReplicaImprovesP99AndErrorRate() {
+        List<SimulatedReplica> replicas = List.of(
+                new SimulatedReplica(5, 15, 0.001),
+                new SimulatedReplica(5, 15, 0.001),
+                new SimulatedReplica(200, 400, 0.3));
+
+        long[] baseline = new long[CALLS];
+        int baselineErrors = 0;
+        for (int i = 0; i < CALLS; i++) {
+            long start = clock.get();
+            try {
+                replicas.get(random.nextInt(replicas.size())).call();
+            } catch (UncheckedIOException e) {
+                baselineErrors++;
+            }
+            baseline[i] = clock.get() - start;
+        }
+
+        ReplicaLoadBalancer<SimulatedReplica> loadBalancer = loadBalancer(replicas);
+        long[] balanced = new long[CALLS];
+        int balancedErrors = 0;
+        for (int i = 0; i < CALLS; i++) {
+            long start = clock.get();
+            try {
+                loadBalancer.execute(SimulatedReplica::call);
+            } catch (UncheckedIOException e) {
+                balancedErrors++;
+            }
+            balanced[i] = clock.get() - start;
+        }
+
+        long baselineP99 = p99(baseline);
+        long balancedP99 = p99(balanced);
+        log.info("p99 {}ms -> {}ms, error rate {}% -> {}%",
+                TimeUnit.NANOSECONDS.toMillis(baselineP99), TimeUnit.NANOSECONDS.toMillis(balancedP99),
+                baselineErrors * 100.0 / CALLS, balancedErrors * 100.0 / CALLS);
+        assertThat(baselineP99).isGreaterThan(TimeUnit.MILLISECONDS.toNanos(200));
+        assertThat(balancedP99).isLessThan(TimeUnit.MILLISECONDS.toNanos(30));
+        assertThat(baselineErrors).isGreaterThan(CALLS / 20);
+        assertThat(balancedErrors).isLessThan(CALLS / 1000);
+    }
+
+    @Test
+    public void testBackendCircuitBreakerOpensOnlyWhenAllReplicasAreEjected() {
+        List<SimulatedReplica> replicas = List.of(
+                new SimulatedReplica(5, 15, 0),
+                new SimulatedReplica(5, 15, 0),
+                new SimulatedReplica(1, 1, 1));
+        ReplicaLoadBalancer<SimulatedReplica> loadBalancer = loadBalancer(replicas);
+        CircuitBreaker circuitBreaker = CircuitBreaker.of("backend", CircuitBreakerConfig.custom()
+                .slidingWindowSize(10)
+                .minimumNumberOfCalls(5)
+                .build());
+        Supplier<String> decorated = CircuitBreaker.decorateSupplier(circuitBreaker,
+                () -> loadBalancer.execute(SimulatedReplica::call));
+        for (int i = 0; i < 1000; i++) {
+            assertThat(decorated.get()).isEqualTo("ok");
+        }
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        replicas.forEach(replica -> replica.errorRate = 1);
+        for (int i = 0; i < 5; i++) {
+            assertThatThrownBy(decorated::get).isInstanceOf(UncheckedIOException.class);
+        }
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThatThrownBy(() -> {
+            for (int i = 0; i < 20; i++) {
+                try {
+                    loadBalancer.execute(SimulatedReplica::call);
+                } catch (UncheckedIOException e) {
+                    // until every replica is ejected
+                }
+            }
+        }).isInstanceOf(NoHealthyReplicaException.class);
+        assertThat(loadBalancer.getHealthyReplicas()).isZero();
+    }
+
+    @Test
+    public void testAsyncCallsFailOverAndPassAnswersOn() {
+        List<SimulatedReplica> replicas = List.of(new SimulatedReplica(5, 15, 1), new SimulatedReplica(5, 15, 0));
+        ReplicaLoadBalancer<SimulatedReplica> loadBalancer = loadBalancer(replicas);
+        for (int i = 0; i < 100; i++) {
+            assertThat(loadBalancer.executeAsync(SimulatedReplica::callAsync).join()).isEqualTo("ok");
+        }
+
+        ReplicaLoadBalancer<SimulatedReplica> answering = loadBalancer(replicas);
+        IllegalStateException answer = new IllegalStateException("not an outlier");
+        for (int i = 0; i < 10; i++) {
+            assertThat(answering.executeAsync(replica -> CompletableFuture.failedFuture(answer)))
+                    .failsWithin(Duration.ZERO)
+                    .withThrowableOfType(Exception.class)
+                    .withCause(answer);
+        }
+        assertThat(answering.getHealthyReplicas()).isEqualTo(2);
+        // no failure penalty either
+        assertThat(answering.getReplicas()).allMatch(replica -> replica.getLatencyNanos() == 0);
+    }
+
+    @Test
+    public void testFailoverIsChargedToTheRetryBudget() {
+        List<SimulatedReplica> replicas = List.of(new SimulatedReplica(5, 15, 1), new SimulatedReplica(5, 15, 1));
+        RetryBudget retryBudget = new RetryBudget("backend", 0.1, 3);
+        ReplicaLoadBalancer<SimulatedReplica> loadBalancer = new ReplicaLoadBalancer<>("backend", replicas,
+                UncheckedIOException.class::isInstance, 2, retryBudget::tryWithdraw, 100, Duration.ofSeconds(1),
+                Duration.ofSeconds(30), Duration.ofSeconds(10), Duration.ofSeconds(1), clock::get);
+
+        for (int i = 0; i < 10; i++) {
+            assertThatThrownBy(() -> loadBalancer.execute(SimulatedReplica::call))
+                    .isInstanceOf(UncheckedIOException.class);
+        }
+
+        // the first three calls failed over, the others had their only attempt
+        assertThat(retryBudget.getAllowedRetries()).isEqualTo(3);
+        assertThat(retryBudget.getDeniedRetries()).isEqualTo(7);
+        assertThat(replicas.stream().mapToInt(replica -> replica.calls).sum()).isEqualTo(13);
+    }
+
+    private ReplicaLoadBalancer<SimulatedReplica> loadBalancer(List<SimulatedReplica> replicas) {
+        return new ReplicaLoadBalancer<>("backend", replicas, UncheckedIOException.class::isInstance, 2, () -> true, 5,
+                Duration.ofSeconds(1), Duration.ofSeconds(30), Duration.ofSeconds(10), Duration.ofSeconds(1),
+                clock::get);
+    }
+
+    private static long p99(long[] latencies) {
+        long[] sorted = latencies.clone();
+        Arrays.sort(sorted);
+        return sorted[(int) (sorted.length * 0.99) - 1];
+    }
+
+    private final class SimulatedReplica {
+
+        private final long minMillis;
+        private final long maxMillis;
+        private volatile double errorRate;
+        private int calls;
+
+        SimulatedReplica(long minMillis, long maxMillis, double errorRate) {
+            this.minMillis = minMillis;
+            this.maxMillis = maxMillis;
+            this.errorRate = errorRate;
+        }
+
+        String call() {
+            calls++;
+            clock.addAndGet(TimeUnit.MILLISECONDS.toNanos(minMillis + random.nextLong(maxMillis - minMillis + 1)));
+            if (random.nextDouble() < errorRate) {
+                throw new UncheckedIOException(new IOException("BAM!"));
+            }
+            return "ok";
+        }
+
+        CompletableFuture<String> callAsync() {
+            try {
+                return CompletableFuture.completedFuture(call());
+            } catch (UncheckedIOException e) {
+                return CompletableFuture.failedFuture(e);
+            }
+        }
+    }
+}
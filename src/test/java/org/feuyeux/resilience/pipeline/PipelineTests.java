@@ -0,0 +1,211 @@
+package org.feuyeux.resilience.pipeline;
+
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.decorators.Decorators;
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import io.github.resilience4j.timelimiter.TimeLimiterConfig;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.feuyeux.resilience.admission.AdmissionQueue;
+import org.feuyeux.resilience.admission.AdmissionQueueProperties;
+import org.feuyeux.resilience.admission.AdmissionQueueRegistry;
+import org.feuyeux.resilience.admission.Priority;
+import org.feuyeux.resilience.bulkhead.AsyncBulkhead;
+import org.feuyeux.resilience.deadline.Deadline;
+import org.feuyeux.resilience.deadline.DeadlineExceededException;
+import org.feuyeux.resilience.deadline.DeadlineGuard;
+import org.feuyeux.resilience.saturation.SaturationProperties;
+import org.feuyeux.resilience.saturation.SaturationTelemetry;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.CompletionStage;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * A compiled pipeline leaves the components in the state the same chain built with {@code Decorators} for every call
+ * leaves them in.
+ */
+public class PipelineTests {
+
+    private static final List<Class<? extends Throwable>> FALLBACK_EXCEPTIONS =
+            List.of(TimeoutException.class, CallNotPermittedException.class, BulkheadFullException.class);
+
+    private final ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor();
+    private final AsyncBulkhead asyncBulkhead = new AsyncBulkhead() {
+        @Override
+        public String getName() {
+            return "backend";
+        }
+
+        @Override
+        public <T> CompletionStage<T> executeSupplier(Supplier<T> supplier) {
+            return CompletableFuture.supplyAsync(supplier);
+        }
+    };
+
+    @AfterEach
+    public void tearDown() {
+        scheduler.shutdownNow();
+    }
+
+    @Test
+    public void testPipelineRecordsLikeDecorators() {
+        Components decorated = new Components();
+        Components compiled = new Components();
+        Pipeline pipeline = Pipeline.builder()
+                .withCircuitBreaker(compiled.circuitBreaker)
+                .withAdmissionQueue(compiled.admissionQueue)
+                .withRetry(compiled.retry, compiled.deadlineGuard)
+                .build();
+
+        for (int call = 0; call < 4; call++) {
+            Supplier<String> attempt = Decorators.ofSupplier(decorated.failingTimes(call))
+                    .withCircuitBreaker(decorated.circuitBreaker)
+                    .withBulkhead(decorated.admissionQueue.bulkhead(Priority.INTERACTIVE, Deadline.NONE))
+                    .decorate();
+            Supplier<String> expected = Decorators.ofSupplier(decorated.deadlineGuard.decorateRetryAttempt(
+                    Deadline.NONE, decorated.retry, attempt)).withRetry(decorated.retry).decorate();
+            Supplier<String> actual = compiled.failingTimes(call);
+            if (call < 3) {
+                assertThat(expected.get()).isEqualTo("OK");
+                assertThat(pipeline.execute(Priority.INTERACTIVE, Deadline.NONE, actual)).isEqualTo("OK");
+            } else {
+                assertThatThrownBy(expected::get).isInstanceOf(IllegalStateException.class);
+                assertThatThrownBy(() -> pipeline.execute(Priority.INTERACTIVE, Deadline.NONE, actual))
+                        .isInstanceOf(IllegalStateException.class);
+            }
+        }
+
+        compiled.assertSameAs(decorated);
+    }
+
+    @Test
+    public void testPipelineHoldsTheDeadline() {
+        Components compiled = new Components();
+        Pipeline pipeline = Pipeline.builder()
+                .withCircuitBreaker(compiled.circuitBreaker)
+                .withRetry(compiled.retry, compiled.deadlineGuard)
+                .build();
+        Deadline expired = Deadline.after(Duration.ZERO);
+
+        assertThatThrownBy(() -> pipeline.execute(expired, () -> "OK"))
+                .isInstanceOf(DeadlineExceededException.class);
+        assertThat(compiled.deadlineGuard.getRejectedCalls()).isEqualTo(1);
+        assertThat(compiled.circuitBreaker.getMetrics().getNumberOfBufferedCalls()).isZero();
+    }
+
+    @Test
+    public void testAsyncPipelineRecordsLikeDecorators() {
+        Components decorated = new Components();
+        Components compiled = new Components();
+        AsyncPipeline pipeline = AsyncPipeline.builder(asyncBulkhead)
+                .withTimeLimiter(compiled.timeLimiter, compiled.deadlineGuard, scheduler)
+                .withCircuitBreaker(compiled.circuitBreaker)
+                .withRetry(compiled.retry, compiled.deadlineGuard, scheduler)
+                .build();
+
+        for (int call = 0; call < 4; call++) {
+            Supplier<String> backend = decorated.failingTimes(call);
+            Supplier<CompletionStage<String>> attempt = Decorators.ofCompletionStage(
+                            decorated.deadlineGuard.decorateTimeLimiter(Deadline.NONE, decorated.timeLimiter,
+                                    scheduler, () -> asyncBulkhead.executeSupplier(backend)))
+                    .withCircuitBreaker(decorated.circuitBreaker)
+                    .decorate();
+            CompletableFuture<String> expected = Decorators.ofCompletionStage(
+                            decorated.deadlineGuard.decorateRetryAttemptStage(Deadline.NONE, decorated.retry, attempt))
+                    .withRetry(decorated.retry, scheduler)
+                    .get().toCompletableFuture();
+            CompletableFuture<String> actual = pipeline.execute(Deadline.NONE, compiled.failingTimes(call));
+            if (call < 3) {
+                assertThat(expected.join()).isEqualTo("OK");
+                assertThat(actual.join()).isEqualTo("OK");
+            } else {
+                assertThatThrownBy(expected::join).hasCauseInstanceOf(IllegalStateException.class);
+                assertThatThrownBy(actual::join).hasCauseInstanceOf(IllegalStateException.class);
+            }
+        }
+
+        compiled.assertSameAs(decorated);
+    }
+
+    @Test
+    public void testAsyncPipelineFallsBack() {
+        Components compiled = new Components();
+        AsyncPipeline pipeline = AsyncPipeline.builder(asyncBulkhead)
+                .withCircuitBreaker(compiled.circuitBreaker)
+                .withFallback(FALLBACK_EXCEPTIONS, throwable -> "Recovered: " + throwable.getClass().getSimpleName())
+                .build();
+
+        assertThat(pipeline.execute(Deadline.NONE, () -> "OK").join()).isEqualTo("OK");
+        assertThatThrownBy(() -> pipeline.execute(Deadline.NONE, compiled.failingTimes(1)).join())
+                .isInstanceOf(CompletionException.class)
+                .hasCauseInstanceOf(IllegalStateException.class);
+        compiled.circuitBreaker.transitionToForcedOpenState();
+        assertThat(pipeline.execute(Deadline.NONE, () -> "OK").join())
+                .isEqualTo("Recovered: CallNotPermittedException");
+    }
+
+    private static final class Components {
+
+        private final CircuitBreaker circuitBreaker = CircuitBreaker.ofDefaults("backend");
+        private final AdmissionQueue admissionQueue = new AdmissionQueueRegistry(new AdmissionQueueProperties(),
+                BulkheadRegistry.of(BulkheadConfig.custom().maxConcurrentCalls(1).build()),
+                new SimpleMeterRegistry(), new SaturationTelemetry(new SaturationProperties(),
+                new SimpleMeterRegistry())).admissionQueue("backend");
+        private final Retry retry = Retry.of("backend", RetryConfig.custom()
+                .maxAttempts(3)
+                .waitDuration(Duration.ofMillis(1))
+                .retryExceptions(IllegalStateException.class)
+                .build());
+        private final TimeLimiter timeLimiter = TimeLimiter.of(TimeLimiterConfig.custom()
+                .timeoutDuration(Duration.ofSeconds(5))
+                .build());
+        private final DeadlineGuard deadlineGuard = new DeadlineGuard("backend");
+
+        /**
+         * @return a backend failing the first {@code failures} attempts
+         */
+        private Supplier<String> failingTimes(int failures) {
+            AtomicInteger attempts = new AtomicInteger();
+            return () -> {
+                if (attempts.incrementAndGet() <= failures) {
+                    throw new IllegalStateException("BAM!");
+                }
+                return "OK";
+            };
+        }
+
+        private void assertSameAs(Components expected) {
+            CircuitBreaker.Metrics metrics = circuitBreaker.getMetrics();
+            CircuitBreaker.Metrics expectedMetrics = expected.circuitBreaker.getMetrics();
+            assertThat(metrics.getNumberOfSuccessfulCalls()).isEqualTo(expectedMetrics.getNumberOfSuccessfulCalls());
+            assertThat(metrics.getNumberOfFailedCalls()).isEqualTo(expectedMetrics.getNumberOfFailedCalls());
+            Retry.Metrics retryMetrics = retry.getMetrics();
+            Retry.Metrics expectedRetryMetrics = expected.retry.getMetrics();
+            assertThat(retryMetrics.getNumberOfSuccessfulCallsWithoutRetryAttempt())
+                    .isEqualTo(expectedRetryMetrics.getNumberOfSuccessfulCallsWithoutRetryAttempt());
+            assertThat(retryMetrics.getNumberOfSuccessfulCallsWithRetryAttempt())
+                    .isEqualTo(expectedRetryMetrics.getNumberOfSuccessfulCallsWithRetryAttempt());
+            assertThat(retryMetrics.getNumberOfFailedCallsWithRetryAttempt())
+                    .isEqualTo(expectedRetryMetrics.getNumberOfFailedCallsWithRetryAttempt());
+            assertThat(admissionQueue.getQueueDepth(Priority.INTERACTIVE)).isZero();
+        }
+    }
+}
@@ -0,0 +1,100 @@
+package org.feuyeux.resilience.ratelimiter;
+
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.feuyeux.resilience.HelloResilienceApplication;
+import org.feuyeux.resilience.controller.BackendAController;
+import org.junit.jupiter.api.Test;
+import org.springframework.boot.WebApplicationType;
+import org.springframework.boot.builder.SpringApplicationBuilder;
+import org.springframework.context.ConfigurableApplicationContext;
+import org.springframework.http.HttpStatus;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.feuyeux.resilience.service.BackendABackendService.BACKEND_A;
+
+@Slf4j
+public class ClusterRateLimiterTests {
+
+    @Test
+    public void testNodesShareLimitAndLeaseInBatches() {
+        AtomicInteger roundTrips = new AtomicInteger();
+        InMemoryPermitStore inMemory = new InMemoryPermitStore();
+        PermitStore store = (name, cycle, limitForPeriod, permits) -> {
+            roundTrips.incrementAndGet();
+            return inMemory.acquire(name, cycle, limitForPeriod, permits);
+        };
+        RateLimiterConfig config = RateLimiterConfig.custom()
+                .limitForPeriod(100)
+                .limitRefreshPeriod(Duration.ofHours(1))
+                .timeoutDuration(Duration.ZERO)
+                .build();
+        ClusterRateLimiter node1 = new ClusterRateLimiter("shared", config, store, 10, Map.of());
+        ClusterRateLimiter node2 = new ClusterRateLimiter("shared", config, store, 10, Map.of());
+        int permitted = 0;
+        for (int i = 0; i < 100; i++) {
+            permitted += node1.acquirePermission() ? 1 : 0;
+            permitted += node2.acquirePermission() ? 1 : 0;
+        }
+        assertThat(permitted).isEqualTo(100);
+        // 10 leases of 10 permits, then each node learns once that the period is used up
+        assertThat(roundTrips.get()).isLessThanOrEqualTo(12);
+        assertThat(node1.reservePermission()).isEqualTo(-1);
+        assertThat(node1.getMetrics().getAvailablePermissions()).isZero();
+    }
+
+    @Test
+    public void testLimitHoldsAcrossAppContexts() throws InterruptedException {
+        PermitStore store = new InMemoryPermitStore();
+        List<ConfigurableApplicationContext> contexts = new ArrayList<>();
+        try {
+            for (int i = 0; i < 3; i++) {
+                contexts.add(new SpringApplicationBuilder(HelloResilienceApplication.class)
+                        .web(WebApplicationType.NONE)
+                        .initializers(context -> context.getBeanFactory().registerSingleton("permitStore", store))
+                        .properties("logging.level.org.feuyeux.resilience=warn")
+                        .run());
+            }
+            RateLimiterConfig config = contexts.get(0).getBean(RateLimiterRegistry.class)
+                    .rateLimiter(BACKEND_A).getRateLimiterConfig();
+            long periodMillis = config.getLimitRefreshPeriod().toMillis();
+            AtomicInteger permitted = new AtomicInteger();
+            AtomicInteger rejected = new AtomicInteger();
+            ExecutorService executor = Executors.newFixedThreadPool(6);
+            long start = System.currentTimeMillis();
+            long end = start + 2000;
+            for (int t = 0; t < 6; t++) {
+                BackendAController controller = contexts.get(t % 3).getBean(BackendAController.class);
+                executor.execute(() -> {
+                    while (System.currentTimeMillis() < end) {
+                        if (controller.limit().getStatusCode() == HttpStatus.OK) {
+                            permitted.incrementAndGet();
+                        } else {
+                            rejected.incrementAndGet();
+                        }
+                    }
+                });
+            }
+            executor.shutdown();
+            assertThat(executor.awaitTermination(10, TimeUnit.SECONDS)).isTrue();
+            // requests waiting at the end may still take the first permits of the next cycle
+            long cycles = (System.currentTimeMillis() / periodMillis) - (start / periodMillis) + 1;
+            log.info("permitted:{} rejected:{} cycles:{} limitForPeriod:{}", permitted, rejected, cycles,
+                    config.getLimitForPeriod());
+            assertThat(permitted.get()).isPositive().isLessThanOrEqualTo((int) (cycles * config.getLimitForPeriod()));
+            assertThat(rejected.get()).isPositive();
+        } finally {
+            contexts.forEach(ConfigurableApplicationContext::close);
+        }
+    }
+}
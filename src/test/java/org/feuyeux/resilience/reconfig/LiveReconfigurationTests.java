@@ -0,0 +1,253 @@
+package org.feuyeux.resilience.reconfig;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.ratelimiter.RateLimiter;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.github.resilience4j.timelimiter.TimeLimiter;
+import io.github.resilience4j.timelimiter.TimeLimiterConfig;
+import io.github.resilience4j.timelimiter.TimeLimiterRegistry;
+import org.feuyeux.resilience.bulkhead.AdaptiveBulkhead;
+import org.feuyeux.resilience.circuitbreaker.StripedCircuitBreaker;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.time.Duration;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Limits changed under load take effect on the same instances, without losing permits, state or recent calls.
+ */
+public class LiveReconfigurationTests {
+
+    private final BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+            .maxConcurrentCalls(8)
+            .maxWaitDuration(Duration.ofMillis(5))
+            .build());
+    private final RateLimiterRegistry rateLimiterRegistry = RateLimiterRegistry.of(RateLimiterConfig.custom()
+            .limitForPeriod(5)
+            .limitRefreshPeriod(Duration.ofMillis(100))
+            .timeoutDuration(Duration.ZERO)
+            .build());
+    private final TimeLimiterRegistry timeLimiterRegistry = TimeLimiterRegistry.of(TimeLimiterConfig.custom()
+            .timeoutDuration(Duration.ofSeconds(1))
+            .build());
+    private final CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+            .slidingWindowSize(10)
+            .minimumNumberOfCalls(5)
+            .failureRateThreshold(50)
+            .waitDurationInOpenState(Duration.ofMinutes(1))
+            .build());
+    private final LimitReconfigurer reconfigurer = new LimitReconfigurer(bulkheadRegistry, rateLimiterRegistry,
+            timeLimiterRegistry, circuitBreakerRegistry);
+
+    @Test
+    public void testBulkheadLimitsUnderLoad() throws InterruptedException {
+        Bulkhead fixed = bulkheadRegistry.bulkhead("fixed");
+        bulkheadRegistry.replace("adaptive", new AdaptiveBulkhead("adaptive", fixed.getBulkheadConfig(),
+                (limit, rttNanos, inFlight) -> limit, 8, 1, 8, fixed.getTags()));
+        for (String name : List.of("fixed", "adaptive")) {
+            Bulkhead bulkhead = bulkheadRegistry.bulkhead(name);
+            AtomicInteger active = new AtomicInteger();
+            AtomicInteger maxActive = new AtomicInteger();
+            AtomicBoolean running = new AtomicBoolean(true);
+            ExecutorService executor = Executors.newFixedThreadPool(8);
+            for (int t = 0; t < 8; t++) {
+                executor.execute(() -> {
+                    while (running.get()) {
+                        if (bulkhead.tryAcquirePermission()) {
+                            maxActive.accumulateAndGet(active.incrementAndGet(), Math::max);
+                            sleep(1);
+                            active.decrementAndGet();
+                            bulkhead.onComplete();
+                        }
+                    }
+                });
+            }
+            for (int limit : new int[]{2, 6, 3}) {
+                reconfigurer.apply(name, new ResilienceLimits(limit, null, null, null));
+                // permits taken under the previous limit are held for 1ms at most
+                TimeUnit.MILLISECONDS.sleep(50);
+                maxActive.set(0);
+                TimeUnit.MILLISECONDS.sleep(200);
+                assertThat(maxActive.get()).as(name + " at " + limit).isBetween(1, limit);
+            }
+            running.set(false);
+            executor.shutdown();
+            assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+            assertThat(bulkheadRegistry.bulkhead(name)).isSameAs(bulkhead);
+            assertThat(bulkhead.getMetrics().getAvailableConcurrentCalls()).isEqualTo(3);
+            assertThat(reconfigurer.limits(name).getMaxConcurrentCalls()).isEqualTo(3);
+        }
+    }
+
+    @Test
+    public void testRateLimiterAndTimeLimiter() throws Exception {
+        new ReconfigurableTimeLimiterInstaller(new ReconfigurationProperties())
+                .postProcessAfterInitialization(timeLimiterRegistry, "timeLimiterRegistry");
+        TimeLimiter timeLimiter = timeLimiterRegistry.timeLimiter("backendA");
+        RateLimiter rateLimiter = rateLimiterRegistry.rateLimiter("backendA");
+        AtomicInteger timeouts = new AtomicInteger();
+        timeLimiter.getEventPublisher().onTimeout(event -> timeouts.incrementAndGet());
+        ScheduledExecutorService scheduler = Executors.newScheduledThreadPool(2);
+        try {
+            CompletableFuture<String> started = timeLimiter.executeCompletionStage(scheduler, () -> slow(300))
+                    .toCompletableFuture();
+            reconfigurer.apply("backendA", new ResilienceLimits(null, 20, Duration.ofMillis(100), null));
+            CompletableFuture<String> after = timeLimiter.executeCompletionStage(scheduler, () -> slow(300))
+                    .toCompletableFuture();
+            assertThat(started.get(5, TimeUnit.SECONDS)).isEqualTo("slow");
+            assertThatThrownBy(() -> after.get(5, TimeUnit.SECONDS)).hasCauseInstanceOf(TimeoutException.class);
+            assertThat(timeouts.get()).isEqualTo(1);
+            assertThat(timeLimiterRegistry.timeLimiter("backendA")).isSameAs(timeLimiter);
+        } finally {
+            scheduler.shutdownNow();
+        }
+
+        TimeUnit.MILLISECONDS.sleep(150);
+        int permitted = 0;
+        while (rateLimiter.acquirePermission()) {
+            permitted++;
+        }
+        assertThat(permitted).isGreaterThanOrEqualTo(20);
+        assertThat(reconfigurer.limits("backendA"))
+                .isEqualTo(new ResilienceLimits(null, 20, Duration.ofMillis(100), null));
+    }
+
+    @Test
+    public void testSlidingWindowKeepsStateAndRecentCalls() throws InterruptedException {
+        StripedCircuitBreaker circuitBreaker = new StripedCircuitBreaker(
+                circuitBreakerRegistry.circuitBreaker("backendB"), 4);
+        circuitBreakerRegistry.replace("backendB", circuitBreaker);
+        for (int i = 0; i < 10; i++) {
+            record(circuitBreaker, i >= 6);
+        }
+        reconfigurer.apply("backendB", new ResilienceLimits(null, null, null, 20));
+        assertThat(circuitBreaker.getMetrics().getNumberOfBufferedCalls()).isEqualTo(10);
+        assertThat(circuitBreaker.getMetrics().getFailureRate()).isEqualTo(40.0f);
+
+        AtomicBoolean running = new AtomicBoolean(true);
+        ExecutorService executor = Executors.newFixedThreadPool(4);
+        for (int t = 0; t < 4; t++) {
+            executor.execute(() -> {
+                while (running.get()) {
+                    if (circuitBreaker.tryAcquirePermission()) {
+                        record(circuitBreaker, false);
+                    }
+                }
+            });
+        }
+        for (int size : new int[]{50, 5, 30, 4}) {
+            reconfigurer.apply("backendB", new ResilienceLimits(null, null, null, size));
+            TimeUnit.MILLISECONDS.sleep(20);
+            assertThat(circuitBreaker.getMetrics().getNumberOfBufferedCalls()).isBetween(1, size);
+        }
+        running.set(false);
+        executor.shutdown();
+        assertThat(executor.awaitTermination(5, TimeUnit.SECONDS)).isTrue();
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+
+        // a window of 4 holds the last 4 calls, so 2 failures are enough to open
+        record(circuitBreaker, true);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        record(circuitBreaker, true);
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        reconfigurer.apply("backendB", new ResilienceLimits(null, null, null, 10));
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(circuitBreaker.getMetrics().getNumberOfBufferedCalls()).isEqualTo(4);
+        assertThat(circuitBreaker.getMetrics().getNumberOfFailedCalls()).isEqualTo(2);
+    }
+
+    @Test
+    public void testRejectedChangeChangesNothing() {
+        circuitBreakerRegistry.circuitBreaker("plain");
+        bulkheadRegistry.bulkhead("plain");
+        assertThat(reconfigurer.limits("plain").getSlidingWindowSize()).isNull();
+        assertThatThrownBy(() -> reconfigurer.apply("plain", new ResilienceLimits(4, null, null, 20)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("striped");
+        assertThatThrownBy(() -> reconfigurer.apply("plain", new ResilienceLimits(4, 0, null, null)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("limitForPeriod");
+        assertThatThrownBy(() -> reconfigurer.apply("plain", new ResilienceLimits(4, null, Duration.ofSeconds(1), null)))
+                .isInstanceOf(IllegalArgumentException.class)
+                .hasMessageContaining("time limiter");
+        assertThat(bulkheadRegistry.bulkhead("plain").getBulkheadConfig().getMaxConcurrentCalls()).isEqualTo(8);
+    }
+
+    @Test
+    public void testFileChangesAreApplied(@TempDir Path directory) throws Exception {
+        Path file = directory.resolve("limits.yml");
+        Files.writeString(file, "instances:\n  backendA:\n    maxConcurrentCalls: 4\n");
+        Bulkhead bulkhead = bulkheadRegistry.bulkhead("backendA");
+        rateLimiterRegistry.rateLimiter("backendA");
+        LimitsFileWatcher watcher = new LimitsFileWatcher(file, reconfigurer);
+        try {
+            watcher.afterSingletonsInstantiated();
+            assertThat(bulkhead.getBulkheadConfig().getMaxConcurrentCalls()).isEqualTo(4);
+
+            Files.writeString(file, "instances:\n  backendA:\n    maxConcurrentCalls: 0\n");
+            Files.writeString(directory.resolve("other.yml"), "instances: {}\n");
+            TimeUnit.MILLISECONDS.sleep(200);
+            assertThat(bulkhead.getBulkheadConfig().getMaxConcurrentCalls()).isEqualTo(4);
+
+            Path written = directory.resolve("limits.yml.tmp");
+            Files.writeString(written, "instances:\n  backendA:\n    maxConcurrentCalls: 6\n    limitForPeriod: 7\n");
+            Files.move(written, file, StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+            awaitUntil(() -> bulkhead.getBulkheadConfig().getMaxConcurrentCalls() == 6);
+            assertThat(reconfigurer.limits("backendA").getLimitForPeriod()).isEqualTo(7);
+        } finally {
+            watcher.destroy();
+        }
+    }
+
+    private static void record(CircuitBreaker circuitBreaker, boolean failed) {
+        if (failed) {
+            circuitBreaker.onError(1, TimeUnit.MILLISECONDS, new IOException("BAM!"));
+        } else {
+            circuitBreaker.onSuccess(1, TimeUnit.MILLISECONDS);
+        }
+    }
+
+    private static CompletableFuture<String> slow(long millis) {
+        return CompletableFuture.supplyAsync(() -> "slow",
+                CompletableFuture.delayedExecutor(millis, TimeUnit.MILLISECONDS));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            TimeUnit.MILLISECONDS.sleep(1);
+        }
+    }
+}
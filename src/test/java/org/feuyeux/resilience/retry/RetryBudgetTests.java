@@ -0,0 +1,95 @@
+package org.feuyeux.resilience.retry;
+
+import io.github.resilience4j.retry.Retry;
+import io.github.resilience4j.retry.RetryConfig;
+import io.github.resilience4j.retry.RetryRegistry;
+import org.junit.jupiter.api.Test;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.feuyeux.resilience.retry.RetryBudgetProperties.InstanceProperties;
+
+public class RetryBudgetTests {
+
+    private static final String NAME = "backend";
+
+    @Test
+    public void testAmplificationIsBoundedUnderTotalFailure() {
+        RetryBudgetRegistry retryBudgetRegistry = new RetryBudgetRegistry(properties());
+        Retry retry = install(retryBudgetRegistry);
+        AtomicInteger attempts = new AtomicInteger();
+        for (int i = 0; i < 1000; i++) {
+            assertThatThrownBy(() -> retry.executeCheckedSupplier(() -> {
+                attempts.incrementAndGet();
+                throw new IOException("BAM!");
+            })).isInstanceOf(IOException.class);
+        }
+        RetryBudget budget = retryBudgetRegistry.retryBudget(NAME);
+        // without the budget: 3000 attempts, with it only the initial burst of tokens is retried
+        assertThat(attempts.get()).isEqualTo(1000 + 10);
+        assertThat(budget.getAllowedRetries()).isEqualTo(10);
+        // the first 5 calls spend the 10 tokens on their 2 retries each, the other 995 are denied their first retry
+        assertThat(budget.getDeniedRetries()).isEqualTo(995);
+    }
+
+    @Test
+    public void testRetriesFollowSuccessRatio() throws Throwable {
+        RetryBudgetRegistry retryBudgetRegistry = new RetryBudgetRegistry(properties());
+        Retry retry = install(retryBudgetRegistry);
+        AtomicInteger attempts = new AtomicInteger();
+        int calls = 10_000;
+        for (int i = 0; i < calls; i++) {
+            boolean fail = i % 5 == 0;
+            try {
+                retry.executeCheckedSupplier(() -> {
+                    attempts.incrementAndGet();
+                    if (fail) {
+                        throw new IOException("BAM!");
+                    }
+                    return "OK";
+                });
+            } catch (IOException ignored) {
+            }
+        }
+        // 20% of the calls fail every attempt, the successful 80% earn 0.1 retries each
+        int retries = attempts.get() - calls;
+        assertThat(retries).isLessThanOrEqualTo((int) (calls * 0.8 * 0.1) + 10);
+        assertThat(retries).isGreaterThan((int) (calls * 0.8 * 0.1) - 10);
+    }
+
+    @Test
+    public void testBackoffStaysWithinDecorrelatedRange() {
+        DecorrelatedJitterBackoff backoff = new DecorrelatedJitterBackoff(Duration.ofMillis(100), Duration.ofSeconds(2));
+        for (int i = 0; i < 1000; i++) {
+            assertThat(backoff.intervalMillis(1)).isBetween(100L, 300L);
+            assertThat(backoff.intervalMillis(2)).isBetween(100L, 900L);
+            assertThat(backoff.intervalMillis(5)).isBetween(100L, 2000L);
+        }
+    }
+
+    private static RetryBudgetProperties properties() {
+        InstanceProperties instance = new InstanceProperties();
+        instance.setRatio(0.1);
+        instance.setMaxTokens(10);
+        instance.setBaseInterval(Duration.ofMillis(1));
+        instance.setMaxInterval(Duration.ofMillis(2));
+        RetryBudgetProperties properties = new RetryBudgetProperties();
+        properties.setInstances(Map.of(NAME, instance));
+        return properties;
+    }
+
+    private static Retry install(RetryBudgetRegistry retryBudgetRegistry) {
+        RetryRegistry retryRegistry = RetryRegistry.of(RetryConfig.custom()
+                .maxAttempts(3)
+                .retryExceptions(IOException.class)
+                .build());
+        retryRegistry.retry(NAME);
+        new RetryBudgetInstaller(properties(), retryBudgetRegistry).postProcessAfterInitialization(retryRegistry, "retryRegistry");
+        return retryRegistry.retry(NAME);
+    }
+}
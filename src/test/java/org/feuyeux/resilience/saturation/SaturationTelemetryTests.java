@@ -0,0 +1,164 @@
+package org.feuyeux.resilience.saturation;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkhead;
+import io.github.resilience4j.bulkhead.ThreadPoolBulkheadConfig;
+import io.micrometer.core.instrument.Timer;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.feuyeux.resilience.bulkhead.AdaptiveBulkhead;
+import org.feuyeux.resilience.bulkhead.AimdLimit;
+import org.feuyeux.resilience.bulkhead.ThreadPoolAsyncBulkhead;
+import org.feuyeux.resilience.bulkhead.VirtualThreadBulkhead;
+import org.feuyeux.resilience.saturation.SaturationTimers.Kind;
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.LockSupport;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * Admission wait, queue time and execution time are told apart for every kind of bulkhead and for schedulers, and
+ * nothing is recorded while telemetry is disabled.
+ */
+public class SaturationTelemetryTests {
+
+    private static final long CALL_MILLIS = 200;
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+
+    @Test
+    public void testThreadPoolQueueIsToldFromExecution() throws Exception {
+        ThreadPoolBulkhead pool = ThreadPoolBulkhead.of("backend", ThreadPoolBulkheadConfig.custom()
+                .coreThreadPoolSize(1)
+                .maxThreadPoolSize(1)
+                .queueCapacity(1)
+                .build());
+        ThreadPoolAsyncBulkhead bulkhead = new ThreadPoolAsyncBulkhead(pool,
+                telemetry(true).timers("backend", Kind.THREADPOOL));
+        try {
+            CompletableFuture<String> first = bulkhead.executeSupplier(SaturationTelemetryTests::slowCall)
+                    .toCompletableFuture();
+            CompletableFuture<String> second = bulkhead.executeSupplier(() -> "OK").toCompletableFuture();
+            CompletableFuture.allOf(first, second).join();
+        } finally {
+            pool.close();
+        }
+
+        Timer queue = timer("queue", Kind.THREADPOOL);
+        Timer execution = timer("execution", Kind.THREADPOOL);
+        assertThat(queue.count()).isEqualTo(2);
+        // the second call waited for the first one to run
+        assertThat(queue.max(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(CALL_MILLIS * 3 / 4);
+        assertThat(execution.count()).isEqualTo(2);
+        assertThat(execution.max(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(CALL_MILLIS);
+        assertThat(meterRegistry.find("resilience.saturation.admission").timer()).isNull();
+    }
+
+    @Test
+    public void testVirtualBulkheadWaitsForPermit() {
+        ExecutorService executor = Executors.newVirtualThreadPerTaskExecutor();
+        VirtualThreadBulkhead bulkhead = new VirtualThreadBulkhead(Bulkhead.of("backend", BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ofSeconds(5))
+                .build()), executor, telemetry(true).timers("backend", Kind.VIRTUAL));
+        try {
+            CompletableFuture.allOf(
+                    bulkhead.executeSupplier(SaturationTelemetryTests::slowCall).toCompletableFuture(),
+                    bulkhead.executeSupplier(SaturationTelemetryTests::slowCall).toCompletableFuture()).join();
+        } finally {
+            executor.shutdownNow();
+        }
+
+        Timer admission = timer("admission", Kind.VIRTUAL);
+        assertThat(admission.count()).isEqualTo(2);
+        assertThat(admission.max(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(CALL_MILLIS * 3 / 4);
+        assertThat(timer("queue", Kind.VIRTUAL).count()).isEqualTo(2);
+        assertThat(timer("execution", Kind.VIRTUAL).count()).isEqualTo(2);
+    }
+
+    @Test
+    public void testAdaptiveBulkheadRecordsPermitWaitAndExecution() throws InterruptedException {
+        AdaptiveBulkhead bulkhead = new AdaptiveBulkhead("backend", BulkheadConfig.custom()
+                .maxWaitDuration(Duration.ofSeconds(5))
+                .build(), new AimdLimit(1, 1, 0.9, Duration.ofSeconds(10)), 1, 1, 1, Map.of());
+        bulkhead.setSaturationTimers(telemetry(true).timers("backend", Kind.SEMAPHORE));
+        long permittedNanos = bulkhead.acquire();
+        Thread waiting = Thread.ofVirtual().start(() -> bulkhead.onComplete(bulkhead.acquire()));
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(CALL_MILLIS));
+        bulkhead.onComplete(permittedNanos);
+        waiting.join();
+
+        Timer admission = timer("admission", Kind.SEMAPHORE);
+        assertThat(admission.count()).isEqualTo(2);
+        assertThat(admission.max(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(CALL_MILLIS * 3 / 4);
+        assertThat(timer("execution", Kind.SEMAPHORE).max(TimeUnit.MILLISECONDS))
+                .isGreaterThanOrEqualTo(CALL_MILLIS);
+        assertThat(meterRegistry.find("resilience.saturation.queue").timer()).isNull();
+    }
+
+    @Test
+    public void testSchedulerRecordsLatenessNotDelay() throws Exception {
+        TimedScheduledExecutor scheduler = new TimedScheduledExecutor(1,
+                telemetry(true).timers("backend", Kind.SCHEDULER));
+        try {
+            scheduler.execute(SaturationTelemetryTests::slowCall);
+            // due after 50ms, runs once the slow call is done
+            ScheduledFuture<?> late = scheduler.schedule(() -> { }, 50, TimeUnit.MILLISECONDS);
+            late.get(5, TimeUnit.SECONDS);
+            // due after the slow call, runs on time
+            scheduler.schedule(() -> { }, CALL_MILLIS, TimeUnit.MILLISECONDS).get(5, TimeUnit.SECONDS);
+        } finally {
+            scheduler.shutdownNow();
+        }
+
+        Timer queue = timer("queue", Kind.SCHEDULER);
+        assertThat(queue.count()).isEqualTo(3);
+        // the delay of the last task would be at least CALL_MILLIS
+        assertThat(queue.max(TimeUnit.MILLISECONDS)).isGreaterThanOrEqualTo(CALL_MILLIS / 2)
+                .isLessThan(CALL_MILLIS);
+        assertThat(timer("execution", Kind.SCHEDULER).max(TimeUnit.MILLISECONDS))
+                .isGreaterThanOrEqualTo(CALL_MILLIS);
+    }
+
+    @Test
+    public void testDisabledRecordsNothing() {
+        SaturationTelemetry telemetry = telemetry(false);
+        for (Kind kind : Kind.values()) {
+            assertThat(telemetry.timers("backend", kind)).isNull();
+        }
+        TimedScheduledExecutor scheduler = new TimedScheduledExecutor(1, null);
+        try {
+            assertThat(scheduler.submit(() -> "OK")).succeedsWithin(Duration.ofSeconds(5)).isEqualTo("OK");
+        } finally {
+            scheduler.shutdownNow();
+        }
+
+        assertThat(meterRegistry.find("resilience.saturation.queue").timers()).isEmpty();
+    }
+
+    private SaturationTelemetry telemetry(boolean enabled) {
+        SaturationProperties properties = new SaturationProperties();
+        properties.setEnabled(enabled);
+        return new SaturationTelemetry(properties, meterRegistry);
+    }
+
+    private Timer timer(String stage, Kind kind) {
+        return meterRegistry.get("resilience.saturation." + stage)
+                .tag("name", "backend")
+                .tag("kind", kind.name().toLowerCase())
+                .timer();
+    }
+
+    private static String slowCall() {
+        LockSupport.parkNanos(TimeUnit.MILLISECONDS.toNanos(CALL_MILLIS));
+        return "OK";
+    }
+}
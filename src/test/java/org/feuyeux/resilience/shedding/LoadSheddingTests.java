@@ -0,0 +1,158 @@
+package org.feuyeux.resilience.shedding;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.feuyeux.resilience.loadgen.LoadGenerator;
+import org.feuyeux.resilience.loadgen.LoadProfile;
+import org.feuyeux.resilience.loadgen.LoadReport;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.http.server.reactive.ReactorHttpHandlerAdapter;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import org.springframework.web.server.adapter.WebHttpHandlerBuilder;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+import reactor.netty.DisposableServer;
+import reactor.netty.http.server.HttpServer;
+import reactor.netty.resources.LoopResources;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+/**
+ * A server with one event loop and a handler blocking it for 50ms can answer 20 requests per second. Offered four
+ * times that with a client timeout of one second, the queue on the event loop grows until every answer comes too late;
+ * shedding on the event-loop lag keeps the queue short, so the server keeps answering at its capacity.
+ */
+@Slf4j
+public class LoadSheddingTests {
+
+    private static final long SERVICE_MILLIS = 50;
+    private static final int CAPACITY = (int) (1000 / SERVICE_MILLIS);
+
+    @Test
+    public void testGoodputStaysFlatUnderSaturation() throws InterruptedException {
+        // warm up
+        goodput(true, CAPACITY / 2);
+        double atCapacity = goodput(true, CAPACITY * 4 / 5);
+        double shedding = goodput(true, CAPACITY * 4);
+        double notShedding = goodput(false, CAPACITY * 4);
+        log.info("goodput at 80% capacity:{}/s, at 4x capacity with shedding:{}/s, without:{}/s",
+                atCapacity, shedding, notShedding);
+        assertThat(shedding).isGreaterThan(atCapacity * 0.7);
+        assertThat(notShedding).isLessThan(shedding * 0.6);
+    }
+
+    @Test
+    public void testInFlightLimitPerRoute() {
+        LoadSheddingProperties properties = new LoadSheddingProperties();
+        LoadSheddingProperties.InstanceProperties batch = new LoadSheddingProperties.InstanceProperties();
+        batch.setMaxInFlight(2);
+        batch.setRetryAfter(Duration.ofMillis(1500));
+        LoadSheddingProperties.InstanceProperties health = new LoadSheddingProperties.InstanceProperties();
+        health.setEnabled(false);
+        LoadSheddingProperties.InstanceProperties events = new LoadSheddingProperties.InstanceProperties();
+        events.setStreaming(true);
+        properties.setInstances(Map.of("/batch/**", batch, "/actuator/**", health, "/events", events));
+        SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+        LoadSignals signals = new LoadSignals(List.of(), Duration.ofSeconds(1));
+        LoadSheddingWebFilter filter = new LoadSheddingWebFilter(properties, signals, meterRegistry);
+
+        Disposable first = filter.filter(exchange("/batch/a"), exchange -> Mono.never()).subscribe();
+        Disposable second = filter.filter(exchange("/batch/b"), exchange -> Mono.never()).subscribe();
+        MockServerWebExchange third = exchange("/batch/c");
+        filter.filter(third, exchange -> Mono.empty()).block();
+        assertThat(third.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(third.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("2");
+        assertThat(third.getResponse().getBodyAsString().block()).isEqualTo("Service Unavailable");
+
+        // other routes have their own limit, and some are never shed
+        MockServerWebExchange other = exchange("/backendB/success");
+        filter.filter(other, exchange -> Mono.empty()).block();
+        assertThat(other.getResponse().getStatusCode()).isNull();
+        MockServerWebExchange actuator = exchange("/actuator/health");
+        filter.filter(actuator, exchange -> Mono.empty()).block();
+        assertThat(actuator.getResponse().getStatusCode()).isNull();
+
+        // a stream is admitted but never counted in flight
+        MockServerWebExchange stream = exchange("/events");
+        Disposable streaming = filter.filter(stream, exchange -> Mono.never()).subscribe();
+        assertThat(stream.getResponse().getStatusCode()).isNull();
+        assertThat(filter.getInFlight()).isEqualTo(2);
+        streaming.dispose();
+        assertThat(filter.getInFlight()).isEqualTo(2);
+
+        first.dispose();
+        assertThat(filter.getInFlight()).isEqualTo(1);
+        MockServerWebExchange fourth = exchange("/batch/d");
+        filter.filter(fourth, exchange -> Mono.empty()).block();
+        assertThat(fourth.getResponse().getStatusCode()).isNull();
+        second.dispose();
+        assertThat(filter.getInFlight()).isZero();
+
+        assertThat(meterRegistry.get("resilience.shedding.requests")
+                .tags("route", "/batch/**", "outcome", "shed", "reason", "in_flight").counter().count()).isEqualTo(1);
+        assertThat(meterRegistry.get("resilience.shedding.requests")
+                .tags("route", "/batch/**", "outcome", "admitted").counter().count()).isEqualTo(3);
+        assertThat(meterRegistry.get("resilience.shedding.requests")
+                .tags("route", "default", "outcome", "admitted").counter().count()).isEqualTo(1);
+    }
+
+    private double goodput(boolean shedding, int rate) throws InterruptedException {
+        LoadSheddingProperties properties = new LoadSheddingProperties();
+        properties.setSampleInterval(Duration.ofMillis(10));
+        LoadSheddingProperties.InstanceProperties limits = new LoadSheddingProperties.InstanceProperties();
+        limits.setEnabled(shedding);
+        limits.setMaxEventLoopLag(Duration.ofMillis(250));
+        limits.setMaxGcPauseRatio(1);
+        limits.setMaxInFlight(Integer.MAX_VALUE);
+        properties.setInstances(Map.of("/**", limits));
+
+        LoopResources loops = LoopResources.create("shedding-test", 1, 1, true);
+        ScheduledExecutorService sampler = Executors.newSingleThreadScheduledExecutor();
+        LoadSignals signals = new LoadSignals(loops.onServer(LoopResources.DEFAULT_NATIVE), properties.getGcWindow());
+        signals.start(sampler, properties.getSampleInterval());
+        LoadSheddingWebFilter filter = new LoadSheddingWebFilter(properties, signals, new SimpleMeterRegistry());
+        ReactorHttpHandlerAdapter adapter = new ReactorHttpHandlerAdapter(WebHttpHandlerBuilder
+                .webHandler(exchange -> {
+                    // a blocking call on the event loop, like the blocking controllers of this application
+                    sleep(SERVICE_MILLIS);
+                    return exchange.getResponse().writeWith(Mono.just(exchange.getResponse().bufferFactory()
+                            .wrap("OK".getBytes(StandardCharsets.UTF_8))));
+                })
+                .filter(filter)
+                .build());
+        DisposableServer server = HttpServer.create().port(0).runOn(loops).handle(adapter).bindNow();
+        try (LoadGenerator loadGenerator = new LoadGenerator("http://localhost:" + server.port())) {
+            LoadReport report = loadGenerator.run(new LoadProfile("/work", rate, Duration.ofSeconds(5),
+                    Duration.ofSeconds(1)));
+            log.info("shedding:{} {}", shedding, report.summary());
+            return report.throughput();
+        } finally {
+            server.disposeNow();
+            sampler.shutdownNow();
+            loops.disposeLater().block();
+        }
+    }
+
+    private static MockServerWebExchange exchange(String path) {
+        return MockServerWebExchange.from(MockServerHttpRequest.get(path));
+    }
+
+    private static void sleep(long millis) {
+        try {
+            TimeUnit.MILLISECONDS.sleep(millis);
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
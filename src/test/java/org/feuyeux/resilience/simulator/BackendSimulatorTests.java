@@ -0,0 +1,160 @@
+package org.feuyeux.resilience.simulator;
+
+import org.feuyeux.resilience.simulator.SimulationProfile.Phase;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.client.HttpServerErrorException;
+
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.assertj.core.api.Assertions.within;
+
+/**
+ * Latencies and failures follow the profile, and slow calls wait on one timer thread instead of one thread each.
+ */
+public class BackendSimulatorTests {
+
+    private static final int CALLS = 10_000;
+
+    private final RecordingTimer timer = new RecordingTimer();
+
+    @AfterEach
+    public void tearDown() {
+        timer.shutdownNow();
+    }
+
+    @Test
+    public void testLatencyIsLogNormal() {
+        BackendSimulator simulator = simulator(profile(Duration.ofMillis(100), 1, 0, List.of()));
+
+        for (int i = 0; i < CALLS; i++) {
+            simulator.executeAsync(() -> "OK");
+        }
+
+        List<Long> latencies = timer.sortedMillis();
+        assertThat(latencies).hasSize(CALLS);
+        assertThat((double) latencies.get(CALLS / 2)).isCloseTo(100, within(10.0));
+        // e^1.645 times the median
+        assertThat((double) latencies.get(CALLS * 95 / 100)).isCloseTo(518, within(80.0));
+        assertThat(latencies.get(CALLS - 1)).isLessThanOrEqualTo(2000);
+    }
+
+    @Test
+    public void testFailuresFollowErrorRate() {
+        BackendSimulator simulator = simulator(new SimulationProfile(Duration.ZERO, 0, Duration.ofSeconds(2), 0.2,
+                List.of(SimulatedError.SERVICE_UNAVAILABLE, SimulatedError.BAD_GATEWAY), List.of()));
+        int serviceUnavailable = 0;
+        int badGateway = 0;
+
+        for (int i = 0; i < CALLS; i++) {
+            try {
+                assertThat(simulator.execute(() -> "OK")).isEqualTo("OK");
+            } catch (HttpServerErrorException.ServiceUnavailable e) {
+                serviceUnavailable++;
+            } catch (HttpServerErrorException.BadGateway e) {
+                badGateway++;
+            }
+        }
+
+        assertThat(serviceUnavailable + badGateway).isCloseTo(CALLS / 5, within(CALLS / 50));
+        assertThat(serviceUnavailable).isCloseTo(badGateway, within(CALLS / 25));
+        assertThat(simulator.getFailures()).isEqualTo(serviceUnavailable + badGateway);
+        assertThat(timer.sortedMillis()).isEmpty();
+    }
+
+    @Test
+    public void testBrownouts() {
+        BackendSimulator simulator = simulator(profile(Duration.ofMillis(100), 0, 0,
+                List.of(new Phase(Duration.ofHours(1), 5, null), new Phase(Duration.ofHours(1), 1, null))));
+        simulator.executeAsync(() -> "OK");
+        assertThat(timer.sortedMillis()).containsExactly(500L);
+
+        simulator.brownout(new Phase(Duration.ofHours(1), 10, 1.0));
+        CompletableFuture<String> call = simulator.executeAsync(() -> "OK");
+
+        assertThat(timer.sortedMillis()).containsExactly(500L, 1000L);
+        assertThat(simulator.getBrownout()).isNotNull();
+        assertThatThrownBy(call::join).hasCauseInstanceOf(HttpServerErrorException.class);
+    }
+
+    @Test
+    public void testSlowCallsWaitOnOneTimer() throws InterruptedException {
+        ScheduledThreadPoolExecutor realTimer = new ScheduledThreadPoolExecutor(1);
+        realTimer.setRemoveOnCancelPolicy(true);
+        try {
+            BackendSimulator simulator = new BackendSimulator("backend",
+                    profile(Duration.ofMillis(500), 0, 0, List.of()), realTimer, null);
+            int threads = Thread.activeCount();
+            List<CompletableFuture<String>> calls = new ArrayList<>(CALLS);
+            for (int i = 0; i < CALLS; i++) {
+                calls.add(simulator.executeAsync(() -> "OK"));
+            }
+
+            assertThat(simulator.getPendingCalls()).isEqualTo(CALLS);
+            assertThat(Thread.activeCount()).isLessThanOrEqualTo(threads + 1);
+            calls.get(0).cancel(false);
+            assertThat(simulator.getPendingCalls()).isEqualTo(CALLS - 1);
+            assertThat(realTimer.getQueue()).hasSize(CALLS - 1);
+
+            CompletableFuture.allOf(calls.subList(1, CALLS).toArray(CompletableFuture[]::new))
+                    .orTimeout(5, TimeUnit.SECONDS).join();
+            realTimer.shutdown();
+            assertThat(realTimer.awaitTermination(1, TimeUnit.SECONDS)).isTrue();
+            assertThat(simulator.getPendingCalls()).isZero();
+        } finally {
+            realTimer.shutdownNow();
+        }
+    }
+
+    @Test
+    public void testInvalidProfile() {
+        assertThatThrownBy(() -> profile(Duration.ofMillis(100), 0, 1.5, List.of()))
+                .isInstanceOf(IllegalArgumentException.class);
+        assertThatThrownBy(() -> new Phase(Duration.ofSeconds(1), 0, null))
+                .isInstanceOf(IllegalArgumentException.class);
+    }
+
+    private BackendSimulator simulator(SimulationProfile profile) {
+        return new BackendSimulator("backend", profile, timer, 42L);
+    }
+
+    private static SimulationProfile profile(Duration latency, double latencySpread, double errorRate,
+                                             List<Phase> phases) {
+        return new SimulationProfile(latency, latencySpread, Duration.ofSeconds(2), errorRate,
+                List.of(SimulatedError.SERVER_ERROR), phases);
+    }
+
+    /**
+     * Records the latency of every timer and fires it at once.
+     */
+    private static final class RecordingTimer extends ScheduledThreadPoolExecutor {
+
+        private final List<Long> delays = Collections.synchronizedList(new ArrayList<>());
+
+        private RecordingTimer() {
+            super(1);
+        }
+
+        @Override
+        public ScheduledFuture<?> schedule(Runnable command, long delay, TimeUnit unit) {
+            delays.add(unit.toMillis(delay));
+            command.run();
+            return super.schedule(() -> { }, 0, unit);
+        }
+
+        private List<Long> sortedMillis() {
+            List<Long> sorted = new ArrayList<>(delays);
+            Collections.sort(sorted);
+            return sorted;
+        }
+    }
+}
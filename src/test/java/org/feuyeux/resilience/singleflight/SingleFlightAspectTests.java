@@ -0,0 +1,157 @@
+package org.feuyeux.resilience.singleflight;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.feuyeux.resilience.singleflight.annotation.SingleFlight;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.aspectj.annotation.AspectJProxyFactory;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+/**
+ * Calls of an annotated method with equal arguments share the outcome of the call in flight, its result or its
+ * exception, and the next call after it completes runs on its own.
+ */
+public class SingleFlightAspectTests {
+
+    private static final int FOLLOWERS = 3;
+
+    private final SingleFlightRegistry registry = new SingleFlightRegistry(new SimpleMeterRegistry());
+    private final org.feuyeux.resilience.singleflight.SingleFlight singleFlight = registry.singleFlight("backend");
+    private final Backend target = new Backend();
+    private final Backend backend = proxy(target);
+
+    @Test
+    public void testFollowersShareTheLeaderResult() throws Exception {
+        List<CompletableFuture<String>> calls = callConcurrently(() -> backend.call("a"));
+        // other arguments are another call
+        target.release.countDown();
+        assertThat(backend.call("b")).isEqualTo("b-2");
+
+        for (CompletableFuture<String> call : calls) {
+            assertThat(call.get(5, TimeUnit.SECONDS)).isEqualTo("a-1");
+        }
+        assertThat(target.invocations).hasValue(2);
+        assertThat(singleFlight.getExecutedCalls()).isEqualTo(2);
+        assertThat(singleFlight.getCoalescedCalls()).isEqualTo(FOLLOWERS);
+    }
+
+    @Test
+    public void testFollowersShareTheLeaderException() {
+        List<CompletableFuture<String>> calls = callConcurrently(() -> backend.fail("a"));
+        target.release.countDown();
+
+        List<Throwable> failures = new ArrayList<>();
+        for (CompletableFuture<String> call : calls) {
+            assertThatThrownBy(call::join).satisfies(e -> failures.add(e.getCause()));
+        }
+        assertThat(failures).hasSize(FOLLOWERS + 1)
+                .allSatisfy(e -> assertThat(e).isInstanceOf(IllegalStateException.class).isSameAs(failures.get(0)));
+        assertThat(target.invocations).hasValue(1);
+    }
+
+    @Test
+    public void testKeyIsReleasedAfterCompletion() {
+        target.release.countDown();
+        assertThat(backend.call("a")).isEqualTo("a-1");
+        assertThat(singleFlight.getInFlightCalls()).isZero();
+        assertThatThrownBy(() -> backend.fail("a")).isInstanceOf(IllegalStateException.class);
+        assertThat(singleFlight.getInFlightCalls()).isZero();
+
+        CompletableFuture<String> stage = new CompletableFuture<>();
+        target.stage = stage;
+        CompletableFuture<String> first = backend.callAsync("a");
+        CompletableFuture<String> second = backend.callAsync("a");
+        assertThat(singleFlight.getInFlightCalls()).isEqualTo(1);
+        stage.complete("done");
+        assertThat(first.join()).isEqualTo("done");
+        assertThat(second.join()).isEqualTo("done");
+        assertThat(singleFlight.getInFlightCalls()).isZero();
+
+        // a cancelled follower does not cancel the shared call
+        target.stage = new CompletableFuture<>();
+        CompletableFuture<String> leader = backend.callAsync("a");
+        backend.callAsync("a").cancel(false);
+        target.stage.complete("again");
+        assertThat(leader.join()).isEqualTo("again");
+        assertThat(backend.call("a")).isEqualTo("a-5");
+        assertThat(target.invocations).hasValue(5);
+    }
+
+    /**
+     * Starts the leader, waits until it is in flight, then the followers, and waits until all of them joined it.
+     */
+    private List<CompletableFuture<String>> callConcurrently(Supplier<String> call) {
+        List<CompletableFuture<String>> calls = new ArrayList<>();
+        calls.add(CompletableFuture.supplyAsync(call, SingleFlightAspectTests::startVirtual));
+        waitUntil(() -> singleFlight.getInFlightCalls() == 1);
+        for (int i = 0; i < FOLLOWERS; i++) {
+            calls.add(CompletableFuture.supplyAsync(call, SingleFlightAspectTests::startVirtual));
+        }
+        waitUntil(() -> singleFlight.getCoalescedCalls() == FOLLOWERS);
+        return calls;
+    }
+
+    private static void startVirtual(Runnable command) {
+        Thread.ofVirtual().start(command);
+    }
+
+    private static void waitUntil(BooleanSupplier condition) {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean()) {
+            assertThat(System.nanoTime()).isLessThan(deadline);
+            Thread.onSpinWait();
+        }
+    }
+
+    private Backend proxy(Backend target) {
+        AspectJProxyFactory factory = new AspectJProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAspect(new SingleFlightAspect(registry));
+        return factory.getProxy();
+    }
+
+    public static class Backend {
+
+        private final AtomicInteger invocations = new AtomicInteger();
+        private final CountDownLatch release = new CountDownLatch(1);
+        private volatile CompletableFuture<String> stage;
+
+        @SingleFlight(name = "backend")
+        public String call(String key) {
+            int invocation = invocations.incrementAndGet();
+            await();
+            return key + "-" + invocation;
+        }
+
+        @SingleFlight(name = "backend")
+        public String fail(String key) {
+            invocations.incrementAndGet();
+            await();
+            throw new IllegalStateException("failed " + key);
+        }
+
+        @SingleFlight(name = "backend")
+        public CompletableFuture<String> callAsync(String key) {
+            invocations.incrementAndGet();
+            return stage;
+        }
+
+        private void await() {
+            try {
+                assertThat(release.await(5, TimeUnit.SECONDS)).isTrue();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+}
@@ -0,0 +1,78 @@
+package org.feuyeux.resilience.slo;
+
+import org.junit.jupiter.api.Test;
+
+import java.time.Duration;
+import java.util.Arrays;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+public class SloTests {
+
+    @Test
+    public void testQuantilesWithinRelativeAccuracy() {
+        Random random = new Random(42);
+        int n = 100_000;
+        long[] values = new long[n];
+        LatencySketch first = new LatencySketch();
+        LatencySketch second = new LatencySketch();
+        for (int i = 0; i < n; i++) {
+            // log-normal around 10ms, with a tail into seconds
+            values[i] = (long) (TimeUnit.MILLISECONDS.toNanos(10) * Math.exp(random.nextGaussian()));
+            (i % 2 == 0 ? first : second).record(values[i]);
+        }
+        first.merge(second);
+        Arrays.sort(values);
+        assertThat(first.count()).isEqualTo(n);
+        for (double q : new double[]{0.5, 0.9, 0.99, 0.999}) {
+            long exact = values[(int) (q * (n - 1))];
+            assertThat((double) first.quantileNanos(q))
+                    .isCloseTo(exact, within(exact * LatencySketch.RELATIVE_ACCURACY * 1.01));
+        }
+    }
+
+    @Test
+    public void testBurnRatesOverRollingWindow() {
+        AtomicLong now = new AtomicLong(1_000_000);
+        // 99% within 100ms, 10 slots of 1s, short window of 2 slots
+        SloTracker tracker = new SloTracker("backend", Duration.ofMillis(100), 0.99, Duration.ofSeconds(10), 10,
+                Duration.ofSeconds(2), now::get);
+        long fast = TimeUnit.MILLISECONDS.toNanos(10);
+        long slow = TimeUnit.MILLISECONDS.toNanos(200);
+        for (int i = 0; i < 990; i++) {
+            tracker.record(fast, true);
+        }
+        for (int i = 0; i < 10; i++) {
+            tracker.record(slow, true);
+        }
+        // exactly on budget
+        assertThat(tracker.getSli()).isCloseTo(0.99, within(1e-9));
+        assertThat(tracker.getBurnRate()).isCloseTo(1, within(1e-9));
+        assertThat(tracker.report().errorBudgetRemaining()).isCloseTo(0, within(1e-9));
+
+        now.addAndGet(5_000);
+        for (int i = 0; i < 90; i++) {
+            tracker.record(fast, true);
+        }
+        for (int i = 0; i < 10; i++) {
+            tracker.record(fast, false);
+        }
+        // the last 100 calls failed 10%, 10 times the budget, the window 20 in 1100
+        assertThat(tracker.getShortBurnRate()).isCloseTo(10, within(1e-9));
+        assertThat(tracker.getBurnRate()).isCloseTo(20.0 / 1100 / 0.01, within(1e-9));
+        assertThat(tracker.getQuantileNanos(0.999)).isCloseTo(slow, within((long) (slow * 0.0101)));
+
+        // the first slot has left the window
+        now.addAndGet(5_000);
+        assertThat(tracker.report().calls()).isEqualTo(100);
+        assertThat(tracker.getShortBurnRate()).isZero();
+        now.addAndGet(5_000);
+        assertThat(tracker.report().calls()).isZero();
+        assertThat(tracker.getSli()).isEqualTo(1);
+        assertThat(tracker.getQuantileNanos(0.5)).isZero();
+    }
+}
@@ -0,0 +1,282 @@
+package org.feuyeux.resilience.tenant;
+
+import io.github.resilience4j.bulkhead.Bulkhead;
+import io.github.resilience4j.bulkhead.BulkheadConfig;
+import io.github.resilience4j.bulkhead.BulkheadFullException;
+import io.github.resilience4j.bulkhead.BulkheadRegistry;
+import io.github.resilience4j.circuitbreaker.CallNotPermittedException;
+import io.github.resilience4j.circuitbreaker.CircuitBreaker;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerConfig;
+import io.github.resilience4j.circuitbreaker.CircuitBreakerRegistry;
+import io.github.resilience4j.ratelimiter.RateLimiterConfig;
+import io.github.resilience4j.ratelimiter.RateLimiterRegistry;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import lombok.extern.slf4j.Slf4j;
+import org.feuyeux.resilience.deadline.DeadlineExceededException;
+import org.feuyeux.resilience.tenant.Tenant.Rejection;
+import org.junit.jupiter.api.Test;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpStatus;
+import org.springframework.mock.http.server.reactive.MockServerHttpRequest;
+import org.springframework.mock.web.server.MockServerWebExchange;
+import reactor.core.Disposable;
+import reactor.core.publisher.Mono;
+
+import java.lang.ref.WeakReference;
+import java.time.Duration;
+import java.util.List;
+import java.util.Map;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.feuyeux.resilience.tenant.TenantIsolationProperties.InstanceProperties;
+
+/**
+ * A noisy tenant is rejected by its own circuit breaker, rate limiter and bulkhead while the others are served, only
+ * the top offenders get meters of their own, and any number of tenant keys costs bounded heap.
+ */
+@Slf4j
+public class TenantIsolationTests {
+
+    private static final String BACKEND = "backend";
+
+    private final SimpleMeterRegistry meterRegistry = new SimpleMeterRegistry();
+    private TenantIsolationRegistry registry;
+
+    @Test
+    public void testNoisyTenantOpensItsOwnCircuitBreaker() {
+        TenantIsolationWebFilter filter = filter(new InstanceProperties());
+
+        for (int i = 0; i < 5; i++) {
+            MockServerWebExchange failed = exchange("/backend/failure", "noisy");
+            filter.filter(failed, exchange -> Mono.error(new IllegalStateException("failure")))
+                    .onErrorComplete().block();
+        }
+        MockServerWebExchange noisy = exchange("/backend/success", "noisy");
+        filter.filter(noisy, exchange -> Mono.empty()).block();
+        assertThat(noisy.getResponse().getStatusCode()).isEqualTo(HttpStatus.SERVICE_UNAVAILABLE);
+        assertThat(noisy.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("60");
+        assertThat(noisy.getResponse().getBodyAsString().block()).isEqualTo("Service Unavailable");
+
+        // other tenants, calls without a tenant and other paths are served
+        MockServerWebExchange quiet = exchange("/backend/success", "quiet");
+        filter.filter(quiet, exchange -> Mono.empty()).block();
+        assertThat(quiet.getResponse().getStatusCode()).isNull();
+        MockServerWebExchange anonymous = exchange("/backend/success", null);
+        filter.filter(anonymous, exchange -> Mono.empty()).block();
+        assertThat(anonymous.getResponse().getStatusCode()).isNull();
+        MockServerWebExchange other = exchange("/actuator/health", "noisy");
+        filter.filter(other, exchange -> Mono.empty()).block();
+        assertThat(other.getResponse().getStatusCode()).isNull();
+
+        TenantIsolation isolation = registry.tenantIsolation(BACKEND);
+        assertThat(isolation.tenant("noisy").getCircuitBreaker().getState()).isEqualTo(CircuitBreaker.State.OPEN);
+        assertThat(isolation.tenant("quiet").getCircuitBreaker().getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(isolation.size()).isEqualTo(2);
+        registry.report();
+        assertThat(meterRegistry.get("resilience.tenant.open").tag("name", BACKEND).gauge().value()).isEqualTo(1);
+        assertThat(meterRegistry.get("resilience.tenant.rejected")
+                .tags("name", BACKEND, "component", "circuitbreaker").functionCounter().count()).isEqualTo(1);
+    }
+
+    @Test
+    public void testSharedRejectionsDoNotOpenTenantCircuitBreakers() {
+        TenantIsolationWebFilter filter = filter(new InstanceProperties());
+        Bulkhead shared = Bulkhead.of(BACKEND, BulkheadConfig.custom()
+                .maxConcurrentCalls(1)
+                .maxWaitDuration(Duration.ZERO)
+                .build());
+        // tenant A holds the only permit of the shared bulkhead
+        Disposable noisy = filter.filter(exchange("/backend/slow", "a"),
+                exchange -> Mono.fromRunnable(shared::acquirePermission).then(Mono.never())).subscribe();
+
+        for (int i = 0; i < 10; i++) {
+            MockServerWebExchange rejected = exchange("/backend/success", "b");
+            filter.filter(rejected, exchange -> Mono.fromRunnable(shared::acquirePermission))
+                    .onErrorComplete(BulkheadFullException.class).block();
+        }
+        for (Throwable rejection : List.of(new DeadlineExceededException(BACKEND),
+                CallNotPermittedException.createCallNotPermittedException(CircuitBreaker.ofDefaults(BACKEND)))) {
+            filter.filter(exchange("/backend/success", "b"), exchange -> Mono.error(rejection))
+                    .onErrorComplete().block();
+        }
+
+        CircuitBreaker circuitBreaker = registry.tenantIsolation(BACKEND).tenant("b").getCircuitBreaker();
+        assertThat(circuitBreaker.getState()).isEqualTo(CircuitBreaker.State.CLOSED);
+        assertThat(circuitBreaker.getMetrics().getNumberOfBufferedCalls()).isZero();
+        MockServerWebExchange served = exchange("/backend/success", "b");
+        filter.filter(served, exchange -> Mono.empty()).block();
+        assertThat(served.getResponse().getStatusCode()).isNull();
+        noisy.dispose();
+    }
+
+    @Test
+    public void testRateAndConcurrencyPerTenant() {
+        InstanceProperties instance = new InstanceProperties();
+        instance.setLimitForPeriod(2);
+        instance.setMaxConcurrentCalls(1);
+        TenantIsolationWebFilter filter = filter(instance);
+
+        Disposable inFlight = filter.filter(exchange("/backend/slow", "acme"), exchange -> Mono.never()).subscribe();
+        MockServerWebExchange concurrent = exchange("/backend/slow", "acme");
+        filter.filter(concurrent, exchange -> Mono.empty()).block();
+        assertThat(concurrent.getResponse().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(concurrent.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("1");
+        // a cancelled call frees its permit
+        inFlight.dispose();
+
+        MockServerWebExchange second = exchange("/backend/success", "acme");
+        filter.filter(second, exchange -> Mono.empty()).block();
+        assertThat(second.getResponse().getStatusCode()).isNull();
+        MockServerWebExchange third = exchange("/backend/success", "acme");
+        filter.filter(third, exchange -> Mono.empty()).block();
+        assertThat(third.getResponse().getStatusCode()).isEqualTo(HttpStatus.TOO_MANY_REQUESTS);
+        assertThat(third.getResponse().getHeaders().getFirst(HttpHeaders.RETRY_AFTER)).isEqualTo("3600");
+        assertThat(third.getResponse().getBodyAsString().block()).isEqualTo("Too Many Requests");
+
+        MockServerWebExchange other = exchange("/backend/success", "globex");
+        filter.filter(other, exchange -> Mono.empty()).block();
+        assertThat(other.getResponse().getStatusCode()).isNull();
+
+        TenantIsolation isolation = registry.tenantIsolation(BACKEND);
+        assertThat(isolation.getRejections(Rejection.BULKHEAD)).isEqualTo(1);
+        assertThat(isolation.getRejections(Rejection.RATE_LIMITER)).isEqualTo(1);
+        // a rejected call gives back its circuit breaker permit without being recorded
+        assertThat(isolation.tenant("acme").getCircuitBreaker().getMetrics().getNumberOfBufferedCalls()).isEqualTo(1);
+    }
+
+    @Test
+    public void testOnlyTopOffendersHaveMeters() {
+        InstanceProperties instance = new InstanceProperties();
+        instance.setTopOffenders(2);
+        instance.setLimitForPeriod(1);
+        TenantIsolationRegistry registry = registry(instance);
+        TenantIsolation isolation = registry.tenantIsolation(BACKEND);
+
+        reject(isolation, "a", 3);
+        reject(isolation, "b", 2);
+        reject(isolation, "c", 1);
+        registry.report();
+        assertThat(isolation.getOffenders()).containsExactly(new TenantIsolation.Offender("a", 3),
+                new TenantIsolation.Offender("b", 2));
+        assertThat(topRejected("a")).isEqualTo(3);
+        assertThat(topRejected("b")).isEqualTo(2);
+        assertThat(meterRegistry.find("resilience.tenant.top.rejected").tag("tenant", "c").gauge()).isNull();
+
+        // only rejections since the last report count
+        reject(isolation, "c", 4);
+        reject(isolation, "b", 1);
+        registry.report();
+        assertThat(topRejected("c")).isEqualTo(4);
+        assertThat(topRejected("b")).isEqualTo(1);
+        assertThat(meterRegistry.find("resilience.tenant.top.rejected").tag("tenant", "a").gauge()).isNull();
+
+        registry.report();
+        assertThat(meterRegistry.find("resilience.tenant.top.rejected").gauges()).isEmpty();
+    }
+
+    @Test
+    public void testHeapIsBoundedByMaximumTenants() {
+        int maximumTenants = 5_000;
+        InstanceProperties instance = new InstanceProperties();
+        instance.setMaximumTenants(maximumTenants);
+        TenantIsolation isolation = registry(instance).tenantIsolation(BACKEND);
+        WeakReference<Tenant> first = new WeakReference<>(isolation.tenant("tenant-first"));
+
+        long empty = usedHeap();
+        for (int i = 0; i < maximumTenants; i++) {
+            call(isolation, "tenant-" + i);
+        }
+        isolation.cleanUp();
+        long full = usedHeap();
+        for (int i = maximumTenants; i < 200_000; i++) {
+            call(isolation, "tenant-" + i);
+        }
+        isolation.cleanUp();
+        long after = usedHeap();
+
+        long bytesPerTenant = (full - empty) / maximumTenants;
+        log.info("{} bytes per tenant, {}KB over {} tenants, {}KB after 200k keys", bytesPerTenant,
+                (full - empty) / 1024, maximumTenants, (after - empty) / 1024);
+        assertThat(isolation.size()).isLessThanOrEqualTo(maximumTenants);
+        assertThat(isolation.getEvictions()).isGreaterThanOrEqualTo(200_000 - maximumTenants);
+        assertThat(bytesPerTenant).isLessThan(8 * 1024);
+        // 40 times the keys, about the same heap
+        assertThat(after - empty).isLessThan(2 * (full - empty) + 8 * 1024 * 1024);
+        assertThat(first.get()).isNull();
+    }
+
+    private static void call(TenantIsolation isolation, String key) {
+        Tenant tenant = isolation.tenant(key);
+        if (isolation.tryAcquire(tenant) == null) {
+            tenant.onSuccess(1_000);
+        }
+    }
+
+    private static void reject(TenantIsolation isolation, String key, int rejections) {
+        Tenant tenant = isolation.tenant(key);
+        for (int i = 0; i < rejections; i++) {
+            if (isolation.tryAcquire(tenant) == null) {
+                tenant.onSuccess(1_000);
+                i--;
+            }
+        }
+    }
+
+    private double topRejected(String tenant) {
+        Gauge gauge = meterRegistry.get("resilience.tenant.top.rejected").tags("name", BACKEND, "tenant", tenant)
+                .gauge();
+        return gauge.value();
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    private TenantIsolationWebFilter filter(InstanceProperties instance) {
+        TenantIsolationProperties properties = properties(instance);
+        registry = registry(properties);
+        return new TenantIsolationWebFilter(properties, registry);
+    }
+
+    private TenantIsolationRegistry registry(InstanceProperties instance) {
+        return registry(properties(instance));
+    }
+
+    private TenantIsolationRegistry registry(TenantIsolationProperties properties) {
+        CircuitBreakerRegistry circuitBreakerRegistry = CircuitBreakerRegistry.of(CircuitBreakerConfig.custom()
+                .slidingWindowSize(10)
+                .minimumNumberOfCalls(5)
+                .waitDurationInOpenState(Duration.ofSeconds(60))
+                .build());
+        RateLimiterRegistry rateLimiterRegistry = RateLimiterRegistry.of(RateLimiterConfig.custom()
+                .limitForPeriod(1_000_000)
+                .limitRefreshPeriod(Duration.ofHours(1))
+                .timeoutDuration(Duration.ofSeconds(1))
+                .build());
+        BulkheadRegistry bulkheadRegistry = BulkheadRegistry.of(BulkheadConfig.custom()
+                .maxConcurrentCalls(10)
+                .maxWaitDuration(Duration.ofSeconds(1))
+                .build());
+        return new TenantIsolationRegistry(properties, circuitBreakerRegistry, rateLimiterRegistry,
+                bulkheadRegistry, meterRegistry);
+    }
+
+    private static TenantIsolationProperties properties(InstanceProperties instance) {
+        TenantIsolationProperties properties = new TenantIsolationProperties();
+        properties.setInstances(Map.of(BACKEND, instance));
+        return properties;
+    }
+
+    private static MockServerWebExchange exchange(String path, String tenant) {
+        MockServerHttpRequest.BaseBuilder<?> request = MockServerHttpRequest.get(path);
+        if (tenant != null) {
+            request.header("X-Tenant", tenant);
+        }
+        return MockServerWebExchange.from(request);
+    }
+}
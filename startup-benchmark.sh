@@ -0,0 +1,77 @@
+#!/usr/bin/env bash
+# Cold start of the plain jar against the -Pprod artifact (Spring AOT + AppCDS): time from launch to the first
+# successful /backendA/success, and resident memory after a warm-up. Medians over RUNS launches each. Fails when the
+# prod artifact starts slower than MAX_STARTUP_RATIO of the plain jar, or uses more than MAX_RSS_RATIO of its memory.
+#
+#   ./startup-benchmark.sh
+#   RUNS=10 SKIP_BUILD=true ./startup-benchmark.sh
+set -euo pipefail
+cd "$(dirname "$0")"
+
+RUNS=${RUNS:-5}
+WARMUP=${WARMUP:-200}
+PORT=${PORT:-9080}
+MAX_STARTUP_RATIO=${MAX_STARTUP_RATIO:-0.8}
+MAX_RSS_RATIO=${MAX_RSS_RATIO:-1.0}
+JAR=hello-resilience-0.0.1-SNAPSHOT.jar
+JAVA=${JAVA_HOME:+$JAVA_HOME/bin/}java
+URL=http://localhost:$PORT/backendA/success
+
+if [[ "${SKIP_BUILD:-false}" != true ]]; then
+  mvn -B -q -DskipTests clean package
+  cp "target/$JAR" target/baseline.jar
+  mvn -B -q -DskipTests -Pprod package
+fi
+
+# prints "<millis to first success> <rss MiB>" per launch
+measure() {
+  local name=$1 dir=$2
+  shift 2
+  for ((run = 1; run <= RUNS; run++)); do
+    local start pid
+    start=$(date +%s%N)
+    (cd "$dir" && exec "$JAVA" "$@" --server.port="$PORT" >/dev/null 2>&1) &
+    pid=$!
+    until curl -sf -o /dev/null "$URL"; do
+      if ! kill -0 "$pid" 2>/dev/null; then
+        echo "$name exited before serving $URL" >&2
+        exit 1
+      fi
+      sleep 0.01
+    done
+    local millis=$((($(date +%s%N) - start) / 1000000))
+    for ((i = 0; i < WARMUP; i++)); do
+      curl -s -o /dev/null "$URL"
+    done
+    local rss
+    rss=$(awk '/^VmRSS/ { print int($2 / 1024) }' "/proc/$pid/status")
+    kill "$pid"
+    wait "$pid" 2>/dev/null || true
+    echo "$millis $rss"
+  done
+}
+
+median() {
+  sort -n | awk '{ v[NR] = $1 } END { print (NR % 2 ? v[(NR + 1) / 2] : (v[NR / 2] + v[NR / 2 + 1]) / 2) }'
+}
+
+baseline=$(measure baseline target -jar baseline.jar)
+prod=$(measure prod target/prod -XX:SharedArchiveFile=application.jsa -Dspring.aot.enabled=true \
+  -Dspring.profiles.active=prod -jar "$JAR")
+
+baseline_millis=$(cut -d' ' -f1 <<<"$baseline" | median)
+baseline_rss=$(cut -d' ' -f2 <<<"$baseline" | median)
+prod_millis=$(cut -d' ' -f1 <<<"$prod" | median)
+prod_rss=$(cut -d' ' -f2 <<<"$prod" | median)
+
+printf '%-10s %20s %10s\n' artifact first-success-ms rss-MiB
+printf '%-10s %20s %10s\n' baseline "$baseline_millis" "$baseline_rss"
+printf '%-10s %20s %10s\n' prod "$prod_millis" "$prod_rss"
+
+awk -v p="$prod_millis" -v b="$baseline_millis" -v max="$MAX_STARTUP_RATIO" -v pr="$prod_rss" -v br="$baseline_rss" \
+  -v maxr="$MAX_RSS_RATIO" 'BEGIN {
+    failed = 0
+    if (p > b * max) { printf "startup regression: %.2f of baseline, allowed %.2f\n", p / b, max; failed = 1 }
+    if (pr > br * maxr) { printf "memory regression: %.2f of baseline, allowed %.2f\n", pr / br, maxr; failed = 1 }
+    exit failed
+  }'